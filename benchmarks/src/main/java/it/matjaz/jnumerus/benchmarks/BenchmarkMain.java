@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * jNumerus benchmarks main class.
+ * <p>
+ * Runs the JMH benchmarks with the {@link GCProfiler} always enabled, so the
+ * allocation rate is reported along with throughput and average time. Any
+ * other JMH command line option is accepted, for example a regex to select
+ * the benchmarks: {@code java -jar target/benchmarks.jar Converter}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class BenchmarkMain {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the selected benchmarks.
+     *
+     * @param args JMH command line options.
+     * @throws CommandLineOptionException if the options are malformed.
+     * @throws RunnerException if the benchmarks could not be run.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
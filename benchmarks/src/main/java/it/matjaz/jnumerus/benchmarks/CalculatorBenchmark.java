@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.benchmarks;
+
+import it.matjaz.jnumerus.IllegalArabicValueException;
+import it.matjaz.jnumerus.RomanCalculator;
+import it.matjaz.jnumerus.RomanInteger;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the {@link RomanCalculator} operations.
+ * <p>
+ * Each value of the distribution is split in two operands so that their sum
+ * is the value itself and no operation overflows, except for
+ * {@link #sumOverflow()} which measures the cost of the rejected results.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CalculatorBenchmark {
+
+    /**
+     * Number of prepared inputs, a power of 2.
+     */
+    private static final int INPUTS = 1024;
+
+    @Param({"UNIFORM", "PAGES", "WORST_CASE"})
+    public Distribution distribution;
+
+    private RomanInteger[] left;
+    private RomanInteger[] right;
+    private RomanInteger two;
+    private RomanInteger max;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void prepareInputs() throws IllegalArabicValueException {
+        int[] values = distribution.values(INPUTS, 42);
+        left = new RomanInteger[INPUTS];
+        right = new RomanInteger[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            left[i] = new RomanInteger(values[i] - values[i] / 2);
+            right[i] = new RomanInteger(Math.max(1, values[i] / 2));
+        }
+        two = new RomanInteger(2);
+        max = new RomanInteger(RomanInteger.MAXINTEGER);
+    }
+
+    @Benchmark
+    public RomanInteger sum() throws IllegalArabicValueException {
+        int i = cursor++ & (INPUTS - 1);
+        return RomanCalculator.sum(left[i], right[i]);
+    }
+
+    @Benchmark
+    public RomanInteger difference() throws IllegalArabicValueException {
+        int i = cursor++ & (INPUTS - 1);
+        return RomanCalculator.difference(left[i], right[i]);
+    }
+
+    @Benchmark
+    public RomanInteger product() throws IllegalArabicValueException {
+        return RomanCalculator.product(right[cursor++ & (INPUTS - 1)], two);
+    }
+
+    @Benchmark
+    public RomanInteger intDivision() {
+        int i = cursor++ & (INPUTS - 1);
+        return RomanCalculator.intDivision(left[i], right[i]);
+    }
+
+    @Benchmark
+    public RomanInteger remainder() {
+        int i = cursor++ & (INPUTS - 1);
+        return RomanCalculator.remainder(left[i], right[i]);
+    }
+
+    @Benchmark
+    public RomanInteger sumOverflow() {
+        try {
+            return RomanCalculator.sum(max, left[cursor++ & (INPUTS - 1)]);
+        } catch (IllegalArabicValueException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.benchmarks;
+
+import it.matjaz.jnumerus.RomanCharMapFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javafx.util.Pair;
+import org.apache.commons.collections4.BidiMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the generation of the {@link RomanCharMapFactory} structures.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CharMapFactoryBenchmark {
+
+    @Benchmark
+    public Pair[] charPairsArray() {
+        return RomanCharMapFactory.generateCharPairsArray();
+    }
+
+    @Benchmark
+    public Map<String, Integer> charMap() {
+        return RomanCharMapFactory.generateCharMap();
+    }
+
+    @Benchmark
+    public Map<Integer, String> inverseCharMap() {
+        return RomanCharMapFactory.generateInverseCharMap();
+    }
+
+    @Benchmark
+    public BidiMap bidiCharMap() {
+        return RomanCharMapFactory.generateBidiCharMap();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.benchmarks;
+
+import it.matjaz.jnumerus.IllegalArabicValueException;
+import it.matjaz.jnumerus.IllegalNumeralSyntaxException;
+import it.matjaz.jnumerus.RomanConverter;
+import it.matjaz.jnumerus.RomanNumeral;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the {@link RomanConverter} conversions in both directions, with
+ * each of the conversion engines provided by jNumerus.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConverterBenchmark {
+
+    /**
+     * Number of prepared inputs, a power of 2.
+     */
+    private static final int INPUTS = 1024;
+
+    @Param({"UNIFORM", "PAGES", "WORST_CASE"})
+    public Distribution distribution;
+
+    @Param({"hash", "automaton", "table", "digits", "greedy"})
+    public String engine;
+
+    private RomanConverter converter;
+    private int[] values;
+    private RomanNumeral[] numerals;
+    private String[] strings;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void prepareInputs() throws IllegalArabicValueException {
+        converter = new RomanConverter(RomanConverter.loadEngine(engine));
+        values = distribution.values(INPUTS, 42);
+        numerals = new RomanNumeral[INPUTS];
+        strings = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            numerals[i] = converter.integerToRomanNumeral(values[i]);
+            strings[i] = numerals[i].getNumeral();
+        }
+    }
+
+    @Benchmark
+    public RomanNumeral encode() throws IllegalArabicValueException {
+        return converter.integerToRomanNumeral(values[cursor++ & (INPUTS - 1)]);
+    }
+
+    @Benchmark
+    public int decode() {
+        return converter.romanNumeralToInteger(numerals[cursor++ & (INPUTS - 1)]);
+    }
+
+    @Benchmark
+    public int decodeCanonicalString() throws IllegalNumeralSyntaxException {
+        return converter.romanStringToInteger(strings[cursor++ & (INPUTS - 1)]);
+    }
+}
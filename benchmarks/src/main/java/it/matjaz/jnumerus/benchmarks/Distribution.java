@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Distributions of the arabic values used as inputs of the benchmarks.
+ * <p>
+ * Every distribution generates the same values for the same seed, so the
+ * results of different runs and versions are comparable.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public enum Distribution {
+
+    /**
+     * Values uniformly distributed in [1, 3999].
+     */
+    UNIFORM {
+        @Override
+        int nextValue(Random random) {
+            return 1 + random.nextInt(3999);
+        }
+    },
+    /**
+     * Small values in [1, 100], such as page or chapter numbers.
+     */
+    PAGES {
+        @Override
+        int nextValue(Random random) {
+            return 1 + random.nextInt(100);
+        }
+    },
+    /**
+     * Always 3888, MMMDCCCLXXXVIII, the longest roman numeral.
+     */
+    WORST_CASE {
+        @Override
+        int nextValue(Random random) {
+            return 3888;
+        }
+    };
+
+    /**
+     * Generates the next value of this distribution.
+     *
+     * @param random source of randomness.
+     * @return a value in [1, 3999].
+     */
+    abstract int nextValue(Random random);
+
+    /**
+     * Generates an array of values of this distribution.
+     *
+     * @param count length of the array.
+     * @param seed of the random generator.
+     * @return the generated values.
+     */
+    public int[] values(int count, long seed) {
+        Random random = new Random(seed);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = nextValue(random);
+        }
+        return values;
+    }
+}
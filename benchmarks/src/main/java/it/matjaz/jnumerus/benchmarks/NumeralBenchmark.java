@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.benchmarks;
+
+import it.matjaz.jnumerus.IllegalArabicValueException;
+import it.matjaz.jnumerus.IllegalNumeralSyntaxException;
+import it.matjaz.jnumerus.RomanConverter;
+import it.matjaz.jnumerus.RomanNumeral;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the construction and syntax validation of {@link RomanNumeral}
+ * objects from Strings.
+ * <p>
+ * A share of the inputs, given by {@link #invalidPercent}, is replaced by
+ * Strings with illegal roman syntax, one for each category of error reported
+ * by {@link IllegalNumeralSyntaxException}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumeralBenchmark {
+
+    /**
+     * Number of prepared inputs, a power of 2.
+     */
+    private static final int INPUTS = 1024;
+
+    /**
+     * Inputs with illegal syntax: empty, too long, non roman characters, four
+     * consecutive characters, repeated D/L/V and wrong order.
+     */
+    private static final String[] ILLEGAL_INPUTS = {
+        "", "MMMDCCCLXXXVIIIMMMDCCC", "XIIZ", "XIIII", "DCD", "IM"
+    };
+
+    @Param({"UNIFORM", "PAGES", "WORST_CASE"})
+    public Distribution distribution;
+
+    @Param({"0", "10", "50"})
+    public int invalidPercent;
+
+    private String[] inputs;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void prepareInputs() throws IllegalArabicValueException {
+        RomanConverter converter = new RomanConverter();
+        Random random = new Random(42);
+        int[] values = distribution.values(INPUTS, 42);
+        inputs = new String[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            if (random.nextInt(100) < invalidPercent) {
+                inputs[i] = ILLEGAL_INPUTS[random.nextInt(ILLEGAL_INPUTS.length)];
+            } else {
+                inputs[i] = converter.integerToRomanNumeral(values[i]).getNumeral();
+            }
+        }
+    }
+
+    @Benchmark
+    public RomanNumeral construct() {
+        try {
+            return new RomanNumeral(inputs[cursor++ & (INPUTS - 1)]);
+        } catch (IllegalNumeralSyntaxException ex) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return RomanNumeral.isCorrectRomanSyntax(inputs[cursor++ & (INPUTS - 1)]);
+    }
+}
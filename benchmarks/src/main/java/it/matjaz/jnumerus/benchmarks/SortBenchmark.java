@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.benchmarks;
+
+import it.matjaz.jnumerus.IllegalArabicValueException;
+import it.matjaz.jnumerus.RomanConverter;
+import it.matjaz.jnumerus.RomanNumeral;
+import it.matjaz.jnumerus.RomanSort;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the sorts of RomanNumerals by value: the counting sort of
+ * {@link RomanSort} against a comparison sort decoding both sides of each
+ * comparison.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortBenchmark {
+
+    @Param({"UNIFORM", "PAGES"})
+    public Distribution distribution;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private RomanConverter converter;
+    private Comparator<RomanNumeral> decodingOrder;
+    private RomanNumeral[] numerals;
+    private RomanNumeral[] work;
+
+    @Setup(Level.Trial)
+    public void prepareInputs() throws IllegalArabicValueException {
+        converter = new RomanConverter();
+        decodingOrder = Comparator.comparingInt(converter::romanNumeralToInteger);
+        int[] values = distribution.values(size, 42);
+        numerals = new RomanNumeral[size];
+        for (int i = 0; i < size; i++) {
+            numerals[i] = converter.integerToRomanNumeral(values[i]);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void copyInputs() {
+        work = numerals.clone();
+    }
+
+    @Benchmark
+    public RomanNumeral[] comparisonSort() {
+        Arrays.sort(work, decodingOrder);
+        return work;
+    }
+
+    @Benchmark
+    public RomanNumeral[] countingSort() {
+        RomanSort.sort(work);
+        return work;
+    }
+}
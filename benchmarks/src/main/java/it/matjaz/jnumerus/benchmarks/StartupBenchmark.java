@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.benchmarks;
+
+import it.matjaz.jnumerus.IllegalArabicValueException;
+import it.matjaz.jnumerus.IllegalNumeralSyntaxException;
+import it.matjaz.jnumerus.RomanConverter;
+import it.matjaz.jnumerus.RomanMain;
+import it.matjaz.jnumerus.RomanNumeral;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of the time to the first conversion in a new JVM, which dominates
+ * one-shot invocations like {@code java -jar jNumerus.jar XII}.
+ * <p>
+ * Every fork runs each benchmark exactly once, without warmup, so the measured
+ * time includes loading and initializing the jNumerus classes, bundles and
+ * tables the conversion needs, but not the start of the JVM itself. The
+ * effect of an AppCDS archive or of the flight recorder events can be
+ * measured passing the JVM options to the forks, for example:
+ * {@code java -jar target/benchmarks.jar Startup -jvmArgsAppend -XX:SharedArchiveFile=jNumerus.jsa}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private PrintStream standardOutput;
+
+    @Setup(Level.Trial)
+    public void silenceStandardOutput() {
+        standardOutput = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+        }));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreStandardOutput() {
+        System.setOut(standardOutput);
+    }
+
+    @Benchmark
+    public RomanNumeral firstEncode() throws IllegalArabicValueException {
+        return new RomanConverter().integerToRomanNumeral(12);
+    }
+
+    @Benchmark
+    public int firstDecode() throws IllegalNumeralSyntaxException {
+        return new RomanConverter().romanNumeralToInteger(new RomanNumeral("XII"));
+    }
+
+    @Benchmark
+    public void firstCommandLineConversion() {
+        RomanMain.main(new String[]{"XII"});
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.flow;
+
+import it.matjaz.jnumerus.IllegalNumeralSyntaxException;
+import it.matjaz.jnumerus.RomanException;
+import it.matjaz.jnumerus.RomanNumeral;
+import it.matjaz.jnumerus.RomanResult;
+
+/**
+ * {@link java.util.concurrent.Flow.Processor} stage converting String roman
+ * numerals to their values.
+ * <p>
+ * Emits one {@link RomanResult} per item: the value, or an
+ * {@link IllegalNumeralSyntaxException} for the numerals with illegal syntax.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanFlowProcessor
+ */
+public class RomanDecodeProcessor extends RomanFlowProcessor<String, Integer> {
+
+    /**
+     * Constructs a processor with the
+     * {@link RomanFlowProcessor#DEFAULT_BATCH_SIZE default batch size}.
+     */
+    public RomanDecodeProcessor() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a processor requesting and converting up to the given number
+     * of items at a time.
+     *
+     * @param batchSize number of items requested in advance, at least 1.
+     */
+    public RomanDecodeProcessor(int batchSize) {
+        super(batchSize);
+    }
+
+    /**
+     * @param item numeral to be converted.
+     */
+    @Override
+    protected Integer convert(String item) throws RomanException {
+        return converter.romanNumeralToInteger(new RomanNumeral(item));
+    }
+}
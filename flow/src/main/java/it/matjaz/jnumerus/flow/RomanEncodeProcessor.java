@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.flow;
+
+import it.matjaz.jnumerus.IllegalArabicValueException;
+import it.matjaz.jnumerus.RomanException;
+import it.matjaz.jnumerus.RomanNumeral;
+import it.matjaz.jnumerus.RomanResult;
+
+/**
+ * {@link java.util.concurrent.Flow.Processor} stage converting ints to their
+ * roman numerals.
+ * <p>
+ * Emits one {@link RomanResult} per item: the numeral, or an
+ * {@link IllegalArabicValueException} for the ints out of [-3999, 3999].
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanFlowProcessor
+ */
+public class RomanEncodeProcessor extends RomanFlowProcessor<Integer, RomanNumeral> {
+
+    /**
+     * Constructs a processor with the
+     * {@link RomanFlowProcessor#DEFAULT_BATCH_SIZE default batch size}.
+     */
+    public RomanEncodeProcessor() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a processor requesting and converting up to the given number
+     * of items at a time.
+     *
+     * @param batchSize number of items requested in advance, at least 1.
+     */
+    public RomanEncodeProcessor(int batchSize) {
+        super(batchSize);
+    }
+
+    /**
+     * @param item int to be converted.
+     */
+    @Override
+    protected RomanNumeral convert(Integer item) throws RomanException {
+        return converter.integerToRomanNumeral(item);
+    }
+}
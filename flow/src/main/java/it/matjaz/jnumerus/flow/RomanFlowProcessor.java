@@ -0,0 +1,319 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.flow;
+
+import it.matjaz.jnumerus.RomanConverter;
+import it.matjaz.jnumerus.RomanException;
+import it.matjaz.jnumerus.RomanResult;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base of the {@link Flow.Processor} stages converting each item of a reactive
+ * stream with {@link RomanConverter}.
+ * <p>
+ * Every input item produces exactly one output {@link RomanResult}, holding
+ * either the converted value or the {@link RomanException} of an illegal
+ * item: errors are data, so one bad item does not terminate the stream. Any
+ * other exception thrown by a conversion is wrapped in a RomanException of
+ * its item. Only the errors of the upstream publisher are forwarded as
+ * {@code onError}. A subscriber throwing from {@code onNext} is treated as
+ * having cancelled its subscription.
+ * <p>
+ * The processor honors the demand of its subscriber. It requests up to
+ * {@code batchSize} items in advance from the upstream, buffers them, and
+ * when there is demand converts up to {@code batchSize} buffered items at a
+ * time before emitting them. The upstream is asked for more items when a
+ * quarter of the batch was consumed. A processor has at most one
+ * subscriber. The items are emitted by the thread that delivered an item or
+ * requested more, one at a time.
+ *
+ * @param <T> type of the input items.
+ * @param <R> type of the converted values.
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public abstract class RomanFlowProcessor<T, R> implements Flow.Processor<T, RomanResult<R>> {
+
+    /**
+     * Default number of items requested in advance and converted at once.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * The converter shared by the conversions.
+     */
+    protected final RomanConverter converter = new RomanConverter();
+
+    private final int batchSize;
+    private final int replenishThreshold;
+    private final Queue<T> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+    private final Object[] batchInputs;
+    private final Object[] batchOutputs;
+
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super RomanResult<R>> downstream;
+    private volatile boolean upstreamDone;
+    private volatile Throwable upstreamError;
+    private volatile boolean cancelled;
+    private volatile Throwable illegalRequest;
+    private boolean terminated;
+    private int consumed;
+
+    /**
+     * Constructs a processor requesting and converting up to the given number
+     * of items at a time.
+     *
+     * @param batchSize number of items requested in advance, at least 1.
+     * @throws IllegalArgumentException if the batch size is not positive.
+     */
+    protected RomanFlowProcessor(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(String.valueOf(batchSize));
+        }
+        this.batchSize = batchSize;
+        this.replenishThreshold = Math.max(1, batchSize / 4);
+        this.batchInputs = new Object[batchSize];
+        this.batchOutputs = new Object[batchSize];
+    }
+
+    /**
+     * Converts a single item.
+     *
+     * @param item to be converted.
+     * @return the converted value.
+     * @throws RomanException if the item is illegal.
+     */
+    protected abstract R convert(T item) throws RomanException;
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super RomanResult<R>> subscriber) {
+        Objects.requireNonNull(subscriber);
+        synchronized (this) {
+            if (downstream == null) {
+                downstream = subscriber;
+                subscriber.onSubscribe(new Subscription());
+                drain();
+                return;
+            }
+        }
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onError(new IllegalStateException(getClass().getSimpleName()));
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+        if (upstream != null || cancelled) {
+            subscription.cancel();
+            return;
+        }
+        upstream = subscription;
+        subscription.request(batchSize);
+    }
+
+    @Override
+    public void onNext(T item) {
+        buffer.add(Objects.requireNonNull(item));
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        upstreamError = Objects.requireNonNull(throwable);
+        upstreamDone = true;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    /**
+     * Emits as many converted items as demanded and available, then
+     * terminates the subscriber if the upstream is done and the buffer empty.
+     * <p>
+     * Only one thread drains at a time: the others record the pending work
+     * and the draining thread loops again for them.
+     */
+    private void drain() {
+        if (pendingDrains.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        try {
+            do {
+                Flow.Subscriber<? super RomanResult<R>> subscriber = downstream;
+                if (subscriber != null && !terminated) {
+                    if (illegalRequest != null) {
+                        terminated = true;
+                        buffer.clear();
+                        subscriber.onError(illegalRequest);
+                    } else {
+                        emit(subscriber);
+                    }
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        } finally {
+            if (missed != 0) {
+                pendingDrains.set(0);
+            }
+        }
+    }
+
+    /**
+     * Converts and emits batches of buffered items while there is demand.
+     *
+     * @param subscriber the downstream subscriber.
+     */
+    @SuppressWarnings("unchecked")
+    private void emit(Flow.Subscriber<? super RomanResult<R>> subscriber) {
+        long requested = demand.get();
+        long emitted = 0;
+        while (!cancelled) {
+            boolean done = upstreamDone;
+            int count = 0;
+            int wanted = (int) Math.min(requested - emitted, batchSize);
+            while (count < wanted) {
+                T item = buffer.poll();
+                if (item == null) {
+                    break;
+                }
+                batchInputs[count++] = item;
+            }
+            for (int i = 0; i < count; i++) {
+                T item = (T) batchInputs[i];
+                try {
+                    batchOutputs[i] = RomanResult.success(item, convert(item));
+                } catch (RomanException ex) {
+                    batchOutputs[i] = RomanResult.failure(item, ex);
+                } catch (RuntimeException ex) {
+                    batchOutputs[i] = RomanResult.failure(item, new RomanException(ex.getMessage(), ex));
+                }
+                batchInputs[i] = null;
+            }
+            for (int i = 0; i < count && !cancelled; i++) {
+                RomanResult<R> result = (RomanResult<R>) batchOutputs[i];
+                batchOutputs[i] = null;
+                try {
+                    subscriber.onNext(result);
+                } catch (RuntimeException ex) {
+                    terminated = true;
+                    cancelled = true;
+                    cancelUpstream();
+                }
+            }
+            if (cancelled) {
+                Arrays.fill(batchOutputs, 0, count, null);
+            }
+            emitted += count;
+            replenish(count);
+            if (count == 0 || emitted == requested) {
+                if (done && buffer.isEmpty()) {
+                    terminate(subscriber);
+                }
+                break;
+            }
+        }
+        if (cancelled) {
+            buffer.clear();
+        }
+        if (emitted > 0 && requested != Long.MAX_VALUE) {
+            demand.addAndGet(-emitted);
+        }
+    }
+
+    /**
+     * Requests more items from the upstream once enough were consumed.
+     *
+     * @param count items just consumed.
+     */
+    private void replenish(int count) {
+        consumed += count;
+        Flow.Subscription subscription = upstream;
+        if (consumed >= replenishThreshold && subscription != null && !upstreamDone) {
+            subscription.request(consumed);
+            consumed = 0;
+        }
+    }
+
+    /**
+     * Signals the completion or the error of the upstream to the subscriber.
+     *
+     * @param subscriber the downstream subscriber.
+     */
+    private void terminate(Flow.Subscriber<? super RomanResult<R>> subscriber) {
+        terminated = true;
+        Throwable error = upstreamError;
+        if (error != null) {
+            subscriber.onError(error);
+        } else {
+            subscriber.onComplete();
+        }
+    }
+
+    /**
+     * Stops the upstream from sending more items.
+     */
+    private void cancelUpstream() {
+        Flow.Subscription subscription = upstream;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+    }
+
+    /**
+     * Subscription given to the downstream subscriber.
+     */
+    private final class Subscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                illegalRequest = new IllegalArgumentException(String.valueOf(n));
+                cancelUpstream();
+                drain();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> {
+                long sum = current + added;
+                return sum < 0 ? Long.MAX_VALUE : sum;
+            });
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            cancelUpstream();
+            drain();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus.flow;
+
+import it.matjaz.jnumerus.IllegalArabicValueException;
+import it.matjaz.jnumerus.IllegalNumeralSyntaxException;
+import it.matjaz.jnumerus.RomanNumeral;
+import it.matjaz.jnumerus.RomanResult;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanFlowProcessor} and its encode, decode and
+ * validate stages.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanFlowProcessorTest {
+
+    /**
+     * Subscriber recording what it receives and requesting on command.
+     */
+    private static class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+
+        final List<T> items = new CopyOnWriteArrayList<>();
+        final CountDownLatch terminated = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+    }
+
+    @Test
+    public void itemsAreConvertedInOrderAndErrorsAreItems() throws Exception {
+        RomanEncodeProcessor processor = new RomanEncodeProcessor(4);
+        RecordingSubscriber<RomanResult<RomanNumeral>> subscriber = new RecordingSubscriber<>();
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        try (SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (int i : new int[]{1, 4000, 42, -7}) {
+                publisher.submit(i);
+            }
+        }
+        assertTrue(subscriber.terminated.await(10, TimeUnit.SECONDS));
+        assertTrue(subscriber.completed);
+        assertEquals(4, subscriber.items.size());
+        assertEquals(new RomanNumeral("I"), subscriber.items.get(0).getValue());
+        assertTrue(subscriber.items.get(1).getError() instanceof IllegalArabicValueException);
+        assertEquals(4000, subscriber.items.get(1).getInput());
+        assertEquals(new RomanNumeral("XLII"), subscriber.items.get(2).getValue());
+        assertEquals(new RomanNumeral("-VII"), subscriber.items.get(3).getValue());
+    }
+
+    @Test
+    public void demandIsHonored() throws Exception {
+        RomanDecodeProcessor processor = new RomanDecodeProcessor(2);
+        RecordingSubscriber<RomanResult<Integer>> subscriber = new RecordingSubscriber<>();
+        processor.subscribe(subscriber);
+        SubmissionPublisher<String> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+        publisher.subscribe(processor);
+        for (String numeral : new String[]{"I", "II", "III", "IV", "V"}) {
+            publisher.submit(numeral);
+        }
+        publisher.close();
+        assertEquals(0, subscriber.items.size());
+        subscriber.subscription.request(3);
+        assertEquals(3, subscriber.items.size());
+        assertFalse(subscriber.completed);
+        subscriber.subscription.request(10);
+        assertEquals(5, subscriber.items.size());
+        assertEquals(Integer.valueOf(5), subscriber.items.get(4).getValue());
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void upstreamErrorIsForwardedAfterTheBufferedItems() throws Exception {
+        RomanValidateProcessor processor = new RomanValidateProcessor();
+        RecordingSubscriber<RomanResult<RomanNumeral>> subscriber = new RecordingSubscriber<>();
+        processor.subscribe(subscriber);
+        SubmissionPublisher<String> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+        publisher.subscribe(processor);
+        publisher.submit(" x ii ");
+        publisher.submit("IIII");
+        publisher.closeExceptionally(new IllegalStateException("upstream"));
+        subscriber.subscription.request(5);
+        assertEquals(2, subscriber.items.size());
+        assertEquals(new RomanNumeral("XII"), subscriber.items.get(0).getValue());
+        assertEquals(IllegalNumeralSyntaxException.Category.FOUR_CONSECUTIVE_CHARS,
+                ((IllegalNumeralSyntaxException) subscriber.items.get(1).getError()).getCategory());
+        assertEquals("upstream", subscriber.error.getMessage());
+    }
+
+    @Test
+    public void cancelStopsTheUpstream() throws Exception {
+        RomanEncodeProcessor processor = new RomanEncodeProcessor(1);
+        RecordingSubscriber<RomanResult<RomanNumeral>> subscriber = new RecordingSubscriber<>();
+        processor.subscribe(subscriber);
+        SubmissionPublisher<Integer> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+        publisher.subscribe(processor);
+        subscriber.subscription.request(1);
+        publisher.submit(1);
+        subscriber.subscription.cancel();
+        assertEquals(0, publisher.getNumberOfSubscribers());
+        publisher.submit(2);
+        assertEquals(1, subscriber.items.size());
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void runtimeExceptionOfAConversionIsAnItem() throws Exception {
+        RomanFlowProcessor<String, Integer> processor = new RomanFlowProcessor<String, Integer>(4) {
+            @Override
+            protected Integer convert(String item) {
+                return Integer.parseInt(item);
+            }
+        };
+        RecordingSubscriber<RomanResult<Integer>> subscriber = new RecordingSubscriber<>();
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        SubmissionPublisher<String> publisher = new SubmissionPublisher<>(Runnable::run, 16);
+        publisher.subscribe(processor);
+        for (String item : new String[]{"1", "x", "3"}) {
+            publisher.submit(item);
+        }
+        publisher.close();
+        assertTrue(subscriber.completed);
+        assertEquals(3, subscriber.items.size());
+        assertTrue(subscriber.items.get(1).getError().getCause() instanceof NumberFormatException);
+        assertEquals(Integer.valueOf(3), subscriber.items.get(2).getValue());
+    }
+
+    @Test
+    public void throwingSubscriberCancelsTheStream() throws Exception {
+        RomanEncodeProcessor processor = new RomanEncodeProcessor(4);
+        RecordingSubscriber<RomanResult<RomanNumeral>> subscriber = new RecordingSubscriber<RomanResult<RomanNumeral>>() {
+            @Override
+            public void onNext(RomanResult<RomanNumeral> item) {
+                super.onNext(item);
+                throw new IllegalStateException("subscriber");
+            }
+        };
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(Long.MAX_VALUE);
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+                upstreamCancelled.set(true);
+            }
+        });
+        processor.onNext(1);
+        assertTrue(upstreamCancelled.get());
+        subscriber.subscription.request(1);
+        processor.onNext(2);
+        processor.onComplete();
+        assertEquals(1, subscriber.items.size());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void nonPositiveRequestIsAnError() {
+        RomanEncodeProcessor processor = new RomanEncodeProcessor();
+        RecordingSubscriber<RomanResult<RomanNumeral>> subscriber = new RecordingSubscriber<>();
+        processor.subscribe(subscriber);
+        subscriber.subscription.request(0);
+        assertTrue(subscriber.error instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void secondSubscriberIsRejected() {
+        RomanEncodeProcessor processor = new RomanEncodeProcessor();
+        processor.subscribe(new RecordingSubscriber<>());
+        RecordingSubscriber<RomanResult<RomanNumeral>> second = new RecordingSubscriber<>();
+        processor.subscribe(second);
+        assertTrue(second.error instanceof IllegalStateException);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenBatchSizeIsNotPositiveThenExceptionIsThrown() {
+        new RomanDecodeProcessor(0);
+    }
+}
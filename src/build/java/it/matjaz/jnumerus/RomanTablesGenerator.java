@@ -0,0 +1,439 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates the source of {@code RomanGeneratedTables}, the constant tables
+ * used by {@link RomanConverter} for both conversions, during the
+ * {@code generate-sources} phase of the build.
+ * <p>
+ * It is launched as a single source file program, so it is not part of the
+ * library and depends on nothing else: the numerals are built with the same
+ * greedy algorithm of {@link RomanConverter}, and the tests verify the
+ * generated tables against it over the whole domain.
+ * <p>
+ * Two tables are generated:
+ * <ul>
+ * <li>the <b>encode table</b>, the numerals from I to MMMCMXCIX concatenated
+ * in one string constant with the end of each one in another, so that the
+ * class contains only two constants instead of code filling an array;</li>
+ * <li>the <b>decode table</b>, the minimal deterministic automaton accepting
+ * the canonical numerals, with a weight on each transition. Every prefix of
+ * a canonical numeral is canonical, so the weight of a character is the
+ * value of the prefix ending with it minus the value of the prefix before
+ * it, and the value of a numeral is the sum of the weights along its path.
+ * The automaton is the trie of all the numerals with the equivalent nodes
+ * merged, which leaves a few dozen states.</li>
+ * <li>the <b>canonical index</b>, a minimal perfect hash of the 7999
+ * canonical numerals, NULLA and the negative ones included, built with the
+ * hash and displace method: the numerals are split in buckets of about
+ * {@value #KEYS_PER_BUCKET} by their hash and, from the biggest bucket, a
+ * displacement is searched for each bucket such that its numerals land in
+ * free slots. The index stores the displacement of each bucket and the value
+ * of each slot. The hash functions are copied in {@link RomanConverter},
+ * which must compute the same slots.</li>
+ * </ul>
+ * Usage: {@code java RomanTablesGenerator.java <generated sources directory>}
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanTablesGenerator {
+
+    /**
+     * The roman characters and pairs, from the biggest.
+     */
+    private static final String[] CHARS = {"M", "CM", "D", "CD", "C", "XC", "L", "XL", "X", "IX", "V", "IV", "I"};
+
+    /**
+     * The value of each of {@link #CHARS}.
+     */
+    private static final int[] VALUES = {1000, 900, 500, 400, 100, 90, 50, 40, 10, 9, 5, 4, 1};
+
+    /**
+     * The symbols of the automaton, in the order of its transitions.
+     */
+    private static final String SYMBOLS = "IVXLCDM";
+
+    /**
+     * The biggest value of a numeral.
+     */
+    private static final int MAX_VALUE = 3999;
+
+    /**
+     * Average number of numerals in each bucket of the canonical index.
+     */
+    private static final int KEYS_PER_BUCKET = 4;
+
+    /**
+     * Chars of a generated string literal on each source line.
+     */
+    private static final int CHARS_PER_LINE = 12;
+
+    /**
+     * Node of the trie and then state of the automaton.
+     */
+    private static final class Node {
+
+        final int[] next = new int[SYMBOLS.length()];
+        final int[] weights = new int[SYMBOLS.length()];
+        boolean accepting;
+
+        Node() {
+            Arrays.fill(next, -1);
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanTablesGenerator() {
+    }
+
+    /**
+     * Writes {@code it/matjaz/jnumerus/RomanGeneratedTables.java} into the
+     * given directory.
+     *
+     * @param args the generated sources directory.
+     * @throws IOException if the source could not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args[0], "it", "matjaz", "jnumerus", "RomanGeneratedTables.java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, generateSource().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the numeral of a positive value with the greedy algorithm.
+     *
+     * @param value in [1, 3999].
+     * @return the canonical numeral.
+     */
+    static String encode(int value) {
+        StringBuilder numeral = new StringBuilder();
+        for (int i = 0; i < CHARS.length; i++) {
+            while (value >= VALUES[i]) {
+                numeral.append(CHARS[i]);
+                value -= VALUES[i];
+            }
+        }
+        return numeral.toString();
+    }
+
+    /**
+     * Hashes the chars of a numeral, with FNV-1a.
+     *
+     * @param numeral the chars.
+     * @return the hash of the numeral.
+     */
+    static int hash(CharSequence numeral) {
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < numeral.length(); i++) {
+            hash = (hash ^ numeral.charAt(i)) * 0x01000193;
+        }
+        return hash;
+    }
+
+    /**
+     * Mixes the hash of a numeral with a displacement, with the finalizer of
+     * MurmurHash3, and reduces it to an index.
+     *
+     * @param hash the hash of the numeral.
+     * @param displacement 0 for the bucket, the displacement of the bucket
+     * plus 1 for the slot.
+     * @param range the number of buckets or slots.
+     * @return the index in [0, range).
+     */
+    static int index(int hash, int displacement, int range) {
+        int mixed = hash + displacement * 0x9e3779b9;
+        mixed ^= mixed >>> 16;
+        mixed *= 0x85ebca6b;
+        mixed ^= mixed >>> 13;
+        mixed *= 0xc2b2ae35;
+        mixed ^= mixed >>> 16;
+        return (mixed >>> 1) % range;
+    }
+
+    /**
+     * Builds the canonical index of the given numerals.
+     *
+     * @param numerals the numeral of each slot value, all distinct.
+     * @param displacements filled with the displacement of each bucket.
+     * @return the slot value of each slot.
+     */
+    private static char[] buildCanonicalIndex(String[] numerals, char[] displacements) {
+        int buckets = displacements.length;
+        List<List<Integer>> keysOfBucket = new ArrayList<>();
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            keysOfBucket.add(new ArrayList<>());
+        }
+        for (int key = 0; key < numerals.length; key++) {
+            keysOfBucket.get(index(hash(numerals[key]), 0, buckets)).add(key);
+        }
+        Integer[] order = new Integer[buckets];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            order[bucket] = bucket;
+        }
+        Arrays.sort(order, Comparator.comparingInt((Integer bucket) -> keysOfBucket.get(bucket).size()).reversed());
+        char[] slotValues = new char[numerals.length];
+        boolean[] taken = new boolean[numerals.length];
+        int[] slots = new int[numerals.length];
+        for (int bucket : order) {
+            List<Integer> keys = keysOfBucket.get(bucket);
+            if (keys.isEmpty()) {
+                break;
+            }
+            int displacement = 0;
+            while (!fits(numerals, keys, displacement, taken, slots)) {
+                displacement++;
+                if (displacement == Character.MAX_VALUE) {
+                    throw new IllegalStateException("No displacement for bucket " + bucket);
+                }
+            }
+            displacements[bucket] = (char) displacement;
+            for (int i = 0; i < keys.size(); i++) {
+                taken[slots[i]] = true;
+                slotValues[slots[i]] = (char) (int) keys.get(i);
+            }
+        }
+        return slotValues;
+    }
+
+    /**
+     * Tells if the numerals of a bucket land in distinct free slots with the
+     * given displacement.
+     *
+     * @param slots filled with the slot of each numeral of the bucket.
+     * @return true if the displacement can be used.
+     */
+    private static boolean fits(String[] numerals, List<Integer> keys, int displacement, boolean[] taken,
+            int[] slots) {
+        for (int i = 0; i < keys.size(); i++) {
+            int slot = index(hash(numerals[keys.get(i)]), displacement + 1, numerals.length);
+            if (taken[slot]) {
+                return false;
+            }
+            for (int j = 0; j < i; j++) {
+                if (slots[j] == slot) {
+                    return false;
+                }
+            }
+            slots[i] = slot;
+        }
+        return true;
+    }
+
+    /**
+     * Builds the trie of all the positive numerals, with the weight of each
+     * transition.
+     *
+     * @return the nodes, the root first.
+     */
+    private static List<Node> buildTrie() {
+        Map<String, Integer> values = new HashMap<>();
+        for (int value = 1; value <= MAX_VALUE; value++) {
+            values.put(encode(value), value);
+        }
+        List<Node> trie = new ArrayList<>();
+        trie.add(new Node());
+        for (int value = 1; value <= MAX_VALUE; value++) {
+            String numeral = encode(value);
+            int node = 0;
+            int prefixValue = 0;
+            for (int i = 0; i < numeral.length(); i++) {
+                Integer nextPrefixValue = values.get(numeral.substring(0, i + 1));
+                if (nextPrefixValue == null) {
+                    throw new IllegalStateException("Not canonical prefix of " + numeral);
+                }
+                int symbol = SYMBOLS.indexOf(numeral.charAt(i));
+                if (trie.get(node).next[symbol] < 0) {
+                    trie.get(node).next[symbol] = trie.size();
+                    trie.get(node).weights[symbol] = nextPrefixValue - prefixValue;
+                    trie.add(new Node());
+                }
+                node = trie.get(node).next[symbol];
+                prefixValue = nextPrefixValue;
+            }
+            trie.get(node).accepting = true;
+        }
+        return trie;
+    }
+
+    /**
+     * Merges the equivalent nodes of the trie, the ones accepting the same
+     * suffixes with the same weights.
+     *
+     * @param trie the nodes, the root first.
+     * @return the states of the minimal automaton, the start one first.
+     */
+    private static List<Node> minimize(List<Node> trie) {
+        Map<String, Integer> stateOfSignature = new HashMap<>();
+        List<Node> states = new ArrayList<>();
+        int[] stateOfNode = new int[trie.size()];
+        Arrays.fill(stateOfNode, -1);
+        int start = mergeSubtree(trie, 0, stateOfNode, stateOfSignature, states);
+        Node startState = states.get(start);
+        states.set(start, states.get(0));
+        states.set(0, startState);
+        for (Node state : states) {
+            for (int symbol = 0; symbol < SYMBOLS.length(); symbol++) {
+                if (state.next[symbol] == start) {
+                    state.next[symbol] = 0;
+                } else if (state.next[symbol] == 0) {
+                    state.next[symbol] = start;
+                }
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Finds the state of a node after finding the states of its children.
+     *
+     * @return the state of the node.
+     */
+    private static int mergeSubtree(List<Node> trie, int node, int[] stateOfNode,
+            Map<String, Integer> stateOfSignature, List<Node> states) {
+        Node trieNode = trie.get(node);
+        Node state = new Node();
+        state.accepting = trieNode.accepting;
+        StringBuilder signature = new StringBuilder(trieNode.accepting ? "A" : "N");
+        for (int symbol = 0; symbol < SYMBOLS.length(); symbol++) {
+            if (trieNode.next[symbol] >= 0) {
+                state.next[symbol] = mergeSubtree(trie, trieNode.next[symbol], stateOfNode, stateOfSignature, states);
+                state.weights[symbol] = trieNode.weights[symbol];
+            }
+            signature.append(' ').append(state.next[symbol]).append(':').append(state.weights[symbol]);
+        }
+        Integer existing = stateOfSignature.get(signature.toString());
+        if (existing == null) {
+            existing = states.size();
+            states.add(state);
+            stateOfSignature.put(signature.toString(), existing);
+        }
+        stateOfNode[node] = existing;
+        return existing;
+    }
+
+    /**
+     * Escapes a char of a string literal: the chars below 256 in octal,
+     * because unicode escapes of line terminators or quotes are translated
+     * before the literal is parsed.
+     *
+     * @param c the char.
+     * @return its escape sequence.
+     */
+    private static String escape(char c) {
+        return c < 256 ? String.format("\\%03o", (int) c) : String.format("\\u%04x", (int) c);
+    }
+
+    /**
+     * Appends a string constant, split on more lines.
+     */
+    private static void appendConstant(StringBuilder source, String javadoc, String name, String value, boolean escaped) {
+        source.append("\n    /**\n");
+        for (String line : javadoc.split("\n")) {
+            source.append("     * ").append(line).append('\n');
+        }
+        source.append("     */\n    static final String ").append(name).append(" = \"\"");
+        int perLine = escaped ? CHARS_PER_LINE : 6 * CHARS_PER_LINE;
+        for (int i = 0; i < value.length(); i++) {
+            if (i % perLine == 0) {
+                source.append("\n            + \"");
+            }
+            if (escaped) {
+                source.append(escape(value.charAt(i)));
+            } else {
+                source.append(value.charAt(i));
+            }
+            if (i % perLine == perLine - 1 || i == value.length() - 1) {
+                source.append('"');
+            }
+        }
+        source.append(";\n");
+    }
+
+    /**
+     * Generates the whole source of the tables.
+     *
+     * @return the Java source.
+     */
+    static String generateSource() {
+        StringBuilder numerals = new StringBuilder();
+        StringBuilder ends = new StringBuilder();
+        for (int value = 1; value <= MAX_VALUE; value++) {
+            numerals.append(encode(value));
+            ends.append((char) numerals.length());
+        }
+        List<Node> states = minimize(buildTrie());
+        StringBuilder transitions = new StringBuilder();
+        StringBuilder weights = new StringBuilder();
+        StringBuilder accepting = new StringBuilder();
+        for (Node state : states) {
+            for (int symbol = 0; symbol < SYMBOLS.length(); symbol++) {
+                transitions.append((char) (state.next[symbol] + 1));
+                weights.append((char) state.weights[symbol]);
+            }
+            accepting.append((char) (state.accepting ? 1 : 0));
+        }
+        String[] canonical = new String[2 * MAX_VALUE + 1];
+        canonical[MAX_VALUE] = "NULLA";
+        for (int value = 1; value <= MAX_VALUE; value++) {
+            canonical[MAX_VALUE + value] = encode(value);
+            canonical[MAX_VALUE - value] = "-" + encode(value);
+        }
+        char[] displacements = new char[(canonical.length + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET];
+        char[] slotValues = buildCanonicalIndex(canonical, displacements);
+        StringBuilder source = new StringBuilder();
+        source.append("/*\n * Generated by RomanTablesGenerator during the build, do not edit.\n */\n")
+                .append("package it.matjaz.jnumerus;\n\n")
+                .append("/**\n")
+                .append(" * Constant tables of the roman numerals, generated during the build by\n")
+                .append(" * {@code src/build/java/it/matjaz/jnumerus/RomanTablesGenerator.java}.\n")
+                .append(" */\n")
+                .append("final class RomanGeneratedTables {\n\n")
+                .append("    /**\n     * Private constructor to prevent instantiation.\n     */\n")
+                .append("    private RomanGeneratedTables() {\n    }\n\n")
+                .append("    /**\n     * The symbols of the decoder, in the order of its transitions.\n     */\n")
+                .append("    static final String DECODER_SYMBOLS = \"").append(SYMBOLS).append("\";\n\n")
+                .append("    /**\n     * Number of states of the decoder, the start one is 0.\n     */\n")
+                .append("    static final int DECODER_STATES = ").append(states.size()).append(";\n");
+        appendConstant(source, "The numerals from I to MMMCMXCIX concatenated.", "NUMERALS", numerals.toString(), false);
+        appendConstant(source, "The end in {@link #NUMERALS} of the numeral of each value from 1.", "NUMERAL_ENDS",
+                ends.toString(), true);
+        appendConstant(source, "The next state plus 1 of each state and symbol, at\n"
+                + "{@code state * DECODER_SYMBOLS.length() + symbol}, 0 if the symbol is\nnot accepted.",
+                "DECODER_TRANSITIONS", transitions.toString(), true);
+        appendConstant(source, "The weight of each transition of {@link #DECODER_TRANSITIONS}.", "DECODER_WEIGHTS",
+                weights.toString(), true);
+        appendConstant(source, "1 for each state where a canonical numeral may end, else 0.", "DECODER_ACCEPTING",
+                accepting.toString(), true);
+        appendConstant(source, "The displacement of each bucket of the canonical index.", "INDEX_DISPLACEMENTS",
+                new String(displacements), true);
+        appendConstant(source, "The value plus 3999 of the canonical numeral of each slot of the\ncanonical index.",
+                "INDEX_VALUES", new String(slotValues), true);
+        source.append("}\n");
+        return source.toString();
+    }
+}
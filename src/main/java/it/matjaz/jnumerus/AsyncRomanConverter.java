@@ -0,0 +1,374 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous facade of {@link RomanConverter} coalescing the conversions
+ * requested concurrently by many threads into small batches.
+ * <p>
+ * Every request is put in a bounded queue and immediately gets a
+ * {@link CompletableFuture} of its result. A batching thread takes the
+ * requests from the queue: as soon as a batch has {@code batchSize}
+ * requests, or the first request of the batch waited {@code maxDelay}, the
+ * whole batch is converted by a single task of the executor. So the cost of
+ * scheduling a task is paid once per batch instead of once per conversion.
+ * <p>
+ * When {@code maxPending} requests are queued or being converted, the
+ * requesting threads block until the executor catches up: this is the
+ * backpressure protecting the service from unbounded memory use, whatever the
+ * queue of the executor.
+ * <p>
+ * Illegal requests complete their future exceptionally with the same
+ * {@link RomanException} thrown by the synchronous methods.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanConverter
+ */
+public class AsyncRomanConverter implements AutoCloseable {
+
+    /**
+     * Default maximum number of conversions in a batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Default maximum time in microseconds the first request of a batch waits
+     * for the batch to fill.
+     */
+    public static final long DEFAULT_MAX_DELAY_MICROS = 100;
+
+    /**
+     * Default maximum number of requests queued or being converted.
+     */
+    public static final int DEFAULT_MAX_PENDING = 4096;
+
+    private final RomanConverter converter;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final int maxPending;
+    private final Semaphore pendingPermits;
+    private final BlockingQueue<Request> pending;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final Thread batcherThread;
+    private volatile boolean closed;
+
+    /**
+     * A requested conversion and its future result.
+     */
+    private abstract static class Request {
+
+        /**
+         * Performs the conversion and completes the future.
+         *
+         * @param converter to be used.
+         */
+        abstract void complete(RomanConverter converter);
+
+        /**
+         * Completes the future exceptionally without converting.
+         *
+         * @param cause of the failure.
+         */
+        abstract void fail(Throwable cause);
+    }
+
+    /**
+     * Request of the roman numeral of an int.
+     */
+    private static final class EncodeRequest extends Request {
+
+        final int arabic;
+        final CompletableFuture<RomanNumeral> result = new CompletableFuture<>();
+
+        EncodeRequest(int arabic) {
+            this.arabic = arabic;
+        }
+
+        @Override
+        void complete(RomanConverter converter) {
+            try {
+                result.complete(converter.integerToRomanNumeral(arabic));
+            } catch (IllegalArabicValueException ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+
+        @Override
+        void fail(Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Request of the value of a roman numeral.
+     */
+    private static final class DecodeRequest extends Request {
+
+        final RomanNumeral numeral;
+        final CompletableFuture<Integer> result = new CompletableFuture<>();
+
+        DecodeRequest(RomanNumeral numeral) {
+            this.numeral = Objects.requireNonNull(numeral);
+        }
+
+        @Override
+        void complete(RomanConverter converter) {
+            result.complete(converter.romanNumeralToInteger(numeral));
+        }
+
+        @Override
+        void fail(Throwable cause) {
+            result.completeExceptionally(cause);
+        }
+    }
+
+    /**
+     * Constructs a facade with the default batch size, maximum delay and
+     * maximum pending requests, running the batches on virtual threads when
+     * available, else on a pool with a thread per processor.
+     */
+    public AsyncRomanConverter() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_MAX_DELAY_MICROS, TimeUnit.MICROSECONDS, DEFAULT_MAX_PENDING,
+                RomanThreads.newVirtualThreadExecutor(Runtime.getRuntime().availableProcessors()), true);
+    }
+
+    /**
+     * Constructs a facade running the batches on the given executor, which is
+     * not shut down when this facade is closed.
+     *
+     * @param batchSize maximum number of conversions in a batch, at least 1.
+     * @param maxDelay maximum time the first request of a batch waits for the
+     * batch to fill.
+     * @param unit of the maximum delay.
+     * @param maxPending maximum number of requests queued or being converted
+     * before the requesting threads block, at least 1.
+     * @param executor running the batches, for example a bounded pool.
+     * @throws IllegalArgumentException if a size is not positive or the delay
+     * is negative.
+     */
+    public AsyncRomanConverter(int batchSize, long maxDelay, TimeUnit unit, int maxPending, ExecutorService executor) {
+        this(batchSize, maxDelay, unit, maxPending, executor, false);
+    }
+
+    private AsyncRomanConverter(int batchSize, long maxDelay, TimeUnit unit, int maxPending,
+            ExecutorService executor, boolean ownsExecutor) {
+        if (batchSize < 1 || maxPending < 1 || maxDelay < 0) {
+            throw new IllegalArgumentException();
+        }
+        this.converter = new RomanConverter();
+        this.batchSize = batchSize;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.maxPending = maxPending;
+        this.pendingPermits = new Semaphore(maxPending);
+        this.pending = new ArrayBlockingQueue<>(maxPending);
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.batcherThread = new Thread(this::batchRequests, "jnumerus-async-batcher");
+        batcherThread.setDaemon(true);
+        batcherThread.start();
+    }
+
+    /**
+     * Requests the conversion of an int to its roman numeral.
+     * <p>
+     * Blocks while the maximum number of requests is pending.
+     *
+     * @param arabic int to be converted.
+     * @return the future numeral, failing with an
+     * {@link IllegalArabicValueException} if arabic is not in [-3999, 3999].
+     */
+    public CompletableFuture<RomanNumeral> encode(int arabic) {
+        EncodeRequest request = new EncodeRequest(arabic);
+        submit(request);
+        return request.result;
+    }
+
+    /**
+     * Requests the conversion of a roman numeral to its value.
+     * <p>
+     * Blocks while the maximum number of requests is pending.
+     *
+     * @param numeral to be converted.
+     * @return the future value.
+     * @throws NullPointerException if the numeral is null.
+     */
+    public CompletableFuture<Integer> decode(RomanNumeral numeral) {
+        DecodeRequest request = new DecodeRequest(numeral);
+        submit(request);
+        return request.result;
+    }
+
+    /**
+     * Requests the conversion of a String roman numeral to its value.
+     * <p>
+     * The syntax is checked immediately by the requesting thread, the
+     * conversion is batched.
+     *
+     * @param numeral to be converted.
+     * @return the future value, failing with an
+     * {@link IllegalNumeralSyntaxException} if the numeral has illegal
+     * syntax.
+     */
+    public CompletableFuture<Integer> decode(String numeral) {
+        try {
+            return decode(new RomanNumeral(numeral));
+        } catch (IllegalNumeralSyntaxException ex) {
+            CompletableFuture<Integer> failed = new CompletableFuture<>();
+            failed.completeExceptionally(ex);
+            return failed;
+        }
+    }
+
+    /**
+     * Returns the number of requests queued or being converted.
+     *
+     * @return the number of incomplete requests.
+     */
+    public int getPendingCount() {
+        return maxPending - pendingPermits.availablePermits();
+    }
+
+    /**
+     * Puts a request in the queue, waiting for a permit if too many are
+     * pending.
+     *
+     * @param request to be queued.
+     */
+    private void submit(Request request) {
+        if (closed) {
+            request.fail(new RejectedExecutionException());
+            return;
+        }
+        try {
+            pendingPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            request.fail(ex);
+            return;
+        }
+        if (closed) {
+            request.fail(new RejectedExecutionException());
+            pendingPermits.release();
+            return;
+        }
+        pending.add(request);
+        if (closed && pending.remove(request)) {
+            // Closed after the check, but before close() drained the queue
+            request.fail(new RejectedExecutionException());
+            pendingPermits.release();
+        }
+    }
+
+    /**
+     * Loop of the batching thread, collecting batches and handing them to the
+     * executor until closed.
+     */
+    private void batchRequests() {
+        List<Request> batch = new ArrayList<>(batchSize);
+        try {
+            while (!closed) {
+                batch.add(pending.take());
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    pending.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() == batchSize || remaining <= 0) {
+                        break;
+                    }
+                    Request next = pending.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        } catch (InterruptedException ex) {
+            // Closed while waiting for requests
+        }
+        pending.drainTo(batch);
+        dispatch(batch);
+    }
+
+    /**
+     * Runs a batch on the executor, or fails it if the executor rejects it.
+     * <p>
+     * An unexpected exception converting a request fails only its future, the
+     * rest of the batch is still converted and the permits are released
+     * anyway.
+     *
+     * @param batch to be converted.
+     */
+    private void dispatch(List<Request> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    for (Request request : batch) {
+                        try {
+                            request.complete(converter);
+                        } catch (RuntimeException ex) {
+                            request.fail(ex);
+                        }
+                    }
+                } finally {
+                    pendingPermits.release(batch.size());
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            for (Request request : batch) {
+                request.fail(ex);
+            }
+            pendingPermits.release(batch.size());
+        }
+    }
+
+    /**
+     * Stops accepting requests, converts the pending ones and shuts down the
+     * executor if it was created by this facade.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        batcherThread.interrupt();
+        try {
+            batcherThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<Request> late = new ArrayList<>();
+        pending.drainTo(late);
+        for (Request request : late) {
+            request.fail(new RejectedExecutionException());
+        }
+        pendingPermits.release(late.size());
+        if (ownsExecutor) {
+            executor.shutdown();
+        }
+    }
+}
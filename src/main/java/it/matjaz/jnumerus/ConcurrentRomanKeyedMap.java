@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Thread-safe map keyed by the values of the roman numerals range, backed by
+ * an array of 7999 slots and striped locks, for caches shared by many
+ * threads.
+ * <p>
+ * The slots are an {@link AtomicReferenceArray}, so reading a key never
+ * locks. Every update locks one of {@value #STRIPES} stripes, the one of the
+ * slot modulo {@value #STRIPES}: consecutive keys fall in different stripes,
+ * so threads updating different keys rarely wait for each other, while the
+ * compound operations of {@link ConcurrentMap}, like
+ * {@link #computeIfAbsent(RomanInteger, java.util.function.Function)}, are
+ * atomic and call their function once. The iterators are weakly consistent,
+ * as the ones of {@link java.util.concurrent.ConcurrentHashMap}.
+ * <p>
+ * The map does not accept null values.
+ *
+ * @param <V> the type of the mapped values.
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanKeyedMap
+ */
+public final class ConcurrentRomanKeyedMap<V> extends RomanSlotMap<V> implements ConcurrentMap<RomanInteger, V> {
+
+    /**
+     * Number of locks, a power of 2.
+     */
+    public static final int STRIPES = 64;
+
+    /**
+     * The value of each key, null if not mapped.
+     */
+    private final AtomicReferenceArray<V> values = new AtomicReferenceArray<>(SLOTS);
+
+    /**
+     * The locks of the stripes.
+     */
+    private final Object[] locks = new Object[STRIPES];
+
+    /**
+     * Number of mapped keys.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Constructs an empty map.
+     */
+    public ConcurrentRomanKeyedMap() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Returns the lock of the stripe of a slot.
+     *
+     * @param slot in [0, {@link #SLOTS}).
+     * @return the lock.
+     */
+    private Object lockOf(int slot) {
+        return locks[slot & (STRIPES - 1)];
+    }
+
+    @Override
+    V slot(int slot) {
+        return values.get(slot);
+    }
+
+    @Override
+    V putSlot(int slot, V value) {
+        synchronized (lockOf(slot)) {
+            return store(slot, value);
+        }
+    }
+
+    @Override
+    V removeSlot(int slot) {
+        synchronized (lockOf(slot)) {
+            return store(slot, null);
+        }
+    }
+
+    /**
+     * Stores a value in a slot and counts the mappings, with the lock of the
+     * stripe held.
+     *
+     * @param slot in [0, {@link #SLOTS}).
+     * @param value the new value, null to empty the slot.
+     * @return the previous value.
+     */
+    private V store(int slot, V value) {
+        V previous = values.getAndSet(slot, value);
+        if (previous == null && value != null) {
+            size.incrementAndGet();
+        } else if (previous != null && value == null) {
+            size.decrementAndGet();
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Removes all the mappings, one stripe at a time.
+     */
+    @Override
+    public void clear() {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            removeSlot(slot);
+        }
+    }
+
+    @Override
+    public V putIfAbsent(RomanInteger key, V value) {
+        Objects.requireNonNull(value);
+        int slot = slotOf(key.getValue());
+        synchronized (lockOf(slot)) {
+            V previous = values.get(slot);
+            return previous != null ? previous : store(slot, value);
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        int slot = slotOf(key);
+        if (slot < 0 || value == null) {
+            return false;
+        }
+        synchronized (lockOf(slot)) {
+            if (!value.equals(values.get(slot))) {
+                return false;
+            }
+            store(slot, null);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean replace(RomanInteger key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        int slot = slotOf(key.getValue());
+        synchronized (lockOf(slot)) {
+            if (!oldValue.equals(values.get(slot))) {
+                return false;
+            }
+            store(slot, newValue);
+            return true;
+        }
+    }
+
+    @Override
+    public V replace(RomanInteger key, V value) {
+        Objects.requireNonNull(value);
+        int slot = slotOf(key.getValue());
+        synchronized (lockOf(slot)) {
+            return values.get(slot) == null ? null : store(slot, value);
+        }
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public V computeIfAbsent(RomanInteger key, Function<? super RomanInteger, ? extends V> mappingFunction) {
+        int slot = slotOf(key.getValue());
+        V value = values.get(slot);
+        if (value != null) {
+            return value;
+        }
+        synchronized (lockOf(slot)) {
+            value = values.get(slot);
+            if (value == null) {
+                value = mappingFunction.apply(key);
+                if (value != null) {
+                    store(slot, value);
+                }
+            }
+            return value;
+        }
+    }
+
+    @Override
+    public V computeIfPresent(RomanInteger key, BiFunction<? super RomanInteger, ? super V, ? extends V> remappingFunction) {
+        int slot = slotOf(key.getValue());
+        synchronized (lockOf(slot)) {
+            V value = values.get(slot);
+            if (value == null) {
+                return null;
+            }
+            V newValue = remappingFunction.apply(key, value);
+            store(slot, newValue);
+            return newValue;
+        }
+    }
+
+    @Override
+    public V compute(RomanInteger key, BiFunction<? super RomanInteger, ? super V, ? extends V> remappingFunction) {
+        int slot = slotOf(key.getValue());
+        synchronized (lockOf(slot)) {
+            V newValue = remappingFunction.apply(key, values.get(slot));
+            store(slot, newValue);
+            return newValue;
+        }
+    }
+
+    @Override
+    public V merge(RomanInteger key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        int slot = slotOf(key.getValue());
+        synchronized (lockOf(slot)) {
+            V previous = values.get(slot);
+            V newValue = previous == null ? value : remappingFunction.apply(previous, value);
+            store(slot, newValue);
+            return newValue;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe set of values of the roman numerals range stored as a bitmap of
+ * 7999 bits, with atomic updates of its words.
+ * <p>
+ * Adding and removing a value compare-and-set its word, so many threads can
+ * collect values into the same set without locks, like the distinct values of
+ * an event stream consumed in parallel. Merging a {@link RomanSet} into this
+ * one updates each word atomically. The reading operations, the size and the
+ * iterators read the words one at a time: they are weakly consistent and may
+ * miss the updates made while they run, never throwing
+ * {@link java.util.ConcurrentModificationException}. Take a
+ * {@link #snapshot()} to compute unions, intersections and overlaps on a
+ * stable RomanSet.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanSet
+ */
+public final class ConcurrentRomanSet extends RomanBitSet {
+
+    /**
+     * The bitmap, with the same layout of the one of {@link RomanSet}.
+     */
+    private final AtomicLongArray words = new AtomicLongArray(WORDS);
+
+    @Override
+    long word(int index) {
+        return words.get(index);
+    }
+
+    @Override
+    public boolean add(int value) throws IllegalArabicValueException {
+        checkValue(value);
+        int slot = slotOf(value);
+        long bit = 1L << slot;
+        long word;
+        do {
+            word = words.get(slot >>> 6);
+            if ((word & bit) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(slot >>> 6, word, word | bit));
+        return true;
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!inRange(value)) {
+            return false;
+        }
+        int slot = slotOf(value);
+        long bit = 1L << slot;
+        long word;
+        do {
+            word = words.get(slot >>> 6);
+            if ((word & bit) == 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(slot >>> 6, word, word & ~bit));
+        return true;
+    }
+
+    /**
+     * Removes all the values, one word at a time.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < WORDS; i++) {
+            words.set(i, 0L);
+        }
+    }
+
+    /**
+     * Adds all the values of a set to this one, updating each word
+     * atomically.
+     *
+     * @param other the set whose values are added.
+     * @return true if this set changed.
+     */
+    public boolean addAll(RomanSet other) {
+        boolean changed = false;
+        for (int i = 0; i < WORDS; i++) {
+            long added = other.word(i);
+            if (added == 0) {
+                continue;
+            }
+            long word;
+            do {
+                word = words.get(i);
+            } while ((word | added) != word && !words.compareAndSet(i, word, word | added));
+            changed |= (word | added) != word;
+        }
+        return changed;
+    }
+
+    /**
+     * Copies the values into a new {@link RomanSet}, reading each word
+     * atomically.
+     *
+     * @return a RomanSet with the values of this set.
+     */
+    public RomanSet snapshot() {
+        long[] copy = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            copy[i] = words.get(i);
+        }
+        return new RomanSet(copy);
+    }
+}
@@ -41,6 +41,56 @@ public class IllegalNumeralSyntaxException extends RomanException {
      */
     private static final long serialVersionUID = 20150903L;
 
+    /**
+     * Categories of roman syntax errors, in the order they are checked by
+     * {@link RomanNumeral}.
+     */
+    public enum Category {
+
+        /**
+         * The numeral contains no characters.
+         */
+        EMPTY,
+        /**
+         * The numeral is longer than any syntactically correct one.
+         */
+        TOO_LONG,
+        /**
+         * The numeral contains characters that are not roman.
+         */
+        NON_ROMAN_CHARS,
+        /**
+         * The numeral contains four consecutive M, C, X or I characters.
+         */
+        FOUR_CONSECUTIVE_CHARS,
+        /**
+         * The numeral contains more than one D, L or V character.
+         */
+        TWO_DLV_CHARS,
+        /**
+         * Any other syntax error, usually the order of the characters.
+         */
+        GENERIC
+    }
+
+    /**
+     * The category of the syntax error.
+     */
+    private final Category category;
+
+    /**
+     * Simply delegates the correspondent {@link RomanException} constructor
+     * and stores the category of the syntax error.
+     *
+     * @param message
+     * @param category of the syntax error.
+     * @see RomanException#RomanException(java.lang.String)
+     */
+    public IllegalNumeralSyntaxException(String message, Category category) {
+        super(message);
+        this.category = category;
+    }
+
     /**
      * Simply delegates the correspondent {@link RomanException} constructor.
      *
@@ -49,6 +99,7 @@ public class IllegalNumeralSyntaxException extends RomanException {
      */
     public IllegalNumeralSyntaxException(String message) {
         super(message);
+        this.category = Category.GENERIC;
     }
 
     /**
@@ -60,6 +111,7 @@ public class IllegalNumeralSyntaxException extends RomanException {
      */
     public IllegalNumeralSyntaxException(String message, Throwable cause) {
         super(message, cause);
+        this.category = Category.GENERIC;
     }
 
     /**
@@ -70,6 +122,18 @@ public class IllegalNumeralSyntaxException extends RomanException {
      */
     public IllegalNumeralSyntaxException(Throwable cause) {
         super(cause);
+        this.category = Category.GENERIC;
+    }
+
+    /**
+     * Getter of the category of the syntax error.
+     * <p>
+     * Exceptions constructed without a category are {@link Category#GENERIC}.
+     *
+     * @return the category of the syntax error.
+     */
+    public Category getCategory() {
+        return category;
     }
 
 }
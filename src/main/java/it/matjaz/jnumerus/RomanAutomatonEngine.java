@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+/**
+ * {@link RomanConversionEngine} with the tables generated during the build:
+ * the numerals of all the values and the minimal automaton accepting them.
+ * <p>
+ * Decoding looks up one transition per char in a table of a few hundred
+ * chars, so it needs less memory than the perfect hash and rejects invalid
+ * numerals at their first wrong char.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanAutomatonEngine implements RomanConversionEngine {
+
+    /**
+     * Returns the name of the engine.
+     *
+     * @return {@code automaton}.
+     */
+    @Override
+    public String getName() {
+        return "automaton";
+    }
+
+    /**
+     * Reads the numeral from the table of all the numerals.
+     *
+     * @param arabic the value, in [-3999, 3999].
+     * @return the canonical numeral.
+     */
+    @Override
+    public String encode(int arabic) {
+        return RomanConverter.canonicalNumeral(arabic);
+    }
+
+    /**
+     * Walks the automaton generated during the build.
+     *
+     * @param numeral any sequence of chars.
+     * @return the value of the numeral or {@link #NOT_CANONICAL}.
+     */
+    @Override
+    public int decode(CharSequence numeral) {
+        return RomanConverter.decodeCanonical(numeral);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.StringJoiner;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base of the sets of values of the roman numerals range stored as a bitmap
+ * of 7999 bits, one for each value, in 125 words of 64 bits.
+ * <p>
+ * It implements the reading operations on the words given by the subclasses:
+ * the lookups check one bit, the size counts the bits of all the words and the
+ * iteration finds the next bit with {@link Long#numberOfTrailingZeros(long)},
+ * so the values are always in ascending order.
+ * <p>
+ * The elements are identified by their value: a RomanInteger with the
+ * unusual numeral "-" is the same element as the one of NULLA.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanSet
+ * @see ConcurrentRomanSet
+ */
+abstract class RomanBitSet extends AbstractSet<RomanInteger> {
+
+    /**
+     * Number of values in the roman numerals range, one bit each.
+     */
+    static final int SLOTS = RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1;
+
+    /**
+     * Number of 64 bits words of the bitmap.
+     */
+    static final int WORDS = (SLOTS + Long.SIZE - 1) / Long.SIZE;
+
+    /**
+     * Characteristics of the spliterators of the values.
+     */
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT
+            | Spliterator.SORTED | Spliterator.NONNULL;
+
+    /**
+     * Returns a word of the bitmap.
+     *
+     * @param index of the word, in [0, {@link #WORDS}).
+     * @return the word, with the bit {@code slot % 64} of each slot.
+     */
+    abstract long word(int index);
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value in the roman numerals range.
+     * @return true if the value was not in the set.
+     * @throws IllegalArabicValueException if the value is not in [-3999,
+     * 3999].
+     */
+    public abstract boolean add(int value) throws IllegalArabicValueException;
+
+    /**
+     * Removes a value from the set.
+     *
+     * @param value any int.
+     * @return true if the value was in the set.
+     */
+    public abstract boolean remove(int value);
+
+    /**
+     * Verifies that the value is in the roman numerals range.
+     *
+     * @param value to be checked.
+     * @throws IllegalArabicValueException if not in [-3999, 3999].
+     */
+    static void checkValue(int value) throws IllegalArabicValueException {
+        if (!inRange(value)) {
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+    }
+
+    /**
+     * Tells if the value is in the roman numerals range.
+     *
+     * @param value any int.
+     * @return true if in [-3999, 3999].
+     */
+    static boolean inRange(int value) {
+        return value >= RomanConverter.MININTEGER && value <= RomanConverter.MAXINTEGER;
+    }
+
+    /**
+     * Returns the bit of a value in the bitmap.
+     *
+     * @param value in the roman numerals range.
+     * @return the index of the bit.
+     */
+    static int slotOf(int value) {
+        return value - RomanConverter.MININTEGER;
+    }
+
+    /**
+     * Tells if the set contains a value.
+     *
+     * @param value any int.
+     * @return true if the value is in the set.
+     */
+    public boolean contains(int value) {
+        if (!inRange(value)) {
+            return false;
+        }
+        int slot = slotOf(value);
+        return (word(slot >>> 6) & (1L << slot)) != 0;
+    }
+
+    @Override
+    public boolean contains(Object element) {
+        return element instanceof RomanInteger && contains(((RomanInteger) element).getValue());
+    }
+
+    @Override
+    public boolean add(RomanInteger element) {
+        try {
+            return add(element.getValue());
+        } catch (IllegalArabicValueException impossibleEx) {
+            throw new IllegalStateException(impossibleEx);
+        }
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        return element instanceof RomanInteger && remove(((RomanInteger) element).getValue());
+    }
+
+    /**
+     * Returns the number of values in the set, counting the bits of all the
+     * words.
+     *
+     * @return the cardinality of the set.
+     */
+    @Override
+    public int size() {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(word(i));
+        }
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (int i = 0; i < WORDS; i++) {
+            if (word(i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns an iterator of new RomanIntegers of the values, in ascending
+     * order.
+     *
+     * @return the iterator, supporting removal.
+     */
+    @Override
+    public Iterator<RomanInteger> iterator() {
+        PrimitiveIterator.OfInt values = valueIterator();
+        return new Iterator<RomanInteger>() {
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+
+            @Override
+            public RomanInteger next() {
+                return RomanInteger.ofValidValue(values.nextInt());
+            }
+
+            @Override
+            public void remove() {
+                values.remove();
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator of the values, in ascending order.
+     *
+     * @return the iterator, supporting removal.
+     */
+    public PrimitiveIterator.OfInt valueIterator() {
+        return new ValueIterator();
+    }
+
+    /**
+     * Returns a sequential stream of the values in ascending order, that may
+     * be turned {@link IntStream#parallel() parallel}.
+     *
+     * @return a stream of the values.
+     */
+    public IntStream intStream() {
+        return StreamSupport.intStream(Spliterators.spliteratorUnknownSize(valueIterator(), CHARACTERISTICS), false);
+    }
+
+    /**
+     * Copies the values into a new array, in ascending order.
+     *
+     * @return the values.
+     */
+    public int[] toIntArray() {
+        return intStream().toArray();
+    }
+
+    /**
+     * Returns the numerals of the values.
+     *
+     * @return the numerals in ascending order of value, like
+     * {@code RomanSet[-IV, NULLA, XII]}.
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", getClass().getSimpleName() + "[", "]");
+        valueIterator().forEachRemaining((int value) -> joiner.add(RomanConverter.canonicalNumeral(value)));
+        return joiner.toString();
+    }
+
+    /**
+     * Finds the first slot in the set from the given one.
+     *
+     * @param from the first slot to be checked.
+     * @return the slot or -1 if there is none.
+     */
+    int nextSlot(int from) {
+        if (from >= SLOTS) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long word = word(index) & (-1L << from);
+        while (word == 0) {
+            if (++index == WORDS) {
+                return -1;
+            }
+            word = word(index);
+        }
+        return (index << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    /**
+     * Iterator of the values, finding the next bit of the bitmap on each step.
+     */
+    private final class ValueIterator implements PrimitiveIterator.OfInt {
+
+        private int nextSlot = nextSlot(0);
+        private int lastSlot = -1;
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (nextSlot < 0) {
+                throw new NoSuchElementException();
+            }
+            lastSlot = nextSlot;
+            nextSlot = nextSlot(nextSlot + 1);
+            return lastSlot + RomanConverter.MININTEGER;
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot < 0) {
+                throw new IllegalStateException();
+            }
+            RomanBitSet.this.remove(lastSlot + RomanConverter.MININTEGER);
+            lastSlot = -1;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Bulk accesses to ByteBuffers missing in Java 8.
+ * <p>
+ * The multi-release jar replaces this class on Java 21 with one using the
+ * absolute bulk methods of ByteBuffer, which copy with a single bounds check
+ * instead of one per byte.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanBuffers {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanBuffers() {
+    }
+
+    /**
+     * Copies the bytes into the buffer starting at the given index, without
+     * changing its position, so that more threads can write disjoint parts
+     * of the same buffer.
+     *
+     * @param buffer to be written.
+     * @param index of the first written byte.
+     * @param bytes to be copied.
+     * @throws IndexOutOfBoundsException if the bytes exceed the buffer limit.
+     */
+    static void put(ByteBuffer buffer, int index, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(index + i, bytes[i]);
+        }
+    }
+}
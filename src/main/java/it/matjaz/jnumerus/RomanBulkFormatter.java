@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes large arrays of ints into a single delimited text of roman numerals,
+ * using all the cores.
+ * <p>
+ * Instead of concatenating the numerals one after the other, the formatter
+ * works in three parallel passes over the values:
+ * <ol>
+ * <li>the length of every numeral is read from a table of the lengths of all
+ * the numerals;</li>
+ * <li>a parallel prefix sum of the lengths gives the offset of every numeral
+ * in the output, whose size is then known and allocated once;</li>
+ * <li>fork-join workers copy the numerals of disjoint slices of the values
+ * straight to their offsets, without any contention.</li>
+ * </ol>
+ * Small arrays are formatted by the calling thread only.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanConverter
+ */
+public final class RomanBulkFormatter {
+
+    /**
+     * Number of values below which a slice is formatted by a single thread.
+     */
+    private static final int SLICE_VALUES = 4096;
+
+    /**
+     * The largest array the JVM can allocate.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * Lazy holder of the table of the numeral lengths, built on first use.
+     */
+    private static class Tables {
+
+        /**
+         * The length of the numeral of each value at index
+         * {@code value - MININTEGER}, taken from the numerals of
+         * {@link RomanConverter#canonicalNumeral(int)}.
+         */
+        private static final byte[] LENGTHS = new byte[RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1];
+
+        static {
+            for (int i = 0; i < LENGTHS.length; i++) {
+                LENGTHS[i] = (byte) RomanConverter.canonicalNumeral(i + RomanConverter.MININTEGER).length();
+            }
+        }
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanBulkFormatter() {
+    }
+
+    /**
+     * Formats the numerals of the values separated by the delimiter into a new
+     * char array.
+     *
+     * @param values to be encoded.
+     * @param delimiter written between consecutive numerals, may be empty.
+     * @return the chars of the delimited numerals.
+     * @throws IllegalArabicValueException if a value is not in [-3999, 3999].
+     * @throws IllegalArgumentException if the output is too big for an array.
+     */
+    public static char[] format(int[] values, String delimiter) throws IllegalArabicValueException {
+        int[] ends = computeEnds(values, delimiter.length());
+        char[] output = new char[totalLength(ends, delimiter.length())];
+        char[] delimiterChars = delimiter.toCharArray();
+        run(new SliceWriter(values, ends, 0, values.length, (offset, value, last) -> {
+            String numeral = RomanConverter.canonicalNumeral(value);
+            numeral.getChars(0, numeral.length(), output, offset);
+            if (!last) {
+                System.arraycopy(delimiterChars, 0, output, offset + numeral.length(), delimiterChars.length);
+            }
+        }));
+        return output;
+    }
+
+    /**
+     * Formats the numerals of the values separated by the delimiter into a
+     * String.
+     *
+     * @param values to be encoded.
+     * @param delimiter written between consecutive numerals, may be empty.
+     * @return the delimited numerals.
+     * @throws IllegalArabicValueException if a value is not in [-3999, 3999].
+     */
+    public static String formatToString(int[] values, String delimiter) throws IllegalArabicValueException {
+        return new String(format(values, delimiter));
+    }
+
+    /**
+     * Formats the numerals of the values separated by the delimiter as ASCII
+     * bytes into a new heap buffer, ready to be read.
+     *
+     * @param values to be encoded.
+     * @param delimiter ASCII chars written between consecutive numerals, may be
+     * empty.
+     * @return the buffer of the delimited numerals.
+     * @throws IllegalArabicValueException if a value is not in [-3999, 3999].
+     */
+    public static ByteBuffer formatAscii(int[] values, String delimiter) throws IllegalArabicValueException {
+        int[] ends = computeEnds(values, delimiter.length());
+        ByteBuffer output = ByteBuffer.allocate(totalLength(ends, delimiter.length()));
+        formatAscii(values, delimiter, ends, output);
+        ((Buffer) output).flip();
+        return output;
+    }
+
+    /**
+     * Formats the numerals of the values separated by the delimiter as ASCII
+     * bytes into the given buffer, from its position, which is then advanced.
+     * <p>
+     * The workers write the buffer with absolute puts at disjoint indexes, so
+     * the buffer may be direct or mapped.
+     *
+     * @param values to be encoded.
+     * @param delimiter ASCII chars written between consecutive numerals, may be
+     * empty.
+     * @param output buffer receiving the bytes.
+     * @return the number of written bytes.
+     * @throws IllegalArabicValueException if a value is not in [-3999, 3999].
+     * @throws BufferOverflowException if the buffer has not enough space, in
+     * which case nothing is written.
+     */
+    public static int formatAscii(int[] values, String delimiter, ByteBuffer output) throws IllegalArabicValueException {
+        int[] ends = computeEnds(values, delimiter.length());
+        int length = totalLength(ends, delimiter.length());
+        if (output.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        formatAscii(values, delimiter, ends, output);
+        return length;
+    }
+
+    /**
+     * Writes the ASCII bytes at the position of the buffer and advances it.
+     */
+    private static void formatAscii(int[] values, String delimiter, int[] ends, ByteBuffer output) {
+        int start = output.position();
+        byte[] delimiterBytes = new byte[delimiter.length()];
+        for (int i = 0; i < delimiterBytes.length; i++) {
+            delimiterBytes[i] = (byte) delimiter.charAt(i);
+        }
+        run(new SliceWriter(values, ends, 0, values.length, (offset, value, last) -> {
+            byte[] numeral = RomanBytes.numeralBytes(value);
+            RomanBuffers.put(output, start + offset, numeral);
+            if (!last) {
+                RomanBuffers.put(output, start + offset + numeral.length, delimiterBytes);
+            }
+        }));
+        ((Buffer) output).position(start + totalLength(ends, delimiter.length()));
+    }
+
+    /**
+     * Computes the offset after each numeral and its following delimiter,
+     * with a parallel prefix sum of their lengths.
+     *
+     * @param values to be encoded.
+     * @param delimiterLength length of the delimiter.
+     * @return the end offset of each numeral and delimiter.
+     * @throws IllegalArabicValueException if a value is not in [-3999, 3999].
+     */
+    private static int[] computeEnds(int[] values, int delimiterLength) throws IllegalArabicValueException {
+        boolean parallel = values.length >= SLICE_VALUES;
+        IntStream stream = parallel ? IntStream.of(values).parallel() : IntStream.of(values);
+        if (stream.anyMatch(value -> value < RomanConverter.MININTEGER || value > RomanConverter.MAXINTEGER)) {
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+        long maxLength = (long) values.length * (RomanBytes.MAX_NUMERAL_BYTES + delimiterLength);
+        if (maxLength > MAX_ARRAY_LENGTH) {
+            IntStream lengths = IntStream.of(values).parallel();
+            long exact = lengths.mapToLong(value -> Tables.LENGTHS[value - RomanConverter.MININTEGER] + delimiterLength).sum();
+            if (exact > MAX_ARRAY_LENGTH) {
+                throw new IllegalArgumentException(String.valueOf(exact));
+            }
+        }
+        int[] ends = new int[values.length];
+        if (parallel) {
+            Arrays.parallelSetAll(ends, i -> Tables.LENGTHS[values[i] - RomanConverter.MININTEGER] + delimiterLength);
+            Arrays.parallelPrefix(ends, Integer::sum);
+        } else {
+            int end = 0;
+            for (int i = 0; i < values.length; i++) {
+                end += Tables.LENGTHS[values[i] - RomanConverter.MININTEGER] + delimiterLength;
+                ends[i] = end;
+            }
+        }
+        return ends;
+    }
+
+    /**
+     * Returns the length of the output, without the delimiter after the last
+     * numeral.
+     */
+    private static int totalLength(int[] ends, int delimiterLength) {
+        return ends.length == 0 ? 0 : ends[ends.length - 1] - delimiterLength;
+    }
+
+    /**
+     * Runs a writer in the common fork-join pool, or in the calling thread if
+     * the values are few.
+     */
+    private static void run(SliceWriter writer) {
+        if (writer.to - writer.from < SLICE_VALUES) {
+            writer.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(writer);
+        }
+    }
+
+    /**
+     * Destination of the numerals written by a {@link SliceWriter}.
+     */
+    private interface NumeralSink {
+
+        /**
+         * Writes the numeral of one value and, if not the last, the delimiter.
+         *
+         * @param offset of the numeral in the output.
+         * @param value to be written.
+         * @param last whether the value is the last of the array.
+         */
+        void write(int offset, int value, boolean last);
+    }
+
+    /**
+     * Fork-join task writing the numerals of a slice of the values, splitting
+     * it in halves while it is big.
+     */
+    private static final class SliceWriter extends RecursiveAction {
+
+        private static final long serialVersionUID = 20150908L;
+
+        private final int[] values;
+        private final int[] ends;
+        private final int from;
+        private final int to;
+        private final transient NumeralSink sink;
+
+        SliceWriter(int[] values, int[] ends, int from, int to, NumeralSink sink) {
+            this.values = values;
+            this.ends = ends;
+            this.from = from;
+            this.to = to;
+            this.sink = sink;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SLICE_VALUES) {
+                for (int i = from; i < to; i++) {
+                    sink.write(i == 0 ? 0 : ends[i - 1], values[i], i == values.length - 1);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SliceWriter(values, ends, from, middle, sink),
+                    new SliceWriter(values, ends, middle, to, sink));
+        }
+    }
+}
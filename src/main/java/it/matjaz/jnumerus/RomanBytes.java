@@ -0,0 +1,344 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Conversions between roman numerals written as ASCII bytes and their values,
+ * without creating any String.
+ * <p>
+ * Used by the network and file front-ends of jNumerus, which read their input
+ * as bytes: the common cases are converted in place and only the inputs with
+ * an error fall back to {@link RomanNumeral} to build the exception message.
+ * <p>
+ * The decoder accepts exactly what {@link RomanNumeral#RomanNumeral(String)}
+ * accepts for ASCII input: whitespace anywhere is skipped, lowercase letters
+ * are upcased, and the result equals
+ * {@link RomanConverter#romanNumeralToInteger(RomanNumeral)}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanBytes {
+
+    /**
+     * Returned by {@link #parseDecimal(java.nio.ByteBuffer, int, int)} when
+     * the bytes are not a decimal integer.
+     */
+    static final long NOT_DECIMAL = Long.MIN_VALUE;
+
+    /**
+     * The longest numeral in bytes, -MMMDCCCLXXXVIII.
+     */
+    static final int MAX_NUMERAL_BYTES = 16;
+
+    /**
+     * The characters worth one unit of each decimal position, from the
+     * thousands to the units.
+     */
+    private static final int[] TENS_LIKE = {'M', 'C', 'X', 'I'};
+
+    /**
+     * The characters worth five units of each decimal position, none for the
+     * thousands.
+     */
+    private static final int[] FIVES_LIKE = {-1, 'D', 'L', 'V'};
+
+    /**
+     * The characters worth ten units of each decimal position, none for the
+     * thousands.
+     */
+    private static final int[] NEXT_TENS_LIKE = {-1, 'M', 'C', 'X'};
+
+    /**
+     * The value of one unit of each decimal position.
+     */
+    private static final int[] UNITS = {1000, 100, 10, 1};
+
+    /**
+     * State of the decoder: nothing read in the current decimal position.
+     */
+    private static final int START = 0;
+
+    /**
+     * State of the decoder: one and two ten-like characters read.
+     */
+    private static final int ONE = 1;
+    private static final int TWO = 2;
+
+    /**
+     * State of the decoder: a five-like character read, followed by 0 to 3
+     * ten-like ones in the states {@code FIVE + 0..3}.
+     */
+    private static final int FIVE = 4;
+
+    /**
+     * State of the decoder: a subtractive pair read, the position is complete.
+     */
+    private static final int CLOSED = 8;
+
+    /**
+     * The ASCII bytes of {@link RomanNumeral#NULLA_STRING}.
+     */
+    private static final byte[] NULLA_BYTES = {'N', 'U', 'L', 'L', 'A'};
+
+    /**
+     * Lazy holder of the ASCII bytes of every numeral, built on first use.
+     */
+    private static class EncodedTable {
+
+        /**
+         * The ASCII bytes of the numeral of each value at index
+         * {@code value - MININTEGER}.
+         */
+        private static final byte[][] NUMERALS = buildEncodedTable();
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanBytes() {
+    }
+
+    /**
+     * Builds the ASCII bytes of all the numerals from the numerals of
+     * {@link RomanConverter#canonicalNumeral(int)}.
+     *
+     * @return the bytes of the numerals indexed by {@code value - MININTEGER}.
+     */
+    private static byte[][] buildEncodedTable() {
+        byte[][] numerals = new byte[RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1][];
+        for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+            String numeral = RomanConverter.canonicalNumeral(value);
+            byte[] bytes = new byte[numeral.length()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) numeral.charAt(i);
+            }
+            numerals[value - RomanConverter.MININTEGER] = bytes;
+        }
+        return numerals;
+    }
+
+    /**
+     * Returns the ASCII bytes of the numeral of the given value. The returned
+     * array is shared and must not be modified.
+     *
+     * @param value in [-3999, 3999].
+     * @return the bytes of the numeral.
+     */
+    static byte[] numeralBytes(int value) {
+        return EncodedTable.NUMERALS[value - RomanConverter.MININTEGER];
+    }
+
+    /**
+     * Writes the ASCII bytes of the numeral of the given value at the position
+     * of the buffer, advancing it.
+     *
+     * @param value in [-3999, 3999].
+     * @param buffer with at least {@link #MAX_NUMERAL_BYTES} bytes remaining.
+     * @return the number of written bytes.
+     */
+    static int encode(int value, ByteBuffer buffer) {
+        byte[] numeral = numeralBytes(value);
+        buffer.put(numeral);
+        return numeral.length;
+    }
+
+    /**
+     * Writes the decimal ASCII digits of the given int at the position of the
+     * buffer, advancing it.
+     *
+     * @param value any int.
+     * @param buffer with at least 11 bytes remaining.
+     */
+    static void putDecimal(int value, ByteBuffer buffer) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+        long magnitude = Math.abs((long) value);
+        long divisor = 1;
+        while (divisor * 10 <= magnitude) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + (magnitude / divisor) % 10));
+        }
+    }
+
+    /**
+     * Parses the optionally signed decimal integer written in the given range
+     * of the buffer, without moving its position.
+     * <p>
+     * Integers too big for a long saturate to {@link Long#MAX_VALUE} or
+     * {@code -Long.MAX_VALUE}, which are out of the roman numerals range
+     * anyway.
+     *
+     * @param buffer containing the integer.
+     * @param from index of the first byte, included.
+     * @param to index after the last byte.
+     * @return the parsed integer or {@link #NOT_DECIMAL} if the range contains
+     * anything else than a sign and digits.
+     */
+    static long parseDecimal(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        long sign = 1;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            sign = buffer.get(i) == '-' ? -1 : 1;
+            i++;
+        }
+        if (i == to) {
+            return NOT_DECIMAL;
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return NOT_DECIMAL;
+            }
+            value = value > (Long.MAX_VALUE - digit) / 10 ? Long.MAX_VALUE : value * 10 + digit;
+        }
+        return sign * value;
+    }
+
+    /**
+     * Verifies if the byte is ASCII whitespace, as removed by
+     * {@link RomanNumeral}.
+     *
+     * @param b byte to be checked.
+     * @return {@code true} for space, tab, line feed, vertical tab, form feed
+     * and carriage return.
+     */
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= '\t' && b <= '\r');
+    }
+
+    /**
+     * Upcases an ASCII letter, leaving any other byte unchanged.
+     *
+     * @param b byte to be upcased.
+     * @return the upcased byte.
+     */
+    private static int upcase(int b) {
+        return b >= 'a' && b <= 'z' ? b - ('a' - 'A') : b;
+    }
+
+    /**
+     * Decodes the roman numeral written in the given range of the buffer,
+     * without moving its position.
+     * <p>
+     * The bytes are read once, left to right, by an automaton following
+     * {@link RomanNumeral#CORRECT_ROMAN_SYNTAX_REGEX}: for each decimal
+     * position, from the thousands to the units, it accepts {@code ten-like}
+     * characters up to three times, optionally after a {@code five-like} one,
+     * or the subtractive pairs. A character not accepted by the current
+     * position closes it and is tried on the following ones.
+     *
+     * @param buffer containing the numeral.
+     * @param from index of the first byte, included.
+     * @param to index after the last byte.
+     * @return the value of the numeral or
+     * {@link RomanConversionEngine#NOT_CANONICAL}.
+     */
+    static int decode(ByteBuffer buffer, int from, int to) {
+        int sign = 1;
+        int symbols = 0;
+        boolean nulla = false;
+        int position = 0;
+        int state = START;
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (isWhitespace(b)) {
+                continue;
+            }
+            int c = upcase(b);
+            if (c == '-' && symbols == 0 && sign == 1) {
+                sign = -1;
+                continue;
+            }
+            if (symbols == 0 && c == 'N') {
+                nulla = true;
+            }
+            if (nulla) {
+                if (symbols >= NULLA_BYTES.length || c != NULLA_BYTES[symbols]) {
+                    return RomanConversionEngine.NOT_CANONICAL;
+                }
+                symbols++;
+                continue;
+            }
+            symbols++;
+            while (true) {
+                if (position == TENS_LIKE.length) {
+                    return RomanConversionEngine.NOT_CANONICAL;
+                }
+                int unit = UNITS[position];
+                if (state == START) {
+                    if (c == TENS_LIKE[position]) {
+                        state = ONE;
+                        value += unit;
+                        break;
+                    }
+                    if (c == FIVES_LIKE[position]) {
+                        state = FIVE;
+                        value += 5 * unit;
+                        break;
+                    }
+                } else if (state == ONE) {
+                    if (c == NEXT_TENS_LIKE[position]) {
+                        state = CLOSED;
+                        value += 8 * unit;
+                        break;
+                    }
+                    if (c == FIVES_LIKE[position]) {
+                        state = CLOSED;
+                        value += 3 * unit;
+                        break;
+                    }
+                    if (c == TENS_LIKE[position]) {
+                        state++;
+                        value += unit;
+                        break;
+                    }
+                } else if (state == TWO || (state >= FIVE && state < FIVE + 3)) {
+                    if (c == TENS_LIKE[position]) {
+                        state++;
+                        value += unit;
+                        break;
+                    }
+                }
+                position++;
+                state = START;
+            }
+        }
+        if (nulla) {
+            return symbols == NULLA_BYTES.length ? 0 : RomanConversionEngine.NOT_CANONICAL;
+        }
+        if (symbols == 0 && sign == 1) {
+            return RomanConversionEngine.NOT_CANONICAL;
+        }
+        return sign * value;
+    }
+
+    /**
+     * Decodes the roman numeral written in the given range of the array.
+     *
+     * @param bytes containing the numeral.
+     * @param from index of the first byte, included.
+     * @param to index after the last byte.
+     * @return the value of the numeral or
+     * {@link RomanConversionEngine#NOT_CANONICAL}.
+     */
+    static int decode(byte[] bytes, int from, int to) {
+        return decode(ByteBuffer.wrap(bytes), from, to);
+    }
+}
@@ -12,8 +12,6 @@
 package it.matjaz.jnumerus;
 
 import java.text.MessageFormat;
-import java.util.Locale;
-import java.util.ResourceBundle;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -33,9 +31,33 @@ public class RomanCalculator {
     }
 
     /**
-     * Default ResourceBundle containing english strings.
+     * Begins the flight recorder event of an operation, before its
+     * arithmetic, so that the event times the whole operation.
+     *
+     * @return the begun event or {@code null} if it would not be recorded.
      */
-    private static final ResourceBundle romanBundle = ResourceBundle.getBundle("RomanBundle", Locale.US);
+    private static RomanOverflowEvent beginOverflowEvent() {
+        return RomanFlightRecorder.isRecording() ? RomanOverflowEvent.beginIfEnabled() : null;
+    }
+
+    /**
+     * Records an operation with a result out of the roman range in
+     * {@link RomanMetrics} and ends its flight recorder event, when enabled.
+     *
+     * @param event begun by {@link #beginOverflowEvent()}, may be
+     * {@code null}.
+     * @param operation name of the method.
+     * @param one first operand.
+     * @param two second operand.
+     */
+    private static void recordOverflow(RomanOverflowEvent event, String operation, RomanInteger one, RomanInteger two) {
+        if (RomanMetrics.ENABLED) {
+            RomanMetrics.get().recordOverflow();
+        }
+        if (event != null) {
+            event.end(operation, one, two);
+        }
+    }
 
     /**
      * Returns a RomanInteger containing the sum of two RomanIntegers.
@@ -50,10 +72,12 @@ public class RomanCalculator {
      * {@link RomanInteger#MAXINTEGER}.
      */
     public static RomanInteger sum(RomanInteger one, RomanInteger two) throws IllegalArabicValueException {
+        RomanOverflowEvent event = beginOverflowEvent();
         try {
             return new RomanInteger(one.getValue() + two.getValue());
         } catch (IllegalArabicValueException ex) {
-            throw new IllegalArabicValueException(romanBundle.getString("TooBigSum"));
+            recordOverflow(event, "sum", one, two);
+            throw new IllegalArabicValueException(RomanMessages.getString("TooBigSum"));
         }
     }
 
@@ -70,10 +94,12 @@ public class RomanCalculator {
      * {@link RomanInteger#MININTEGER}.
      */
     public static RomanInteger difference(RomanInteger one, RomanInteger two) throws IllegalArabicValueException {
+        RomanOverflowEvent event = beginOverflowEvent();
         try {
             return new RomanInteger(one.getValue() - two.getValue());
         } catch (IllegalArabicValueException ex) {
-            throw new IllegalArabicValueException(romanBundle.getString("TooSmallSubtraction"));
+            recordOverflow(event, "difference", one, two);
+            throw new IllegalArabicValueException(RomanMessages.getString("TooSmallSubtraction"));
         }
     }
 
@@ -90,10 +116,12 @@ public class RomanCalculator {
      * {@link RomanInteger#MAXINTEGER}.
      */
     public static RomanInteger product(RomanInteger one, RomanInteger two) throws IllegalArabicValueException {
+        RomanOverflowEvent event = beginOverflowEvent();
         try {
             return new RomanInteger(one.getValue() * two.getValue());
         } catch (IllegalArabicValueException ex) {
-            throw new IllegalArabicValueException(romanBundle.getString("TooBigProduct"));
+            recordOverflow(event, "product", one, two);
+            throw new IllegalArabicValueException(RomanMessages.getString("TooBigProduct"));
         }
     }
 
@@ -116,10 +144,10 @@ public class RomanCalculator {
         try {
             return new RomanInteger(one.getValue() / two.getValue());
         } catch (ArithmeticException ex) {
-            throw new ArithmeticException(romanBundle.getString("DivisionByZero"));
+            throw new ArithmeticException(RomanMessages.getString("DivisionByZero"));
         } catch (IllegalArabicValueException ex) {
             Logger.getLogger(RomanConverter.class.getName()).log(Level.SEVERE, null, ex);
-            String message = MessageFormat.format(romanBundle.getString("CalculatorInternalErrorDivision"), one, two, ex.getMessage());
+            String message = MessageFormat.format(RomanMessages.getString("CalculatorInternalErrorDivision"), one, two, ex.getMessage());
             throw new RuntimeException(message);
         }
     }
@@ -140,10 +168,10 @@ public class RomanCalculator {
         try {
             return new RomanInteger(one.getValue() % two.getValue());
         } catch (ArithmeticException ex) {
-            throw new ArithmeticException(romanBundle.getString("DivisionByZero"));
+            throw new ArithmeticException(RomanMessages.getString("DivisionByZero"));
         } catch (IllegalArabicValueException ex) {
             Logger.getLogger(RomanConverter.class.getName()).log(Level.SEVERE, null, ex);
-            String message = MessageFormat.format(romanBundle.getString("CalculatorInternalErrorRemainder"), one, two, ex.getMessage());
+            String message = MessageFormat.format(RomanMessages.getString("CalculatorInternalErrorRemainder"), one, two, ex.getMessage());
             throw new RuntimeException(message);
         }
     }
@@ -162,10 +190,12 @@ public class RomanCalculator {
      * @see Math#pow(double, double) on which the method is based.
      */
     public static RomanInteger power(RomanInteger one, RomanInteger two) throws IllegalArabicValueException {
+        RomanOverflowEvent event = beginOverflowEvent();
         try {
             return new RomanInteger((int) Math.pow(one.getValue(), two.getValue()));
         } catch (IllegalArabicValueException ex) {
-            throw new IllegalArabicValueException(romanBundle.getString("TooBigPower"));
+            recordOverflow(event, "power", one, two);
+            throw new IllegalArabicValueException(RomanMessages.getString("TooBigPower"));
         }
     }
 }
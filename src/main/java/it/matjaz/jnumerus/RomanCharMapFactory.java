@@ -268,8 +268,23 @@ public class RomanCharMapFactory {
      * org.apache.commons.collections4.bidimap</a>
      */
     public static BidiMap generateBidiCharMap() {
-        DualHashBidiMap bidiMap = new DualHashBidiMap(generateCharMap());
-        return UnmodifiableBidiMap.unmodifiableBidiMap(bidiMap);
+        return BidiCharMapBuilder.build();
+    }
+
+    /**
+     * Builder of the BidiMap of {@link #generateBidiCharMap()}.
+     * <p>
+     * It is a separate class so that the classes of Apache Commons Collections
+     * are loaded only when a BidiMap is requested: the JVM verifies all the
+     * methods of a class when linking it and verifying this one would load
+     * them, even just to generate the other collections.
+     */
+    private static class BidiCharMapBuilder {
+
+        private static BidiMap build() {
+            DualHashBidiMap bidiMap = new DualHashBidiMap(generateCharMap());
+            return UnmodifiableBidiMap.unmodifiableBidiMap(bidiMap);
+        }
     }
 
 }
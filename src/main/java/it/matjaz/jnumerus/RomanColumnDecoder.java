@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+/**
+ * Decodes whole columns of ASCII roman numerals into their int values.
+ * <p>
+ * Two column layouts are supported:
+ * <ul>
+ * <li><b>fixed width</b>: every record takes the same number of bytes, the
+ * numeral padded with trailing spaces;</li>
+ * <li><b>length prefixed</b>: every record is an unsigned byte with the
+ * length of the numeral followed by the numeral.</li>
+ * </ul>
+ * The records are decoded with the same rules as {@link RomanNumeral}, so
+ * lowercase chars and whitespace are accepted, and records that are not
+ * syntactically correct numerals give
+ * {@link RomanConversionEngine#NOT_CANONICAL} instead of throwing, to keep
+ * decoding the rest of the column.
+ * <p>
+ * When the running JVM offers the incubating Vector API, the canonical
+ * records of up to 16 bytes are decoded with SIMD instructions, one record per
+ * vector: the symbols are mapped to their values with lane comparisons, the
+ * subtractive pairs are found comparing each lane with the next one and the
+ * signed values are summed in a single reduction. The record is then compared
+ * with the canonical numeral of the sum and any record that does not match,
+ * valid or not, is decoded by the scalar decoder, so the results are the same
+ * bit by bit. The Vector API is used only when the library is built with a
+ * JDK 17 or newer and the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, unless the system property
+ * {@value #SCALAR_PROPERTY} is {@code true}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanBulkFormatter
+ */
+public final class RomanColumnDecoder {
+
+    /**
+     * System property forcing the scalar decoder when {@code true}.
+     */
+    static final String SCALAR_PROPERTY = "jnumerus.vector.disabled";
+
+    /**
+     * Name of the Vector API implementation, compiled only with a JDK 17 or
+     * newer.
+     */
+    private static final String VECTOR_KERNEL = "it.matjaz.jnumerus.RomanVectorColumnKernel";
+
+    /**
+     * The implementation used, chosen once at class initialization.
+     */
+    private static final Kernel KERNEL = loadKernel();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanColumnDecoder() {
+    }
+
+    /**
+     * Decoder of the records of a column.
+     */
+    interface Kernel {
+
+        /**
+         * Decodes consecutive fixed width records.
+         *
+         * @param column bytes of the records.
+         * @param offset of the first record, with all the records in bounds.
+         * @param width bytes of each record.
+         * @param values receiving one value per record.
+         * @return the number of invalid records.
+         */
+        int decodeFixedWidth(byte[] column, int offset, int width, int[] values);
+
+        /**
+         * Decodes consecutive length prefixed records.
+         *
+         * @param column bytes of the records.
+         * @param offset of the length of the first record.
+         * @param values receiving one value per record.
+         * @return the offset after the last record.
+         * @throws IllegalArgumentException if a record exceeds the column.
+         */
+        int decodeLengthPrefixed(byte[] column, int offset, int[] values);
+    }
+
+    /**
+     * Decoder of one record at a time, working on any JVM.
+     */
+    static final class ScalarKernel implements Kernel {
+
+        @Override
+        public int decodeFixedWidth(byte[] column, int offset, int width, int[] values) {
+            int invalid = 0;
+            int start = offset;
+            for (int i = 0; i < values.length; i++, start += width) {
+                values[i] = RomanBytes.decode(column, start, start + width);
+                if (values[i] == RomanConversionEngine.NOT_CANONICAL) {
+                    invalid++;
+                }
+            }
+            return invalid;
+        }
+
+        @Override
+        public int decodeLengthPrefixed(byte[] column, int offset, int[] values) {
+            int position = offset;
+            for (int i = 0; i < values.length; i++) {
+                int start = position + 1;
+                position = recordEnd(column, position);
+                values[i] = RomanBytes.decode(column, start, position);
+            }
+            return position;
+        }
+    }
+
+    /**
+     * Loads the Vector API implementation if enabled and available, else the
+     * scalar one.
+     *
+     * @return the kernel to be used.
+     */
+    private static Kernel loadKernel() {
+        if (!Boolean.getBoolean(SCALAR_PROPERTY)) {
+            try {
+                return (Kernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError unavailableEx) {
+                // Built with an older JDK or incubator module not added
+            }
+        }
+        return new ScalarKernel();
+    }
+
+    /**
+     * Verifies if the columns are decoded with the Vector API.
+     *
+     * @return {@code true} if SIMD instructions are used.
+     */
+    public static boolean isVectorized() {
+        return !(KERNEL instanceof ScalarKernel);
+    }
+
+    /**
+     * Returns the end of the length prefixed record starting at the given
+     * position.
+     *
+     * @param column bytes of the records.
+     * @param position of the length of the record.
+     * @return the offset after the record.
+     * @throws IllegalArgumentException if the record exceeds the column.
+     */
+    static int recordEnd(byte[] column, int position) {
+        if (position >= column.length) {
+            throw new IllegalArgumentException(String.valueOf(position));
+        }
+        int end = position + 1 + (column[position] & 0xFF);
+        if (end > column.length) {
+            throw new IllegalArgumentException(String.valueOf(position));
+        }
+        return end;
+    }
+
+    /**
+     * Decodes all the records of a fixed width column.
+     *
+     * @param column bytes of the records, a multiple of the width.
+     * @param width bytes of each record.
+     * @return the value of each record,
+     * {@link RomanConversionEngine#NOT_CANONICAL} for the incorrect ones.
+     * @throws IllegalArgumentException if the width is not positive or does
+     * not divide the column length.
+     */
+    public static int[] decodeFixedWidth(byte[] column, int width) {
+        if (width <= 0 || column.length % width != 0) {
+            throw new IllegalArgumentException(String.valueOf(width));
+        }
+        int[] values = new int[column.length / width];
+        decodeFixedWidth(column, 0, width, values);
+        return values;
+    }
+
+    /**
+     * Decodes as many fixed width records as the length of the values array.
+     *
+     * @param column bytes of the records.
+     * @param offset of the first record.
+     * @param width bytes of each record.
+     * @param values receiving the value of each record,
+     * {@link RomanConversionEngine#NOT_CANONICAL} for the incorrect ones.
+     * @return the number of invalid records.
+     * @throws IllegalArgumentException if the width is not positive or the
+     * records exceed the column.
+     */
+    public static int decodeFixedWidth(byte[] column, int offset, int width, int[] values) {
+        if (width <= 0 || offset < 0 || offset + (long) width * values.length > column.length) {
+            throw new IllegalArgumentException(String.valueOf(width));
+        }
+        return KERNEL.decodeFixedWidth(column, offset, width, values);
+    }
+
+    /**
+     * Decodes all the records of a length prefixed column.
+     *
+     * @param column bytes of the records.
+     * @return the value of each record,
+     * {@link RomanConversionEngine#NOT_CANONICAL} for the incorrect ones.
+     * @throws IllegalArgumentException if the last record exceeds the column.
+     */
+    public static int[] decodeLengthPrefixed(byte[] column) {
+        int count = 0;
+        for (int position = 0; position < column.length; count++) {
+            position = recordEnd(column, position);
+        }
+        int[] values = new int[count];
+        decodeLengthPrefixed(column, 0, values);
+        return values;
+    }
+
+    /**
+     * Decodes as many length prefixed records as the length of the values
+     * array.
+     *
+     * @param column bytes of the records.
+     * @param offset of the length of the first record.
+     * @param values receiving the value of each record,
+     * {@link RomanConversionEngine#NOT_CANONICAL} for the incorrect ones.
+     * @return the offset after the last decoded record, where the next one
+     * starts.
+     * @throws IllegalArgumentException if a record exceeds the column.
+     */
+    public static int decodeLengthPrefixed(byte[] column, int offset, int[] values) {
+        if (offset < 0) {
+            throw new IllegalArgumentException(String.valueOf(offset));
+        }
+        return KERNEL.decodeLengthPrefixed(column, offset, values);
+    }
+}
@@ -0,0 +1,614 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only column of values of the roman numerals range stored in a compact
+ * binary file, written by a {@link RomanColumnFileWriter}.
+ * <p>
+ * The values are stored in blocks of a fixed number of values, the last one
+ * possibly shorter, each encoded with one of the {@link Encoding encodings}:
+ * plain 16 bit values, values packed in 13 bits, as the 7999 values of the
+ * range need, deltas from the previous value packed in as few bits as the
+ * block needs, or runs of equal values. Each block starts with a header
+ * stating its encoding, count, minimum and maximum, and the footer at the end
+ * of the file repeats the position, minimum and maximum of every block, so
+ * the blocks with no value in a searched range are skipped without reading
+ * them.
+ * <p>
+ * The file is memory-mapped when {@link #open(java.nio.file.Path) opened}, so
+ * the values are read from the page cache without parsing: a value of a plain
+ * or packed block is read directly by its index. A delta block repeats the
+ * value every {@link #DELTA_CHECKPOINT_VALUES} values, so reading a value
+ * adds at most 63 deltas to the previous checkpoint, at the cost of 2 bytes
+ * every 64 values. A run-length block stores the end of each run instead of
+ * its length, so the run of a value is found by a binary search of the runs
+ * of the block.
+ * <p>
+ * The structure of the file is, with all numbers big-endian:
+ *
+ * <pre>
+ * int   magic number "JNRC"
+ * int   format version
+ * int   values per block
+ * int   reserved
+ * for each block:
+ *   byte  encoding
+ *   byte  bits per value or delta
+ *   short reserved
+ *   int   number of values
+ *   short minimum
+ *   short maximum
+ *   int   payload size in bytes
+ *   byte  payload
+ * for each block, the footer:
+ *   long  position of the block
+ *   short minimum
+ *   short maximum
+ * long  position of the footer
+ * long  number of values
+ * </pre>
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanColumnFileWriter
+ */
+public final class RomanColumnFile {
+
+    /**
+     * Magic number at the beginning of every column file: "JNRC" in ASCII.
+     */
+    static final int MAGIC = 0x4A4E5243;
+
+    /**
+     * Version of the file structure.
+     */
+    static final int FORMAT_VERSION = 2;
+
+    /**
+     * Default number of values of each block.
+     */
+    public static final int DEFAULT_BLOCK_VALUES = 4096;
+
+    /**
+     * Maximum number of values of each block, so that the end of a run fits in
+     * a char.
+     */
+    static final int MAX_BLOCK_VALUES = 65535;
+
+    /**
+     * Size in bytes of the file header.
+     */
+    static final int HEADER_BYTES = 16;
+
+    /**
+     * Size in bytes of the header of each block.
+     */
+    static final int BLOCK_HEADER_BYTES = 16;
+
+    /**
+     * Size in bytes of each footer entry.
+     */
+    static final int FOOTER_ENTRY_BYTES = 12;
+
+    /**
+     * Size in bytes of the trailer after the footer.
+     */
+    static final int TRAILER_BYTES = 16;
+
+    /**
+     * Bits of a packed value, enough for the 7999 values of the range.
+     */
+    static final int PACKED_BITS = 13;
+
+    /**
+     * Number of values between two values repeated in full in a delta block.
+     */
+    static final int DELTA_CHECKPOINT_VALUES = 64;
+
+    /**
+     * Encoding of the values of a block.
+     */
+    public enum Encoding {
+
+        /**
+         * Each value in 16 bits, the fastest to read.
+         */
+        PLAIN,
+        /**
+         * Each value, plus 3999, in 13 bits.
+         */
+        PACKED,
+        /**
+         * Every 64th value in 16 bits, then the difference of each value from
+         * the previous one, zigzag encoded in as many bits as the biggest
+         * difference of the block needs: compact for values changing slowly,
+         * like sorted values or page numbers.
+         */
+        DELTA,
+        /**
+         * Each run of equal values as the value and the index in the block
+         * after the end of the run, in 16 bits each: compact for long runs of
+         * equal values.
+         */
+        RUN_LENGTH
+    }
+
+    /**
+     * Number of values of each block but the last one.
+     */
+    private final int blockValues;
+
+    /**
+     * Number of values in the file.
+     */
+    private final long size;
+
+    /**
+     * Minimum and maximum of each block.
+     */
+    private final short[] blockMins;
+    private final short[] blockMaxs;
+
+    /**
+     * Memory-mapped blocks, split into windows of less than 2 GiB made of
+     * whole blocks.
+     */
+    private final ByteBuffer[] windows;
+
+    /**
+     * Window of each block and position of the block in it.
+     */
+    private final int[] blockWindows;
+    private final int[] blockStarts;
+
+    /**
+     * Constructs a column file over already mapped blocks.
+     *
+     * @param blockValues number of values of each block.
+     * @param size number of values.
+     * @param blockMins minimum of each block.
+     * @param blockMaxs maximum of each block.
+     * @param windows mapped blocks.
+     * @param blockWindows window of each block.
+     * @param blockStarts position of each block in its window.
+     */
+    private RomanColumnFile(int blockValues, long size, short[] blockMins, short[] blockMaxs, ByteBuffer[] windows,
+            int[] blockWindows, int[] blockStarts) {
+        this.blockValues = blockValues;
+        this.size = size;
+        this.blockMins = blockMins;
+        this.blockMaxs = blockMaxs;
+        this.windows = windows;
+        this.blockWindows = blockWindows;
+        this.blockStarts = blockStarts;
+    }
+
+    /**
+     * Opens and memory-maps the column file at the given path.
+     * <p>
+     * The file is closed immediately after mapping, the mapping stays valid
+     * until this RomanColumnFile is garbage collected.
+     *
+     * @param path of a file written by {@link RomanColumnFileWriter}.
+     * @return the opened column file.
+     * @throws IOException if the file could not be read or is not a jNumerus
+     * column file.
+     */
+    public static RomanColumnFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_BYTES + TRAILER_BYTES) {
+                throw corruptFile(path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            int blockValues = header.getInt(8);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION
+                    || blockValues < 1 || blockValues > MAX_BLOCK_VALUES) {
+                throw corruptFile(path);
+            }
+            ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, fileSize - TRAILER_BYTES, TRAILER_BYTES);
+            long footerStart = trailer.getLong(0);
+            long size = trailer.getLong(8);
+            long blocks = size < 0 ? -1 : (size + blockValues - 1) / blockValues;
+            if (blocks < 0 || blocks * FOOTER_ENTRY_BYTES > Integer.MAX_VALUE || footerStart < HEADER_BYTES
+                    || footerStart + blocks * FOOTER_ENTRY_BYTES != fileSize - TRAILER_BYTES) {
+                throw corruptFile(path);
+            }
+            int blockCount = (int) blocks;
+            ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerStart, blocks * FOOTER_ENTRY_BYTES);
+            long[] positions = new long[blockCount + 1];
+            short[] blockMins = new short[blockCount];
+            short[] blockMaxs = new short[blockCount];
+            positions[0] = HEADER_BYTES;
+            for (int block = 0; block < blockCount; block++) {
+                int entry = block * FOOTER_ENTRY_BYTES;
+                if (footer.getLong(entry) != positions[block]) {
+                    throw corruptFile(path);
+                }
+                blockMins[block] = footer.getShort(entry + 8);
+                blockMaxs[block] = footer.getShort(entry + 10);
+                positions[block + 1] = block + 1 < blockCount ? footer.getLong(entry + FOOTER_ENTRY_BYTES) : footerStart;
+                if (positions[block + 1] - positions[block] < BLOCK_HEADER_BYTES
+                        || positions[block + 1] - positions[block] > Integer.MAX_VALUE) {
+                    throw corruptFile(path);
+                }
+            }
+            List<ByteBuffer> windows = new ArrayList<>();
+            int[] blockWindows = new int[blockCount];
+            int[] blockStarts = new int[blockCount];
+            for (int first = 0; first < blockCount;) {
+                int end = first + 1;
+                while (end < blockCount && positions[end + 1] - positions[first] <= Integer.MAX_VALUE) {
+                    end++;
+                }
+                for (int block = first; block < end; block++) {
+                    blockWindows[block] = windows.size();
+                    blockStarts[block] = (int) (positions[block] - positions[first]);
+                }
+                windows.add(channel.map(FileChannel.MapMode.READ_ONLY, positions[first], positions[end] - positions[first]));
+                first = end;
+            }
+            return new RomanColumnFile(blockValues, size, blockMins, blockMaxs,
+                    windows.toArray(new ByteBuffer[0]), blockWindows, blockStarts);
+        }
+    }
+
+    /**
+     * Builds the exception for a file that is not a valid column file.
+     *
+     * @param path of the file.
+     * @return the exception to be thrown.
+     */
+    private static IOException corruptFile(Path path) {
+        return new IOException(MessageFormat.format(RomanMessages.getString("IllegalColumnFile"), path));
+    }
+
+    /**
+     * Returns the number of values in the file.
+     *
+     * @return the number of values.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of values of each block but the last one.
+     *
+     * @return the values per block.
+     */
+    public int getBlockValues() {
+        return blockValues;
+    }
+
+    /**
+     * Returns the number of blocks.
+     *
+     * @return the number of blocks.
+     */
+    public int getBlockCount() {
+        return blockMins.length;
+    }
+
+    /**
+     * Returns the number of values of a block.
+     *
+     * @param block index of the block.
+     * @return the values of the block.
+     */
+    public int getBlockSize(int block) {
+        checkBlock(block);
+        return (int) Math.min(blockValues, size - (long) block * blockValues);
+    }
+
+    /**
+     * Returns the minimum value of a block, from the footer.
+     *
+     * @param block index of the block.
+     * @return the minimum.
+     */
+    public int getBlockMin(int block) {
+        checkBlock(block);
+        return blockMins[block];
+    }
+
+    /**
+     * Returns the maximum value of a block, from the footer.
+     *
+     * @param block index of the block.
+     * @return the maximum.
+     */
+    public int getBlockMax(int block) {
+        checkBlock(block);
+        return blockMaxs[block];
+    }
+
+    /**
+     * Returns the encoding of a block.
+     *
+     * @param block index of the block.
+     * @return the encoding.
+     */
+    public Encoding getBlockEncoding(int block) {
+        checkBlock(block);
+        return encodingOf(windows[blockWindows[block]], blockStarts[block]);
+    }
+
+    /**
+     * Returns the value at the given index.
+     *
+     * @param index of the value, in [0, {@link #size()}).
+     * @return the value.
+     * @throws IndexOutOfBoundsException if the index is out of range.
+     */
+    public int get(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        int block = (int) (index / blockValues);
+        int position = (int) (index % blockValues);
+        ByteBuffer window = windows[blockWindows[block]];
+        int start = blockStarts[block];
+        int payload = start + BLOCK_HEADER_BYTES;
+        int width = window.get(start + 1) & 0xFF;
+        switch (encodingOf(window, start)) {
+            case PLAIN:
+                return window.getShort(payload + 2 * position);
+            case PACKED:
+                return bits(window, payload, (long) position * PACKED_BITS, PACKED_BITS) + RomanConverter.MININTEGER;
+            case DELTA:
+                int checkpoint = position / DELTA_CHECKPOINT_VALUES;
+                int deltas = payload + 2 * checkpoints(window.getInt(start + 4));
+                int value = window.getShort(payload + 2 * checkpoint);
+                for (int i = checkpoint * DELTA_CHECKPOINT_VALUES; i < position; i++) {
+                    value += unzigzag(bits(window, deltas, (long) i * width, width));
+                }
+                return value;
+            default:
+                int low = 0;
+                int high = window.getInt(start + 12) / 4 - 1;
+                while (low < high) {
+                    int middle = (low + high) >>> 1;
+                    if (window.getChar(payload + 4 * middle + 2) <= position) {
+                        low = middle + 1;
+                    } else {
+                        high = middle;
+                    }
+                }
+                return window.getShort(payload + 4 * low);
+        }
+    }
+
+    /**
+     * Decodes all the values of a block.
+     *
+     * @param block index of the block.
+     * @param values array of at least {@link #getBlockValues()} ints receiving
+     * the values.
+     * @return the number of decoded values.
+     */
+    public int readBlock(int block, int[] values) {
+        int count = getBlockSize(block);
+        ByteBuffer window = windows[blockWindows[block]];
+        int start = blockStarts[block];
+        int payload = start + BLOCK_HEADER_BYTES;
+        int width = window.get(start + 1) & 0xFF;
+        switch (encodingOf(window, start)) {
+            case PLAIN:
+                for (int i = 0; i < count; i++) {
+                    values[i] = window.getShort(payload + 2 * i);
+                }
+                break;
+            case PACKED:
+                for (int i = 0; i < count; i++) {
+                    values[i] = bits(window, payload, (long) i * PACKED_BITS, PACKED_BITS) + RomanConverter.MININTEGER;
+                }
+                break;
+            case DELTA:
+                int deltas = payload + 2 * checkpoints(count);
+                int value = window.getShort(payload);
+                values[0] = value;
+                for (int i = 1; i < count; i++) {
+                    value += unzigzag(bits(window, deltas, (long) (i - 1) * width, width));
+                    values[i] = value;
+                }
+                break;
+            default:
+                for (int i = 0, run = payload; i < count; run += 4) {
+                    int end = window.getChar(run + 2);
+                    Arrays.fill(values, i, end, window.getShort(run));
+                    i = end;
+                }
+        }
+        return count;
+    }
+
+    /**
+     * Returns all the values in order.
+     *
+     * @return a sequential stream decoding one block at a time.
+     */
+    public IntStream values() {
+        return values(RomanConverter.MININTEGER, RomanConverter.MAXINTEGER);
+    }
+
+    /**
+     * Returns the values in the given range, in order, skipping the blocks
+     * with no value in the range.
+     *
+     * @param min smallest value, included.
+     * @param max biggest value, included.
+     * @return a sequential stream decoding the blocks that may contain values
+     * in the range.
+     */
+    public IntStream values(int min, int max) {
+        return IntStream.range(0, getBlockCount())
+                .filter(block -> overlaps(block, min, max))
+                .flatMap(block -> {
+                    int[] values = new int[blockValues];
+                    int count = readBlock(block, values);
+                    IntStream stream = Arrays.stream(values, 0, count);
+                    return contains(block, min, max) ? stream : stream.filter(v -> v >= min && v <= max);
+                });
+    }
+
+    /**
+     * Counts the values in the given range, decoding only the blocks partially
+     * in the range.
+     *
+     * @param min smallest value, included.
+     * @param max biggest value, included.
+     * @return the number of values in the range.
+     */
+    public long count(int min, int max) {
+        long count = 0;
+        int[] values = new int[blockValues];
+        for (int block = 0; block < getBlockCount(); block++) {
+            if (contains(block, min, max)) {
+                count += getBlockSize(block);
+            } else if (overlaps(block, min, max)) {
+                int blockSize = readBlock(block, values);
+                for (int i = 0; i < blockSize; i++) {
+                    if (values[i] >= min && values[i] <= max) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the values as a text file with the numeral of each value on a
+     * line, converted by {@link RomanConverter}.
+     *
+     * @param text file to be created or overwritten.
+     * @throws IOException if the file could not be written or this file
+     * contains values out of the roman numerals range.
+     */
+    public void toText(Path text) throws IOException {
+        RomanConverter converter = new RomanConverter();
+        int[] values = new int[blockValues];
+        try (BufferedWriter writer = Files.newBufferedWriter(text, StandardCharsets.US_ASCII)) {
+            for (int block = 0; block < getBlockCount(); block++) {
+                int count = readBlock(block, values);
+                for (int i = 0; i < count; i++) {
+                    writer.write(converter.integerToRomanString(values[i]));
+                    writer.write('\n');
+                }
+            }
+        } catch (IllegalArabicValueException ex) {
+            throw new IOException(ex);
+        }
+    }
+
+    /**
+     * Verifies that a block exists.
+     *
+     * @param block index of the block.
+     * @throws IndexOutOfBoundsException if there is no such block.
+     */
+    private void checkBlock(int block) {
+        if (block < 0 || block >= getBlockCount()) {
+            throw new IndexOutOfBoundsException(String.valueOf(block));
+        }
+    }
+
+    /**
+     * Tells if a block may contain values in the range.
+     */
+    private boolean overlaps(int block, int min, int max) {
+        return blockMins[block] <= max && blockMaxs[block] >= min;
+    }
+
+    /**
+     * Tells if all the values of a block are in the range.
+     */
+    private boolean contains(int block, int min, int max) {
+        return blockMins[block] >= min && blockMaxs[block] <= max;
+    }
+
+    /**
+     * Reads the encoding in the header of a block.
+     *
+     * @param window containing the block.
+     * @param start of the block in the window.
+     * @return the encoding.
+     * @throws IllegalStateException if the encoding is unknown.
+     */
+    private static Encoding encodingOf(ByteBuffer window, int start) {
+        int code = window.get(start);
+        if (code < 0 || code >= Encoding.values().length) {
+            throw new IllegalStateException(RomanMessages.getString("IllegalColumnBlock"));
+        }
+        return Encoding.values()[code];
+    }
+
+    /**
+     * Returns the number of values repeated in full in a delta block.
+     *
+     * @param count number of values of the block.
+     * @return the number of checkpoints.
+     */
+    static int checkpoints(int count) {
+        return (count + DELTA_CHECKPOINT_VALUES - 1) / DELTA_CHECKPOINT_VALUES;
+    }
+
+    /**
+     * Reads an unsigned value of at most 16 bits packed least significant bit
+     * first.
+     *
+     * @param window containing the packed values.
+     * @param start of the packed values in the window.
+     * @param bitIndex index of the first bit of the value.
+     * @param width number of bits of the value.
+     * @return the value.
+     */
+    static int bits(ByteBuffer window, int start, long bitIndex, int width) {
+        if (width == 0) {
+            return 0;
+        }
+        int index = start + (int) (bitIndex >>> 3);
+        int shift = (int) (bitIndex & 7);
+        int bytes = (shift + width + 7) >>> 3;
+        int word = 0;
+        for (int i = 0; i < bytes; i++) {
+            word |= (window.get(index + i) & 0xFF) << (8 * i);
+        }
+        return (word >>> shift) & ((1 << width) - 1);
+    }
+
+    /**
+     * Decodes a zigzag encoded difference.
+     *
+     * @param zigzag the encoded difference.
+     * @return the difference.
+     */
+    static int unzigzag(int zigzag) {
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
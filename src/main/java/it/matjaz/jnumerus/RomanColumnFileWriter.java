@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes values of the roman numerals range to a {@link RomanColumnFile}.
+ * <p>
+ * The values are collected in blocks of
+ * {@link RomanColumnFile#DEFAULT_BLOCK_VALUES} values, each written as soon as
+ * it is full, so the writer uses constant memory, apart from 12 bytes per
+ * block for the footer written on {@link #close()}. Every block is encoded
+ * with the given {@link RomanColumnFile.Encoding encoding} or, by default, with
+ * the one taking fewer bytes for that block: packed 13 bit values unless the
+ * deltas or the runs of the block are more compact.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanColumnFile
+ */
+public final class RomanColumnFileWriter implements Closeable {
+
+    /**
+     * The file being written.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Encoding of every block, {@code null} to choose the smallest one for
+     * each block.
+     */
+    private final RomanColumnFile.Encoding encoding;
+
+    /**
+     * The values of the block being filled.
+     */
+    private final int[] block;
+
+    /**
+     * Number of values in the block being filled.
+     */
+    private int blockSize;
+
+    /**
+     * Footer entries of the written blocks.
+     */
+    private final ByteArrayOutputStream footer = new ByteArrayOutputStream();
+
+    /**
+     * Number of bytes written to the file.
+     */
+    private long position;
+
+    /**
+     * Number of added values.
+     */
+    private long size;
+
+    /**
+     * Tells if the footer has been written.
+     */
+    private boolean closed;
+
+    /**
+     * Tells if writing failed, in which case the file is closed without a
+     * footer so that it cannot be opened as a shorter valid column.
+     */
+    private boolean failed;
+
+    /**
+     * Creates or overwrites a column file choosing the smallest encoding for
+     * each block.
+     *
+     * @param path of the file to be written.
+     * @throws IOException if the file could not be created.
+     */
+    public RomanColumnFileWriter(Path path) throws IOException {
+        this(path, null);
+    }
+
+    /**
+     * Creates or overwrites a column file encoding all the blocks with the
+     * given encoding.
+     *
+     * @param path of the file to be written.
+     * @param encoding of the blocks, {@code null} to choose the smallest one
+     * for each block.
+     * @throws IOException if the file could not be created.
+     */
+    public RomanColumnFileWriter(Path path, RomanColumnFile.Encoding encoding) throws IOException {
+        this(path, encoding, RomanColumnFile.DEFAULT_BLOCK_VALUES);
+    }
+
+    /**
+     * Creates or overwrites a column file with the given number of values per
+     * block.
+     *
+     * @param path of the file to be written.
+     * @param encoding of the blocks, {@code null} to choose the smallest one
+     * for each block.
+     * @param blockValues in [1, {@link RomanColumnFile#MAX_BLOCK_VALUES}].
+     * @throws IOException if the file could not be created.
+     */
+    RomanColumnFileWriter(Path path, RomanColumnFile.Encoding encoding, int blockValues) throws IOException {
+        if (blockValues < 1 || blockValues > RomanColumnFile.MAX_BLOCK_VALUES) {
+            throw new IllegalArgumentException(String.valueOf(blockValues));
+        }
+        this.encoding = encoding;
+        this.block = new int[blockValues];
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+        out.writeInt(RomanColumnFile.MAGIC);
+        out.writeInt(RomanColumnFile.FORMAT_VERSION);
+        out.writeInt(blockValues);
+        out.writeInt(0);
+        position = RomanColumnFile.HEADER_BYTES;
+    }
+
+    /**
+     * Converts a text file with a roman numeral on each line to a column file
+     * choosing the smallest encoding for each block.
+     * <p>
+     * The numerals are converted by
+     * {@link RomanConverter#romanStringToInteger(java.lang.String)}, so they
+     * may be lowercase or surrounded by whitespace.
+     *
+     * @param text file to be read.
+     * @param path of the column file to be written.
+     * @return the number of written values.
+     * @throws IOException if the files could not be read or written.
+     * @throws IllegalNumeralSyntaxException if a line is not a roman numeral,
+     * in which case the column file is deleted.
+     */
+    public static long fromText(Path text, Path path) throws IOException, IllegalNumeralSyntaxException {
+        RomanConverter converter = new RomanConverter();
+        RomanColumnFileWriter writer = new RomanColumnFileWriter(path);
+        try (BufferedReader reader = Files.newBufferedReader(text, StandardCharsets.US_ASCII)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                writer.addValid(converter.romanStringToInteger(line));
+            }
+        } catch (IOException | IllegalNumeralSyntaxException | RuntimeException ex) {
+            writer.failed = true;
+            try {
+                writer.close();
+                Files.deleteIfExists(path);
+            } catch (IOException closeEx) {
+                ex.addSuppressed(closeEx);
+            }
+            throw ex;
+        }
+        writer.close();
+        return writer.size();
+    }
+
+    /**
+     * Returns the number of added values.
+     *
+     * @return the number of values.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Appends a value to the column.
+     *
+     * @param value in the roman numerals range.
+     * @throws IllegalArabicValueException if the value is not in [-3999,
+     * 3999].
+     * @throws IOException if a full block could not be written.
+     */
+    public void add(int value) throws IllegalArabicValueException, IOException {
+        checkValue(value);
+        addValid(value);
+    }
+
+    /**
+     * Appends values to the column, in order.
+     *
+     * @param values in the roman numerals range.
+     * @throws IllegalArabicValueException if any value is not in [-3999,
+     * 3999], in which case none is added.
+     * @throws IOException if a full block could not be written.
+     */
+    public void addAll(int... values) throws IllegalArabicValueException, IOException {
+        for (int value : values) {
+            checkValue(value);
+        }
+        for (int value : values) {
+            addValid(value);
+        }
+    }
+
+    /**
+     * Writes the last block, the footer and closes the file.
+     * <p>
+     * If writing a block failed, the file is closed without footer: it is
+     * left incomplete and cannot be opened.
+     *
+     * @throws IOException if the file could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (failed) {
+                return;
+            }
+            if (blockSize > 0) {
+                writeBlock();
+            }
+            long footerStart = position;
+            footer.writeTo(out);
+            out.writeLong(footerStart);
+            out.writeLong(size);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Verifies that the value is in the roman numerals range.
+     *
+     * @param value to be checked.
+     * @throws IllegalArabicValueException if not in [-3999, 3999].
+     */
+    private static void checkValue(int value) throws IllegalArabicValueException {
+        if (value < RomanConverter.MININTEGER || value > RomanConverter.MAXINTEGER) {
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+    }
+
+    /**
+     * Appends a value already in the roman numerals range.
+     *
+     * @param value in [-3999, 3999].
+     * @throws IOException if a full block could not be written.
+     */
+    private void addValid(int value) throws IOException {
+        if (closed) {
+            throw new IllegalStateException();
+        }
+        block[blockSize++] = value;
+        size++;
+        if (blockSize == block.length) {
+            writeBlock();
+        }
+    }
+
+    /**
+     * Encodes and writes the block being filled and its footer entry.
+     *
+     * @throws IOException if the file could not be written.
+     */
+    private void writeBlock() throws IOException {
+        int min = block[0];
+        int max = block[0];
+        int maxZigzag = 0;
+        int runs = 1;
+        for (int i = 1; i < blockSize; i++) {
+            min = Math.min(min, block[i]);
+            max = Math.max(max, block[i]);
+            maxZigzag = Math.max(maxZigzag, zigzag(block[i] - block[i - 1]));
+            if (block[i] != block[i - 1]) {
+                runs++;
+            }
+        }
+        int deltaWidth = 32 - Integer.numberOfLeadingZeros(maxZigzag);
+        RomanColumnFile.Encoding chosen = encoding;
+        if (chosen == null) {
+            chosen = RomanColumnFile.Encoding.PACKED;
+            int bytes = packedBytes(blockSize, RomanColumnFile.PACKED_BITS);
+            if (4 * runs < bytes) {
+                chosen = RomanColumnFile.Encoding.RUN_LENGTH;
+                bytes = 4 * runs;
+            }
+            if (2 * RomanColumnFile.checkpoints(blockSize) + packedBytes(blockSize - 1, deltaWidth) < bytes) {
+                chosen = RomanColumnFile.Encoding.DELTA;
+            }
+        }
+        byte[] payload;
+        int width;
+        switch (chosen) {
+            case PLAIN:
+                width = 16;
+                payload = new byte[2 * blockSize];
+                for (int i = 0; i < blockSize; i++) {
+                    payload[2 * i] = (byte) (block[i] >> 8);
+                    payload[2 * i + 1] = (byte) block[i];
+                }
+                break;
+            case PACKED:
+                width = RomanColumnFile.PACKED_BITS;
+                payload = new byte[packedBytes(blockSize, width)];
+                for (int i = 0; i < blockSize; i++) {
+                    putBits(payload, 0, (long) i * width, block[i] - RomanConverter.MININTEGER);
+                }
+                break;
+            case DELTA:
+                width = deltaWidth;
+                int deltas = 2 * RomanColumnFile.checkpoints(blockSize);
+                payload = new byte[deltas + packedBytes(blockSize - 1, width)];
+                for (int i = 0; i < blockSize; i += RomanColumnFile.DELTA_CHECKPOINT_VALUES) {
+                    int checkpoint = 2 * (i / RomanColumnFile.DELTA_CHECKPOINT_VALUES);
+                    payload[checkpoint] = (byte) (block[i] >> 8);
+                    payload[checkpoint + 1] = (byte) block[i];
+                }
+                for (int i = 1; i < blockSize; i++) {
+                    putBits(payload, deltas, (long) (i - 1) * width, zigzag(block[i] - block[i - 1]));
+                }
+                break;
+            default:
+                width = 0;
+                payload = new byte[4 * runs];
+                for (int i = 0, run = 0; i < blockSize; run += 4) {
+                    int length = 1;
+                    while (i + length < blockSize && block[i + length] == block[i]) {
+                        length++;
+                    }
+                    payload[run] = (byte) (block[i] >> 8);
+                    payload[run + 1] = (byte) block[i];
+                    i += length;
+                    payload[run + 2] = (byte) (i >> 8);
+                    payload[run + 3] = (byte) i;
+                }
+        }
+        DataOutputStream entry = new DataOutputStream(footer);
+        entry.writeLong(position);
+        entry.writeShort(min);
+        entry.writeShort(max);
+        try {
+            out.writeByte(chosen.ordinal());
+            out.writeByte(width);
+            out.writeShort(0);
+            out.writeInt(blockSize);
+            out.writeShort(min);
+            out.writeShort(max);
+            out.writeInt(payload.length);
+            out.write(payload);
+        } catch (IOException ex) {
+            failed = true;
+            throw ex;
+        }
+        position += RomanColumnFile.BLOCK_HEADER_BYTES + payload.length;
+        blockSize = 0;
+    }
+
+    /**
+     * Returns the bytes taken by packed values.
+     *
+     * @param count number of values.
+     * @param width bits of each value.
+     * @return the bytes, rounded up.
+     */
+    private static int packedBytes(int count, int width) {
+        return (int) (((long) count * width + 7) >>> 3);
+    }
+
+    /**
+     * Writes an unsigned value of at most 16 bits least significant bit first,
+     * as read by {@link RomanColumnFile#bits}.
+     *
+     * @param payload receiving the bits, initially 0.
+     * @param start of the packed values in the payload.
+     * @param bitIndex index of the first bit of the value.
+     * @param value to be written.
+     */
+    private static void putBits(byte[] payload, int start, long bitIndex, int value) {
+        int index = start + (int) (bitIndex >>> 3);
+        int word = value << (int) (bitIndex & 7);
+        for (int i = 0; word >>> (8 * i) != 0; i++) {
+            payload[index + i] |= (byte) (word >>> (8 * i));
+        }
+    }
+
+    /**
+     * Encodes a difference so that small negative and positive differences
+     * are small unsigned ints.
+     *
+     * @param difference between two values.
+     * @return the encoded difference.
+     */
+    private static int zigzag(int difference) {
+        return (difference << 1) ^ (difference >> 31);
+    }
+}
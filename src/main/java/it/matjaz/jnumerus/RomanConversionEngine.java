@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+/**
+ * Service provider interface of the algorithms converting the canonical roman
+ * numerals to their values and vice-versa, used by a {@link RomanConverter}.
+ * <p>
+ * The engines are discovered with {@link java.util.ServiceLoader} and chosen by
+ * {@link #getName() name}, either with the {@value #ENGINE_PROPERTY} system
+ * property for all the converters constructed without an engine or passing an
+ * engine to {@link RomanConverter#RomanConverter(RomanConversionEngine)}. Each
+ * engine trades memory for speed in its own way; jNumerus provides:
+ * <ul>
+ * <li>{@code greedy}, {@link RomanGreedyEngine}: the original algorithm on
+ * the pairs of roman chars and values, no tables;</li>
+ * <li>{@code table}, {@link RomanTableEngine}: tables of all the numerals and
+ * of the values of all the numerals, the most memory;</li>
+ * <li>{@code digits}, {@link RomanDigitEngine}: concatenation of the numerals
+ * of each decimal digit, 40 short strings;</li>
+ * <li>{@code hash}, {@link RomanHashEngine}: the table of all the numerals
+ * and the minimal perfect hash generated during the build, the default;</li>
+ * <li>{@code automaton}, {@link RomanAutomatonEngine}: the table of all the
+ * numerals and the decoding automaton generated during the build.</li>
+ * </ul>
+ * Other engines are added by listing them in a
+ * {@code META-INF/services/it.matjaz.jnumerus.RomanConversionEngine} file. The
+ * {@link RomanEngineVerifier} checks an engine against the reference
+ * algorithms over the whole domain before using it.
+ * <p>
+ * The engines must be thread-safe: the default one is shared by all the
+ * converters.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanConverter
+ */
+public interface RomanConversionEngine {
+
+    /**
+     * System property with the name of the engine used by the converters
+     * constructed without an engine.
+     */
+    String ENGINE_PROPERTY = "jnumerus.engine";
+
+    /**
+     * Value returned by {@link #decode(java.lang.CharSequence)} for any
+     * sequence of chars that is not a canonical numeral. It is outside of
+     * [{@link RomanConverter#MININTEGER}, {@link RomanConverter#MAXINTEGER}]
+     * and is also the value given by the bulk decoders, like
+     * {@link RomanColumnDecoder}, to the numerals they reject.
+     */
+    int NOT_CANONICAL = Integer.MIN_VALUE;
+
+    /**
+     * Returns the name of the engine, used to choose it with the
+     * {@value #ENGINE_PROPERTY} system property.
+     *
+     * @return the name, lowercase.
+     */
+    String getName();
+
+    /**
+     * Converts a value to its canonical roman numeral.
+     * <p>
+     * The canonical numeral of 0 is {@link RomanNumeral#NULLA_STRING} and the
+     * one of a negative value is a minus sign followed by the numeral of its
+     * absolute value.
+     *
+     * @param arabic the value, in [{@link RomanConverter#MININTEGER},
+     * {@link RomanConverter#MAXINTEGER}]: the converter checks the range.
+     * @return the canonical numeral.
+     */
+    String encode(int arabic);
+
+    /**
+     * Converts a canonical roman numeral to its value, rejecting anything
+     * else.
+     * <p>
+     * The canonical numerals are exactly the ones returned by
+     * {@link #encode(int)}: no normalization is applied, so lowercase chars,
+     * whitespace or the lone minus sign are not canonical.
+     *
+     * @param numeral any sequence of chars.
+     * @return the value of the numeral or {@link #NOT_CANONICAL}.
+     */
+    int decode(CharSequence numeral);
+}
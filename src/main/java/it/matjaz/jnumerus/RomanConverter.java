@@ -12,8 +12,8 @@
 package it.matjaz.jnumerus;
 
 import java.text.MessageFormat;
-import java.util.Locale;
-import java.util.ResourceBundle;
+import java.util.Objects;
+import java.util.ServiceLoader;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.util.Pair;
@@ -22,20 +22,19 @@ import javafx.util.Pair;
  * Offers conversion methods from roman numerals as Strings to arabic numerals
  * as Integers and vice-versa.
  * <p>
- * Uses a {@link RomanCharMapFactory} generated array of pairs (romanChar, its
- * integer value) as reference for translations of the digits in both numeral
- * systems.
+ * The conversions are delegated to a {@link RomanConversionEngine}, chosen
+ * with the {@value RomanConversionEngine#ENGINE_PROPERTY} system property or
+ * passed to the constructor. The default {@link RomanHashEngine} reads
+ * constant tables generated during the build by {@code RomanTablesGenerator}:
+ * the numerals of all the values and a perfect hash decoding them. The
+ * {@link RomanCharMapFactory} generated array of pairs (romanChar, its integer
+ * value) is the reference the engines are verified against.
  *
  * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
  * <a href="http://matjaz.it">matjaz.it</a>
  */
 public class RomanConverter {
 
-    /**
-     * Default ResourceBundle containing english strings.
-     */
-    private static final ResourceBundle romanBundle = ResourceBundle.getBundle("RomanBundle", Locale.US);
-
     /**
      * The biggest Integer convertable to RomanNumeral with the standard syntax.
      */
@@ -48,28 +47,282 @@ public class RomanConverter {
     public static final int MININTEGER = -MAXINTEGER;
 
     /**
-     * Array of references for translating roman characters into numeric values
-     * and vice-versa.
+     * Lazy holder of the array of references for translating roman characters
+     * into numeric values and vice-versa, generated on first use and shared by
+     * all the converters.
+     */
+    private static class CharValuesTable {
+
+        private static final Pair[] CHAR_VALUES = RomanCharMapFactory.generateCharPairsArray();
+    }
+
+    /**
+     * Lazy holder of the engine of the converters constructed without one.
+     */
+    private static class DefaultEngine {
+
+        private static final RomanConversionEngine ENGINE = loadDefaultEngine();
+    }
+
+    /**
+     * The engine performing the conversions.
      */
-    private final Pair[] charValues;
+    private final RomanConversionEngine engine;
 
     /**
-     * Constructs the converter by preparing its reference for translating roman
-     * character into numeric values and vice-versa.
+     * Constructs the converter with the default engine.
+     * <p>
+     * The default engine is the one named by the
+     * {@value RomanConversionEngine#ENGINE_PROPERTY} system property or else
+     * the {@link RomanHashEngine}. It is shared by all the converters and its
+     * tables are prepared by the first conversion, so constructing a converter
+     * costs nothing.
      */
     public RomanConverter() {
-        this.charValues = RomanCharMapFactory.generateCharPairsArray();
+        this(DefaultEngine.ENGINE);
     }
 
     /**
-     * Converts the given syntactically correct roman numeral as String to its
-     * int value.
+     * Constructs the converter with the given engine.
+     *
+     * @param engine the engine performing the conversions.
+     */
+    public RomanConverter(RomanConversionEngine engine) {
+        this.engine = Objects.requireNonNull(engine);
+    }
+
+    /**
+     * Returns the engine performing the conversions of this converter.
+     *
+     * @return the engine.
+     */
+    public RomanConversionEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Finds with the {@link ServiceLoader} the engine with the given name.
+     *
+     * @param name of the engine, like {@code hash} or {@code greedy}.
+     * @return a new instance of the engine.
+     * @throws IllegalArgumentException if no engine has the given name.
+     */
+    public static RomanConversionEngine loadEngine(String name) {
+        for (RomanConversionEngine engine : ServiceLoader.load(RomanConversionEngine.class,
+                RomanConverter.class.getClassLoader())) {
+            if (engine.getName().equals(name)) {
+                return engine;
+            }
+        }
+        throw new IllegalArgumentException(MessageFormat.format(RomanMessages.getString("UnknownEngine"), name));
+    }
+
+    /**
+     * Loads the engine named by the
+     * {@value RomanConversionEngine#ENGINE_PROPERTY} system property.
+     * <p>
+     * Without the property the {@link RomanHashEngine} is constructed
+     * directly, so the common case does not scan the classpath. An unknown
+     * name is logged and the {@link RomanHashEngine} is used instead.
+     *
+     * @return the default engine.
+     */
+    private static RomanConversionEngine loadDefaultEngine() {
+        String name = System.getProperty(RomanConversionEngine.ENGINE_PROPERTY);
+        if (name != null) {
+            try {
+                return loadEngine(name);
+            } catch (IllegalArgumentException ex) {
+                Logger.getLogger(RomanConverter.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }
+        return new RomanHashEngine();
+    }
+
+    /**
+     * Returns the index of a roman char in the symbols of the decoder.
+     *
+     * @param romanChar an uppercase char.
+     * @return the index in {@link RomanGeneratedTables#DECODER_SYMBOLS}, -1 if
+     * it is not a roman char.
+     */
+    private static int symbolIndex(char romanChar) {
+        switch (romanChar) {
+            case 'I':
+                return 0;
+            case 'V':
+                return 1;
+            case 'X':
+                return 2;
+            case 'L':
+                return 3;
+            case 'C':
+                return 4;
+            case 'D':
+                return 5;
+            case 'M':
+                return 6;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Decodes a roman numeral in its canonical form, as produced by
+     * {@link #integerToRomanString(int)}, or returns
+     * {@link RomanConversionEngine#NOT_CANONICAL} for any other sequence of
+     * chars.
      * <p>
-     * This method performs no checks on the correctness of the roman numeral
-     * String so the correct result is <b>not</b> guaranteed if the input is
-     * incorrect - this is the reason for it to be private. Use
-     * {@link #romanNumeralToInteger(it.matjaz.jnumerus.core.RomanNumeral) romanNumeralToInteger(RomanNumeral)}
-     * to force correct inputs.
+     * The decoder is the minimal automaton accepting the canonical numerals,
+     * generated during the build with a weight on each transition: every
+     * prefix of a canonical numeral is canonical, so the value is the sum of
+     * the weights along the path. A minus sign before a numeral negates it and
+     * {@link RomanNumeral#NULLA_STRING} is 0. No normalization is applied:
+     * lowercase chars, whitespace or the lone minus sign are invalid.
+     *
+     * @param numeral the chars to be decoded.
+     * @return the value in [-3999, 3999] or
+     * {@link RomanConversionEngine#NOT_CANONICAL}.
+     */
+    static int decodeCanonical(CharSequence numeral) {
+        int length = numeral.length();
+        int index = 0;
+        int sign = 1;
+        if (length > 0 && numeral.charAt(0) == '-') {
+            sign = -1;
+            index++;
+        } else if (RomanNumeral.NULLA_STRING.contentEquals(numeral)) {
+            return 0;
+        }
+        if (index == length) {
+            return RomanConversionEngine.NOT_CANONICAL;
+        }
+        String transitions = RomanGeneratedTables.DECODER_TRANSITIONS;
+        String weights = RomanGeneratedTables.DECODER_WEIGHTS;
+        int symbols = RomanGeneratedTables.DECODER_SYMBOLS.length();
+        int state = 0;
+        int arabicValue = 0;
+        for (; index < length; index++) {
+            int symbol = symbolIndex(numeral.charAt(index));
+            if (symbol < 0) {
+                return RomanConversionEngine.NOT_CANONICAL;
+            }
+            int transition = state * symbols + symbol;
+            state = transitions.charAt(transition) - 1;
+            if (state < 0) {
+                return RomanConversionEngine.NOT_CANONICAL;
+            }
+            arabicValue += weights.charAt(transition);
+        }
+        if (RomanGeneratedTables.DECODER_ACCEPTING.charAt(state) == 0) {
+            return RomanConversionEngine.NOT_CANONICAL;
+        }
+        return sign * arabicValue;
+    }
+
+    /**
+     * The length of the longest canonical numeral, -MMMDCCCLXXXVIII.
+     */
+    private static final int MAX_CANONICAL_LENGTH = 16;
+
+    /**
+     * Converts the given roman numeral as String to its int value, with a fast
+     * path for the canonical numerals.
+     * <p>
+     * The canonical numerals, as produced by {@link #integerToRomanString(int)},
+     * are decoded directly by the engine. With the default
+     * {@link RomanHashEngine} they are found in the canonical index generated
+     * during the build, a minimal perfect hash of all the 7999 numerals: the
+     * chars are hashed once, the hash selects a slot and a single comparison
+     * with the numeral of the slot confirms the hit. This is the fastest way
+     * to decode numerals written by jNumerus itself, like identifiers
+     * exchanged between systems.
+     * <p>
+     * Any other String, e.g. lowercase or surrounded by whitespace, is
+     * converted to a {@link RomanNumeral} with the full syntax check, which
+     * normalizes it or throws an exception.
+     *
+     * @param numeral a roman numeral.
+     * @return int value of the numeral.
+     * @throws IllegalNumeralSyntaxException if the numeral is not canonical
+     * and the syntax check fails.
+     */
+    public int romanStringToInteger(String numeral) throws IllegalNumeralSyntaxException {
+        if (!RomanMetrics.ENABLED && !RomanFlightRecorder.ENABLED) {
+            int arabic = engine.decode(numeral);
+            return arabic != RomanConversionEngine.NOT_CANONICAL ? arabic : romanNumeralToInteger(new RomanNumeral(numeral));
+        }
+        RomanDecodeEvent event = RomanFlightRecorder.isRecording() ? RomanDecodeEvent.beginIfEnabled() : null;
+        long start = RomanMetrics.ENABLED ? System.nanoTime() : 0L;
+        int arabic = engine.decode(numeral);
+        if (arabic == RomanConversionEngine.NOT_CANONICAL) {
+            return romanNumeralToInteger(new RomanNumeral(numeral));
+        }
+        if (RomanMetrics.ENABLED) {
+            RomanMetrics.get().recordDecode(System.nanoTime() - start);
+        }
+        if (event != null) {
+            event.end(numeral, arabic);
+        }
+        return arabic;
+    }
+
+    /**
+     * Finds a canonical numeral in the canonical index generated during the
+     * build.
+     * <p>
+     * The hash functions are the same of {@code RomanTablesGenerator}: FNV-1a
+     * of the chars, then the finalizer of MurmurHash3 mixing the hash with 0
+     * to select the bucket and with the displacement of the bucket plus 1 to
+     * select the slot.
+     *
+     * @param numeral the chars to be found.
+     * @return the value of the numeral or
+     * {@link RomanConversionEngine#NOT_CANONICAL} if it is not canonical.
+     */
+    static int lookupCanonical(CharSequence numeral) {
+        int length = numeral.length();
+        if (length == 0 || length > MAX_CANONICAL_LENGTH) {
+            return RomanConversionEngine.NOT_CANONICAL;
+        }
+        int hash = 0x811c9dc5;
+        for (int i = 0; i < length; i++) {
+            hash = (hash ^ numeral.charAt(i)) * 0x01000193;
+        }
+        String displacements = RomanGeneratedTables.INDEX_DISPLACEMENTS;
+        String values = RomanGeneratedTables.INDEX_VALUES;
+        int displacement = displacements.charAt(indexOf(hash, 0, displacements.length()));
+        int slotValue = values.charAt(indexOf(hash, displacement + 1, values.length()));
+        if (!NumeralsTable.NUMERALS[slotValue].contentEquals(numeral)) {
+            return RomanConversionEngine.NOT_CANONICAL;
+        }
+        return slotValue + MININTEGER;
+    }
+
+    /**
+     * Mixes the hash of a numeral with a displacement and reduces it to an
+     * index of the canonical index.
+     *
+     * @param hash the FNV-1a hash of the numeral.
+     * @param displacement 0 for the bucket, the displacement of the bucket
+     * plus 1 for the slot.
+     * @param range the number of buckets or slots.
+     * @return the index in [0, range).
+     */
+    private static int indexOf(int hash, int displacement, int range) {
+        int mixed = hash + displacement * 0x9e3779b9;
+        mixed ^= mixed >>> 16;
+        mixed *= 0x85ebca6b;
+        mixed ^= mixed >>> 13;
+        mixed *= 0xc2b2ae35;
+        mixed ^= mixed >>> 16;
+        return (mixed >>> 1) % range;
+    }
+
+    /**
+     * Converts the given syntactically correct roman numeral as String to its
+     * int value with the original algorithm, kept as reference for the
+     * generated tables.
      * <p>
      * Works with 2 indexes: one is iterating through the given romanString, the
      * other through the reference array of Pairs
@@ -82,7 +335,7 @@ public class RomanConverter {
      * numeral to be converted.
      * @return int value of the given String.
      */
-    private int romanStringToInteger(String romanString) {
+    static int greedyRomanStringToInteger(String romanString) {
         if (romanString.equals(RomanNumeral.NULLA_STRING)) {
             return 0;
         }
@@ -95,8 +348,8 @@ public class RomanConverter {
             romanStringIndex++;
         }
         while (romanStringIndex < romanString.length()) {
-            String romanChar = (String) charValues[romanCharIndex].getKey();
-            int romanCharValue = (int) charValues[romanCharIndex].getValue();
+            String romanChar = (String) CharValuesTable.CHAR_VALUES[romanCharIndex].getKey();
+            int romanCharValue = (int) CharValuesTable.CHAR_VALUES[romanCharIndex].getValue();
             if (romanString.startsWith(romanChar, romanStringIndex)) {
                 arabicValue += romanCharValue;
                 romanStringIndex += romanChar.length();
@@ -110,8 +363,9 @@ public class RomanConverter {
     /**
      * Converts the given RomanNumeral its int value.
      * <p>
-     * Extracts the numerals string from the passed RomanNumeral and converts it
-     * to its int value.
+     * Extracts the numerals string from the passed RomanNumeral, which is
+     * canonical because it passed the syntax check, and decodes it with the
+     * engine.
      * <p>
      * Returns 0 for an {@link RomanNumeral#RomanNumeral() unitialized}
      * RomanNumeral.
@@ -120,16 +374,87 @@ public class RomanConverter {
      * @return int value of the RomanNumeral.
      */
     public int romanNumeralToInteger(RomanNumeral roman) {
-        return romanStringToInteger(roman.getNumeral());
+        if (!RomanMetrics.ENABLED && !RomanFlightRecorder.ENABLED) {
+            return decodeValidated(roman.getNumeral());
+        }
+        RomanDecodeEvent event = RomanFlightRecorder.isRecording() ? RomanDecodeEvent.beginIfEnabled() : null;
+        long start = RomanMetrics.ENABLED ? System.nanoTime() : 0L;
+        int arabic = decodeValidated(roman.getNumeral());
+        if (RomanMetrics.ENABLED) {
+            RomanMetrics.get().recordDecode(System.nanoTime() - start);
+        }
+        if (event != null) {
+            event.end(roman.getNumeral(), arabic);
+        }
+        return arabic;
     }
 
     /**
-     * Converts the given int value to its representation in roman numerals as
-     * String.
+     * Decodes a numeral that passed the syntax check.
+     *
+     * @param numeral a canonical numeral or the lone minus sign, which the
+     * syntax check accepts as 0.
+     * @return the value of the numeral.
+     */
+    private int decodeValidated(String numeral) {
+        if (numeral.length() == 1 && numeral.charAt(0) == '-') {
+            return 0;
+        }
+        return engine.decode(numeral);
+    }
+
+    /**
+     * Lazy holder of the table of all the roman numerals, filled on first use
+     * from the numerals generated during the build.
+     */
+    private static class NumeralsTable {
+
+        /**
+         * The roman numeral of each value in [{@link #MININTEGER},
+         * {@link #MAXINTEGER}], at index {@code value - MININTEGER}.
+         */
+        private static final String[] NUMERALS = buildNumeralsTable();
+    }
+
+    /**
+     * Builds the table of the roman numerals of all the values in
+     * [{@link #MININTEGER}, {@link #MAXINTEGER}].
      * <p>
-     * Throws an IllegalArabicValueException if the given int is not positve or
-     * is bigger than 3999, which are the extremes of the roman numerals range
-     * of representation.
+     * The positive numerals are cut from the concatenation in
+     * {@link RomanGeneratedTables#NUMERALS}, so no numeral is computed at
+     * runtime.
+     *
+     * @return the numerals indexed by {@code value - MININTEGER}.
+     */
+    private static String[] buildNumeralsTable() {
+        String concatenated = RomanGeneratedTables.NUMERALS;
+        String ends = RomanGeneratedTables.NUMERAL_ENDS;
+        String[] numerals = new String[MAXINTEGER - MININTEGER + 1];
+        int start = 0;
+        for (int arabic = 1; arabic <= MAXINTEGER; arabic++) {
+            int end = ends.charAt(arabic - 1);
+            String numeral = concatenated.substring(start, end);
+            numerals[arabic - MININTEGER] = numeral;
+            numerals[-arabic - MININTEGER] = "-" + numeral;
+            start = end;
+        }
+        numerals[-MININTEGER] = RomanNumeral.NULLA_STRING;
+        return numerals;
+    }
+
+    /**
+     * Returns the canonical numeral of a value from the table of all the
+     * numerals.
+     *
+     * @param arabic int in [-3999, 3999].
+     * @return the canonical numeral.
+     */
+    static String canonicalNumeral(int arabic) {
+        return NumeralsTable.NUMERALS[arabic - MININTEGER];
+    }
+
+    /**
+     * Builds the representation in roman numerals of the given positive int.
      * <p>
      * The algorithm is based on the
      * <a href="http://www.fredosaurus.com/notes-java/examples/components/romanNumerals/romanNumeral.html">fredosaurus.com</a>
@@ -137,26 +462,18 @@ public class RomanConverter {
      * appends as many chars as necessary to the output string so that the value
      * could not be decreased anymore with the same roman char. Then switches to
      * a char with less value.
+     * <p>
+     * It is the original algorithm, kept as reference for the numerals
+     * generated during the build.
      *
-     * @param arabic int to be converted to a roman numeral as String.
-     * @return a string representing a sytactically correct roman numeral with
+     * @param arabic int in [1, 3999] to be converted.
+     * @param charValues the {@link RomanCharMapFactory#generateCharPairsArray()
+     * pairs of roman chars and values}.
+     * @return a string representing a syntactically correct roman numeral with
      * the given value.
-     * @throws IllegalArabicValueException if the arabic int is not in [0, 3999]
-     * range.
      */
-    private String integerToRomanString(int arabic) throws IllegalArabicValueException {
-        if (arabic < -3999 || arabic > 3999) {
-            String message = romanBundle.getString("ArabicOutOfRange");
-            throw new IllegalArabicValueException(message);
-        }
-        if (arabic == 0) {
-            return RomanNumeral.NULLA_STRING;
-        }
+    static String buildRomanString(int arabic, Pair[] charValues) {
         StringBuilder romanString = new StringBuilder();
-        if (arabic < 0) {
-            arabic *= -1;
-            romanString.append('-');
-        }
         for (Pair charAndValue : charValues) {
             int romanCharValue = (int) charAndValue.getValue();
             String romanChar = (String) charAndValue.getKey();
@@ -168,11 +485,40 @@ public class RomanConverter {
         return romanString.toString();
     }
 
+    /**
+     * Converts the given int value to its representation in roman numerals as
+     * String.
+     * <p>
+     * Throws an IllegalArabicValueException if the given int is not in [-3999,
+     * 3999], which are the extremes of the roman numerals range of
+     * representation.
+     * <p>
+     * The numeral is built by the engine. The default {@link RomanHashEngine}
+     * reads it from a table of all the numerals, generated during the build
+     * and filled on first use, so the conversion allocates nothing.
+     *
+     * @param arabic int to be converted to a roman numeral as String.
+     * @return a string representing a sytactically correct roman numeral with
+     * the given value.
+     * @throws IllegalArabicValueException if the arabic int is not in [-3999,
+     * 3999] range.
+     */
+    String integerToRomanString(int arabic) throws IllegalArabicValueException {
+        if (arabic < MININTEGER || arabic > MAXINTEGER) {
+            if (RomanMetrics.ENABLED) {
+                RomanMetrics.get().recordArabicOutOfRange();
+            }
+            String message = RomanMessages.getString("ArabicOutOfRange");
+            throw new IllegalArabicValueException(message);
+        }
+        return engine.encode(arabic);
+    }
+
     /**
      * Converts the given int value to its RomanNumeral representation.
      * <p>
-     * Encapsulates the result String in a RomanNumeral, assuring correct
-     * syntax.
+     * Encapsulates the numeral built by the engine in a new RomanNumeral. The
+     * numerals of the engines are canonical, so the syntax check is skipped.
      * <p>
      * Throws an IllegalArabicValueException if the given int is not positve or
      * is bigger than 3999, which are the extremes of the roman numerals range
@@ -184,12 +530,34 @@ public class RomanConverter {
      * [0, 3999].
      */
     public RomanNumeral integerToRomanNumeral(int arabic) throws IllegalArabicValueException {
+        if (!RomanMetrics.ENABLED && !RomanFlightRecorder.ENABLED) {
+            return integerToRomanNumeralUninstrumented(arabic);
+        }
+        RomanEncodeEvent event = RomanFlightRecorder.isRecording() ? RomanEncodeEvent.beginIfEnabled() : null;
+        long start = RomanMetrics.ENABLED ? System.nanoTime() : 0L;
+        RomanNumeral roman = null;
         try {
-            return new RomanNumeral(integerToRomanString(arabic));
-        } catch (IllegalNumeralSyntaxException ex) {
-            Logger.getLogger(RomanConverter.class.getName()).log(Level.SEVERE, null, ex);
-            String message = MessageFormat.format(romanBundle.getString("ConverterInternalErrorWhenConvertingToRomanNumeral"), arabic, ex.getMessage());
-            throw new RuntimeException(message);
+            roman = integerToRomanNumeralUninstrumented(arabic);
+            if (RomanMetrics.ENABLED) {
+                RomanMetrics.get().recordEncode(System.nanoTime() - start);
+            }
+            return roman;
+        } finally {
+            if (event != null) {
+                event.end(arabic, roman);
+            }
         }
     }
+
+    /**
+     * Converts the given int value to its RomanNumeral representation without
+     * recording any metrics or events.
+     *
+     * @param arabic int to be converted to a RomanNumeral.
+     * @return a RomanNumeral representing the passed value.
+     * @throws IllegalArabicValueException if arabic is not in [-3999, 3999].
+     */
+    private RomanNumeral integerToRomanNumeralUninstrumented(int arabic) throws IllegalArabicValueException {
+        return RomanNumeral.ofCanonicalNumeral(integerToRomanString(arabic));
+    }
 }
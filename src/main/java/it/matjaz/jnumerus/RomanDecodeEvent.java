@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event of a conversion from RomanNumeral to int by
+ * {@link RomanConverter}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanFlightRecorder
+ */
+@Name("it.matjaz.jnumerus.Decode")
+@Label("Roman Decode")
+@Description("Conversion of a roman numeral to an int")
+@Threshold("10 us")
+class RomanDecodeEvent extends RomanEvent {
+
+    /**
+     * The registered type of this event, telling if any recording enables it.
+     */
+    private static final EventType TYPE = EventType.getEventType(RomanDecodeEvent.class);
+
+    /**
+     * Creates an event and begins the timing of the conversion, only if any
+     * running recording has this event enabled.
+     *
+     * @return the begun event or {@code null} if it would not be recorded.
+     */
+    static RomanDecodeEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        RomanDecodeEvent event = new RomanDecodeEvent();
+        event.begin();
+        return event;
+    }
+
+    @Label("Numeral")
+    String numeral;
+
+    @Label("Arabic")
+    int arabic;
+
+    /**
+     * Ends the timing of the conversion and commits the event if the recording
+     * settings accept it.
+     *
+     * @param numeral the converted numeral.
+     * @param arabic the result.
+     */
+    void end(String numeral, int arabic) {
+        end();
+        if (shouldCommit()) {
+            this.numeral = numeral;
+            this.arabic = arabic;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+/**
+ * {@link RomanConversionEngine} concatenating the numerals of the decimal
+ * digits of the value, from the thousands to the units.
+ * <p>
+ * It needs only the 40 numerals of the digits. Encoding appends at most four
+ * of them; decoding matches at each position the longest numeral of the
+ * digit, which is never ambiguous because the numerals of the next digit
+ * start with different chars.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanDigitEngine implements RomanConversionEngine {
+
+    /**
+     * The numerals of each digit of the units, tens, hundreds and thousands.
+     */
+    private static final String[][] DIGITS = {
+        {"", "I", "II", "III", "IV", "V", "VI", "VII", "VIII", "IX"},
+        {"", "X", "XX", "XXX", "XL", "L", "LX", "LXX", "LXXX", "XC"},
+        {"", "C", "CC", "CCC", "CD", "D", "DC", "DCC", "DCCC", "CM"},
+        {"", "M", "MM", "MMM"}};
+
+    /**
+     * The value of a unit of each position of {@link #DIGITS}.
+     */
+    private static final int[] POWERS = {1, 10, 100, 1000};
+
+    /**
+     * Returns the name of the engine.
+     *
+     * @return {@code digits}.
+     */
+    @Override
+    public String getName() {
+        return "digits";
+    }
+
+    /**
+     * Concatenates the numerals of the digits of the value.
+     *
+     * @param arabic the value, in [-3999, 3999].
+     * @return the canonical numeral.
+     */
+    @Override
+    public String encode(int arabic) {
+        if (arabic == 0) {
+            return RomanNumeral.NULLA_STRING;
+        }
+        StringBuilder numeral = new StringBuilder(16);
+        if (arabic < 0) {
+            numeral.append('-');
+            arabic = -arabic;
+        }
+        for (int position = DIGITS.length - 1; position >= 0; position--) {
+            numeral.append(DIGITS[position][arabic / POWERS[position] % 10]);
+        }
+        return numeral.toString();
+    }
+
+    /**
+     * Matches the longest numeral of each digit, from the thousands.
+     *
+     * @param numeral any sequence of chars.
+     * @return the value of the numeral or {@link #NOT_CANONICAL}.
+     */
+    @Override
+    public int decode(CharSequence numeral) {
+        if (RomanNumeral.NULLA_STRING.contentEquals(numeral)) {
+            return 0;
+        }
+        int index = 0;
+        int sign = 1;
+        if (numeral.length() > 0 && numeral.charAt(0) == '-') {
+            sign = -1;
+            index++;
+        }
+        int arabicValue = 0;
+        for (int position = DIGITS.length - 1; position >= 0; position--) {
+            int longest = 0;
+            for (int digit = 1; digit < DIGITS[position].length; digit++) {
+                String digitNumeral = DIGITS[position][digit];
+                if (digitNumeral.length() > DIGITS[position][longest].length()
+                        && startsWith(numeral, index, digitNumeral)) {
+                    longest = digit;
+                }
+            }
+            arabicValue += longest * POWERS[position];
+            index += DIGITS[position][longest].length();
+        }
+        if (index != numeral.length() || arabicValue == 0) {
+            return NOT_CANONICAL;
+        }
+        return sign * arabicValue;
+    }
+
+    /**
+     * Tells if the chars at the given index start with the given prefix.
+     *
+     * @param chars the sequence of chars.
+     * @param index where the prefix should start.
+     * @param prefix the searched prefix.
+     * @return true if the prefix is found at the index.
+     */
+    private static boolean startsWith(CharSequence chars, int index, String prefix) {
+        if (index + prefix.length() > chars.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (chars.charAt(index + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Flight recorder event of a conversion from int to RomanNumeral by
+ * {@link RomanConverter}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanFlightRecorder
+ */
+@Name("it.matjaz.jnumerus.Encode")
+@Label("Roman Encode")
+@Description("Conversion of an int to a roman numeral")
+@Threshold("10 us")
+class RomanEncodeEvent extends RomanEvent {
+
+    /**
+     * The registered type of this event, telling if any recording enables it.
+     */
+    private static final EventType TYPE = EventType.getEventType(RomanEncodeEvent.class);
+
+    /**
+     * Creates an event and begins the timing of the conversion, only if any
+     * running recording has this event enabled.
+     *
+     * @return the begun event or {@code null} if it would not be recorded.
+     */
+    static RomanEncodeEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        RomanEncodeEvent event = new RomanEncodeEvent();
+        event.begin();
+        return event;
+    }
+
+    @Label("Arabic")
+    int arabic;
+
+    @Label("Numeral")
+    @Description("The resulting numeral, null if the value is out of range")
+    String numeral;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    /**
+     * Ends the timing of the conversion and commits the event if the recording
+     * settings accept it.
+     *
+     * @param arabic the converted int.
+     * @param numeral the result, {@code null} if the conversion failed.
+     */
+    void end(int arabic, RomanNumeral numeral) {
+        end();
+        if (shouldCommit()) {
+            this.arabic = arabic;
+            this.numeral = numeral == null ? null : numeral.getNumeral();
+            this.succeeded = numeral != null;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.ServiceLoader;
+import java.util.Set;
+import javafx.util.Pair;
+
+/**
+ * Differential verifier of a {@link RomanConversionEngine} against the
+ * reference algorithms of jNumerus, to be run before choosing an engine for a
+ * deployment.
+ * <p>
+ * The engine is verified exhaustively over the whole domain, encoding every
+ * value in [-3999, 3999] and decoding every canonical numeral both as String
+ * and as another CharSequence, and over a corpus of strings that are mostly
+ * not canonical: all the strings of up to 4 roman chars with and without the
+ * minus sign, every canonical numeral lowercase, surrounded by whitespace,
+ * with a roman char added, removed or doubled, and a few special cases. The
+ * reference encoding is the greedy algorithm of {@link RomanConverter} on the
+ * {@link RomanCharMapFactory#generateCharPairsArray() pairs of roman chars and
+ * values}; the reference decoding accepts only the strings that pass the
+ * {@link RomanNumeral} syntax check unchanged.
+ * <p>
+ * Run {@code java -cp jNumerus.jar it.matjaz.jnumerus.RomanEngineVerifier} to
+ * verify all the engines found by the {@link ServiceLoader}; the exit status is
+ * 1 if any mismatch is found.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanConversionEngine
+ */
+public final class RomanEngineVerifier {
+
+    /**
+     * The most mismatches described by {@link #verify()}, so that a broken
+     * engine does not produce millions of them.
+     */
+    public static final int MAX_REPORTED_MISMATCHES = 100;
+
+    /**
+     * The roman chars mutating the canonical numerals into the corpus.
+     */
+    private static final String ROMAN_CHARS = "IVXLCDM";
+
+    /**
+     * Lazy holder of the corpus and of its reference values, computed once for
+     * all the verifications because the syntax check is much slower than the
+     * engines.
+     */
+    private static class Corpus {
+
+        private static final String[] NUMERALS = corpus().toArray(new String[0]);
+        private static final int[] VALUES = new int[NUMERALS.length];
+
+        static {
+            for (int i = 0; i < NUMERALS.length; i++) {
+                VALUES[i] = referenceDecode(NUMERALS[i]);
+            }
+        }
+    }
+
+    /**
+     * The engine under verification.
+     */
+    private final RomanConversionEngine engine;
+
+    /**
+     * The pairs of roman chars and values of the reference encoding.
+     */
+    private final Pair[] charValues = RomanCharMapFactory.generateCharPairsArray();
+
+    /**
+     * Number of conversions verified by the last {@link #verify()}.
+     */
+    private int conversions;
+
+    /**
+     * Number of mismatches found by the last {@link #verify()}, also the ones
+     * not described.
+     */
+    private int mismatchesCount;
+
+    /**
+     * Constructs the verifier of an engine.
+     *
+     * @param engine to be verified.
+     */
+    public RomanEngineVerifier(RomanConversionEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Verifies every conversion of the domain and of the corpus against the
+     * reference.
+     *
+     * @return the descriptions of the first {@link #MAX_REPORTED_MISMATCHES}
+     * mismatches, empty if the engine is correct.
+     */
+    public List<String> verify() {
+        conversions = 0;
+        mismatchesCount = 0;
+        List<String> mismatches = new ArrayList<>();
+        for (int arabic = RomanConverter.MININTEGER; arabic <= RomanConverter.MAXINTEGER; arabic++) {
+            String expected = referenceEncode(arabic);
+            String encoded;
+            try {
+                encoded = engine.encode(arabic);
+            } catch (RuntimeException ex) {
+                encoded = ex.toString();
+            }
+            conversions++;
+            if (!expected.equals(encoded)) {
+                report(mismatches, "EngineEncodeMismatch", String.valueOf(arabic), encoded, expected);
+            }
+            verifyDecode(mismatches, expected, arabic);
+            verifyDecode(mismatches, new StringBuilder(expected), arabic);
+        }
+        String[] numerals = Corpus.NUMERALS;
+        for (int i = 0; i < numerals.length; i++) {
+            verifyDecode(mismatches, numerals[i], Corpus.VALUES[i]);
+        }
+        return mismatches;
+    }
+
+    /**
+     * Returns the number of conversions verified by the last
+     * {@link #verify()}.
+     *
+     * @return the number of encoded values and decoded strings.
+     */
+    public int getConversions() {
+        return conversions;
+    }
+
+    /**
+     * Returns the number of mismatches found by the last {@link #verify()},
+     * also the ones not described.
+     *
+     * @return the number of mismatches.
+     */
+    public int getMismatchesCount() {
+        return mismatchesCount;
+    }
+
+    /**
+     * Verifies the decoding of a sequence of chars.
+     *
+     * @param mismatches receiving the description of a mismatch.
+     * @param numeral to be decoded.
+     * @param expected value or {@link RomanConversionEngine#NOT_CANONICAL}.
+     */
+    private void verifyDecode(List<String> mismatches, CharSequence numeral, int expected) {
+        String decoded;
+        try {
+            decoded = String.valueOf(engine.decode(numeral));
+        } catch (RuntimeException ex) {
+            decoded = ex.toString();
+        }
+        conversions++;
+        if (!decoded.equals(String.valueOf(expected))) {
+            report(mismatches, "EngineDecodeMismatch", numeral.toString(), decoded, String.valueOf(expected));
+        }
+    }
+
+    /**
+     * Counts a mismatch and describes it if not too many were described.
+     *
+     * @param mismatches receiving the description.
+     * @param key of the description in the RomanBundle.
+     * @param input of the conversion.
+     * @param actual result of the engine.
+     * @param expected result of the reference.
+     */
+    private void report(List<String> mismatches, String key, String input, String actual, String expected) {
+        mismatchesCount++;
+        if (mismatches.size() < MAX_REPORTED_MISMATCHES) {
+            mismatches.add(MessageFormat.format(RomanMessages.getString(key), engine.getName(), input, actual, expected));
+        }
+    }
+
+    /**
+     * Encodes a value with the reference greedy algorithm.
+     *
+     * @param arabic in [-3999, 3999].
+     * @return the canonical numeral.
+     */
+    private String referenceEncode(int arabic) {
+        if (arabic == 0) {
+            return RomanNumeral.NULLA_STRING;
+        }
+        String numeral = RomanConverter.buildRomanString(Math.abs(arabic), charValues);
+        return arabic < 0 ? "-" + numeral : numeral;
+    }
+
+    /**
+     * Decodes a string with the reference syntax check and greedy algorithm.
+     *
+     * @param numeral any string.
+     * @return the value or {@link RomanConversionEngine#NOT_CANONICAL} if the
+     * syntax check fails or changes the string.
+     */
+    static int referenceDecode(String numeral) {
+        if (numeral.equals("-")) {
+            return RomanConversionEngine.NOT_CANONICAL;
+        }
+        try {
+            if (!new RomanNumeral(numeral).getNumeral().equals(numeral)) {
+                return RomanConversionEngine.NOT_CANONICAL;
+            }
+        } catch (IllegalNumeralSyntaxException ex) {
+            return RomanConversionEngine.NOT_CANONICAL;
+        }
+        return RomanConverter.greedyRomanStringToInteger(numeral);
+    }
+
+    /**
+     * Builds the corpus of strings, mostly not canonical, to be decoded.
+     *
+     * @return the distinct strings of the corpus.
+     */
+    static Set<String> corpus() {
+        Set<String> corpus = new LinkedHashSet<>();
+        String[] specials = {"", "-", "--", "-NULLA", "nulla", "NULL", "NULLAI", "0", "-0", "+X", "X-", "MMMM",
+            "IIII", "VV", "IL", "IC", "XD", "VX", "MMMCMXCIXI", "-MMMDCCCLXXXVIIII", "\u0000", "\u2160", "X\u0000"};
+        for (String special : specials) {
+            corpus.add(special);
+        }
+        char[] chars = new char[4];
+        for (int length = 1; length <= chars.length; length++) {
+            int combinations = (int) Math.pow(ROMAN_CHARS.length(), length);
+            for (int combination = 0; combination < combinations; combination++) {
+                int rest = combination;
+                for (int i = 0; i < length; i++) {
+                    chars[i] = ROMAN_CHARS.charAt(rest % ROMAN_CHARS.length());
+                    rest /= ROMAN_CHARS.length();
+                }
+                String string = new String(chars, 0, length);
+                corpus.add(string);
+                corpus.add("-" + string);
+            }
+        }
+        for (int arabic = RomanConverter.MININTEGER; arabic <= RomanConverter.MAXINTEGER; arabic++) {
+            String numeral = RomanConverter.canonicalNumeral(arabic);
+            corpus.add(numeral.toLowerCase(Locale.ROOT));
+            corpus.add(" " + numeral);
+            corpus.add(numeral + "\n");
+            for (int i = 0; i <= numeral.length(); i++) {
+                for (int j = 0; j < ROMAN_CHARS.length(); j++) {
+                    corpus.add(numeral.substring(0, i) + ROMAN_CHARS.charAt(j) + numeral.substring(i));
+                }
+                if (i < numeral.length()) {
+                    corpus.add(numeral.substring(0, i) + numeral.substring(i + 1));
+                    corpus.add(numeral.substring(0, i + 1) + numeral.substring(i));
+                }
+            }
+        }
+        return corpus;
+    }
+
+    /**
+     * Verifies all the engines found by the {@link ServiceLoader} and prints
+     * the results.
+     *
+     * @param args ignored.
+     */
+    public static void main(String[] args) {
+        boolean allCorrect = true;
+        for (RomanConversionEngine engine : ServiceLoader.load(RomanConversionEngine.class,
+                RomanEngineVerifier.class.getClassLoader())) {
+            RomanEngineVerifier verifier = new RomanEngineVerifier(engine);
+            List<String> mismatches = verifier.verify();
+            System.out.println(MessageFormat.format(RomanMessages.getString("EngineVerified"), engine.getName(),
+                    String.valueOf(verifier.getConversions()), String.valueOf(verifier.getMismatchesCount())));
+            for (String mismatch : mismatches) {
+                System.out.println(mismatch);
+            }
+            allCorrect &= mismatches.isEmpty();
+        }
+        if (!allCorrect) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.SettingDefinition;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class of the jNumerus flight recorder events, adding the
+ * {@code sampling} setting to them.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanFlightRecorder
+ */
+@Category("jNumerus")
+@StackTrace(false)
+abstract class RomanEvent extends jdk.jfr.Event {
+
+    /**
+     * Filters the events by the sampling period of the recording.
+     *
+     * @param control the sampling setting.
+     * @return {@code true} if the event should be committed.
+     */
+    @SettingDefinition
+    @Name("sampling")
+    @Label("Sampling Period")
+    @Description("Records on average one event out of the given number")
+    protected boolean sampling(RomanSamplingControl control) {
+        return control.shouldSample();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Java 8 fallback of {@link RomanOrderedAccess}, ordering plain reads and
+ * writes of longs in a shared ByteBuffer with the {@code loadFence} and
+ * {@code storeFence} of {@code sun.misc.Unsafe}: a load followed by a load
+ * fence is an acquire, a store preceded by a store fence is a release.
+ * <p>
+ * Only the Java 8 version of RomanOrderedAccess uses this class, so it is
+ * not loaded on runtimes having VarHandles.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanFencedAccess {
+
+    /**
+     * Method handles of the load and store fences of {@code sun.misc.Unsafe},
+     * bound to its instance, {@code null} if it is not available.
+     */
+    private static final MethodHandle LOAD_FENCE;
+    private static final MethodHandle STORE_FENCE;
+
+    static {
+        MethodHandle loadFence = null;
+        MethodHandle storeFence = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Object unsafe = theUnsafe.get(null);
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            loadFence = lookup.unreflect(unsafeClass.getMethod("loadFence")).bindTo(unsafe);
+            storeFence = lookup.unreflect(unsafeClass.getMethod("storeFence")).bindTo(unsafe);
+        } catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException | IllegalAccessException
+                | RuntimeException ex) {
+            loadFence = null;
+            storeFence = null;
+        }
+        LOAD_FENCE = loadFence;
+        STORE_FENCE = storeFence;
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanFencedAccess() {
+    }
+
+    /**
+     * Verifies if the fences are available.
+     *
+     * @return {@code true} if {@code sun.misc.Unsafe} has been found.
+     */
+    static boolean isAvailable() {
+        return LOAD_FENCE != null;
+    }
+
+    /**
+     * Reads a long in native order with a plain read followed by a load
+     * fence.
+     *
+     * @param buffer a direct buffer.
+     * @param index of the long, a multiple of 8.
+     * @return the read long.
+     * @throws UnsupportedOperationException if the fences are not available.
+     */
+    static long getAcquire(ByteBuffer buffer, int index) {
+        long value = buffer.getLong(index);
+        fence(LOAD_FENCE);
+        return buffer.order() == ByteOrder.nativeOrder() ? value : Long.reverseBytes(value);
+    }
+
+    /**
+     * Writes a long in native order with a store fence followed by a plain
+     * write.
+     *
+     * @param buffer a direct buffer.
+     * @param index of the long, a multiple of 8.
+     * @param value to be written.
+     * @throws UnsupportedOperationException if the fences are not available.
+     */
+    static void setRelease(ByteBuffer buffer, int index, long value) {
+        fence(STORE_FENCE);
+        buffer.putLong(index, buffer.order() == ByteOrder.nativeOrder() ? value : Long.reverseBytes(value));
+    }
+
+    /**
+     * Runs one of the fences of {@code sun.misc.Unsafe}.
+     */
+    private static void fence(MethodHandle fence) {
+        if (fence == null) {
+            throw new UnsupportedOperationException();
+        }
+        try {
+            fence.invokeExact();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable impossible) {
+            throw new IllegalStateException(impossible);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+
+/**
+ * Sorts text files of roman numerals, one per line, by value, also when they
+ * are much bigger than the memory.
+ * <p>
+ * The numerals have only 7999 values, so instead of sorting runs of lines
+ * and merging them, the sorter counts the lines of each value in one
+ * sequential pass over the input, decoding each line directly from its bytes
+ * with the decoder of {@link RomanBytes}: the sorted output is then known and
+ * written in one sequential pass, the canonical numeral of each value
+ * repeated as many times as counted. The memory used is the 7999 counters
+ * and the mapped windows of the files, see {@link RomanMappedFiles}.
+ * <p>
+ * When the original lines must be kept, like lowercase numerals, numerals
+ * surrounded by whitespace or their carriage returns, the first pass also
+ * sums the bytes of the lines of each value, giving the offset in the output
+ * where the lines of each value start. A second pass over the input copies
+ * each line to the next offset of its value in the mapped output, so the
+ * lines of the same value keep their order and no temporary file is needed.
+ * <p>
+ * The lines that are not roman numerals, including the blank ones, are
+ * counted in the {@link Report}. When writing the canonical numerals they are
+ * skipped; when keeping the original lines they are copied after the sorted
+ * ones in their input order, so that no line is lost. The output lines
+ * always end with a line feed.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanFileSorter {
+
+    /**
+     * Number of values in the roman numerals range.
+     */
+    private static final int SLOTS = RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1;
+
+    /**
+     * Tells if the original lines are written instead of the canonical
+     * numerals.
+     */
+    private final boolean preservingLines;
+
+    /**
+     * Size of the mapped windows of input and output.
+     */
+    private final int windowBytes;
+
+    /**
+     * Constructs a sorter writing the canonical numerals.
+     */
+    public RomanFileSorter() {
+        this(false);
+    }
+
+    /**
+     * Constructs a sorter writing the canonical numerals or the original
+     * lines.
+     *
+     * @param preservingLines {@code true} to write the original lines.
+     */
+    public RomanFileSorter(boolean preservingLines) {
+        this(preservingLines, RomanMappedFiles.WINDOW_BYTES);
+    }
+
+    /**
+     * Constructs a sorter with the given size of the mapped windows.
+     *
+     * @param preservingLines {@code true} to write the original lines.
+     * @param windowBytes size of the mapped windows, longer than any line.
+     */
+    RomanFileSorter(boolean preservingLines, int windowBytes) {
+        this.preservingLines = preservingLines;
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Tells if the original lines are written instead of the canonical
+     * numerals.
+     *
+     * @return {@code true} if the original lines are written.
+     */
+    public boolean isPreservingLines() {
+        return preservingLines;
+    }
+
+    /**
+     * Sorts the numerals of the input file by value into the output file.
+     *
+     * @param input text file with a roman numeral per line.
+     * @param output file to be created or overwritten, not the input.
+     * @return the numbers of sorted and invalid lines.
+     * @throws IOException if the files could not be read or written.
+     * @throws IllegalArgumentException if input and output are the same file.
+     */
+    public Report sort(Path input, Path output) throws IOException {
+        if (Files.exists(output) && Files.isSameFile(input, output)) {
+            throw new IllegalArgumentException(MessageFormat.format(RomanMessages.getString("SameSortFiles"), input));
+        }
+        long[] counts = new long[SLOTS];
+        long[] bytes = preservingLines ? new long[SLOTS] : null;
+        long[] invalid = new long[2];
+        RomanMappedFiles.forEachLine(input, windowBytes, (window, from, to) -> {
+            int value = RomanBytes.decode(window, from, to);
+            if (value == RomanConversionEngine.NOT_CANONICAL) {
+                invalid[0]++;
+                invalid[1] += to - from + 1;
+            } else {
+                int slot = value - RomanConverter.MININTEGER;
+                counts[slot]++;
+                if (bytes != null) {
+                    bytes[slot] += to - from + 1;
+                }
+            }
+        });
+        if (preservingLines) {
+            copyLines(input, output, bytes, invalid[1]);
+        } else {
+            writeNumerals(output, counts);
+        }
+        long sorted = 0;
+        for (long count : counts) {
+            sorted += count;
+        }
+        return new Report(sorted, invalid[0], preservingLines);
+    }
+
+    /**
+     * Writes the canonical numeral of each value as many times as counted.
+     *
+     * @param output file to be written.
+     * @param counts number of lines of each value.
+     * @throws IOException if the file could not be written.
+     */
+    private void writeNumerals(Path output, long[] counts) throws IOException {
+        long size = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            size += counts[slot] * (RomanBytes.numeralBytes(slot + RomanConverter.MININTEGER).length + 1);
+        }
+        try (RomanMappedFiles.Output file = new RomanMappedFiles.Output(output, size, windowBytes)) {
+            long position = 0;
+            for (int slot = 0; slot < SLOTS; slot++) {
+                byte[] numeral = RomanBytes.numeralBytes(slot + RomanConverter.MININTEGER);
+                for (long i = 0; i < counts[slot]; i++) {
+                    file.put(position, numeral);
+                    position += numeral.length;
+                    file.put(position++, (byte) '\n');
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies each line of the input to the next offset of its value in the
+     * output.
+     *
+     * @param input file to be read again.
+     * @param output file to be written.
+     * @param bytes number of bytes of the lines of each value, line feeds
+     * included.
+     * @param invalidBytes number of bytes of the invalid lines, copied after
+     * the others, line feeds included.
+     * @throws IOException if the files could not be read or written.
+     */
+    private void copyLines(Path input, Path output, long[] bytes, long invalidBytes) throws IOException {
+        long[] offsets = new long[SLOTS + 1];
+        long size = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            offsets[slot] = size;
+            size += bytes[slot];
+        }
+        offsets[SLOTS] = size;
+        size += invalidBytes;
+        try (RomanMappedFiles.Output file = new RomanMappedFiles.Output(output, size, windowBytes)) {
+            RomanMappedFiles.forEachLine(input, windowBytes, (window, from, to) -> {
+                int value = RomanBytes.decode(window, from, to);
+                int slot = value == RomanConversionEngine.NOT_CANONICAL ? SLOTS : value - RomanConverter.MININTEGER;
+                file.put(offsets[slot], window, from, to);
+                offsets[slot] += to - from;
+                file.put(offsets[slot]++, (byte) '\n');
+            });
+        }
+    }
+
+    /**
+     * The numbers of lines sorted and invalid of a sort.
+     */
+    public static final class Report {
+
+        private final long sortedLines;
+        private final long invalidLines;
+        private final boolean invalidLinesKept;
+
+        /**
+         * Constructs a report.
+         *
+         * @param sortedLines number of sorted lines written to the output.
+         * @param invalidLines number of invalid lines.
+         * @param invalidLinesKept {@code true} if the invalid lines were
+         * copied after the sorted ones, {@code false} if skipped.
+         */
+        Report(long sortedLines, long invalidLines, boolean invalidLinesKept) {
+            this.sortedLines = sortedLines;
+            this.invalidLines = invalidLines;
+            this.invalidLinesKept = invalidLinesKept;
+        }
+
+        /**
+         * Returns the number of sorted lines written to the output.
+         *
+         * @return the number of roman numerals of the input.
+         */
+        public long getSortedLines() {
+            return sortedLines;
+        }
+
+        /**
+         * Returns the number of invalid lines, skipped or copied after the
+         * sorted ones.
+         *
+         * @return the number of lines of the input that are not roman
+         * numerals.
+         */
+        public long getInvalidLines() {
+            return invalidLines;
+        }
+
+        /**
+         * Tells if the invalid lines were copied after the sorted ones instead
+         * of being skipped.
+         *
+         * @return {@code true} if the original lines were kept.
+         */
+        public boolean areInvalidLinesKept() {
+            return invalidLinesKept;
+        }
+
+        /**
+         * Returns the report as shown by the {@code sort} command.
+         *
+         * @return the numbers of sorted and invalid lines.
+         */
+        @Override
+        public String toString() {
+            String key = invalidLinesKept ? "SortedKeptText" : "SortedText";
+            return MessageFormat.format(RomanMessages.getString(key), sortedLines, invalidLines);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Switch of the Java Flight Recorder events emitted by jNumerus.
+ * <p>
+ * The events are {@link RomanEncodeEvent}, {@link RomanDecodeEvent},
+ * {@link RomanSyntaxRejectionEvent} and {@link RomanOverflowEvent}, all in the
+ * <i>jNumerus</i> category of a recording. They are emitted only if the
+ * running JVM offers the {@code jdk.jfr} API (JDK 8u262 or later) and the
+ * {@value #DISABLED_PROPERTY} system property is not {@code true}. Even then
+ * they cost almost nothing until a recording enables them.
+ * <p>
+ * Each event accepts the standard {@code enabled} and {@code threshold}
+ * settings and a {@code sampling} setting, which records on average one event
+ * out of the given number. By default every rejection and overflow is recorded,
+ * while conversions are recorded only when slower than 10 us, to catch spikes
+ * without flooding the recording. To see all the time spent converting,
+ * lower the threshold and sample instead, for example:
+ *
+ * <pre>
+ * recording.enable("it.matjaz.jnumerus.Encode")
+ *         .withThreshold(Duration.ofNanos(500))
+ *         .with("sampling", "100");
+ * </pre>
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanFlightRecorder {
+
+    /**
+     * System property disabling the events when {@code true}.
+     */
+    static final String DISABLED_PROPERTY = "jnumerus.jfr.disabled";
+
+    /**
+     * Whether the events are emitted, decided once at class initialization.
+     * The event classes are never loaded when this is {@code false}.
+     */
+    static final boolean ENABLED = !Boolean.getBoolean(DISABLED_PROPERTY) && isFlightRecorderAvailable();
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanFlightRecorder() {
+    }
+
+    /**
+     * Verifies if the events may be recorded, that is if they are
+     * {@link #ENABLED} and the flight recorder of the JVM has been
+     * initialized, by a command line option or by the first recording.
+     * <p>
+     * The first use of an event class makes the flight recorder instrument
+     * it, which costs more than the rest of a one-shot conversion, so the
+     * event classes are not touched until a recording may want them.
+     *
+     * @return {@code true} if the events should be created.
+     */
+    static boolean isRecording() {
+        return ENABLED && FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Verifies if the JFR event API is present in the running JVM.
+     *
+     * @return {@code true} if {@code jdk.jfr.Event} can be loaded.
+     */
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import javafx.util.Pair;
+
+/**
+ * {@link RomanConversionEngine} with the original algorithms of jNumerus,
+ * walking the {@link RomanCharMapFactory#generateCharPairsArray() pairs of
+ * roman chars and values} from the biggest.
+ * <p>
+ * It needs no tables, only the 13 pairs, but each conversion builds or scans
+ * the numeral char by char and decoding encodes the value again to verify
+ * that the numeral is canonical. It is the reference the other engines are
+ * verified against by the {@link RomanEngineVerifier}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanGreedyEngine implements RomanConversionEngine {
+
+    /**
+     * The pairs of roman chars and values, from the biggest.
+     */
+    private final Pair[] charValues = RomanCharMapFactory.generateCharPairsArray();
+
+    /**
+     * Returns the name of the engine.
+     *
+     * @return {@code greedy}.
+     */
+    @Override
+    public String getName() {
+        return "greedy";
+    }
+
+    /**
+     * Builds the numeral appending each roman char as many times as its value
+     * fits in the remaining value.
+     *
+     * @param arabic the value, in [-3999, 3999].
+     * @return the canonical numeral.
+     */
+    @Override
+    public String encode(int arabic) {
+        if (arabic == 0) {
+            return RomanNumeral.NULLA_STRING;
+        }
+        String numeral = RomanConverter.buildRomanString(Math.abs(arabic), charValues);
+        return arabic < 0 ? "-" + numeral : numeral;
+    }
+
+    /**
+     * Sums the values of the roman chars found from the biggest, then encodes
+     * the sum to verify that the numeral is canonical.
+     *
+     * @param numeral any sequence of chars.
+     * @return the value of the numeral or {@link #NOT_CANONICAL}.
+     */
+    @Override
+    public int decode(CharSequence numeral) {
+        String romanString = numeral.toString();
+        if (romanString.equals(RomanNumeral.NULLA_STRING)) {
+            return 0;
+        }
+        int start = romanString.startsWith("-") ? 1 : 0;
+        if (start == romanString.length()) {
+            return NOT_CANONICAL;
+        }
+        int arabicValue = 0;
+        int romanStringIndex = start;
+        int romanCharIndex = 0;
+        while (romanStringIndex < romanString.length()) {
+            if (romanCharIndex == charValues.length || arabicValue > RomanConverter.MAXINTEGER) {
+                return NOT_CANONICAL;
+            }
+            String romanChar = (String) charValues[romanCharIndex].getKey();
+            if (romanString.startsWith(romanChar, romanStringIndex)) {
+                arabicValue += (int) charValues[romanCharIndex].getValue();
+                romanStringIndex += romanChar.length();
+            } else {
+                romanCharIndex++;
+            }
+        }
+        if (arabicValue > RomanConverter.MAXINTEGER
+                || !RomanConverter.buildRomanString(arabicValue, charValues).equals(romanString.substring(start))) {
+            return NOT_CANONICAL;
+        }
+        return start == 0 ? arabicValue : -arabicValue;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+/**
+ * {@link RomanConversionEngine} with the tables generated during the build:
+ * the numerals of all the values and the minimal perfect hash of all the
+ * numerals.
+ * <p>
+ * Decoding hashes the chars once and compares the numeral of a single slot,
+ * so its cost depends only on the length of the numeral. It is the default
+ * engine of the converters.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanHashEngine implements RomanConversionEngine {
+
+    /**
+     * Returns the name of the engine.
+     *
+     * @return {@code hash}.
+     */
+    @Override
+    public String getName() {
+        return "hash";
+    }
+
+    /**
+     * Reads the numeral from the table of all the numerals.
+     *
+     * @param arabic the value, in [-3999, 3999].
+     * @return the canonical numeral.
+     */
+    @Override
+    public String encode(int arabic) {
+        return RomanConverter.canonicalNumeral(arabic);
+    }
+
+    /**
+     * Finds the numeral with the minimal perfect hash of all the numerals.
+     *
+     * @param numeral any sequence of chars.
+     * @return the value of the numeral or {@link #NOT_CANONICAL}.
+     */
+    @Override
+    public int decode(CharSequence numeral) {
+        return RomanConverter.lookupCanonical(numeral);
+    }
+}
@@ -0,0 +1,572 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Embedded HTTP server offering the jNumerus conversions and arithmetic to
+ * other processes.
+ * <p>
+ * It is built on the JDK {@link HttpServer}, running each exchange on a
+ * virtual thread when the JVM supports them. Connections are kept alive
+ * between requests. The endpoints are:
+ * <ul>
+ * <li>{@code GET /encode?value=42} returns {@code XLII}</li>
+ * <li>{@code GET /decode?numeral=XLII} returns {@code 42}</li>
+ * <li>{@code GET /calculate?operation=sum&one=XL&two=2} returns {@code XLII};
+ * the operands may be roman numerals or ints and the operations are
+ * {@code sum, difference, product, division, remainder, power}</li>
+ * </ul>
+ * A {@code POST} to the same paths is a batch request: the body contains one
+ * input per line, with the calculate arguments separated by spaces, like
+ * {@code sum XL 2}, and the response contains one result per line. With a
+ * {@code Content-Type: application/json} body the inputs are a JSON array
+ * instead, for example {@code [1, 2, 3]}, {@code ["I", "II"]} or
+ * {@code [["sum", "XL", "2"]]}. An input with an error does not fail the
+ * batch: its line contains the error message.
+ * <p>
+ * Responses are plain text unless the request {@code Accept}s or sends
+ * {@code application/json}: then single results are JSON values, batch
+ * results a JSON array and errors objects like {@code {"error": "..."}}.
+ * Single requests with an error get status 400.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanMain
+ */
+public class RomanHttpServer {
+
+    /**
+     * Default TCP port of the server.
+     */
+    public static final int DEFAULT_PORT = 3999;
+
+    /**
+     * Maximum number of pending connections.
+     */
+    private static final int BACKLOG = 1024;
+
+    /**
+     * Maximum size of a request body, larger batches are refused with status
+     * 413 before being buffered.
+     */
+    private static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+
+    private static final String JSON_TYPE = "application/json";
+    private static final String TEXT_TYPE = "text/plain; charset=utf-8";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RomanConverter converter;
+
+    /**
+     * Operation performed by an endpoint on the arguments of a single input.
+     */
+    private interface RomanOperation {
+
+        /**
+         * @param arguments of the input.
+         * @return a String numeral or an Integer.
+         * @throws RomanException if an argument is illegal.
+         */
+        Object apply(String[] arguments) throws RomanException;
+    }
+
+    /**
+     * Constructs a server bound to the given address, not yet started.
+     * <p>
+     * Pass port 0 to bind to any free port, then read it with
+     * {@link #getAddress()}.
+     *
+     * @param address to listen on.
+     * @throws IOException if the address could not be bound.
+     */
+    public RomanHttpServer(InetSocketAddress address) throws IOException {
+        this.converter = new RomanConverter();
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = RomanThreads.newVirtualThreadExecutor(4 * Runtime.getRuntime().availableProcessors());
+        server.setExecutor(executor);
+        server.createContext("/encode", new RomanHandler(new String[]{"value"}, this::encode));
+        server.createContext("/decode", new RomanHandler(new String[]{"numeral"}, this::decode));
+        server.createContext("/calculate", new RomanHandler(new String[]{"operation", "one", "two"}, this::calculate));
+    }
+
+    /**
+     * Starts accepting connections in background threads.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Closes the listening socket and the open connections and stops the
+     * threads.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Getter of the bound address.
+     *
+     * @return the address the server listens on.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Converts an int to its roman numeral.
+     *
+     * @param arguments the int as String.
+     * @return the numeral String.
+     * @throws IllegalArabicValueException if the int is out of range.
+     */
+    private Object encode(String[] arguments) throws IllegalArabicValueException {
+        return converter.integerToRomanNumeral(parseInt(arguments[0])).getNumeral();
+    }
+
+    /**
+     * Converts a roman numeral to its value.
+     *
+     * @param arguments the numeral.
+     * @return the Integer value.
+     * @throws IllegalNumeralSyntaxException if the numeral has illegal syntax.
+     */
+    private Object decode(String[] arguments) throws IllegalNumeralSyntaxException {
+        return converter.romanNumeralToInteger(new RomanNumeral(arguments[0]));
+    }
+
+    /**
+     * Performs an operation of {@link RomanCalculator}.
+     *
+     * @param arguments the operation name and the two operands.
+     * @return the numeral String of the result.
+     * @throws RomanException if an operand or the result is illegal.
+     */
+    private Object calculate(String[] arguments) throws RomanException {
+        RomanInteger one = parseOperand(arguments[1]);
+        RomanInteger two = parseOperand(arguments[2]);
+        RomanInteger result;
+        switch (arguments[0].toLowerCase(Locale.US)) {
+            case "sum":
+                result = RomanCalculator.sum(one, two);
+                break;
+            case "difference":
+                result = RomanCalculator.difference(one, two);
+                break;
+            case "product":
+                result = RomanCalculator.product(one, two);
+                break;
+            case "division":
+                result = RomanCalculator.intDivision(one, two);
+                break;
+            case "remainder":
+                result = RomanCalculator.remainder(one, two);
+                break;
+            case "power":
+                result = RomanCalculator.power(one, two);
+                break;
+            default:
+                throw new RomanException(RomanMessages.getString("IllegalServerRequest"));
+        }
+        return result.getNumeral().getNumeral();
+    }
+
+    /**
+     * Parses an operand written as int or as roman numeral.
+     *
+     * @param operand to be parsed.
+     * @return the operand as RomanInteger.
+     * @throws RomanException if the operand is neither.
+     */
+    private static RomanInteger parseOperand(String operand) throws RomanException {
+        if (!operand.isEmpty() && (Character.isDigit(operand.charAt(operand.length() - 1)))) {
+            return new RomanInteger(parseInt(operand));
+        }
+        return new RomanInteger(new RomanNumeral(operand));
+    }
+
+    /**
+     * Parses an int, reporting malformed ones as out of range.
+     *
+     * @param arabic the int as String.
+     * @return the parsed int.
+     * @throws IllegalArabicValueException if the String is not an int.
+     */
+    private static int parseInt(String arabic) throws IllegalArabicValueException {
+        try {
+            return Integer.parseInt(arabic.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+    }
+
+    /**
+     * Handler of one endpoint, dispatching single and batch requests to its
+     * operation.
+     */
+    private static class RomanHandler implements HttpHandler {
+
+        private final String[] parameterNames;
+        private final RomanOperation operation;
+
+        RomanHandler(String[] parameterNames, RomanOperation operation) {
+            this.parameterNames = parameterNames;
+            this.operation = operation;
+        }
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            try {
+                byte[] body = readBody(exchange);
+                String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+                String accept = exchange.getRequestHeaders().getFirst("Accept");
+                boolean jsonRequest = contentType != null && contentType.startsWith(JSON_TYPE);
+                boolean json = jsonRequest || (accept != null && accept.contains(JSON_TYPE));
+                if (body == null) {
+                    String message = MessageFormat.format(RomanMessages.getString("RequestTooLarge"), String.valueOf(MAX_BODY_BYTES));
+                    send(exchange, 413, json, formatError(message, json));
+                    return;
+                }
+                switch (exchange.getRequestMethod()) {
+                    case "GET":
+                        handleSingle(exchange, json);
+                        break;
+                    case "POST":
+                        handleBatch(exchange, new String(body, StandardCharsets.UTF_8), jsonRequest, json);
+                        break;
+                    default:
+                        send(exchange, 405, json, RomanMessages.getString("IllegalServerRequest"));
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+
+        /**
+         * Answers a GET request with the result of the query parameters.
+         */
+        private void handleSingle(HttpExchange exchange, boolean json) throws IOException {
+            Map<String, String> parameters;
+            try {
+                parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            } catch (IllegalArgumentException ex) {
+                send(exchange, 400, json, formatError(RomanMessages.getString("IllegalServerRequest"), json));
+                return;
+            }
+            String[] arguments = new String[parameterNames.length];
+            for (int i = 0; i < arguments.length; i++) {
+                arguments[i] = parameters.get(parameterNames[i]);
+                if (arguments[i] == null) {
+                    send(exchange, 400, json, formatError(RomanMessages.getString("IllegalServerRequest"), json));
+                    return;
+                }
+            }
+            try {
+                send(exchange, 200, json, formatResult(operation.apply(arguments), json));
+            } catch (RomanException | ArithmeticException ex) {
+                send(exchange, 400, json, formatError(ex.getMessage(), json));
+            }
+        }
+
+        /**
+         * Answers a POST request with the results of all the inputs in the
+         * body.
+         */
+        private void handleBatch(HttpExchange exchange, String body, boolean jsonRequest, boolean json) throws IOException {
+            List<String[]> inputs;
+            try {
+                inputs = jsonRequest ? parseJsonInputs(body) : parseTextInputs(body);
+            } catch (IllegalArgumentException ex) {
+                send(exchange, 400, json, formatError(RomanMessages.getString("IllegalServerRequest"), json));
+                return;
+            }
+            StringBuilder response = new StringBuilder(inputs.size() * 8);
+            if (json) {
+                response.append('[');
+            }
+            for (int i = 0; i < inputs.size(); i++) {
+                if (i > 0) {
+                    response.append(json ? "," : "\n");
+                }
+                response.append(apply(inputs.get(i), json));
+            }
+            response.append(json ? "]" : "\n");
+            send(exchange, 200, json, response.toString());
+        }
+
+        /**
+         * Applies the operation to one input of a batch.
+         *
+         * @return the formatted result or error.
+         */
+        private String apply(String[] arguments, boolean json) {
+            if (arguments.length != parameterNames.length) {
+                return formatError(RomanMessages.getString("IllegalServerRequest"), json);
+            }
+            try {
+                return formatResult(operation.apply(arguments), json);
+            } catch (RomanException | ArithmeticException ex) {
+                return formatError(ex.getMessage(), json);
+            }
+        }
+
+        /**
+         * Splits a plain text body in lines and each line in arguments.
+         */
+        private static List<String[]> parseTextInputs(String body) {
+            List<String[]> inputs = new ArrayList<>();
+            for (String line : body.split("\r?\n")) {
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty()) {
+                    inputs.add(trimmed.split("\\s+"));
+                }
+            }
+            return inputs;
+        }
+
+        /**
+         * Reads a JSON array of inputs, each one a scalar or an array of
+         * scalars.
+         */
+        private static List<String[]> parseJsonInputs(String body) {
+            JsonReader reader = new JsonReader(body);
+            List<String[]> inputs = new ArrayList<>();
+            reader.expect('[');
+            if (!reader.consumeIf(']')) {
+                do {
+                    if (reader.consumeIf('[')) {
+                        List<String> arguments = new ArrayList<>();
+                        if (!reader.consumeIf(']')) {
+                            do {
+                                arguments.add(reader.readScalar());
+                            } while (reader.consumeIf(','));
+                            reader.expect(']');
+                        }
+                        inputs.add(arguments.toArray(new String[arguments.size()]));
+                    } else {
+                        inputs.add(new String[]{reader.readScalar()});
+                    }
+                } while (reader.consumeIf(','));
+                reader.expect(']');
+            }
+            reader.expectEnd();
+            return inputs;
+        }
+    }
+
+    /**
+     * Formats a result as JSON or plain text.
+     */
+    private static String formatResult(Object result, boolean json) {
+        if (json && result instanceof String) {
+            return quoteJson((String) result);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Formats an error message as JSON object or plain text.
+     */
+    private static String formatError(String message, boolean json) {
+        return json ? "{\"error\":" + quoteJson(message) + "}" : message;
+    }
+
+    /**
+     * Quotes and escapes a String as JSON string.
+     */
+    private static String quoteJson(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char character = text.charAt(i);
+            switch (character) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                default:
+                    if (character < ' ') {
+                        quoted.append(String.format("\\u%04x", (int) character));
+                    } else {
+                        quoted.append(character);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Sends a complete response with a fixed length, so the connection can be
+     * kept alive.
+     */
+    private static void send(HttpExchange exchange, int status, boolean json, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", json ? JSON_TYPE : TEXT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    /**
+     * Reads a whole request body, unless it is longer than
+     * {@link #MAX_BODY_BYTES} as declared by its Content-Length or as read.
+     *
+     * @return the body, or {@code null} if it is too long.
+     */
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        try {
+            if (contentLength != null && Long.parseLong(contentLength.trim()) > MAX_BODY_BYTES) {
+                return null;
+            }
+        } catch (NumberFormatException ex) {
+            // Rejected by the server before reaching the handler
+        }
+        InputStream in = exchange.getRequestBody();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            if (bytes.size() + read > MAX_BODY_BYTES) {
+                return null;
+            }
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Parses the URL-encoded query parameters of a request.
+     *
+     * @throws IllegalArgumentException if an escape is malformed.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (rawQuery == null) {
+            return parameters;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"),
+                        URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Minimal reader of the JSON arrays of numbers and strings accepted by the
+     * batch requests.
+     */
+    private static class JsonReader {
+
+        private final String text;
+        private int position;
+
+        JsonReader(String text) {
+            this.text = text;
+        }
+
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+
+        boolean consumeIf(char expected) {
+            skipWhitespace();
+            if (position < text.length() && text.charAt(position) == expected) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        void expect(char expected) {
+            if (!consumeIf(expected)) {
+                throw new IllegalArgumentException(text);
+            }
+        }
+
+        void expectEnd() {
+            skipWhitespace();
+            if (position != text.length()) {
+                throw new IllegalArgumentException(text);
+            }
+        }
+
+        /**
+         * Reads a string or a number, returning its text.
+         */
+        String readScalar() {
+            skipWhitespace();
+            if (consumeIf('"')) {
+                StringBuilder string = new StringBuilder();
+                while (position < text.length()) {
+                    char character = text.charAt(position++);
+                    if (character == '"') {
+                        return string.toString();
+                    }
+                    if (character == '\\' && position < text.length()) {
+                        char escaped = text.charAt(position++);
+                        if (escaped == 'u' && position + 4 <= text.length()) {
+                            string.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                            position += 4;
+                        } else {
+                            string.append(escaped == 'n' ? '\n' : escaped == 't' ? '\t' : escaped);
+                        }
+                    } else {
+                        string.append(character);
+                    }
+                }
+                throw new IllegalArgumentException(text);
+            }
+            int start = position;
+            while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+                position++;
+            }
+            if (start == position) {
+                throw new IllegalArgumentException(text);
+            }
+            return text.substring(start, position);
+        }
+    }
+}
@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.Arrays;
+
+/**
+ * Read-only inverted index of the occurrences of roman numerals in a corpus of
+ * documents, written by a {@link RomanIndexWriter}.
+ * <p>
+ * The index file contains one posting list for each value in
+ * [{@link RomanConverter#MININTEGER}, {@link RomanConverter#MAXINTEGER}]. Every
+ * posting is a position (document id, char offset) of a numeral with that
+ * value. The file is memory-mapped when {@link #open(java.nio.file.Path)
+ * opened}, so queries read the postings straight from the page cache without
+ * parsing: finding all the documents citing <i>XLII</i> or all the values in
+ * the range <i>C..CC</i> costs only the size of the result.
+ * <p>
+ * The structure of the file is, with all numbers big-endian:
+ *
+ * <pre>
+ * int   magic number "JNRI"
+ * int   format version
+ * int   number of slots, 7999
+ * int   reserved
+ * long  start of the posting list of each slot, 7999 + 1 entries
+ * long  postings, (document id &lt;&lt; 32 | offset), sorted per slot
+ * </pre>
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanIndexWriter
+ */
+public class RomanIndex {
+
+    /**
+     * The converter used to find the values of the searched numerals.
+     */
+    private static final RomanConverter converter = new RomanConverter();
+
+    /**
+     * Magic number at the beginning of every index file: "JNRI" in ASCII.
+     */
+    static final int MAGIC = 0x4A4E5249;
+
+    /**
+     * Version of the file structure.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    /**
+     * Number of posting lists, one for each value of the roman numerals range.
+     */
+    static final int SLOTS = RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1;
+
+    /**
+     * Size in bytes of the header preceding the table of the slot starts.
+     */
+    private static final int HEADER_BYTES = 16;
+
+    /**
+     * Base 2 logarithm of the number of postings in each mapped chunk of the
+     * file, so that each chunk is 1 GiB.
+     */
+    private static final int CHUNK_SHIFT = 27;
+
+    /**
+     * Maximum length of an array supported by most JVMs.
+     */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    /**
+     * Start of each posting list and end of the last one, as posting indexes.
+     */
+    private final long[] slotStarts;
+
+    /**
+     * Memory-mapped postings, split into chunks of at most 1 GiB.
+     */
+    private final ByteBuffer[] chunks;
+
+    /**
+     * Constructs an index over already mapped postings.
+     *
+     * @param slotStarts start of each posting list.
+     * @param chunks mapped postings.
+     */
+    private RomanIndex(long[] slotStarts, ByteBuffer[] chunks) {
+        this.slotStarts = slotStarts;
+        this.chunks = chunks;
+    }
+
+    /**
+     * Opens and memory-maps the index file at the given path.
+     * <p>
+     * The file is closed immediately after mapping, the mapping stays valid
+     * until this RomanIndex is garbage collected.
+     *
+     * @param path of a file written by {@link RomanIndexWriter}.
+     * @return the opened index.
+     * @throws IOException if the file could not be read or is not a jNumerus
+     * numeral index.
+     */
+    public static RomanIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long tableBytes = 8L * (SLOTS + 1);
+            if (channel.size() < HEADER_BYTES + tableBytes) {
+                throw corruptFile(path);
+            }
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES + tableBytes);
+            if (head.getInt() != MAGIC || head.getInt() != FORMAT_VERSION || head.getInt() != SLOTS) {
+                throw corruptFile(path);
+            }
+            head.getInt();
+            long[] slotStarts = new long[SLOTS + 1];
+            head.asLongBuffer().get(slotStarts);
+            long postingsCount = slotStarts[SLOTS];
+            long postingsStart = HEADER_BYTES + tableBytes;
+            if (postingsCount < 0 || postingsCount > (channel.size() - postingsStart) / 8
+                    || channel.size() != postingsStart + 8 * postingsCount) {
+                throw corruptFile(path);
+            }
+            if (slotStarts[0] != 0) {
+                throw corruptFile(path);
+            }
+            for (int i = 0; i < SLOTS; i++) {
+                if (slotStarts[i] > slotStarts[i + 1]) {
+                    throw corruptFile(path);
+                }
+            }
+            int chunksCount = (int) ((postingsCount + (1L << CHUNK_SHIFT) - 1) >>> CHUNK_SHIFT);
+            ByteBuffer[] chunks = new ByteBuffer[chunksCount];
+            for (int i = 0; i < chunksCount; i++) {
+                long first = (long) i << CHUNK_SHIFT;
+                long count = Math.min(1L << CHUNK_SHIFT, postingsCount - first);
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, postingsStart + 8 * first, 8 * count);
+            }
+            return new RomanIndex(slotStarts, chunks);
+        }
+    }
+
+    /**
+     * Builds the exception for a file that is not a valid index.
+     *
+     * @param path of the file.
+     * @return the exception to be thrown.
+     */
+    private static IOException corruptFile(Path path) {
+        return new IOException(MessageFormat.format(RomanMessages.getString("IllegalIndexFile"), path));
+    }
+
+    /**
+     * Returns the index of the posting list of the given value.
+     *
+     * @param value in the roman numerals range.
+     * @return the slot of the value.
+     */
+    static int slotOf(int value) {
+        return value - RomanConverter.MININTEGER;
+    }
+
+    /**
+     * Packs a document id and an offset into a single posting.
+     *
+     * @param documentId non-negative document id.
+     * @param offset non-negative char offset.
+     * @return the posting.
+     */
+    static long packPosting(int documentId, int offset) {
+        return ((long) documentId << 32) | offset;
+    }
+
+    /**
+     * Extracts the document id from a posting returned by
+     * {@link #postings(int)}.
+     *
+     * @param posting a posting of this index.
+     * @return the document id.
+     */
+    public static int documentOf(long posting) {
+        return (int) (posting >>> 32);
+    }
+
+    /**
+     * Extracts the char offset from a posting returned by
+     * {@link #postings(int)}.
+     *
+     * @param posting a posting of this index.
+     * @return the offset of the numeral in its document.
+     */
+    public static int offsetOf(long posting) {
+        return (int) posting;
+    }
+
+    /**
+     * Verifies that the value is in the roman numerals range.
+     *
+     * @param value to be checked.
+     * @throws IllegalArabicValueException if not in [-3999, 3999].
+     */
+    private static void checkValue(int value) throws IllegalArabicValueException {
+        if (value < RomanConverter.MININTEGER || value > RomanConverter.MAXINTEGER) {
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+    }
+
+    /**
+     * Verifies that an array can hold the given number of postings.
+     *
+     * @param count of the postings.
+     * @return the count as array length.
+     * @throws IllegalStateException if the count is too big for an array.
+     */
+    private static int arrayLength(long count) {
+        if (count > MAX_ARRAY_LENGTH) {
+            throw new IllegalStateException(MessageFormat.format(RomanMessages.getString("TooManyPostings"), String.valueOf(count)));
+        }
+        return (int) count;
+    }
+
+    /**
+     * Reads the posting at the given position in the file.
+     *
+     * @param position index of the posting.
+     * @return the posting.
+     */
+    private long postingAt(long position) {
+        int chunk = (int) (position >>> CHUNK_SHIFT);
+        int index = (int) (position & ((1L << CHUNK_SHIFT) - 1));
+        return chunks[chunk].getLong(index << 3);
+    }
+
+    /**
+     * Returns the number of occurrences of numerals with the given value in the
+     * whole corpus.
+     *
+     * @param value of the numerals.
+     * @return how many times the value appears.
+     * @throws IllegalArabicValueException if the value is not in [-3999, 3999].
+     */
+    public long occurrences(int value) throws IllegalArabicValueException {
+        checkValue(value);
+        int slot = slotOf(value);
+        return slotStarts[slot + 1] - slotStarts[slot];
+    }
+
+    /**
+     * Returns all the positions of the numerals with the given value.
+     * <p>
+     * The postings are sorted by document id and then by offset. Use
+     * {@link #documentOf(long)} and {@link #offsetOf(long)} to unpack them.
+     *
+     * @param value of the numerals.
+     * @return the postings of the value.
+     * @throws IllegalArabicValueException if the value is not in [-3999, 3999].
+     * @throws IllegalStateException if the value has more postings than an
+     * array can hold.
+     */
+    public long[] postings(int value) throws IllegalArabicValueException {
+        checkValue(value);
+        int slot = slotOf(value);
+        long start = slotStarts[slot];
+        long[] postings = new long[arrayLength(slotStarts[slot + 1] - start)];
+        for (int i = 0; i < postings.length; i++) {
+            postings[i] = postingAt(start + i);
+        }
+        return postings;
+    }
+
+    /**
+     * Returns the ids of the documents containing at least one numeral with
+     * the given value.
+     *
+     * @param value of the numerals.
+     * @return sorted and distinct document ids.
+     * @throws IllegalArabicValueException if the value is not in [-3999, 3999].
+     */
+    public int[] documents(int value) throws IllegalArabicValueException {
+        return documents(value, value);
+    }
+
+    /**
+     * Returns the ids of the documents containing the given numeral.
+     *
+     * @param numeral to be searched.
+     * @return sorted and distinct document ids.
+     */
+    public int[] documents(RomanNumeral numeral) {
+        int slot = slotOf(converter.romanNumeralToInteger(numeral));
+        return documentsOfSlots(slot, slot);
+    }
+
+    /**
+     * Returns the ids of the documents containing at least one numeral with a
+     * value in the given range, extremes included.
+     *
+     * @param fromValue smallest value of the range.
+     * @param toValue biggest value of the range.
+     * @return sorted and distinct document ids, empty if the range is empty.
+     * @throws IllegalArabicValueException if any extreme is not in [-3999,
+     * 3999].
+     * @throws IllegalStateException if the range has more postings than an
+     * array can hold.
+     */
+    public int[] documents(int fromValue, int toValue) throws IllegalArabicValueException {
+        checkValue(fromValue);
+        checkValue(toValue);
+        if (fromValue > toValue) {
+            return new int[0];
+        }
+        return documentsOfSlots(slotOf(fromValue), slotOf(toValue));
+    }
+
+    /**
+     * Collects the distinct document ids of the posting lists of the given
+     * slots.
+     *
+     * @param fromSlot first slot, included.
+     * @param toSlot last slot, included.
+     * @return sorted and distinct document ids.
+     */
+    private int[] documentsOfSlots(int fromSlot, int toSlot) {
+        long start = slotStarts[fromSlot];
+        int[] documents = new int[arrayLength(slotStarts[toSlot + 1] - start)];
+        int count = 0;
+        int previous = -1;
+        for (int i = 0; i < documents.length; i++) {
+            int document = documentOf(postingAt(start + i));
+            if (document != previous) {
+                documents[count++] = document;
+                previous = document;
+            }
+        }
+        if (fromSlot == toSlot) {
+            return Arrays.copyOf(documents, count);
+        }
+        Arrays.sort(documents, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || documents[i] != documents[distinct - 1]) {
+                documents[distinct++] = documents[i];
+            }
+        }
+        return Arrays.copyOf(documents, distinct);
+    }
+}
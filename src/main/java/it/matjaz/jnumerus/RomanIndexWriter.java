@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Collects the occurrences of roman numerals in a corpus of documents and
+ * writes them to a {@link RomanIndex} file.
+ * <p>
+ * Every document is scanned for words made only of the uppercase roman
+ * characters <b>M D C L X V I</b> or equal to
+ * {@link RomanNumeral#NULLA_STRING}. Each word that is a syntactically correct
+ * {@link RomanNumeral} is converted to its value with a {@link RomanConverter}
+ * and its position (document id, char offset of the first character) is
+ * appended to the posting list of that value. Words with illegal roman syntax,
+ * like <i>DID</i>, are ignored.
+ * <p>
+ * Note that common words such as the english pronoun <i>I</i> are valid roman
+ * numerals and are indexed as well.
+ * <p>
+ * The postings are kept in memory until {@link #write(java.nio.file.Path)} is
+ * called, so the writer can be filled with one document at a time while
+ * reading the corpus.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanIndex
+ */
+public class RomanIndexWriter {
+
+    /**
+     * The longest word that may be a roman numeral without sign.
+     */
+    private static final int MAX_NUMERAL_LENGTH = 15;
+
+    /**
+     * The converter used to obtain the values of the found numerals.
+     */
+    private final RomanConverter converter;
+
+    /**
+     * Posting lists, one per value, each entry packing the document id in the
+     * upper 32 bits and the char offset in the lower 32 bits.
+     */
+    private final long[][] postings;
+
+    /**
+     * Number of used entries of each posting list.
+     */
+    private final int[] postingsSizes;
+
+    /**
+     * Constructs an empty writer with no indexed documents.
+     */
+    public RomanIndexWriter() {
+        this.converter = new RomanConverter();
+        this.postings = new long[RomanIndex.SLOTS][];
+        this.postingsSizes = new int[RomanIndex.SLOTS];
+    }
+
+    /**
+     * Scans the given document text and records every roman numeral found in
+     * it.
+     * <p>
+     * The same document id may be passed more than once, for instance to index
+     * a long document in chunks, but then the offsets are relative to each
+     * chunk.
+     *
+     * @param documentId non-negative identifier of the document.
+     * @param text content of the document.
+     * @throws IllegalArgumentException if the document id is negative.
+     */
+    public void addDocument(int documentId, CharSequence text) {
+        if (documentId < 0) {
+            throw new IllegalArgumentException(String.valueOf(documentId));
+        }
+        int length = text.length();
+        int index = 0;
+        while (index < length) {
+            if (!Character.isLetter(text.charAt(index))) {
+                index++;
+                continue;
+            }
+            int wordStart = index;
+            boolean onlyRomanChars = true;
+            while (index < length && Character.isLetter(text.charAt(index))) {
+                onlyRomanChars &= isRomanChar(text.charAt(index));
+                index++;
+            }
+            int wordLength = index - wordStart;
+            if (onlyRomanChars && wordLength <= MAX_NUMERAL_LENGTH) {
+                addWord(documentId, wordStart, text.subSequence(wordStart, index).toString());
+            } else if (wordLength == RomanNumeral.NULLA_STRING.length()
+                    && RomanNumeral.NULLA_STRING.contentEquals(text.subSequence(wordStart, index))) {
+                addPosting(0, documentId, wordStart);
+            }
+        }
+    }
+
+    /**
+     * Verifies if the passed char is one of the uppercase roman characters.
+     *
+     * @param character to be checked.
+     * @return {@code true} for M, D, C, L, X, V, I; else {@code false}.
+     */
+    private static boolean isRomanChar(char character) {
+        switch (character) {
+            case 'M':
+            case 'D':
+            case 'C':
+            case 'L':
+            case 'X':
+            case 'V':
+            case 'I':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Records the given word if it is a syntactically correct roman numeral.
+     *
+     * @param documentId of the document containing the word.
+     * @param offset of the word in the document.
+     * @param word made only of roman characters.
+     */
+    private void addWord(int documentId, int offset, String word) {
+        try {
+            addPosting(converter.romanNumeralToInteger(new RomanNumeral(word)), documentId, offset);
+        } catch (IllegalNumeralSyntaxException notANumeralEx) {
+            // Just a word made of roman characters, such as "DID"
+        }
+    }
+
+    /**
+     * Appends an entry to the posting list of the given value, growing it if
+     * necessary.
+     *
+     * @param value of the found numeral.
+     * @param documentId of the document containing it.
+     * @param offset of the numeral in the document.
+     */
+    private void addPosting(int value, int documentId, int offset) {
+        int slot = RomanIndex.slotOf(value);
+        long[] list = postings[slot];
+        int size = postingsSizes[slot];
+        if (list == null) {
+            list = new long[4];
+            postings[slot] = list;
+        } else if (size == list.length) {
+            list = Arrays.copyOf(list, size * 2);
+            postings[slot] = list;
+        }
+        list[size] = RomanIndex.packPosting(documentId, offset);
+        postingsSizes[slot] = size + 1;
+    }
+
+    /**
+     * Writes all the recorded occurrences to the given file, replacing it if
+     * it exists.
+     * <p>
+     * Each posting list is sorted by document id and then offset before being
+     * written. The file can be opened with
+     * {@link RomanIndex#open(java.nio.file.Path)}.
+     *
+     * @param path of the index file to be written.
+     * @throws IOException if the file could not be written.
+     */
+    public void write(Path path) throws IOException {
+        try (OutputStream file = Files.newOutputStream(path);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(RomanIndex.MAGIC);
+            out.writeInt(RomanIndex.FORMAT_VERSION);
+            out.writeInt(RomanIndex.SLOTS);
+            out.writeInt(0);
+            long start = 0;
+            for (int slot = 0; slot < RomanIndex.SLOTS; slot++) {
+                out.writeLong(start);
+                start += postingsSizes[slot];
+            }
+            out.writeLong(start);
+            for (int slot = 0; slot < RomanIndex.SLOTS; slot++) {
+                int size = postingsSizes[slot];
+                if (size == 0) {
+                    continue;
+                }
+                long[] list = postings[slot];
+                Arrays.sort(list, 0, size);
+                for (int i = 0; i < size; i++) {
+                    out.writeLong(list[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,531 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.StringJoiner;
+import java.util.stream.IntStream;
+
+/**
+ * Growable list of values in the roman numerals range, stored as
+ * {@code short}s.
+ * <p>
+ * Every value in [{@link RomanConverter#MININTEGER},
+ * {@link RomanConverter#MAXINTEGER}] fits in 13 bits, so this array stores
+ * each one in 2 bytes, while a {@code List<RomanInteger>} spends a reference,
+ * a RomanInteger and a RomanNumeral on each element, more than 60 bytes. The
+ * values are checked when inserted, so they are always in range.
+ * <p>
+ * Besides the single and bulk insertions, the array is sorted and searched in
+ * place and streamed as an {@link IntStream}. The {@link #asList()} view
+ * offers the values as a {@code List<RomanInteger>} to the code expecting
+ * one: both RomanInteger and RomanNumeral are mutable, so each access returns
+ * a new RomanInteger, sharing only the numeral String read from the table of
+ * all the numerals of {@link RomanConverter}.
+ * <p>
+ * Like {@link java.util.ArrayList}, the array is not synchronized.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanIntArray {
+
+    /**
+     * Capacity of the first allocation of an array constructed empty.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Biggest capacity of the backing array, as for
+     * {@link java.util.ArrayList}.
+     */
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    /**
+     * Shared backing array of the arrays constructed empty.
+     */
+    private static final short[] EMPTY = new short[0];
+
+    /**
+     * The values, in [0, size).
+     */
+    private short[] values;
+
+    /**
+     * Number of values in the array.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty array.
+     */
+    public RomanIntArray() {
+        this.values = EMPTY;
+    }
+
+    /**
+     * Constructs an empty array able to store the given number of values
+     * without growing.
+     *
+     * @param initialCapacity the number of values.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public RomanIntArray(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException(String.valueOf(initialCapacity));
+        }
+        this.values = initialCapacity == 0 ? EMPTY : new short[initialCapacity];
+    }
+
+    /**
+     * Constructs an array containing the given values.
+     *
+     * @param values in the roman numerals range.
+     * @return the array of the values.
+     * @throws IllegalArabicValueException if any value is not in [-3999,
+     * 3999].
+     */
+    public static RomanIntArray of(int... values) throws IllegalArabicValueException {
+        RomanIntArray array = new RomanIntArray(values.length);
+        array.addAll(values);
+        return array;
+    }
+
+    /**
+     * Verifies that the value is in the roman numerals range.
+     *
+     * @param value to be checked.
+     * @throws IllegalArabicValueException if not in [-3999, 3999].
+     */
+    private static void checkValue(int value) throws IllegalArabicValueException {
+        if (value < RomanConverter.MININTEGER || value > RomanConverter.MAXINTEGER) {
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+    }
+
+    /**
+     * Verifies that the index is in [0, size).
+     *
+     * @param index to be checked.
+     * @throws IndexOutOfBoundsException if it is not.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * Makes room for the given number of values, growing by half of the
+     * current capacity or more.
+     *
+     * @param minCapacity the number of values to be stored.
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > values.length) {
+            long grown = values.length == 0 ? DEFAULT_CAPACITY : values.length + ((long) values.length >> 1);
+            values = Arrays.copyOf(values, (int) Math.min(MAX_CAPACITY, Math.max(grown, minCapacity)));
+        }
+    }
+
+    /**
+     * Makes room for the given number of values more than the current ones.
+     *
+     * @param additional the number of values to be added.
+     * @throws OutOfMemoryError if the size would exceed the biggest capacity.
+     */
+    private void grow(int additional) {
+        if (additional > MAX_CAPACITY - size) {
+            throw new OutOfMemoryError();
+        }
+        ensureCapacity(size + additional);
+    }
+
+    /**
+     * Shrinks the backing array to the number of values.
+     */
+    public void trimToSize() {
+        if (size < values.length) {
+            values = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Returns the number of values in the array.
+     *
+     * @return the size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Tells if the array contains no values.
+     *
+     * @return true if the size is 0.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value at the given index.
+     *
+     * @param index in [0, size).
+     * @return the value.
+     * @throws IndexOutOfBoundsException if the index is not in [0, size).
+     */
+    public int get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /**
+     * Replaces the value at the given index.
+     *
+     * @param index in [0, size).
+     * @param value in the roman numerals range.
+     * @return the replaced value.
+     * @throws IllegalArabicValueException if the value is not in [-3999,
+     * 3999].
+     * @throws IndexOutOfBoundsException if the index is not in [0, size).
+     */
+    public int set(int index, int value) throws IllegalArabicValueException {
+        checkValue(value);
+        checkIndex(index);
+        int old = values[index];
+        values[index] = (short) value;
+        return old;
+    }
+
+    /**
+     * Appends a value.
+     *
+     * @param value in the roman numerals range.
+     * @throws IllegalArabicValueException if the value is not in [-3999,
+     * 3999].
+     */
+    public void add(int value) throws IllegalArabicValueException {
+        checkValue(value);
+        grow(1);
+        values[size++] = (short) value;
+    }
+
+    /**
+     * Inserts a value at the given index, shifting the following ones.
+     *
+     * @param index in [0, size].
+     * @param value in the roman numerals range.
+     * @throws IllegalArabicValueException if the value is not in [-3999,
+     * 3999].
+     * @throws IndexOutOfBoundsException if the index is not in [0, size].
+     */
+    public void add(int index, int value) throws IllegalArabicValueException {
+        checkValue(value);
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        grow(1);
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = (short) value;
+        size++;
+    }
+
+    /**
+     * Appends all the given values.
+     * <p>
+     * All the values are checked before appending any of them, so if one is
+     * out of range the array is not modified.
+     *
+     * @param newValues in the roman numerals range.
+     * @throws IllegalArabicValueException if any value is not in [-3999,
+     * 3999].
+     */
+    public void addAll(int[] newValues) throws IllegalArabicValueException {
+        addAll(newValues, 0, newValues.length);
+    }
+
+    /**
+     * Appends the values in [from, to) of the given array.
+     * <p>
+     * All the values are checked before appending any of them, so if one is
+     * out of range the array is not modified.
+     *
+     * @param newValues in the roman numerals range.
+     * @param from index of the first value, included.
+     * @param to index of the last value, excluded.
+     * @throws IllegalArabicValueException if any value is not in [-3999,
+     * 3999].
+     * @throws IndexOutOfBoundsException if the range is not in the array.
+     */
+    public void addAll(int[] newValues, int from, int to) throws IllegalArabicValueException {
+        if (from < 0 || to > newValues.length || from > to) {
+            throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Length: " + newValues.length);
+        }
+        for (int i = from; i < to; i++) {
+            checkValue(newValues[i]);
+        }
+        grow(to - from);
+        for (int i = from; i < to; i++) {
+            values[size++] = (short) newValues[i];
+        }
+    }
+
+    /**
+     * Appends all the values of another array, which need no checks.
+     *
+     * @param other the array whose values are appended.
+     */
+    public void addAll(RomanIntArray other) {
+        int count = other.size;
+        grow(count);
+        System.arraycopy(other.values, 0, values, size, count);
+        size += count;
+    }
+
+    /**
+     * Removes the value at the given index, shifting the following ones.
+     *
+     * @param index in [0, size).
+     * @return the removed value.
+     * @throws IndexOutOfBoundsException if the index is not in [0, size).
+     */
+    public int removeAt(int index) {
+        checkIndex(index);
+        int old = values[index];
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    /**
+     * Removes all the values, keeping the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the values in ascending order.
+     * <p>
+     * {@link Arrays#sort(short[], int, int)} sorts the big arrays of shorts by
+     * counting, in linear time.
+     */
+    public void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    /**
+     * Sorts the values in ascending order, splitting the work between the
+     * cores of the common fork-join pool.
+     */
+    public void parallelSort() {
+        Arrays.parallelSort(values, 0, size);
+    }
+
+    /**
+     * Searches a value in the array, which must be {@link #sort() sorted}.
+     *
+     * @param value to be searched, any int.
+     * @return the index of the value or {@code -(insertion point) - 1} as
+     * {@link Arrays#binarySearch(short[], int, int, short)}.
+     */
+    public int binarySearch(int value) {
+        if (value < RomanConverter.MININTEGER) {
+            return -1;
+        }
+        if (value > RomanConverter.MAXINTEGER) {
+            return -size - 1;
+        }
+        return Arrays.binarySearch(values, 0, size, (short) value);
+    }
+
+    /**
+     * Returns the index of the first occurrence of a value.
+     *
+     * @param value to be searched, any int.
+     * @return the index or -1 if the array does not contain the value.
+     */
+    public int indexOf(int value) {
+        if (value < RomanConverter.MININTEGER || value > RomanConverter.MAXINTEGER) {
+            return -1;
+        }
+        short searched = (short) value;
+        for (int i = 0; i < size; i++) {
+            if (values[i] == searched) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Tells if the array contains a value.
+     *
+     * @param value to be searched, any int.
+     * @return true if the value is found.
+     */
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /**
+     * Returns a sequential stream of the values, that may be turned
+     * {@link IntStream#parallel() parallel}.
+     * <p>
+     * The stream reads the values present when it is created; the array must
+     * not be modified while the stream is consumed.
+     *
+     * @return a stream of the values.
+     */
+    public IntStream stream() {
+        short[] streamed = values;
+        return IntStream.range(0, size).map(i -> streamed[i]);
+    }
+
+    /**
+     * Copies the values into a new int array.
+     *
+     * @return the values.
+     */
+    public int[] toArray() {
+        int[] copy = new int[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = values[i];
+        }
+        return copy;
+    }
+
+    /**
+     * Returns a view of the values as a list of RomanIntegers.
+     * <p>
+     * The list reads and writes this array: each {@link List#get(int) get}
+     * returns a new RomanInteger of the value, with its numeral read from the
+     * table of all the numerals without conversion, and setting, adding or
+     * removing RomanIntegers changes the values of this array.
+     *
+     * @return the list view, which does not accept nulls.
+     */
+    public List<RomanInteger> asList() {
+        return new RomanIntegerList();
+    }
+
+    /**
+     * Returns the hash of the values, as {@link List#hashCode()} of Integers.
+     *
+     * @return the hash of this RomanIntArray.
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + values[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Verifies if the given object is a RomanIntArray with the same values in
+     * the same order.
+     *
+     * @param other the object to be compared.
+     * @return true if the values are equal.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RomanIntArray)) {
+            return false;
+        }
+        RomanIntArray otherArray = (RomanIntArray) other;
+        if (size != otherArray.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (values[i] != otherArray.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the numerals of the values.
+     *
+     * @return the numerals, like {@code RomanIntArray[XII, NULLA, -IV]}.
+     */
+    @Override
+    public String toString() {
+        StringJoiner joiner = new StringJoiner(", ", "RomanIntArray[", "]");
+        for (int i = 0; i < size; i++) {
+            joiner.add(RomanConverter.canonicalNumeral(values[i]));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * List of RomanIntegers backed by the values of the array.
+     */
+    private final class RomanIntegerList extends AbstractList<RomanInteger> implements RandomAccess {
+
+        @Override
+        public RomanInteger get(int index) {
+            return RomanInteger.ofValidValue(RomanIntArray.this.get(index));
+        }
+
+        @Override
+        public RomanInteger set(int index, RomanInteger element) {
+            int value = Objects.requireNonNull(element).getValue();
+            checkIndex(index);
+            int old = values[index];
+            values[index] = (short) value;
+            return RomanInteger.ofValidValue(old);
+        }
+
+        @Override
+        public void add(int index, RomanInteger element) {
+            int value = Objects.requireNonNull(element).getValue();
+            if (index < 0 || index > size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            grow(1);
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = (short) value;
+            size++;
+            modCount++;
+        }
+
+        @Override
+        public RomanInteger remove(int index) {
+            RomanInteger removed = RomanInteger.ofValidValue(removeAt(index));
+            modCount++;
+            return removed;
+        }
+
+        @Override
+        public void clear() {
+            RomanIntArray.this.clear();
+            modCount++;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -110,6 +110,28 @@ public class RomanInteger extends Number implements Cloneable, Comparable<Number
         setNumeralAndValue(numeral);
     }
 
+    /**
+     * Creates a RomanInteger of a value known to be in range, with the numeral
+     * read from the table of all the numerals of {@link RomanConverter}.
+     *
+     * @param value in [-3999, 3999].
+     * @return a new RomanInteger of the value.
+     */
+    static RomanInteger ofValidValue(int value) {
+        return new RomanInteger(value, RomanNumeral.ofCanonicalNumeral(RomanConverter.canonicalNumeral(value)));
+    }
+
+    /**
+     * Private constructor with both fields, already correlated.
+     *
+     * @param value of the RomanInteger.
+     * @param numeral of the value.
+     */
+    private RomanInteger(int value, RomanNumeral numeral) {
+        this.value = value;
+        this.numeral = numeral;
+    }
+
     /**
      * Private fields setter with int value used in constructors and setters.
      * <p>
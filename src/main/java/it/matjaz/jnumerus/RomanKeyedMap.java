@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Arrays;
+
+/**
+ * Map keyed by the values of the roman numerals range, backed by an array of
+ * 7999 slots indexed by {@code key + 3999}.
+ * <p>
+ * A {@code HashMap<RomanInteger, V>} hashes each key through
+ * {@link RomanInteger#hashCode()}, which also hashes the numeral String, and
+ * stores a node for each mapping. This map reads and writes the slot of the
+ * key directly, with no hashing or nodes, and iterates the mappings in
+ * ascending order of key, like the section numbers of a document mapped to
+ * their metadata. The int accessors {@link #get(int)}, {@link #put(int,
+ * java.lang.Object)}, {@link #remove(int)} and
+ * {@link #forEachIntKey(java.util.function.ObjIntConsumer)} avoid creating
+ * RomanIntegers at all.
+ * <p>
+ * The map does not accept null values. Like {@link java.util.HashMap}, it is
+ * not synchronized: see {@link ConcurrentRomanKeyedMap} for a thread-safe
+ * one.
+ *
+ * @param <V> the type of the mapped values.
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanKeyedMap<V> extends RomanSlotMap<V> {
+
+    /**
+     * The value of each key, null if not mapped.
+     */
+    private final Object[] values = new Object[SLOTS];
+
+    /**
+     * Number of mapped keys.
+     */
+    private int size;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    V slot(int slot) {
+        return (V) values[slot];
+    }
+
+    @Override
+    V putSlot(int slot, V value) {
+        V previous = slot(slot);
+        values[slot] = value;
+        if (previous == null) {
+            size++;
+        }
+        return previous;
+    }
+
+    @Override
+    V removeSlot(int slot) {
+        V previous = slot(slot);
+        if (previous != null) {
+            values[slot] = null;
+            size--;
+        }
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+}
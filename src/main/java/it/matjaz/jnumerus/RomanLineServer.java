@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking TCP server speaking a line protocol with the vocabulary of
+ * {@link RomanRepl}, for callers needing lower latency than
+ * {@link RomanHttpServer}.
+ * <p>
+ * Every line sent by the client is a request and gets one response line:
+ * <ul>
+ * <li>an int, like {@code 42}, is answered with its numeral {@code XLII}</li>
+ * <li>a numeral, like {@code XLII}, is answered with its value {@code 42}</li>
+ * <li>an expression of two operands, ints or numerals, separated by spaces
+ * from one of the operators {@code + - * / % ^}, like {@code XL + 2}, is
+ * answered with the numeral of the result</li>
+ * <li>an illegal input is answered with the error message</li>
+ * </ul>
+ * The REPL commands {@code help, ?, syntax, info, about, ascii, moo, all} are
+ * answered with their text followed by an empty line, {@code exit} and
+ * {@code quit} with a goodbye line before the connection is closed, while
+ * empty lines get no response.
+ * <p>
+ * Clients may pipeline requests by sending many lines without waiting: the
+ * responses come in the same order. All the connections are served by a
+ * single selector thread. Each one has its own session with a pair of
+ * reused direct buffers, and ints and numerals are converted straight from
+ * the input bytes to the output bytes by {@link RomanBytes}: no String is
+ * created except for the error messages.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanRepl
+ */
+public class RomanLineServer {
+
+    /**
+     * Default TCP port of the server.
+     */
+    public static final int DEFAULT_PORT = 3998;
+
+    /**
+     * Size of the input buffer of each connection, which is also the longest
+     * accepted line.
+     */
+    private static final int INPUT_BYTES = 8 * 1024;
+
+    /**
+     * Size of the output buffer of each connection.
+     */
+    private static final int OUTPUT_BYTES = 64 * 1024;
+
+    /**
+     * The binary operators of the expressions, in the order of
+     * {@link #evaluate(int, int, int)}.
+     */
+    private static final byte[] OPERATORS = {'+', '-', '*', '/', '%', '^'};
+
+    /**
+     * The commands closing the connection.
+     */
+    private static final byte[] EXIT = {'e', 'x', 'i', 't'};
+    private static final byte[] QUIT = {'q', 'u', 'i', 't'};
+
+    private final RomanConverter converter;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread selectorThread;
+    private volatile boolean running;
+
+    /**
+     * Direct buffers of the closed connections, reused by the new ones. Only
+     * accessed by the selector thread.
+     */
+    private final ArrayDeque<ByteBuffer> inputPool = new ArrayDeque<>();
+    private final ArrayDeque<ByteBuffer> outputPool = new ArrayDeque<>();
+
+    /**
+     * The REPL commands and the bytes of their response, including the
+     * trailing empty line.
+     */
+    private final byte[][] commands;
+    private final byte[][] commandResponses;
+
+    /**
+     * The bytes of the response to {@code exit} and {@code quit}.
+     */
+    private final byte[] exitResponse;
+
+    /**
+     * The bytes of the frequent error responses.
+     */
+    private final byte[] arabicOutOfRangeResponse;
+    private final byte[] illegalRequestResponse;
+
+    /**
+     * The largest response, that must fit in the output buffer before a
+     * request is processed.
+     */
+    private final int maxResponseBytes;
+
+    /**
+     * State of one connection.
+     */
+    private static class Session {
+
+        /**
+         * Received bytes not yet processed, in write mode.
+         */
+        final ByteBuffer input;
+
+        /**
+         * Responses not yet sent, in write mode.
+         */
+        final ByteBuffer output;
+
+        /**
+         * Whether the bytes up to the next line feed belong to a line too long
+         * to be processed, already answered with an error.
+         */
+        boolean discarding;
+
+        /**
+         * Whether the client asked to exit, so the following lines are ignored
+         * and the connection is closed as soon as the output is sent.
+         */
+        boolean exiting;
+
+        /**
+         * Whether the client closed its side of the connection.
+         */
+        boolean endOfInput;
+
+        /**
+         * Whether some complete lines are waiting for space in the output.
+         */
+        boolean blocked;
+
+        Session(ByteBuffer input, ByteBuffer output) {
+            this.input = input;
+            this.output = output;
+        }
+    }
+
+    /**
+     * Constructs a server bound to the given address, not yet started.
+     * <p>
+     * Pass port 0 to bind to any free port, then read it with
+     * {@link #getAddress()}.
+     *
+     * @param address to listen on.
+     * @throws IOException if the address could not be bound.
+     */
+    public RomanLineServer(InetSocketAddress address) throws IOException {
+        this.converter = new RomanConverter();
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address, 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.selectorThread = new Thread(this::run, "jnumerus-line-server");
+        String[][] texts = {
+            {"?", "HelpText"}, {"help", "HelpText"}, {"moo", "MooText"},
+            {"ascii", "AsciiArtText"}, {"about", null}, {"info", null},
+            {"syntax", "SyntaxText"}, {"all", "AllText"}};
+        this.commands = new byte[texts.length][];
+        this.commandResponses = new byte[texts.length][];
+        int largest = 0;
+        for (int i = 0; i < texts.length; i++) {
+            String text = texts[i][1] == null ? infoText() : RomanMessages.getString(texts[i][1]);
+            commands[i] = texts[i][0].getBytes(StandardCharsets.US_ASCII);
+            commandResponses[i] = (text + "\n\n").getBytes(StandardCharsets.UTF_8);
+            largest = Math.max(largest, commandResponses[i].length);
+        }
+        this.exitResponse = (RomanMessages.getString("ExitText") + "\n").getBytes(StandardCharsets.UTF_8);
+        this.arabicOutOfRangeResponse = (RomanMessages.getString("ArabicOutOfRange") + "\n").getBytes(StandardCharsets.UTF_8);
+        this.illegalRequestResponse = (RomanMessages.getString("IllegalServerRequest") + "\n").getBytes(StandardCharsets.UTF_8);
+        this.maxResponseBytes = Math.max(largest, 1024);
+    }
+
+    /**
+     * Builds the response to the {@code info} command like {@link RomanRepl}.
+     *
+     * @return the info text with the project version and the current year.
+     */
+    private static String infoText() {
+        return MessageFormat.format(RomanMessages.getString("InfoText"),
+                RomanMessages.getProjectProperty("version"), java.time.Year.now());
+    }
+
+    /**
+     * Starts serving the connections in a background thread.
+     */
+    public void start() {
+        running = true;
+        selectorThread.start();
+    }
+
+    /**
+     * Closes the listening socket and all the connections and waits for the
+     * selector thread to end.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Getter of the bound address.
+     *
+     * @return the address the server listens on.
+     */
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) serverChannel.socket().getLocalSocketAddress();
+    }
+
+    /**
+     * Loop of the selector thread, serving the ready connections until
+     * stopped.
+     */
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            if (key.isReadable()) {
+                                read(key);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                serve(key);
+                            }
+                        }
+                    } catch (IOException ex) {
+                        close(key);
+                    } catch (RuntimeException ex) {
+                        // A bug serving one connection must not stop the others
+                        Logger.getLogger(RomanLineServer.class.getName()).log(Level.SEVERE, null, ex);
+                        close(key);
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException ex) {
+            Logger.getLogger(RomanLineServer.class.getName()).log(Level.SEVERE, null, ex);
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException ex) {
+                Logger.getLogger(RomanLineServer.class.getName()).log(Level.SEVERE, null, ex);
+            }
+        }
+    }
+
+    /**
+     * Accepts a pending connection and opens its session.
+     *
+     * @throws IOException if the connection could not be configured.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        ByteBuffer input = inputPool.poll();
+        ByteBuffer output = outputPool.poll();
+        Session session = new Session(
+                input != null ? input : ByteBuffer.allocateDirect(INPUT_BYTES),
+                output != null ? output : ByteBuffer.allocateDirect(OUTPUT_BYTES));
+        channel.register(selector, SelectionKey.OP_READ, session);
+    }
+
+    /**
+     * Closes a connection or the listening socket and returns the buffers of
+     * the session to the pools.
+     *
+     * @param key of the channel to be closed.
+     */
+    private void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ex) {
+            Logger.getLogger(RomanLineServer.class.getName()).log(Level.SEVERE, null, ex);
+        }
+        Session session = (Session) key.attachment();
+        if (session != null) {
+            key.attach(null);
+            ((Buffer) session.input).clear();
+            ((Buffer) session.output).clear();
+            inputPool.push(session.input);
+            outputPool.push(session.output);
+        }
+    }
+
+    /**
+     * Reads the available bytes of a connection and serves them.
+     *
+     * @param key of the readable connection.
+     * @throws IOException if the connection failed.
+     */
+    private void read(SelectionKey key) throws IOException {
+        Session session = (Session) key.attachment();
+        if (((SocketChannel) key.channel()).read(session.input) < 0) {
+            session.endOfInput = true;
+        }
+        serve(key);
+    }
+
+    /**
+     * Answers the complete lines of a connection and sends the responses,
+     * until all are answered or the connection cannot take more output.
+     * <p>
+     * Then waits for the connection to be writable if some output is left,
+     * else for more input. No input is read while output is pending, so slow
+     * readers cannot make the server buffer an unbounded number of responses.
+     *
+     * @param key of the connection.
+     * @throws IOException if the connection failed.
+     */
+    private void serve(SelectionKey key) throws IOException {
+        Session session = (Session) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        do {
+            process(session);
+            ((Buffer) session.output).flip();
+            channel.write(session.output);
+            session.output.compact();
+            if (session.output.position() > 0) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+        } while (session.blocked);
+        if (session.exiting || session.endOfInput) {
+            close(key);
+        } else {
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    /**
+     * Answers all the complete lines in the input of the session, as long as
+     * their responses fit in the output.
+     *
+     * @param session of the connection.
+     */
+    private void process(Session session) {
+        ByteBuffer input = session.input;
+        ((Buffer) input).flip();
+        int lineStart = input.position();
+        session.blocked = false;
+        for (int i = lineStart; i < input.limit() && !session.exiting; i++) {
+            if (input.get(i) != '\n') {
+                continue;
+            }
+            if (session.discarding) {
+                session.discarding = false;
+            } else if (session.output.remaining() < maxResponseBytes) {
+                session.blocked = true;
+                break;
+            } else {
+                answer(session, lineStart, i);
+            }
+            lineStart = i + 1;
+        }
+        ((Buffer) input).position(lineStart);
+        if (lineStart == 0 && input.limit() == input.capacity() && !session.blocked && !session.exiting) {
+            if (session.discarding) {
+                ((Buffer) input).clear();
+            } else if (session.output.remaining() < maxResponseBytes) {
+                session.blocked = true;
+                input.compact();
+            } else {
+                session.output.put(illegalRequestResponse);
+                session.discarding = true;
+                ((Buffer) input).clear();
+            }
+        } else {
+            input.compact();
+        }
+    }
+
+    /**
+     * Writes the response to the given line to the output of the session.
+     *
+     * @param session of the connection.
+     * @param from index of the first byte of the line in the input.
+     * @param to index of the line feed ending the line.
+     */
+    private void answer(Session session, int from, int to) {
+        ByteBuffer input = session.input;
+        ByteBuffer output = session.output;
+        while (from < to && RomanBytes.isWhitespace(input.get(from))) {
+            from++;
+        }
+        while (to > from && RomanBytes.isWhitespace(input.get(to - 1))) {
+            to--;
+        }
+        if (from == to) {
+            return;
+        }
+        for (int i = 0; i < commands.length; i++) {
+            if (equalsIgnoreCase(input, from, to, commands[i])) {
+                output.put(commandResponses[i]);
+                return;
+            }
+        }
+        if (equalsIgnoreCase(input, from, to, EXIT) || equalsIgnoreCase(input, from, to, QUIT)) {
+            output.put(exitResponse);
+            session.exiting = true;
+            return;
+        }
+        if (!answerExpression(session, from, to)) {
+            answerConversion(session, from, to);
+        }
+    }
+
+    /**
+     * Converts a single int or numeral, like the REPL does.
+     */
+    private void answerConversion(Session session, int from, int to) {
+        ByteBuffer input = session.input;
+        ByteBuffer output = session.output;
+        long arabic = RomanBytes.parseDecimal(input, from, to);
+        if (arabic != RomanBytes.NOT_DECIMAL) {
+            if (arabic < RomanConverter.MININTEGER || arabic > RomanConverter.MAXINTEGER) {
+                output.put(arabicOutOfRangeResponse);
+            } else {
+                RomanBytes.encode((int) arabic, output);
+                output.put((byte) '\n');
+            }
+            return;
+        }
+        int value = RomanBytes.decode(input, from, to);
+        if (value != RomanConversionEngine.NOT_CANONICAL) {
+            RomanBytes.putDecimal(value, output);
+            output.put((byte) '\n');
+            return;
+        }
+        answerSlowly(session, from, to);
+    }
+
+    /**
+     * Answers the inputs that are not a plain int nor a valid numeral through
+     * the String path of the REPL: floating point ints or illegal numerals,
+     * whose error message is written.
+     */
+    private void answerSlowly(Session session, int from, int to) {
+        String line = string(session.input, from, to).toLowerCase();
+        String response;
+        try {
+            int arabic = (int) Double.parseDouble(line);
+            response = converter.integerToRomanNumeral(arabic).getNumeral();
+        } catch (NumberFormatException notArabicEx) {
+            try {
+                response = String.valueOf(converter.romanNumeralToInteger(new RomanNumeral(line)));
+            } catch (IllegalNumeralSyntaxException wrongRomanSyntaxEx) {
+                response = wrongRomanSyntaxEx.getMessage();
+            }
+        } catch (IllegalArabicValueException arabicOutOfRangeEx) {
+            response = arabicOutOfRangeEx.getMessage();
+        }
+        putLine(session.output, response);
+    }
+
+    /**
+     * Evaluates the line if it is an expression of two operands and an
+     * operator separated by whitespace.
+     *
+     * @return {@code true} if the line was an expression and got a response.
+     */
+    private boolean answerExpression(Session session, int from, int to) {
+        ByteBuffer input = session.input;
+        int firstEnd = from;
+        while (firstEnd < to && !RomanBytes.isWhitespace(input.get(firstEnd))) {
+            firstEnd++;
+        }
+        int operatorStart = firstEnd;
+        while (operatorStart < to && RomanBytes.isWhitespace(input.get(operatorStart))) {
+            operatorStart++;
+        }
+        int secondStart = operatorStart + 1;
+        if (secondStart >= to || !RomanBytes.isWhitespace(input.get(secondStart))) {
+            return false;
+        }
+        int operator = -1;
+        for (int i = 0; i < OPERATORS.length; i++) {
+            if (input.get(operatorStart) == OPERATORS[i]) {
+                operator = i;
+            }
+        }
+        if (operator < 0) {
+            return false;
+        }
+        while (RomanBytes.isWhitespace(input.get(secondStart))) {
+            secondStart++;
+        }
+        try {
+            int one = parseOperand(input, from, firstEnd);
+            int two = parseOperand(input, secondStart, to);
+            RomanBytes.encode(evaluate(operator, one, two), session.output);
+            session.output.put((byte) '\n');
+        } catch (RomanException | ArithmeticException ex) {
+            putLine(session.output, ex.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Reads an operand written as int or as numeral.
+     * <p>
+     * The numerals rejected by the byte decoder are converted through the
+     * String path, like by {@link #answerSlowly(Session, int, int)}: it throws
+     * the categorized exception of an illegal numeral and decodes the
+     * non-ASCII ones that {@link RomanNumeral} accepts.
+     *
+     * @return the value of the operand.
+     * @throws RomanException if the operand is neither.
+     */
+    private int parseOperand(ByteBuffer input, int from, int to) throws RomanException {
+        long arabic = RomanBytes.parseDecimal(input, from, to);
+        if (arabic != RomanBytes.NOT_DECIMAL) {
+            if (arabic < RomanConverter.MININTEGER || arabic > RomanConverter.MAXINTEGER) {
+                throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+            }
+            return (int) arabic;
+        }
+        int value = RomanBytes.decode(input, from, to);
+        if (value != RomanConversionEngine.NOT_CANONICAL) {
+            return value;
+        }
+        return converter.romanNumeralToInteger(new RomanNumeral(string(input, from, to)));
+    }
+
+    /**
+     * Applies one of the {@link #OPERATORS} with {@link RomanCalculator}.
+     *
+     * @return the value of the result.
+     * @throws IllegalArabicValueException if the result is out of range.
+     */
+    private static int evaluate(int operator, int one, int two) throws IllegalArabicValueException {
+        RomanInteger first = new RomanInteger(one);
+        RomanInteger second = new RomanInteger(two);
+        switch (operator) {
+            case 0:
+                return RomanCalculator.sum(first, second).getValue();
+            case 1:
+                return RomanCalculator.difference(first, second).getValue();
+            case 2:
+                return RomanCalculator.product(first, second).getValue();
+            case 3:
+                return RomanCalculator.intDivision(first, second).getValue();
+            case 4:
+                return RomanCalculator.remainder(first, second).getValue();
+            default:
+                return RomanCalculator.power(first, second).getValue();
+        }
+    }
+
+    /**
+     * Compares a range of the buffer with a lowercase ASCII word, ignoring
+     * the case.
+     */
+    private static boolean equalsIgnoreCase(ByteBuffer buffer, int from, int to, byte[] word) {
+        if (to - from != word.length) {
+            return false;
+        }
+        for (int i = 0; i < word.length; i++) {
+            int b = buffer.get(from + i);
+            if (b != word[i] && b + ('a' - 'A') != word[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes a range of the buffer as UTF-8, for the slow paths.
+     */
+    private static String string(ByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(from + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a String and a line feed to the output.
+     */
+    private static void putLine(ByteBuffer output, String line) {
+        output.put(line.getBytes(StandardCharsets.UTF_8));
+        output.put((byte) '\n');
+    }
+}
@@ -11,8 +11,11 @@
  */
 package it.matjaz.jnumerus;
 
-import java.util.Locale;
-import java.util.ResourceBundle;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
 
 /**
  * jNumerus main class.
@@ -27,26 +30,56 @@ import java.util.ResourceBundle;
  */
 public class RomanMain {
 
-    /**
-     * Default ResourceBundle containing english strings.
-     */
-    private static final ResourceBundle romanBundle = ResourceBundle.getBundle("RomanBundle", Locale.US);
-
     /**
      * Starts the jNumerus project.
      *
      * Starts a REPL to interact with the conversion tools. Alternatively, if
      * any command line arguments are passed, tries to interprete theme without
      * starting an interactive jNumerus shell.
+     * <p>
+     * With the arguments {@code server [port [host]]} starts a
+     * {@link RomanHttpServer} instead, listening on localhost:3999 by default,
+     * and with {@code lineserver [port [host]]} a {@link RomanLineServer},
+     * listening on localhost:3998 by default. With {@code ring [file [slots]]}
+     * starts a {@link RomanRingServer} on a shared memory file,
+     * {@code /dev/shm/jnumerus.ring} by default. With
+     * {@code sort input output [lines]} sorts a file of numerals by value with
+     * a {@link RomanFileSorter}, keeping the original lines if {@code lines}
+     * is passed, and with {@code stats file [histogram]} prints the
+     * {@link RomanStatistics} of a file, followed by the number of lines of
+     * each value if {@code histogram} is passed.
+     * <p>
+     * An argument that is not an int where an int is expected prints the usage
+     * and exits with status 2, while a command failing for an I/O error or an
+     * illegal argument prints the error and exits with status 1.
      *
      * @param args the numbers to convert or REPL commands to execute
      */
     public static void main(String[] args) {
-        if (args.length > 0) {
-            interpreteCommandLineArguments(args);
-        } else {
-            RomanRepl repl = new RomanRepl();
-            repl.start();
+        try {
+            if (args.length > 0 && args[0].equals("server")) {
+                startServer(args);
+            } else if (args.length > 0 && args[0].equals("lineserver")) {
+                startLineServer(args);
+            } else if (args.length > 0 && args[0].equals("ring")) {
+                startRingServer(args);
+            } else if (args.length > 2 && args[0].equals("sort")) {
+                sortFile(args);
+            } else if (args.length > 1 && args[0].equals("stats")) {
+                printStatistics(args);
+            } else if (args.length > 0) {
+                interpreteCommandLineArguments(args);
+            } else {
+                RomanRepl repl = new RomanRepl();
+                repl.start();
+            }
+        } catch (NumberFormatException ex) {
+            System.err.println(MessageFormat.format(RomanMessages.getString("IllegalCommandArgument"), ex.getMessage()));
+            System.err.println(RomanMessages.getString("UsageText"));
+            System.exit(2);
+        } catch (IOException | IllegalArgumentException ex) {
+            System.err.println(MessageFormat.format(RomanMessages.getString("CommandFailed"), ex));
+            System.exit(1);
         }
     }
 
@@ -59,9 +92,88 @@ public class RomanMain {
     private static void interpreteCommandLineArguments(String[] args) {
         RomanRepl repl = new RomanRepl();
         for (String command : args) {
-            System.out.println(romanBundle.getString("Prompt") + command);
+            System.out.println(RomanMessages.getString("Prompt") + command);
             repl.interpreteSingleCommand(command);
         }
     }
 
+    /**
+     * Starts a {@link RomanHttpServer} on the port and host passed after the
+     * {@code server} argument, if any.
+     *
+     * @param args {@code server}, optionally followed by port and host.
+     */
+    private static void startServer(String[] args) throws IOException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : RomanHttpServer.DEFAULT_PORT;
+        String host = args.length > 2 ? args[2] : "localhost";
+        RomanHttpServer server = new RomanHttpServer(new InetSocketAddress(host, port));
+        server.start();
+        System.out.println(MessageFormat.format(RomanMessages.getString("ServerStartedText"), server.getAddress()));
+    }
+
+    /**
+     * Starts a {@link RomanLineServer} on the port and host passed after the
+     * {@code lineserver} argument, if any.
+     *
+     * @param args {@code lineserver}, optionally followed by port and host.
+     */
+    private static void startLineServer(String[] args) throws IOException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : RomanLineServer.DEFAULT_PORT;
+        String host = args.length > 2 ? args[2] : "localhost";
+        RomanLineServer server = new RomanLineServer(new InetSocketAddress(host, port));
+        server.start();
+        System.out.println(MessageFormat.format(RomanMessages.getString("ServerStartedText"), server.getAddress()));
+    }
+
+    /**
+     * Starts a {@link RomanRingServer} on the file and with the slots passed
+     * after the {@code ring} argument, if any, and waits forever.
+     *
+     * @param args {@code ring}, optionally followed by file and slots.
+     */
+    private static void startRingServer(String[] args) throws IOException {
+        Path file = args.length > 1 ? Paths.get(args[1]) : RomanRingServer.DEFAULT_FILE;
+        int slots = args.length > 2 ? Integer.parseInt(args[2]) : RomanRingServer.DEFAULT_SLOTS;
+        RomanRingServer server = new RomanRingServer(file, slots);
+        server.start();
+        System.out.println(MessageFormat.format(RomanMessages.getString("ServerStartedText"), file));
+        try {
+            Thread.currentThread().join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sorts the file passed after the {@code sort} argument into the output
+     * file and prints the numbers of sorted and invalid lines.
+     *
+     * @param args {@code sort}, input and output files, optionally followed by
+     * {@code lines} to keep the original lines.
+     */
+    private static void sortFile(String[] args) throws IOException {
+        boolean preservingLines = args.length > 3 && args[3].equals("lines");
+        RomanFileSorter.Report report = new RomanFileSorter(preservingLines).sort(Paths.get(args[1]), Paths.get(args[2]));
+        System.out.println(report);
+    }
+
+    /**
+     * Prints the statistics of the file passed after the {@code stats}
+     * argument.
+     *
+     * @param args {@code stats} and the file, optionally followed by
+     * {@code histogram} to print the number of lines of each value.
+     */
+    private static void printStatistics(String[] args) throws IOException {
+        RomanStatistics statistics = RomanStatistics.of(Paths.get(args[1]));
+        System.out.println(statistics);
+        if (args.length > 2 && args[2].equals("histogram")) {
+            long[] histogram = statistics.getHistogram();
+            for (int i = 0; i < histogram.length; i++) {
+                if (histogram[i] != 0) {
+                    System.out.println(RomanConverter.canonicalNumeral(i + RomanConverter.MININTEGER) + " " + histogram[i]);
+                }
+            }
+        }
+    }
 }
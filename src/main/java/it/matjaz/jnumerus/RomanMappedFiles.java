@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+
+/**
+ * Reads of text files line by line and positional writes of files, both
+ * through memory-mapped windows, for the files too big to be read in memory
+ * or in a single mapping.
+ * <p>
+ * A mapping is limited to 2 GB, so the files are mapped in windows of at most
+ * {@link #WINDOW_BYTES}. The lines are separated by line feeds, read as
+ * ranges of bytes of a window with no copy and no charset decoding: a line
+ * crossing the end of a window is read again at the start of the next one.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanMappedFiles {
+
+    /**
+     * Default size of the mapped windows, 256 MB.
+     */
+    static final int WINDOW_BYTES = 1 << 28;
+
+    /**
+     * Receives the lines of a file.
+     */
+    interface LineVisitor {
+
+        /**
+         * Reads a line, without the line feed.
+         *
+         * @param window mapped window containing the line, not to be modified.
+         * @param from index of the first byte of the line.
+         * @param to index of the line feed or of the end of the file.
+         * @throws IOException if the line could not be processed.
+         */
+        void visit(ByteBuffer window, int from, int to) throws IOException;
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanMappedFiles() {
+    }
+
+    /**
+     * Reads a file line by line, passing each line to the visitor in order.
+     * <p>
+     * The last line is visited even if it does not end with a line feed, but
+     * an empty last line after the final line feed is not.
+     *
+     * @param file to be read.
+     * @param windowBytes size of the mapped windows, longer than any line.
+     * @param visitor receiving the lines.
+     * @return the number of visited lines.
+     * @throws IOException if the file could not be read, has a line longer
+     * than a window or the visitor fails.
+     */
+    static long forEachLine(Path file, int windowBytes, LineVisitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return forEachLine(channel, 0, channel.size(), windowBytes, visitor);
+        }
+    }
+
+    /**
+     * Reads a part of a file line by line, passing each line to the visitor
+     * in order, so that more threads can read disjoint parts of the same file.
+     *
+     * @param channel of the file, open for reading.
+     * @param start of the part, the start of a line.
+     * @param end of the part, the start of a line or the end of the file.
+     * @param windowBytes size of the mapped windows, longer than any line.
+     * @param visitor receiving the lines.
+     * @return the number of visited lines.
+     * @throws IOException if the file could not be read, has a line longer
+     * than a window or the visitor fails.
+     * @see #lineStart(java.nio.channels.FileChannel, long)
+     */
+    static long forEachLine(FileChannel channel, long start, long end, int windowBytes, LineVisitor visitor) throws IOException {
+        long lines = 0;
+        while (start < end) {
+            int length = (int) Math.min(windowBytes, end - start);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (window.get(i) == '\n') {
+                    visitor.visit(window, lineStart, i);
+                    lines++;
+                    lineStart = i + 1;
+                }
+            }
+            if (start + length == end) {
+                if (lineStart < length) {
+                    visitor.visit(window, lineStart, length);
+                    lines++;
+                }
+                break;
+            }
+            if (lineStart == 0) {
+                throw new IOException(MessageFormat.format(RomanMessages.getString("LineTooLong"), windowBytes));
+            }
+            start += lineStart;
+        }
+        return lines;
+    }
+
+    /**
+     * Finds the start of the line containing the byte after the given
+     * position, to split a file in parts made of whole lines.
+     *
+     * @param channel of the file, open for reading.
+     * @param position in the file.
+     * @return the position itself if it starts a line, else the start of the
+     * following line or the end of the file.
+     * @throws IOException if the file could not be read.
+     */
+    static long lineStart(FileChannel channel, long position) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        long offset = position - 1;
+        while (true) {
+            ((Buffer) buffer).clear();
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * File of known size written at any position through mapped windows.
+     * <p>
+     * The file is created or truncated and mapped to its final size on
+     * construction, so the writes need no system call and may be in any
+     * order. The written pages are flushed by the operating system, also
+     * after {@link #close()}.
+     */
+    static final class Output implements Closeable {
+
+        private final FileChannel channel;
+        private final MappedByteBuffer[] windows;
+        private final int windowBytes;
+
+        /**
+         * Creates or truncates the file and maps it.
+         *
+         * @param file to be written.
+         * @param size of the file in bytes.
+         * @param windowBytes size of the mapped windows.
+         * @throws IOException if the file could not be created or mapped.
+         */
+        Output(Path file, long size, int windowBytes) throws IOException {
+            this.windowBytes = windowBytes;
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                this.windows = new MappedByteBuffer[(int) ((size + windowBytes - 1) / windowBytes)];
+                for (int i = 0; i < windows.length; i++) {
+                    long start = (long) i * windowBytes;
+                    windows[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.min(windowBytes, size - start));
+                }
+            } catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+
+        /**
+         * Writes a single byte.
+         *
+         * @param position in the file.
+         * @param b the byte.
+         */
+        void put(long position, byte b) {
+            windows[(int) (position / windowBytes)].put((int) (position % windowBytes), b);
+        }
+
+        /**
+         * Writes a range of bytes of a buffer, without moving its position.
+         *
+         * @param position in the file of the first byte.
+         * @param source containing the bytes.
+         * @param from index of the first byte in the source.
+         * @param to index after the last byte in the source.
+         */
+        void put(long position, ByteBuffer source, int from, int to) {
+            MappedByteBuffer window = windows[(int) (position / windowBytes)];
+            int offset = (int) (position % windowBytes);
+            if (offset + to - from <= windowBytes) {
+                for (int i = from; i < to; i++) {
+                    window.put(offset++, source.get(i));
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    put(position++, source.get(i));
+                }
+            }
+        }
+
+        /**
+         * Writes an array of bytes.
+         *
+         * @param position in the file of the first byte.
+         * @param bytes to be written.
+         */
+        void put(long position, byte[] bytes) {
+            int window = (int) (position / windowBytes);
+            int offset = (int) (position % windowBytes);
+            if (offset + bytes.length <= windowBytes) {
+                RomanBuffers.put(windows[window], offset, bytes);
+            } else {
+                for (byte b : bytes) {
+                    put(position++, b);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
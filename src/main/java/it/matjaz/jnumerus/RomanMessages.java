@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Lazy access to the strings of the default RomanBundle and to the
+ * Project.properties file.
+ * <p>
+ * Each file is loaded by the initialization of its own holder class, which
+ * the JVM performs only on first use and exactly once, without locks
+ * afterwards. A conversion that succeeds, like the one-shot
+ * {@code java -jar jNumerus.jar XII}, never needs the messages of the errors,
+ * so the classes of the core API do not load the bundle when initialized.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanMessages {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanMessages() {
+    }
+
+    /**
+     * Lazy holder of the default ResourceBundle containing english strings.
+     */
+    private static class BundleHolder {
+
+        private static final ResourceBundle romanBundle = ResourceBundle.getBundle("RomanBundle", Locale.US);
+    }
+
+    /**
+     * Lazy holder of the properties of the project, filled by Maven when
+     * building.
+     */
+    private static class PropertiesHolder {
+
+        private static final Properties properties = loadProjectProperties();
+    }
+
+    /**
+     * Reads the Project.properties file from the classpath.
+     *
+     * @return the read properties, empty if the file could not be read.
+     */
+    private static Properties loadProjectProperties() {
+        Properties properties = new Properties();
+        try (InputStream in = RomanMessages.class.getClassLoader().getResourceAsStream("Project.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(RomanMessages.class.getName()).log(Level.SEVERE, null, ex);
+        }
+        return properties;
+    }
+
+    /**
+     * Returns a string of the default RomanBundle, loading it on first use.
+     *
+     * @param key of the string.
+     * @return the english string.
+     */
+    static String getString(String key) {
+        return BundleHolder.romanBundle.getString(key);
+    }
+
+    /**
+     * Returns a property of the project, loading the Project.properties file
+     * on first use.
+     *
+     * @param key of the property, like {@code version}.
+     * @return the value of the property or {@code null} if missing.
+     */
+    static String getProjectProperty(String key) {
+        return PropertiesHolder.properties.getProperty(key);
+    }
+}
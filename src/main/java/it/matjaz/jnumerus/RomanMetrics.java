@@ -0,0 +1,326 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Optional usage counters and latency histograms of the jNumerus conversions,
+ * exposed through JMX.
+ * <p>
+ * The instrumentation is disabled by default. It is enabled by starting the
+ * JVM with <code>-D{@value #ENABLED_PROPERTY}=true</code>: then the first
+ * recorded operation registers the {@link RomanMetricsMXBean} in the platform
+ * MBeanServer with the name {@value #OBJECT_NAME}. The switch is a constant,
+ * so when disabled the JIT removes the instrumentation from
+ * {@link RomanConverter}, {@link RomanNumeral} and {@link RomanCalculator}
+ * altogether.
+ * <p>
+ * The counters are {@link LongAdder LongAdders}, so concurrent conversions do
+ * not contend on them. The latency histograms have logarithmic buckets, each
+ * one twice as wide as the previous one.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanMetrics implements RomanMetricsMXBean {
+
+    /**
+     * System property enabling the instrumentation when {@code true}.
+     */
+    public static final String ENABLED_PROPERTY = "jnumerus.metrics";
+
+    /**
+     * Name of the MBean in the platform MBeanServer.
+     */
+    public static final String OBJECT_NAME = "it.matjaz.jnumerus:type=RomanMetrics";
+
+    /**
+     * Whether the instrumentation is enabled, read once at class
+     * initialization.
+     */
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * Number of buckets of each latency histogram: the first one is [0, 16)
+     * ns, the last one contains everything longer than 2^26 ns, about 67 ms.
+     */
+    static final int LATENCY_BUCKETS = 24;
+
+    /**
+     * Base 2 logarithm of the upper bound of the first bucket.
+     */
+    private static final int FIRST_BUCKET_SHIFT = 4;
+
+    private final LongAdder encodes = new LongAdder();
+    private final LongAdder decodes = new LongAdder();
+    private final LongAdder validations = new LongAdder();
+    private final LongAdder[] syntaxFailures = newAdders(IllegalNumeralSyntaxException.Category.values().length);
+    private final LongAdder arabicOutOfRangeFailures = new LongAdder();
+    private final LongAdder overflows = new LongAdder();
+    private final LongAdder[] encodeLatencies = newAdders(LATENCY_BUCKETS);
+    private final LongAdder[] decodeLatencies = newAdders(LATENCY_BUCKETS);
+    private final LongAdder[] validationLatencies = newAdders(LATENCY_BUCKETS);
+
+    /**
+     * Lazy holder of the registered instance, initialized on the first
+     * recording.
+     */
+    private static class Holder {
+
+        private static final RomanMetrics INSTANCE = registered(new RomanMetrics());
+    }
+
+    /**
+     * Constructs a set of counters set to zero, not registered in any
+     * MBeanServer.
+     */
+    RomanMetrics() {
+    }
+
+    /**
+     * Returns the counters registered in the platform MBeanServer.
+     * <p>
+     * Should be called only if {@link #ENABLED}.
+     *
+     * @return the shared counters.
+     */
+    static RomanMetrics get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Tells if the instrumentation is enabled by the
+     * {@value #ENABLED_PROPERTY} system property.
+     *
+     * @return {@code true} if the operations are counted, else {@code false}.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Registers the given metrics in the platform MBeanServer, logging any
+     * failure.
+     *
+     * @param metrics to be registered.
+     * @return the passed metrics.
+     */
+    private static RomanMetrics registered(RomanMetrics metrics) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException ex) {
+            Logger.getLogger(RomanMetrics.class.getName()).log(Level.SEVERE, null, ex);
+        }
+        return metrics;
+    }
+
+    /**
+     * Creates an array of adders set to zero.
+     *
+     * @param count number of adders.
+     * @return the new adders.
+     */
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Returns the histogram bucket of the given latency.
+     *
+     * @param nanos latency in nanoseconds.
+     * @return index of the bucket.
+     */
+    static int bucketOf(long nanos) {
+        int bucket = 64 - Long.numberOfLeadingZeros(nanos >>> FIRST_BUCKET_SHIFT);
+        return Math.min(bucket, LATENCY_BUCKETS - 1);
+    }
+
+    /**
+     * Reads the current values of the given adders.
+     *
+     * @param adders to be read.
+     * @return their sums.
+     */
+    private static long[] sums(LongAdder[] adders) {
+        long[] sums = new long[adders.length];
+        for (int i = 0; i < adders.length; i++) {
+            sums[i] = adders[i].sum();
+        }
+        return sums;
+    }
+
+    /**
+     * Records a conversion from int to RomanNumeral.
+     *
+     * @param nanos duration of the conversion.
+     */
+    void recordEncode(long nanos) {
+        encodes.increment();
+        encodeLatencies[bucketOf(nanos)].increment();
+    }
+
+    /**
+     * Records a conversion from RomanNumeral to int.
+     *
+     * @param nanos duration of the conversion.
+     */
+    void recordDecode(long nanos) {
+        decodes.increment();
+        decodeLatencies[bucketOf(nanos)].increment();
+    }
+
+    /**
+     * Records a roman syntax check.
+     *
+     * @param nanos duration of the check.
+     */
+    void recordValidation(long nanos) {
+        validations.increment();
+        validationLatencies[bucketOf(nanos)].increment();
+    }
+
+    /**
+     * Records a failed roman syntax check.
+     *
+     * @param category of the syntax error.
+     */
+    void recordSyntaxFailure(IllegalNumeralSyntaxException.Category category) {
+        syntaxFailures[category.ordinal()].increment();
+    }
+
+    /**
+     * Records an int rejected because out of the roman range.
+     */
+    void recordArabicOutOfRange() {
+        arabicOutOfRangeFailures.increment();
+    }
+
+    /**
+     * Records a {@link RomanCalculator} result out of the roman range.
+     */
+    void recordOverflow() {
+        overflows.increment();
+    }
+
+    @Override
+    public long getEncodes() {
+        return encodes.sum();
+    }
+
+    @Override
+    public long getDecodes() {
+        return decodes.sum();
+    }
+
+    @Override
+    public long getValidations() {
+        return validations.sum();
+    }
+
+    @Override
+    public long getValidationFailures() {
+        long failures = 0;
+        for (LongAdder adder : syntaxFailures) {
+            failures += adder.sum();
+        }
+        return failures;
+    }
+
+    @Override
+    public long getEmptyNumeralFailures() {
+        return syntaxFailures[IllegalNumeralSyntaxException.Category.EMPTY.ordinal()].sum();
+    }
+
+    @Override
+    public long getTooLongNumeralFailures() {
+        return syntaxFailures[IllegalNumeralSyntaxException.Category.TOO_LONG.ordinal()].sum();
+    }
+
+    @Override
+    public long getNonRomanCharsFailures() {
+        return syntaxFailures[IllegalNumeralSyntaxException.Category.NON_ROMAN_CHARS.ordinal()].sum();
+    }
+
+    @Override
+    public long getFourConsecutiveCharsFailures() {
+        return syntaxFailures[IllegalNumeralSyntaxException.Category.FOUR_CONSECUTIVE_CHARS.ordinal()].sum();
+    }
+
+    @Override
+    public long getTwoDLVCharsFailures() {
+        return syntaxFailures[IllegalNumeralSyntaxException.Category.TWO_DLV_CHARS.ordinal()].sum();
+    }
+
+    @Override
+    public long getGenericSyntaxFailures() {
+        return syntaxFailures[IllegalNumeralSyntaxException.Category.GENERIC.ordinal()].sum();
+    }
+
+    @Override
+    public long getArabicOutOfRangeFailures() {
+        return arabicOutOfRangeFailures.sum();
+    }
+
+    @Override
+    public long getOverflows() {
+        return overflows.sum();
+    }
+
+    @Override
+    public long[] getLatencyHistogramBounds() {
+        long[] bounds = new long[LATENCY_BUCKETS];
+        for (int i = 0; i < LATENCY_BUCKETS - 1; i++) {
+            bounds[i] = 1L << (FIRST_BUCKET_SHIFT + i);
+        }
+        bounds[LATENCY_BUCKETS - 1] = Long.MAX_VALUE;
+        return bounds;
+    }
+
+    @Override
+    public long[] getEncodeLatencyHistogram() {
+        return sums(encodeLatencies);
+    }
+
+    @Override
+    public long[] getDecodeLatencyHistogram() {
+        return sums(decodeLatencies);
+    }
+
+    @Override
+    public long[] getValidationLatencyHistogram() {
+        return sums(validationLatencies);
+    }
+
+    @Override
+    public void reset() {
+        encodes.reset();
+        decodes.reset();
+        validations.reset();
+        arabicOutOfRangeFailures.reset();
+        overflows.reset();
+        for (LongAdder[] adders : new LongAdder[][]{syntaxFailures, encodeLatencies, decodeLatencies, validationLatencies}) {
+            for (LongAdder adder : adders) {
+                adder.reset();
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+/**
+ * Management interface of the jNumerus usage counters and latency histograms,
+ * registered in the platform MBeanServer as {@value RomanMetrics#OBJECT_NAME}.
+ * <p>
+ * All counters are cumulative since the start of the JVM or the last
+ * {@link #reset()}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanMetrics
+ */
+public interface RomanMetricsMXBean {
+
+    /**
+     * @return number of int to RomanNumeral conversions.
+     */
+    long getEncodes();
+
+    /**
+     * @return number of RomanNumeral to int conversions.
+     */
+    long getDecodes();
+
+    /**
+     * @return number of roman syntax checks, successful or not.
+     */
+    long getValidations();
+
+    /**
+     * @return number of roman syntax checks that failed, of any category.
+     */
+    long getValidationFailures();
+
+    /**
+     * @return number of rejected empty numerals.
+     */
+    long getEmptyNumeralFailures();
+
+    /**
+     * @return number of rejected too long numerals.
+     */
+    long getTooLongNumeralFailures();
+
+    /**
+     * @return number of rejected numerals with non roman characters.
+     */
+    long getNonRomanCharsFailures();
+
+    /**
+     * @return number of rejected numerals with four consecutive M, C, X or I.
+     */
+    long getFourConsecutiveCharsFailures();
+
+    /**
+     * @return number of rejected numerals with repeated D, L or V.
+     */
+    long getTwoDLVCharsFailures();
+
+    /**
+     * @return number of numerals rejected for any other syntax error.
+     */
+    long getGenericSyntaxFailures();
+
+    /**
+     * @return number of int values rejected because out of the roman range,
+     * including the results of overflowing {@link RomanCalculator} operations.
+     */
+    long getArabicOutOfRangeFailures();
+
+    /**
+     * @return number of {@link RomanCalculator} results out of the roman
+     * range.
+     */
+    long getOverflows();
+
+    /**
+     * Returns the upper bounds of the latency histogram buckets.
+     * <p>
+     * Bucket {@code i} counts the operations that took less than
+     * {@code bounds[i]} nanoseconds and at least {@code bounds[i - 1]}. The
+     * last bucket contains all slower operations.
+     *
+     * @return upper bounds in nanoseconds of each histogram bucket.
+     */
+    long[] getLatencyHistogramBounds();
+
+    /**
+     * @return latency histogram of the int to RomanNumeral conversions.
+     */
+    long[] getEncodeLatencyHistogram();
+
+    /**
+     * @return latency histogram of the RomanNumeral to int conversions.
+     */
+    long[] getDecodeLatencyHistogram();
+
+    /**
+     * @return latency histogram of the roman syntax checks.
+     */
+    long[] getValidationLatencyHistogram();
+
+    /**
+     * Sets all the counters and histograms to zero.
+     */
+    void reset();
+}
@@ -13,9 +13,7 @@ package it.matjaz.jnumerus;
 
 import java.io.Serializable;
 import java.text.MessageFormat;
-import java.util.Locale;
 import java.util.Objects;
-import java.util.ResourceBundle;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,7 +44,7 @@ import java.util.regex.Pattern;
  * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
  * <a href="http://matjaz.it">matjaz.it</a>
  */
-public class RomanNumeral implements Serializable, Cloneable, CharSequence {
+public class RomanNumeral implements Serializable, Cloneable, CharSequence, Comparable<RomanNumeral> {
 
     /**
      * The passed string representing the roman numeral.
@@ -77,6 +75,26 @@ public class RomanNumeral implements Serializable, Cloneable, CharSequence {
      */
     public static final String CORRECT_ROMAN_SYNTAX_REGEX = "^-?(NULLA)|-?((M{0,3})(CM|CD|D?C{0,3})(XC|XL|L?X{0,3})(IX|IV|V?I{0,3}))$";
 
+    /**
+     * Lazy holder of the compiled patterns of the syntax check, compiled on
+     * the first check only, since the numerals built by a
+     * {@link RomanConverter} are never checked.
+     */
+    private static class SyntaxPatterns {
+
+        /**
+         * Compiled {@link #CORRECT_ROMAN_SYNTAX_REGEX}, so that it is not
+         * compiled again at every syntax check.
+         */
+        private static final Pattern CORRECT_ROMAN_SYNTAX_PATTERN = Pattern.compile(CORRECT_ROMAN_SYNTAX_REGEX);
+
+        /**
+         * Pattern matching the whitespace characters removed from the
+         * numerals.
+         */
+        private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    }
+
     /**
      * Regex matching any non roman characters.
      * <p>
@@ -100,11 +118,6 @@ public class RomanNumeral implements Serializable, Cloneable, CharSequence {
      */
     public static final String NULLA_STRING = "NULLA";
 
-    /**
-     * Default ResourceBundle containing english strings.
-     */
-    private static final ResourceBundle romanBundle = ResourceBundle.getBundle("RomanBundle", Locale.US);
-
     /**
      * Serializable class version number.
      * <p>
@@ -147,6 +160,24 @@ public class RomanNumeral implements Serializable, Cloneable, CharSequence {
         this.numeral = cleanUpcaseAndSyntaxCheckString(symbols);
     }
 
+    /**
+     * Constructs a RomanNumeral containing the given numeral without checking
+     * its syntax.
+     * <p>
+     * Only for numerals that are syntactically correct by construction, such
+     * as the ones generated by {@link RomanConverter}, to avoid the cost of the
+     * syntax check.
+     *
+     * @param canonicalNumeral a syntactically correct, upcased roman numeral
+     * without whitespace.
+     * @return a RomanNumeral containing the given numeral.
+     */
+    static RomanNumeral ofCanonicalNumeral(String canonicalNumeral) {
+        RomanNumeral roman = new RomanNumeral();
+        roman.numeral = canonicalNumeral;
+        return roman;
+    }
+
     /**
      * Getter of the roman numerals String.
      *
@@ -227,8 +258,12 @@ public class RomanNumeral implements Serializable, Cloneable, CharSequence {
      * @return given string without whitespaces and upcased.
      */
     private String cleanUpcaseAndSyntaxCheckString(String symbols) throws IllegalNumeralSyntaxException {
-        String cleanSymbols = symbols.replaceAll("\\s+", "").toUpperCase();
-        throwExceptionIfIllegalRomanSyntax(cleanSymbols);
+        String cleanSymbols = SyntaxPatterns.WHITESPACE_PATTERN.matcher(symbols).replaceAll("").toUpperCase();
+        if (RomanMetrics.ENABLED || RomanFlightRecorder.ENABLED) {
+            throwExceptionIfIllegalRomanSyntaxInstrumented(cleanSymbols);
+        } else {
+            throwExceptionIfIllegalRomanSyntax(cleanSymbols);
+        }
         if (cleanSymbols.equals("-" + NULLA_STRING)) {
             return NULLA_STRING;
         } else {
@@ -236,6 +271,35 @@ public class RomanNumeral implements Serializable, Cloneable, CharSequence {
         }
     }
 
+    /**
+     * Performs the check of the roman syntax of the given string recording its
+     * duration and outcome in {@link RomanMetrics} and
+     * {@link RomanFlightRecorder flight recorder events}, when enabled.
+     *
+     * @param symbols cleaned and upcased string to be checked.
+     * @throws IllegalNumeralSyntaxException when the string has illegal roman
+     * syntax.
+     */
+    private void throwExceptionIfIllegalRomanSyntaxInstrumented(String symbols) throws IllegalNumeralSyntaxException {
+        RomanSyntaxRejectionEvent event = RomanFlightRecorder.isRecording() ? RomanSyntaxRejectionEvent.beginIfEnabled() : null;
+        long start = RomanMetrics.ENABLED ? System.nanoTime() : 0L;
+        try {
+            throwExceptionIfIllegalRomanSyntax(symbols);
+        } catch (IllegalNumeralSyntaxException ex) {
+            if (RomanMetrics.ENABLED) {
+                RomanMetrics.get().recordSyntaxFailure(ex.getCategory());
+            }
+            if (event != null) {
+                event.end(symbols, ex);
+            }
+            throw ex;
+        } finally {
+            if (RomanMetrics.ENABLED) {
+                RomanMetrics.get().recordValidation(System.nanoTime() - start);
+            }
+        }
+    }
+
     /**
      * Finds all the substrings of the given string matching the regex.
      * <p>
@@ -269,32 +333,32 @@ public class RomanNumeral implements Serializable, Cloneable, CharSequence {
      */
     private void throwExceptionIfIllegalRomanSyntax(String symbols) throws IllegalNumeralSyntaxException {
         if (symbols.isEmpty()) {
-            String message = romanBundle.getString("NonRomanChars");
-            throw new IllegalNumeralSyntaxException(romanBundle.getString("EmptyRomanNumeral"));
+            String message = RomanMessages.getString("NonRomanChars");
+            throw new IllegalNumeralSyntaxException(RomanMessages.getString("EmptyRomanNumeral"), IllegalNumeralSyntaxException.Category.EMPTY);
         }
         if (symbols.length() >= 20) {
-            String message = romanBundle.getString("NonRomanChars");
-            throw new IllegalNumeralSyntaxException(romanBundle.getString("TooLongRomanNumeral"));
+            String message = RomanMessages.getString("NonRomanChars");
+            throw new IllegalNumeralSyntaxException(RomanMessages.getString("TooLongRomanNumeral"), IllegalNumeralSyntaxException.Category.TOO_LONG);
         }
-        if (!symbols.matches(CORRECT_ROMAN_SYNTAX_REGEX)) {
+        if (!SyntaxPatterns.CORRECT_ROMAN_SYNTAX_PATTERN.matcher(symbols).matches()) {
             String illegalChars;
             illegalChars = findAllRegexMatchingSubstrings(symbols, NON_ROMAN_CHARS_REGEX);
             if (!illegalChars.isEmpty()) {
-                String message = MessageFormat.format(romanBundle.getString("NonRomanChars"), illegalChars);
-                throw new IllegalNumeralSyntaxException(message);
+                String message = MessageFormat.format(RomanMessages.getString("NonRomanChars"), illegalChars);
+                throw new IllegalNumeralSyntaxException(message, IllegalNumeralSyntaxException.Category.NON_ROMAN_CHARS);
             }
             illegalChars = findAllRegexMatchingSubstrings(symbols, FOUR_CONSECUTIVE_TEN_LIKE_CHARS_REGEX);
             if (!illegalChars.isEmpty()) {
-                String message = MessageFormat.format(romanBundle.getString("FourConsecutiveChars"), illegalChars);
-                throw new IllegalNumeralSyntaxException(message);
+                String message = MessageFormat.format(RomanMessages.getString("FourConsecutiveChars"), illegalChars);
+                throw new IllegalNumeralSyntaxException(message, IllegalNumeralSyntaxException.Category.FOUR_CONSECUTIVE_CHARS);
             }
             illegalChars = findAllRegexMatchingSubstrings(symbols, TWO_SAME_FIVE_LIKE_CHARS_REGEX);
             if (!illegalChars.isEmpty()) {
-                String message = MessageFormat.format(romanBundle.getString("TwoDLVChars"), illegalChars);
-                throw new IllegalNumeralSyntaxException(message);
+                String message = MessageFormat.format(RomanMessages.getString("TwoDLVChars"), illegalChars);
+                throw new IllegalNumeralSyntaxException(message, IllegalNumeralSyntaxException.Category.TWO_DLV_CHARS);
             }
-            String message = romanBundle.getString("GenericRomanSyntaxError");
-            throw new IllegalNumeralSyntaxException(message);
+            String message = RomanMessages.getString("GenericRomanSyntaxError");
+            throw new IllegalNumeralSyntaxException(message, IllegalNumeralSyntaxException.Category.GENERIC);
         }
     }
 
@@ -337,6 +401,25 @@ public class RomanNumeral implements Serializable, Cloneable, CharSequence {
         return Objects.equals(this.numeral, other.getNumeral());
     }
 
+    /**
+     * Compares the value of this RomanNumeral with the value of the passed one.
+     * <p>
+     * The numerals are not decoded by {@link RomanConverter}: each is found in
+     * the index of the canonical numerals with one hash and one comparison of
+     * Strings, see {@link RomanSort#valueOf(RomanNumeral)}. The ordering is
+     * consistent with {@link #equals(java.lang.Object) equals()} except for
+     * the lone minus sign, which has the same value of NULLA.
+     *
+     * @param other RomanNumeral to be compared to this.
+     * @return negative if this is less than {@code other}, zero if they have
+     * the same value, else positive.
+     * @see RomanSort#numeralOrder()
+     */
+    @Override
+    public int compareTo(RomanNumeral other) {
+        return Integer.compare(RomanSort.valueOf(this), RomanSort.valueOf(other));
+    }
+
     /**
      * Returns a String representation of this RomanNumeral, which is the roman
      * numeral String stored in it.
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads and writes of longs in a shared ByteBuffer with acquire and release
+ * ordering, to publish data to another thread or process.
+ * <p>
+ * jNumerus is compiled for Java 8, so the VarHandles of Java 9 are looked up
+ * by reflection and called through their method handles. On Java 8 the
+ * accesses are delegated to {@link RomanFencedAccess}. The multi-release jar
+ * replaces this class on Java 21 with one calling the VarHandle directly and
+ * having the same methods.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanOrderedAccess {
+
+    /**
+     * Method handles of {@code getAcquire} and {@code setRelease} of a long
+     * view of a ByteBuffer in native order, {@code null} on Java 8.
+     */
+    private static final MethodHandle GET_ACQUIRE;
+    private static final MethodHandle SET_RELEASE;
+
+    static {
+        MethodHandle getAcquire = null;
+        MethodHandle setRelease = null;
+        try {
+            Method viewFactory = MethodHandles.class.getMethod("byteBufferViewVarHandle", Class.class, ByteOrder.class);
+            Object varHandle = viewFactory.invoke(null, long[].class, ByteOrder.nativeOrder());
+            Class<?> varHandleClass = Class.forName("java.lang.invoke.VarHandle");
+            Class<?> accessModeClass = Class.forName("java.lang.invoke.VarHandle$AccessMode");
+            Method toMethodHandle = varHandleClass.getMethod("toMethodHandle", accessModeClass);
+            getAcquire = (MethodHandle) toMethodHandle.invoke(varHandle, accessModeClass.getField("GET_ACQUIRE").get(null));
+            setRelease = (MethodHandle) toMethodHandle.invoke(varHandle, accessModeClass.getField("SET_RELEASE").get(null));
+        } catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException | IllegalAccessException
+                | InvocationTargetException ex) {
+            getAcquire = null;
+            setRelease = null;
+        }
+        GET_ACQUIRE = getAcquire;
+        SET_RELEASE = setRelease;
+    }
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanOrderedAccess() {
+    }
+
+    /**
+     * Reads a long in native order, so that the following reads see all the
+     * writes preceding its {@link #setRelease(java.nio.ByteBuffer, int, long)
+     * release}.
+     *
+     * @param buffer a direct buffer.
+     * @param index of the long, a multiple of 8.
+     * @return the read long.
+     */
+    static long getAcquire(ByteBuffer buffer, int index) {
+        if (GET_ACQUIRE == null) {
+            return RomanFencedAccess.getAcquire(buffer, index);
+        }
+        try {
+            return (long) GET_ACQUIRE.invokeExact(buffer, index);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable impossible) {
+            throw new IllegalStateException(impossible);
+        }
+    }
+
+    /**
+     * Writes a long in native order, after all the preceding writes are
+     * visible.
+     *
+     * @param buffer a direct buffer.
+     * @param index of the long, a multiple of 8.
+     * @param value to be written.
+     */
+    static void setRelease(ByteBuffer buffer, int index, long value) {
+        if (SET_RELEASE == null) {
+            RomanFencedAccess.setRelease(buffer, index, value);
+            return;
+        }
+        try {
+            SET_RELEASE.invokeExact(buffer, index, value);
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable impossible) {
+            throw new IllegalStateException(impossible);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a {@link RomanCalculator} operation whose result is
+ * out of the roman numerals range.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanFlightRecorder
+ */
+@Name("it.matjaz.jnumerus.Overflow")
+@Label("Roman Calculator Overflow")
+@Description("An arithmetic operation with a result out of the roman range")
+class RomanOverflowEvent extends RomanEvent {
+
+    /**
+     * The registered type of this event, telling if any recording enables it.
+     */
+    private static final EventType TYPE = EventType.getEventType(RomanOverflowEvent.class);
+
+    /**
+     * Creates an event and begins the timing of the operation, only if any
+     * running recording has this event enabled.
+     *
+     * @return the begun event or {@code null} if it would not be recorded.
+     */
+    static RomanOverflowEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        RomanOverflowEvent event = new RomanOverflowEvent();
+        event.begin();
+        return event;
+    }
+
+    @Label("Operation")
+    String operation;
+
+    @Label("First Operand")
+    int one;
+
+    @Label("Second Operand")
+    int two;
+
+    /**
+     * Ends the timing of the operation and commits the event if the recording
+     * settings accept it.
+     *
+     * @param operation name of the RomanCalculator method.
+     * @param one first operand.
+     * @param two second operand.
+     */
+    void end(String operation, RomanInteger one, RomanInteger two) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.one = one.getValue();
+            this.two = two.getValue();
+            commit();
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Immutable arithmetic progression of values in the roman numerals range, like
+ * the page numbers I..CCCXX, with streams of their numerals.
+ * <p>
+ * The range contains the values {@code from, from + step, from + 2 step...}
+ * up to {@code to} included. Its {@link #spliterator() spliterators} know
+ * their exact size and split in two halves, so parallel streams divide the
+ * work evenly between the cores. The numerals are read from the table of all
+ * the numerals of {@link RomanConverter}, which is syntactically correct by
+ * construction, without checks.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanConverter
+ */
+public final class RomanRange implements Iterable<RomanNumeral> {
+
+    /**
+     * The converter whose table of numerals is read.
+     */
+    private static final RomanConverter converter = new RomanConverter();
+
+    /**
+     * Characteristics of the spliterators of a range.
+     */
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT
+            | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    private final int from;
+    private final int to;
+    private final int step;
+
+    private RomanRange(int from, int to, int step) {
+        this.from = from;
+        this.to = to;
+        this.step = step;
+    }
+
+    /**
+     * Returns the range of all the values from {@link RomanConverter#MININTEGER}
+     * to {@link RomanConverter#MAXINTEGER}.
+     *
+     * @return the whole roman numerals range.
+     */
+    public static RomanRange all() {
+        return new RomanRange(RomanConverter.MININTEGER, RomanConverter.MAXINTEGER, 1);
+    }
+
+    /**
+     * Returns the range of the consecutive values between the extremes,
+     * included.
+     *
+     * @param from first value.
+     * @param to last value, the range is empty if smaller than from.
+     * @return the range.
+     * @throws IllegalArabicValueException if an extreme is not in [-3999,
+     * 3999].
+     */
+    public static RomanRange of(int from, int to) throws IllegalArabicValueException {
+        return of(from, to, 1);
+    }
+
+    /**
+     * Returns the range of the values between the extremes, included, with the
+     * given difference between consecutive ones.
+     *
+     * @param from first value.
+     * @param to upper bound, included if reached by the steps, the range is
+     * empty if smaller than from.
+     * @param step positive difference between consecutive values.
+     * @return the range.
+     * @throws IllegalArabicValueException if an extreme is not in [-3999,
+     * 3999].
+     * @throws IllegalArgumentException if the step is not positive.
+     */
+    public static RomanRange of(int from, int to, int step) throws IllegalArabicValueException {
+        if (from < RomanConverter.MININTEGER || from > RomanConverter.MAXINTEGER
+                || to < RomanConverter.MININTEGER || to > RomanConverter.MAXINTEGER) {
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+        if (step <= 0) {
+            throw new IllegalArgumentException(String.valueOf(step));
+        }
+        return new RomanRange(from, to, step);
+    }
+
+    /**
+     * Getter of the first value.
+     *
+     * @return the first value, if the range is not empty.
+     */
+    public int getFrom() {
+        return from;
+    }
+
+    /**
+     * Getter of the upper bound.
+     *
+     * @return the upper bound, included if reached by the steps.
+     */
+    public int getTo() {
+        return to;
+    }
+
+    /**
+     * Getter of the difference between consecutive values.
+     *
+     * @return the positive step.
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * Returns the number of values in the range.
+     *
+     * @return the size of the range.
+     */
+    public int size() {
+        return from > to ? 0 : (to - from) / step + 1;
+    }
+
+    /**
+     * Verifies if the range contains the given value.
+     *
+     * @param value to be searched.
+     * @return {@code true} if the value is one of the steps of the range.
+     */
+    public boolean contains(int value) {
+        return value >= from && value <= to && (value - from) % step == 0;
+    }
+
+    /**
+     * Returns the value at the given position.
+     *
+     * @param index position in the range.
+     * @return the value {@code from + index * step}.
+     * @throws IndexOutOfBoundsException if the index is not in [0, size).
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+        return from + index * step;
+    }
+
+    /**
+     * Returns the numeral of a value of the range from the table of all the
+     * numerals.
+     *
+     * @param value in the roman numerals range.
+     * @return a new RomanNumeral.
+     */
+    private static RomanNumeral numeralOf(int value) {
+        try {
+            return RomanNumeral.ofCanonicalNumeral(converter.integerToRomanString(value));
+        } catch (IllegalArabicValueException impossibleEx) {
+            throw new IllegalStateException(impossibleEx);
+        }
+    }
+
+    /**
+     * Returns a sized spliterator over the values, splitting in halves.
+     *
+     * @return a spliterator of the values.
+     */
+    public Spliterator.OfInt intSpliterator() {
+        return new ValueSpliterator(from, step, 0, size());
+    }
+
+    /**
+     * Returns a sized spliterator over the numerals, splitting in halves.
+     *
+     * @return a spliterator of the numerals.
+     */
+    @Override
+    public Spliterator<RomanNumeral> spliterator() {
+        return new NumeralSpliterator(intSpliterator());
+    }
+
+    /**
+     * Returns an iterator over the numerals of the range, in ascending order.
+     *
+     * @return an iterator of the numerals.
+     */
+    @Override
+    public Iterator<RomanNumeral> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Returns a sequential stream of the values, that may be turned
+     * {@link IntStream#parallel() parallel}.
+     *
+     * @return a stream of the values.
+     */
+    public IntStream intStream() {
+        return StreamSupport.intStream(intSpliterator(), false);
+    }
+
+    /**
+     * Returns a sequential stream of the numerals, that may be turned
+     * {@link Stream#parallel() parallel}.
+     *
+     * @return a stream of the numerals.
+     */
+    public Stream<RomanNumeral> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a sequential stream of the pairs of values and numerals, that
+     * may be turned {@link Stream#parallel() parallel}.
+     *
+     * @return a stream of RomanIntegers.
+     */
+    public Stream<RomanInteger> romanIntegerStream() {
+        return intStream().mapToObj(value -> {
+            try {
+                return new RomanInteger(value);
+            } catch (IllegalArabicValueException impossibleEx) {
+                throw new IllegalStateException(impossibleEx);
+            }
+        });
+    }
+
+    /**
+     * Returns the hash of the first value, upper bound and step.
+     *
+     * @return the hash of this RomanRange.
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 * from + to) + step;
+    }
+
+    /**
+     * Verifies if the passed Object is a RomanRange with the same first
+     * value, upper bound and step.
+     *
+     * @param other object to compare with this.
+     * @return a boolean telling if the two RomanRanges are equal.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof RomanRange)) {
+            return false;
+        }
+        RomanRange range = (RomanRange) other;
+        return from == range.from && to == range.to && step == range.step;
+    }
+
+    /**
+     * Returns the extremes and the step of this range.
+     *
+     * @return a String like {@code RomanRange[I..X step 1]}.
+     */
+    @Override
+    public String toString() {
+        return "RomanRange[" + numeralOf(from) + ".." + numeralOf(to) + " step " + step + "]";
+    }
+
+    /**
+     * Spliterator of the values at the positions [index, fence) of a range.
+     */
+    private static final class ValueSpliterator implements Spliterator.OfInt {
+
+        private final int from;
+        private final int step;
+        private int index;
+        private final int fence;
+
+        ValueSpliterator(int from, int step, int index, int fence) {
+            this.from = from;
+            this.step = step;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            ValueSpliterator prefix = new ValueSpliterator(from, step, index, middle);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(from + index++ * step);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (int i = index; i < fence; i++) {
+                action.accept(from + i * step);
+            }
+            index = fence;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+
+    /**
+     * Spliterator of the numerals of the values of a value spliterator.
+     */
+    private static final class NumeralSpliterator implements Spliterator<RomanNumeral> {
+
+        private final Spliterator.OfInt values;
+
+        NumeralSpliterator(Spliterator.OfInt values) {
+            this.values = values;
+        }
+
+        @Override
+        public Spliterator<RomanNumeral> trySplit() {
+            Spliterator.OfInt prefix = values.trySplit();
+            return prefix == null ? null : new NumeralSpliterator(prefix);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super RomanNumeral> action) {
+            return values.tryAdvance((int value) -> action.accept(numeralOf(value)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super RomanNumeral> action) {
+            values.forEachRemaining((int value) -> action.accept(numeralOf(value)));
+        }
+
+        @Override
+        public long estimateSize() {
+            return values.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return CHARACTERISTICS;
+        }
+    }
+}
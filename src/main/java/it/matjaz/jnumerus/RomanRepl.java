@@ -11,15 +11,8 @@
  */
 package it.matjaz.jnumerus;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.text.MessageFormat;
-import java.util.Locale;
-import java.util.Properties;
-import java.util.ResourceBundle;
 import java.util.Scanner;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 /**
  * Simple command line REPL shell for conversions from and to roman numerals.
@@ -33,38 +26,26 @@ import java.util.logging.Logger;
  */
 public class RomanRepl {
 
-    private final Scanner keyboardScanner;
+    private Scanner keyboardScanner;
     private final RomanConverter converter;
     private String inputLine;
     private int arabicInput;
     private boolean exitFromRepl;
-    private final Properties properties;
-
-    /**
-     * Default ResourceBundle containing english strings.
-     */
-    private static final ResourceBundle romanBundle = ResourceBundle.getBundle("RomanBundle", Locale.US);
 
     /**
      * Constructs a jNumerus REPL, a shell in which the numbers could be
      * converted and some other commands can be called.
      *
-     * Prepares a keyboard scanner, a RomanConverter and loads the
-     * Project.properties file.
+     * Prepares a RomanConverter. The keyboard scanner is created when the
+     * REPL is {@link #start() started} and the Project.properties file is
+     * read only by the {@code info} command, so that single commands start
+     * quickly.
      *
      * After construction, start the REPL it with the {@code start()} method.
      */
     public RomanRepl() {
-        this.keyboardScanner = new Scanner(System.in);
         this.converter = new RomanConverter();
         this.exitFromRepl = false;
-        this.properties = new Properties();
-        try {
-            InputStream in = getClass().getClassLoader().getResourceAsStream("Project.properties");
-            properties.load(in);
-        } catch (IOException ex) {
-            Logger.getLogger(RomanRepl.class.getName()).log(Level.SEVERE, null, ex);
-        }
     }
 
     /**
@@ -74,9 +55,12 @@ public class RomanRepl {
      * For a command reference, type '{@code ?}'.
      */
     public void start() {
-        System.out.println(romanBundle.getString("WelcomeText"));
+        System.out.println(RomanMessages.getString("WelcomeText"));
+        if (keyboardScanner == null) {
+            keyboardScanner = new Scanner(System.in);
+        }
         while (!exitFromRepl) {
-            System.out.print(romanBundle.getString("Prompt"));
+            System.out.print(RomanMessages.getString("Prompt"));
             this.inputLine = keyboardScanner.nextLine().trim().toLowerCase();
             interpreteCommand();
         }
@@ -103,17 +87,17 @@ public class RomanRepl {
         switch (inputLine) {
             case "?":
             case "help": {
-                System.out.println(romanBundle.getString("HelpText"));
+                System.out.println(RomanMessages.getString("HelpText"));
                 break;
             }
 
             case "moo": {
-                System.out.println(romanBundle.getString("MooText"));
+                System.out.println(RomanMessages.getString("MooText"));
                 break;
             }
 
             case "ascii": {
-                System.out.println(romanBundle.getString("AsciiArtText"));
+                System.out.println(RomanMessages.getString("AsciiArtText"));
                 break;
             }
 
@@ -125,22 +109,22 @@ public class RomanRepl {
                  * year for the copyright statement.
                  */
                 String message = MessageFormat.format(
-                        romanBundle.getString("InfoText"),
-                        properties.getProperty("version"),
+                        RomanMessages.getString("InfoText"),
+                        RomanMessages.getProjectProperty("version"),
                         java.time.Year.now());
                 System.out.println(message);
                 break;
             }
 
             case "syntax": {
-                System.out.println(romanBundle.getString("SyntaxText"));
+                System.out.println(RomanMessages.getString("SyntaxText"));
                 break;
             }
 
             case "quit":
             case "exit": {
                 this.exitFromRepl = true;
-                System.out.println(romanBundle.getString("ExitText"));
+                System.out.println(RomanMessages.getString("ExitText"));
                 break;
             }
 
@@ -149,7 +133,7 @@ public class RomanRepl {
             }
 
             case "all": {
-                System.out.println(romanBundle.getString("AllText"));
+                System.out.println(RomanMessages.getString("AllText"));
                 break;
             }
 
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Objects;
+
+/**
+ * Outcome of the conversion of a single input: either its result or the
+ * {@link RomanException} raised by it.
+ * <p>
+ * Used by the stream adapters of jNumerus to carry errors as data, so that an
+ * illegal input does not terminate the whole stream.
+ *
+ * @param <T> type of the result.
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanResult<T> {
+
+    private final Object input;
+    private final T value;
+    private final RomanException error;
+
+    private RomanResult(Object input, T value, RomanException error) {
+        this.input = input;
+        this.value = value;
+        this.error = error;
+    }
+
+    /**
+     * Constructs the successful outcome of a conversion.
+     *
+     * @param <T> type of the result.
+     * @param input the converted input.
+     * @param value the result.
+     * @return the outcome.
+     */
+    public static <T> RomanResult<T> success(Object input, T value) {
+        return new RomanResult<>(input, value, null);
+    }
+
+    /**
+     * Constructs the failed outcome of a conversion.
+     *
+     * @param <T> type of the missing result.
+     * @param input the illegal input.
+     * @param error raised by the conversion.
+     * @return the outcome.
+     */
+    public static <T> RomanResult<T> failure(Object input, RomanException error) {
+        return new RomanResult<>(input, null, Objects.requireNonNull(error));
+    }
+
+    /**
+     * Getter of the converted input.
+     *
+     * @return the input this is the outcome of.
+     */
+    public Object getInput() {
+        return input;
+    }
+
+    /**
+     * Verifies if the conversion succeeded.
+     *
+     * @return {@code true} if there is a result, {@code false} if there is an
+     * error.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Returns the result of the conversion or throws its error.
+     *
+     * @return the result.
+     * @throws RomanException the error of the conversion, if it failed.
+     */
+    public T getValue() throws RomanException {
+        if (error != null) {
+            throw error;
+        }
+        return value;
+    }
+
+    /**
+     * Getter of the error of the conversion.
+     *
+     * @return the error or {@code null} if the conversion succeeded.
+     */
+    public RomanException getError() {
+        return error;
+    }
+
+    /**
+     * Returns the hash of this RomanResult, made of input, result and error.
+     *
+     * @return the hash of this RomanResult.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(input, value, error);
+    }
+
+    /**
+     * Verifies if the passed Object is a RomanResult with the same input,
+     * result and error.
+     *
+     * @param other object to compare with this.
+     * @return a boolean telling if the two RomanResults are equal.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof RomanResult)) {
+            return false;
+        }
+        RomanResult<?> result = (RomanResult<?>) other;
+        return Objects.equals(input, result.input) && Objects.equals(value, result.value)
+                && Objects.equals(error, result.error);
+    }
+
+    /**
+     * Returns the input, an arrow and the result or error message.
+     *
+     * @return a String like {@code 42 -> XLII}.
+     */
+    @Override
+    public String toString() {
+        return input + " -> " + (error == null ? value : error.getMessage());
+    }
+}
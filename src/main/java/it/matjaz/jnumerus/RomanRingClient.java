@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java client of a {@link RomanRingServer}, sending conversion requests
+ * through its shared memory file.
+ * <p>
+ * The rings have a single producer and a single consumer, so only one client
+ * may use a file at a time. Its methods are synchronized so that the client
+ * can be shared between threads; each call waits spinning for its response.
+ * <p>
+ * A call whose response does not arrive within the timeout fails with an
+ * IOException, as the server is considered dead. The client then fails all
+ * the following calls at once, since the rings no longer hold one response
+ * per request.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanRingServer
+ */
+public class RomanRingClient {
+
+    /**
+     * Default time waited for each response, in milliseconds.
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 10000;
+
+    private final ByteBuffer memory;
+    private final int mask;
+    private final int responseRing;
+    private final long timeoutNanos;
+    private boolean broken;
+
+    /**
+     * Maps the shared memory file created by a {@link RomanRingServer},
+     * waiting {@link #DEFAULT_TIMEOUT_MILLIS} for each response.
+     *
+     * @param file the shared memory file.
+     * @throws IOException if the file could not be mapped or is not a ring
+     * file.
+     */
+    public RomanRingClient(Path file) throws IOException {
+        this(file, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Maps the shared memory file created by a {@link RomanRingServer},
+     * waiting at most the given time for each response.
+     *
+     * @param file the shared memory file.
+     * @param timeout time waited for each response, positive.
+     * @param unit of the timeout.
+     * @throws IOException if the file could not be mapped or is not a ring
+     * file.
+     * @throws IllegalArgumentException if the timeout is not positive.
+     */
+    public RomanRingClient(Path file, long timeout, TimeUnit unit) throws IOException {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException(String.valueOf(timeout));
+        }
+        this.memory = RomanRingServer.map(file);
+        int slots = memory.getInt(RomanRingServer.SLOTS_OFFSET);
+        this.mask = slots - 1;
+        this.responseRing = RomanRingServer.RINGS_OFFSET + slots * RomanRingServer.SLOT_BYTES;
+        this.timeoutNanos = unit.toNanos(timeout);
+    }
+
+    /**
+     * Converts an int to its roman numeral through the server.
+     *
+     * @param arabic int to be converted.
+     * @return the roman numeral.
+     * @throws IllegalArabicValueException if arabic is not in [-3999, 3999].
+     * @throws IOException if the server did not respond in time.
+     */
+    public synchronized RomanNumeral encode(int arabic) throws IllegalArabicValueException, IOException {
+        long sequence = memory.getLong(RomanRingServer.REQUEST_HEAD);
+        int request = RomanRingServer.RINGS_OFFSET + (int) (sequence & mask) * RomanRingServer.SLOT_BYTES;
+        memory.put(request, RomanRingServer.OPERATION_ENCODE);
+        memory.putInt(request + 4, arabic);
+        int response = call(sequence);
+        if (memory.get(response) != RomanRingServer.STATUS_OK) {
+            release(sequence);
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+        char[] numeral = new char[memory.get(response + 1)];
+        for (int i = 0; i < numeral.length; i++) {
+            numeral[i] = (char) memory.get(response + 8 + i);
+        }
+        release(sequence);
+        return RomanNumeral.ofCanonicalNumeral(new String(numeral));
+    }
+
+    /**
+     * Converts a roman numeral to its value through the server.
+     * <p>
+     * The numeral is validated like by {@link RomanNumeral#RomanNumeral(String)}.
+     *
+     * @param numeral to be converted.
+     * @return the value of the numeral.
+     * @throws IllegalNumeralSyntaxException if the numeral has illegal syntax.
+     * @throws IOException if the server did not respond in time.
+     */
+    public synchronized int decode(CharSequence numeral) throws IllegalNumeralSyntaxException, IOException {
+        if (numeral.length() > RomanRingServer.MAX_NUMERAL_BYTES || !isAscii(numeral)) {
+            RomanNumeral cleaned = new RomanNumeral(numeral.toString());
+            if (cleaned.length() > RomanRingServer.MAX_NUMERAL_BYTES || !isAscii(cleaned)) {
+                return new RomanConverter().romanNumeralToInteger(cleaned);
+            }
+            numeral = cleaned;
+        }
+        long sequence = memory.getLong(RomanRingServer.REQUEST_HEAD);
+        int request = RomanRingServer.RINGS_OFFSET + (int) (sequence & mask) * RomanRingServer.SLOT_BYTES;
+        memory.put(request, RomanRingServer.OPERATION_DECODE);
+        memory.put(request + 1, (byte) numeral.length());
+        for (int i = 0; i < numeral.length(); i++) {
+            memory.put(request + 8 + i, (byte) numeral.charAt(i));
+        }
+        int response = call(sequence);
+        byte status = memory.get(response);
+        int arabic = memory.getInt(response + 4);
+        release(sequence);
+        if (status != RomanRingServer.STATUS_OK) {
+            return new RomanConverter().romanNumeralToInteger(new RomanNumeral(numeral.toString()));
+        }
+        return arabic;
+    }
+
+    /**
+     * Verifies that all the chars are ASCII.
+     */
+    private static boolean isAscii(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Publishes the written request and waits spinning for its response.
+     *
+     * @param sequence number of the request.
+     * @return offset of the response slot.
+     * @throws IOException if the response did not arrive within the timeout,
+     * now or in a previous call.
+     */
+    private int call(long sequence) throws IOException {
+        if (broken) {
+            throw timeout();
+        }
+        RomanOrderedAccess.setRelease(memory, RomanRingServer.REQUEST_HEAD, sequence + 1);
+        long start = System.nanoTime();
+        while (RomanOrderedAccess.getAcquire(memory, RomanRingServer.RESPONSE_HEAD) <= sequence) {
+            if (System.nanoTime() - start > timeoutNanos) {
+                broken = true;
+                throw timeout();
+            }
+            Thread.yield();
+        }
+        return responseRing + (int) (sequence & mask) * RomanRingServer.SLOT_BYTES;
+    }
+
+    /**
+     * Builds the exception of a server not responding in time.
+     */
+    private IOException timeout() {
+        return new IOException(MessageFormat.format(RomanMessages.getString("RingServerNotResponding"),
+                TimeUnit.NANOSECONDS.toMillis(timeoutNanos)));
+    }
+
+    /**
+     * Frees the response slot after reading it.
+     *
+     * @param sequence number of the response.
+     */
+    private void release(long sequence) {
+        RomanOrderedAccess.setRelease(memory, RomanRingServer.RESPONSE_TAIL, sequence + 1);
+    }
+}
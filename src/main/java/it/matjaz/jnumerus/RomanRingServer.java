@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.MessageFormat;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Conversion service for other processes on the same machine, reached through
+ * a pair of single-producer/single-consumer ring buffers in a shared memory
+ * file, usually under {@code /dev/shm}.
+ * <p>
+ * The client process writes requests in the request ring and reads the
+ * responses, one per request and in the same order, from the response ring.
+ * The server thread polls the request ring, converts the numerals straight
+ * from and to the mapped bytes with {@link RomanBytes} and publishes the
+ * responses, a whole batch at a time. No system call is made per request.
+ * {@link RomanRingClient} is the Java client; native clients follow the
+ * layout below.
+ * <p>
+ * The file starts with a header of 320 bytes, each cursor in its own cache
+ * line. All numbers are in the native byte order of the machine.
+ *
+ * <pre>
+ * offset  size  content
+ *      0     4  magic number "JNSR"
+ *      4     4  format version
+ *      8     4  number of slots of each ring, a power of 2
+ *     12     4  size in bytes of each slot, 32
+ *     64     8  requests written by the client
+ *    128     8  requests read by the server
+ *    192     8  responses written by the server
+ *    256     8  responses read by the client
+ *    320        request ring, then response ring
+ * </pre>
+ *
+ * The cursors count the requests and responses since the creation of the
+ * file: the slot of the request or response number {@code n} is
+ * {@code n & (slots - 1)}. A side writes its slots and then its cursor with
+ * release ordering; the other side reads the cursor with acquire ordering and
+ * then the slots. Each slot contains:
+ *
+ * <pre>
+ * offset  size  request                       response
+ *      0     1  operation: 1 encode, 2 decode status: 0 ok, 1 illegal arabic,
+ *                                                     2 illegal syntax,
+ *                                                     3 illegal request
+ *      1     1  length of the numeral         length of the numeral
+ *      4     4  int to be encoded             decoded int
+ *      8    24  ASCII numeral to be decoded   ASCII encoded numeral
+ * </pre>
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanRingClient
+ */
+public class RomanRingServer {
+
+    /**
+     * Default shared memory file.
+     */
+    public static final Path DEFAULT_FILE = Paths.get("/dev/shm/jnumerus.ring");
+
+    /**
+     * Default number of slots of each ring.
+     */
+    public static final int DEFAULT_SLOTS = 1024;
+
+    static final int MAGIC = 0x4A4E5352;
+    static final int FORMAT_VERSION = 1;
+    static final int SLOT_BYTES = 32;
+    static final int MAX_NUMERAL_BYTES = SLOT_BYTES - 8;
+
+    static final int SLOTS_OFFSET = 8;
+    static final int REQUEST_HEAD = 64;
+    static final int REQUEST_TAIL = 128;
+    static final int RESPONSE_HEAD = 192;
+    static final int RESPONSE_TAIL = 256;
+    static final int RINGS_OFFSET = 320;
+
+    static final byte OPERATION_ENCODE = 1;
+    static final byte OPERATION_DECODE = 2;
+    static final byte STATUS_OK = 0;
+    static final byte STATUS_ILLEGAL_ARABIC = 1;
+    static final byte STATUS_ILLEGAL_SYNTAX = 2;
+    static final byte STATUS_ILLEGAL_REQUEST = 3;
+
+    /**
+     * Number of empty polls spinning before the server starts to yield and
+     * then to park, trading latency for CPU when idle.
+     */
+    private static final int SPINS = 20000;
+    private static final int YIELDS = 1000;
+    private static final long PARK_NANOS = 50000;
+
+    private final ByteBuffer memory;
+    private final int slots;
+    private final int responseRing;
+    private final Thread pollerThread;
+    private volatile boolean running;
+
+    /**
+     * Creates the shared memory file, replacing any existing one, and maps
+     * it. The server does not poll until {@link #start() started}.
+     *
+     * @param file the shared memory file, usually under {@code /dev/shm}.
+     * @param slots number of slots of each ring, a power of 2.
+     * @throws IOException if the file could not be created.
+     * @throws IllegalArgumentException if the slots are not a power of 2.
+     */
+    public RomanRingServer(Path file, int slots) throws IOException {
+        if (slots <= 0 || Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException(String.valueOf(slots));
+        }
+        this.slots = slots;
+        this.responseRing = RINGS_OFFSET + slots * SLOT_BYTES;
+        int size = RINGS_OFFSET + 2 * slots * SLOT_BYTES;
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(0);
+            raf.setLength(size);
+            this.memory = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size).order(ByteOrder.nativeOrder());
+        }
+        memory.putInt(4, FORMAT_VERSION);
+        memory.putInt(SLOTS_OFFSET, slots);
+        memory.putInt(12, SLOT_BYTES);
+        memory.putInt(0, MAGIC);
+        ((MappedByteBuffer) memory).force();
+        this.pollerThread = new Thread(this::run, "jnumerus-ring-server");
+        pollerThread.setDaemon(true);
+    }
+
+    /**
+     * Maps an existing shared memory file, verifying its header.
+     *
+     * @param file the shared memory file.
+     * @return the mapped file in native byte order.
+     * @throws IOException if the file could not be mapped or is not a ring
+     * file.
+     */
+    static ByteBuffer map(Path file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (raf.length() < RINGS_OFFSET) {
+                throw corruptFile(file);
+            }
+            ByteBuffer memory = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length()).order(ByteOrder.nativeOrder());
+            int slots = memory.getInt(SLOTS_OFFSET);
+            if (memory.getInt(0) != MAGIC || memory.getInt(4) != FORMAT_VERSION
+                    || slots <= 0 || Integer.bitCount(slots) != 1 || memory.getInt(12) != SLOT_BYTES
+                    || raf.length() != RINGS_OFFSET + 2L * slots * SLOT_BYTES) {
+                throw corruptFile(file);
+            }
+            return memory;
+        }
+    }
+
+    /**
+     * Builds the exception for a file that is not a ring file.
+     *
+     * @param file the mapped file.
+     * @return the exception to be thrown.
+     */
+    private static IOException corruptFile(Path file) {
+        return new IOException(MessageFormat.format(RomanMessages.getString("IllegalRingFile"), file));
+    }
+
+    /**
+     * Starts polling the requests in a background thread.
+     */
+    public void start() {
+        running = true;
+        pollerThread.start();
+    }
+
+    /**
+     * Stops polling and waits for the polling thread to end. The file is not
+     * deleted.
+     */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(pollerThread);
+        try {
+            pollerThread.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loop of the polling thread, spinning while there are requests and
+     * backing off when idle.
+     */
+    private void run() {
+        int idle = 0;
+        while (running) {
+            if (serveAvailable() > 0) {
+                idle = 0;
+            } else if (++idle > SPINS + YIELDS) {
+                LockSupport.parkNanos(PARK_NANOS);
+            } else if (idle > SPINS) {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Serves all the written requests for which there is space in the response
+     * ring, publishing their responses at once.
+     *
+     * @return the number of served requests.
+     */
+    int serveAvailable() {
+        long requestTail = memory.getLong(REQUEST_TAIL);
+        long requestHead = RomanOrderedAccess.getAcquire(memory, REQUEST_HEAD);
+        long responseHead = memory.getLong(RESPONSE_HEAD);
+        long responseTail = RomanOrderedAccess.getAcquire(memory, RESPONSE_TAIL);
+        long count = Math.min(requestHead - requestTail, slots - (responseHead - responseTail));
+        if (count <= 0) {
+            return 0;
+        }
+        for (long n = 0; n < count; n++) {
+            int mask = slots - 1;
+            serve(RINGS_OFFSET + (int) ((requestTail + n) & mask) * SLOT_BYTES,
+                    responseRing + (int) ((responseHead + n) & mask) * SLOT_BYTES);
+        }
+        RomanOrderedAccess.setRelease(memory, REQUEST_TAIL, requestTail + count);
+        RomanOrderedAccess.setRelease(memory, RESPONSE_HEAD, responseHead + count);
+        return (int) count;
+    }
+
+    /**
+     * Converts one request and writes its response.
+     *
+     * @param request offset of the request slot.
+     * @param response offset of the response slot.
+     */
+    private void serve(int request, int response) {
+        byte operation = memory.get(request);
+        if (operation == OPERATION_ENCODE) {
+            int arabic = memory.getInt(request + 4);
+            if (arabic < RomanConverter.MININTEGER || arabic > RomanConverter.MAXINTEGER) {
+                respond(response, STATUS_ILLEGAL_ARABIC, 0, arabic);
+            } else {
+                byte[] numeral = RomanBytes.numeralBytes(arabic);
+                for (int i = 0; i < numeral.length; i++) {
+                    memory.put(response + 8 + i, numeral[i]);
+                }
+                respond(response, STATUS_OK, numeral.length, arabic);
+            }
+        } else if (operation == OPERATION_DECODE) {
+            int length = memory.get(request + 1) & 0xFF;
+            if (length > MAX_NUMERAL_BYTES) {
+                respond(response, STATUS_ILLEGAL_REQUEST, 0, 0);
+                return;
+            }
+            int arabic = RomanBytes.decode(memory, request + 8, request + 8 + length);
+            respond(response, arabic == RomanConversionEngine.NOT_CANONICAL ? STATUS_ILLEGAL_SYNTAX : STATUS_OK, 0, arabic);
+        } else {
+            respond(response, STATUS_ILLEGAL_REQUEST, 0, 0);
+        }
+    }
+
+    /**
+     * Writes the fixed fields of a response.
+     */
+    private void respond(int response, byte status, int length, int arabic) {
+        memory.put(response, status);
+        memory.put(response + 1, (byte) length);
+        memory.putInt(response + 4, arabic);
+    }
+}
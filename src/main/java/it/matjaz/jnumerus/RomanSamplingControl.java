@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import jdk.jfr.SettingControl;
+
+/**
+ * The {@code sampling} setting of the jNumerus flight recorder events.
+ * <p>
+ * The value is a sampling period: an event is committed with probability
+ * 1/period, so {@code "1"} records every event and {@code "1000"} one event
+ * out of a thousand on average. When more recordings are running, the smallest
+ * period wins. The decision uses a thread-local random generator, so sampled
+ * threads do not contend with each other.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanFlightRecorder
+ */
+class RomanSamplingControl extends SettingControl {
+
+    /**
+     * Current sampling period.
+     */
+    private volatile long period = 1;
+
+    /**
+     * Parses a sampling period, treating illegal values as 1.
+     *
+     * @param value the setting value.
+     * @return a period of at least 1.
+     */
+    private static long parsePeriod(String value) {
+        try {
+            return Math.max(1, Long.parseLong(value.trim()));
+        } catch (NumberFormatException ex) {
+            return 1;
+        }
+    }
+
+    @Override
+    public String combine(Set<String> values) {
+        long smallest = Long.MAX_VALUE;
+        for (String value : values) {
+            smallest = Math.min(smallest, parsePeriod(value));
+        }
+        return smallest == Long.MAX_VALUE ? "1" : Long.toString(smallest);
+    }
+
+    @Override
+    public void setValue(String value) {
+        this.period = parsePeriod(value);
+    }
+
+    @Override
+    public String getValue() {
+        return Long.toString(period);
+    }
+
+    /**
+     * Decides if the current event should be committed.
+     *
+     * @return {@code true} with probability 1/period.
+     */
+    boolean shouldSample() {
+        long currentPeriod = period;
+        return currentPeriod == 1 || ThreadLocalRandom.current().nextLong(currentPeriod) == 0;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Arrays;
+
+/**
+ * Set of values of the roman numerals range stored as a bitmap of 7999 bits,
+ * about 1 KB whatever the number of values.
+ * <p>
+ * A {@code HashSet<RomanInteger>} spends tens of bytes on each element, while
+ * this set spends one bit on each possible value. Adding, removing and
+ * looking up a value changes or reads one bit, and the operations between two
+ * RomanSets, {@link #addAll(RomanSet) union},
+ * {@link #retainAll(RomanSet) intersection},
+ * {@link #removeAll(RomanSet) difference} and
+ * {@link #intersectionSize(RomanSet) overlap}, combine 64 values at a time in
+ * 125 word operations, as does the {@link #size() cardinality}. The values
+ * are iterated in ascending order.
+ * <p>
+ * It implements {@code Set<RomanInteger>} for the code expecting one; each
+ * RomanInteger returned by the iterators is a new instance, as RomanIntegers
+ * are mutable. Like {@link java.util.HashSet}, the set is not synchronized:
+ * see {@link ConcurrentRomanSet} for a thread-safe one.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanSet extends RomanBitSet {
+
+    /**
+     * The bitmap, with the value {@code v} at bit {@code (v + 3999) % 64} of
+     * the word {@code (v + 3999) / 64}.
+     */
+    private final long[] words;
+
+    /**
+     * Constructs an empty set.
+     */
+    public RomanSet() {
+        this.words = new long[WORDS];
+    }
+
+    /**
+     * Constructs a set containing the values of another one.
+     *
+     * @param other the set to be copied.
+     */
+    public RomanSet(RomanSet other) {
+        this.words = other.words.clone();
+    }
+
+    /**
+     * Constructs a set over the given bitmap.
+     *
+     * @param words the bitmap, owned by the set.
+     */
+    RomanSet(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * Constructs a set containing the given values.
+     *
+     * @param values in the roman numerals range, also repeated.
+     * @return the set of the values.
+     * @throws IllegalArabicValueException if any value is not in [-3999,
+     * 3999].
+     */
+    public static RomanSet of(int... values) throws IllegalArabicValueException {
+        RomanSet set = new RomanSet();
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    @Override
+    long word(int index) {
+        return words[index];
+    }
+
+    @Override
+    public boolean add(int value) throws IllegalArabicValueException {
+        checkValue(value);
+        int slot = slotOf(value);
+        long word = words[slot >>> 6];
+        words[slot >>> 6] = word | (1L << slot);
+        return (word & (1L << slot)) == 0;
+    }
+
+    @Override
+    public boolean remove(int value) {
+        if (!inRange(value)) {
+            return false;
+        }
+        int slot = slotOf(value);
+        long word = words[slot >>> 6];
+        words[slot >>> 6] = word & ~(1L << slot);
+        return (word & (1L << slot)) != 0;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+
+    /**
+     * Adds all the values of another set to this one: the union.
+     *
+     * @param other the set whose values are added.
+     * @return true if this set changed.
+     */
+    public boolean addAll(RomanSet other) {
+        long changed = 0;
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            words[i] = word | other.words[i];
+            changed |= words[i] ^ word;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Keeps only the values also in another set: the intersection.
+     *
+     * @param other the set whose values are kept.
+     * @return true if this set changed.
+     */
+    public boolean retainAll(RomanSet other) {
+        long changed = 0;
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            words[i] = word & other.words[i];
+            changed |= words[i] ^ word;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Removes the values of another set from this one: the difference.
+     *
+     * @param other the set whose values are removed.
+     * @return true if this set changed.
+     */
+    public boolean removeAll(RomanSet other) {
+        long changed = 0;
+        for (int i = 0; i < WORDS; i++) {
+            long word = words[i];
+            words[i] = word & ~other.words[i];
+            changed |= words[i] ^ word;
+        }
+        return changed != 0;
+    }
+
+    /**
+     * Counts the values in both this set and another one, without building
+     * the intersection.
+     *
+     * @param other the other set.
+     * @return the size of the intersection.
+     */
+    public int intersectionSize(RomanSet other) {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Verifies if this set contains all the values of another one.
+     *
+     * @param other the other set.
+     * @return true if the other set is a subset of this one.
+     */
+    public boolean containsAll(RomanSet other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((other.words[i] & ~words[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Verifies if the given object is a set with the same values, comparing
+     * the bitmaps if it is another RomanSet.
+     *
+     * @param other the object to be compared.
+     * @return true if the sets are equal.
+     */
+    @Override
+    public boolean equals(Object other) {
+        if (other instanceof RomanSet) {
+            return Arrays.equals(words, ((RomanSet) other).words);
+        }
+        return super.equals(other);
+    }
+
+    /**
+     * Returns the hash of the set as defined by {@link java.util.Set#hashCode()},
+     * the sum of the hashes of the RomanIntegers.
+     *
+     * @return the hash of this RomanSet.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Base of the maps keyed by the values of the roman numerals range, storing
+ * the mapped values in 7999 slots, one for each key.
+ * <p>
+ * It implements the {@link Map} operations on the slots given by the
+ * subclasses: the key of a slot is {@code slot + MININTEGER}, so lookups need
+ * no hashing and the entries are always iterated in ascending order of key.
+ * An empty slot is null, so the maps do not accept null values. The keys are
+ * identified by their value, as in {@link RomanBitSet}.
+ *
+ * @param <V> the type of the mapped values.
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanKeyedMap
+ * @see ConcurrentRomanKeyedMap
+ */
+abstract class RomanSlotMap<V> extends AbstractMap<RomanInteger, V> {
+
+    /**
+     * Number of keys in the roman numerals range, one slot each.
+     */
+    static final int SLOTS = RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1;
+
+    /**
+     * Returns the value of a slot.
+     *
+     * @param slot in [0, {@link #SLOTS}).
+     * @return the value or null if the slot is empty.
+     */
+    abstract V slot(int slot);
+
+    /**
+     * Stores a value in a slot.
+     *
+     * @param slot in [0, {@link #SLOTS}).
+     * @param value not null.
+     * @return the previous value or null if the slot was empty.
+     */
+    abstract V putSlot(int slot, V value);
+
+    /**
+     * Empties a slot.
+     *
+     * @param slot in [0, {@link #SLOTS}).
+     * @return the previous value or null if the slot was empty.
+     */
+    abstract V removeSlot(int slot);
+
+    /**
+     * Returns the slot of a key.
+     *
+     * @param key any int.
+     * @return the slot or -1 if the key is not in the roman numerals range.
+     */
+    static int slotOf(int key) {
+        if (key < RomanConverter.MININTEGER || key > RomanConverter.MAXINTEGER) {
+            return -1;
+        }
+        return key - RomanConverter.MININTEGER;
+    }
+
+    /**
+     * Returns the slot of a key of any type.
+     *
+     * @param key any object.
+     * @return the slot or -1 if the key is not a RomanInteger.
+     */
+    static int slotOf(Object key) {
+        return key instanceof RomanInteger ? slotOf(((RomanInteger) key).getValue()) : -1;
+    }
+
+    /**
+     * Returns the slot of a key to be stored.
+     *
+     * @param key to be checked.
+     * @return the slot.
+     * @throws IllegalArabicValueException if not in [-3999, 3999].
+     */
+    static int checkedSlotOf(int key) throws IllegalArabicValueException {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            throw new IllegalArabicValueException(RomanMessages.getString("ArabicOutOfRange"));
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the value mapped to a key.
+     *
+     * @param key any int.
+     * @return the value or null if the key is not mapped.
+     */
+    public V get(int key) {
+        int slot = slotOf(key);
+        return slot < 0 ? null : slot(slot);
+    }
+
+    /**
+     * Tells if a key is mapped.
+     *
+     * @param key any int.
+     * @return true if the key has a value.
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps a key to a value.
+     *
+     * @param key in the roman numerals range.
+     * @param value not null.
+     * @return the previous value or null if the key was not mapped.
+     * @throws IllegalArabicValueException if the key is not in [-3999, 3999].
+     */
+    public V put(int key, V value) throws IllegalArabicValueException {
+        return putSlot(checkedSlotOf(key), Objects.requireNonNull(value));
+    }
+
+    /**
+     * Removes the mapping of a key.
+     *
+     * @param key any int.
+     * @return the removed value or null if the key was not mapped.
+     */
+    public V remove(int key) {
+        int slot = slotOf(key);
+        return slot < 0 ? null : removeSlot(slot);
+    }
+
+    /**
+     * Performs an action on each mapping, in ascending order of key, without
+     * creating RomanIntegers.
+     *
+     * @param action receiving the value and the int key.
+     */
+    public void forEachIntKey(ObjIntConsumer<? super V> action) {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            V value = slot(slot);
+            if (value != null) {
+                action.accept(value, slot + RomanConverter.MININTEGER);
+            }
+        }
+    }
+
+    @Override
+    public V get(Object key) {
+        int slot = slotOf(key);
+        return slot < 0 ? null : slot(slot);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V put(RomanInteger key, V value) {
+        return putSlot(slotOf(key.getValue()), Objects.requireNonNull(value));
+    }
+
+    @Override
+    public V remove(Object key) {
+        int slot = slotOf(key);
+        return slot < 0 ? null : removeSlot(slot);
+    }
+
+    /**
+     * Returns the view of the mappings, iterated in ascending order of key.
+     *
+     * @return the entries, with new RomanIntegers as keys.
+     */
+    @Override
+    public Set<Map.Entry<RomanInteger, V>> entrySet() {
+        return new AbstractSet<Map.Entry<RomanInteger, V>>() {
+            @Override
+            public Iterator<Map.Entry<RomanInteger, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return RomanSlotMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                RomanSlotMap.this.clear();
+            }
+        };
+    }
+
+    /**
+     * Iterator of the non-empty slots.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<RomanInteger, V>> {
+
+        private V nextValue;
+        private int nextSlot = findSlot(0);
+        private int lastSlot = -1;
+
+        /**
+         * Finds the next mapped slot and keeps the value seen there, so that
+         * a concurrent removal cannot make the iterator return a null value.
+         */
+        private int findSlot(int from) {
+            for (int slot = from; slot < SLOTS; slot++) {
+                V value = slot(slot);
+                if (value != null) {
+                    nextValue = value;
+                    return slot;
+                }
+            }
+            nextValue = null;
+            return -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextSlot >= 0;
+        }
+
+        @Override
+        public Map.Entry<RomanInteger, V> next() {
+            if (nextSlot < 0) {
+                throw new NoSuchElementException();
+            }
+            lastSlot = nextSlot;
+            V value = nextValue;
+            nextSlot = findSlot(nextSlot + 1);
+            return new SlotEntry(lastSlot, value);
+        }
+
+        @Override
+        public void remove() {
+            if (lastSlot < 0) {
+                throw new IllegalStateException();
+            }
+            removeSlot(lastSlot);
+            lastSlot = -1;
+        }
+    }
+
+    /**
+     * Mapping of a slot, writing through to the map.
+     */
+    private final class SlotEntry extends AbstractMap.SimpleEntry<RomanInteger, V> {
+
+        private static final long serialVersionUID = 20150428L;
+
+        private final int slot;
+
+        SlotEntry(int slot, V value) {
+            super(RomanInteger.ofValidValue(slot + RomanConverter.MININTEGER), value);
+            this.slot = slot;
+        }
+
+        @Override
+        public V setValue(V value) {
+            putSlot(slot, Objects.requireNonNull(value));
+            return super.setValue(value);
+        }
+    }
+}
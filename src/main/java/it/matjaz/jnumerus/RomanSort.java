@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Sorts of roman numerals and RomanIntegers by value in linear time, and
+ * comparators by value.
+ * <p>
+ * The values of the roman numerals range are only 7999, so instead of
+ * comparing the elements to each other the sorts count them: the first pass
+ * finds the value of each element and counts the elements of each value, the
+ * second pass moves each element right after the elements of the lower values.
+ * Sorting n elements takes O(n + 7999) time regardless of their order, with
+ * one decode per element instead of one per comparison, and an auxiliary
+ * array of n references and one of n shorts. The sorts are stable: the
+ * elements with the same value, like the numeral "-" and NULLA, keep their
+ * order.
+ * <p>
+ * Arrays of RomanNumerals or RomanIntegers shorter than
+ * {@link #COUNTING_SORT_THRESHOLD}, where clearing and summing the 7999
+ * counters would cost more than comparing, are sorted by
+ * {@link Arrays#sort(java.lang.Object[], java.util.Comparator)} with the
+ * comparators of this class, which is stable as well.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanSort {
+
+    /**
+     * Length from which the arrays are sorted by counting.
+     */
+    public static final int COUNTING_SORT_THRESHOLD = 1024;
+
+    /**
+     * Number of values in the roman numerals range.
+     */
+    private static final int SLOTS = RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1;
+
+    /**
+     * Orders the RomanNumerals by value, see {@link #valueOf(RomanNumeral)}.
+     */
+    private static final Comparator<RomanNumeral> NUMERAL_ORDER
+            = (first, second) -> Integer.compare(valueOf(first), valueOf(second));
+
+    /**
+     * Orders the RomanIntegers by value reading their field directly.
+     */
+    private static final Comparator<RomanInteger> INTEGER_ORDER
+            = (first, second) -> Integer.compare(first.getValue(), second.getValue());
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanSort() {
+    }
+
+    /**
+     * Returns the comparator of RomanNumerals by value, which is their
+     * {@link RomanNumeral#compareTo(RomanNumeral) natural order}.
+     *
+     * @return the comparator by value.
+     */
+    public static Comparator<RomanNumeral> numeralOrder() {
+        return NUMERAL_ORDER;
+    }
+
+    /**
+     * Returns the comparator of RomanIntegers by value.
+     * <p>
+     * Unlike {@link RomanInteger#compareTo(java.lang.Number)}, which accepts
+     * any Number and calls {@code intValue()} on both sides twice, it reads the
+     * value of each side once.
+     *
+     * @return the comparator by value.
+     */
+    public static Comparator<RomanInteger> integerOrder() {
+        return INTEGER_ORDER;
+    }
+
+    /**
+     * Returns the value of a RomanNumeral without decoding it.
+     * <p>
+     * A RomanNumeral passed the syntax check, so it is a canonical numeral,
+     * found in the canonical index by {@link RomanConverter#lookupCanonical},
+     * or the lone minus sign, which the syntax check accepts as 0.
+     *
+     * @param numeral a RomanNumeral.
+     * @return the value of the numeral.
+     */
+    static int valueOf(RomanNumeral numeral) {
+        int value = RomanConverter.lookupCanonical(numeral.getNumeral());
+        return value == RomanConversionEngine.NOT_CANONICAL ? 0 : value;
+    }
+
+    /**
+     * Sorts an array of RomanNumerals by value.
+     *
+     * @param numerals to be sorted in place.
+     */
+    public static void sort(RomanNumeral[] numerals) {
+        if (numerals.length < COUNTING_SORT_THRESHOLD) {
+            Arrays.sort(numerals, NUMERAL_ORDER);
+            return;
+        }
+        short[] slots = new short[numerals.length];
+        for (int i = 0; i < numerals.length; i++) {
+            slots[i] = (short) (valueOf(numerals[i]) - RomanConverter.MININTEGER);
+        }
+        countingSort(numerals, slots);
+    }
+
+    /**
+     * Sorts an array of RomanIntegers by value.
+     *
+     * @param integers to be sorted in place.
+     */
+    public static void sort(RomanInteger[] integers) {
+        if (integers.length < COUNTING_SORT_THRESHOLD) {
+            Arrays.sort(integers, INTEGER_ORDER);
+            return;
+        }
+        short[] slots = new short[integers.length];
+        for (int i = 0; i < integers.length; i++) {
+            slots[i] = (short) (integers[i].getValue() - RomanConverter.MININTEGER);
+        }
+        countingSort(integers, slots);
+    }
+
+    /**
+     * Sorts an array of roman numerals of any CharSequence type by value, like
+     * Strings read from a file or lines of a buffer.
+     * <p>
+     * The canonical numerals are found in the canonical index, any other one
+     * is normalized by the {@link RomanNumeral#RomanNumeral(java.lang.String)
+     * syntax check}. The values are found before moving any element, so if
+     * a numeral is illegal the array is left unchanged.
+     *
+     * @param <T> the type of the numerals.
+     * @param numerals to be sorted in place.
+     * @throws IllegalNumeralSyntaxException if any numeral has illegal roman
+     * syntax.
+     */
+    public static <T extends CharSequence> void sortCharSequences(T[] numerals) throws IllegalNumeralSyntaxException {
+        short[] slots = new short[numerals.length];
+        for (int i = 0; i < numerals.length; i++) {
+            int value = RomanConverter.lookupCanonical(numerals[i]);
+            if (value == RomanConversionEngine.NOT_CANONICAL) {
+                value = valueOf(new RomanNumeral(numerals[i].toString()));
+            }
+            slots[i] = (short) (value - RomanConverter.MININTEGER);
+        }
+        countingSort(numerals, slots);
+    }
+
+    /**
+     * Moves the elements of an array in ascending order of their slots,
+     * keeping the order of the elements with the same slot.
+     *
+     * @param <T> the type of the elements.
+     * @param elements to be sorted in place.
+     * @param slots the value of each element minus
+     * {@link RomanConverter#MININTEGER}.
+     */
+    private static <T> void countingSort(T[] elements, short[] slots) {
+        int[] starts = new int[SLOTS + 1];
+        for (short slot : slots) {
+            starts[slot + 1]++;
+        }
+        for (int slot = 1; slot <= SLOTS; slot++) {
+            starts[slot] += starts[slot - 1];
+        }
+        T[] sorted = elements.clone();
+        for (int i = 0; i < elements.length; i++) {
+            sorted[starts[slots[i]]++] = elements[i];
+        }
+        System.arraycopy(sorted, 0, elements, 0, elements.length);
+    }
+}
@@ -0,0 +1,477 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Statistics of the values of a text file of roman numerals or decimal
+ * integers, one per line, computed in one pass.
+ * <p>
+ * The values have only 7999 possible values, so the file is reduced to the
+ * histogram of its values, from which the count, sum, minimum, maximum, mean,
+ * median and any percentile follow exactly. The file is split in parts made
+ * of whole lines, scanned in parallel through memory-mapped windows, see
+ * {@link RomanMappedFiles}: each part counts its values in an
+ * {@code int[7999]} histogram, decoding the numerals directly from their
+ * bytes with the decoder of {@link RomanBytes} and parsing the decimal
+ * integers likewise, so the valid lines create no objects. The histograms of
+ * the parts are then summed.
+ * <p>
+ * The lines that are not roman numerals are counted by the
+ * {@link IllegalNumeralSyntaxException.Category category} of their syntax
+ * error, found by the syntax check of {@link RomanNumeral}; the decimal
+ * integers outside the roman numerals range are counted apart.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanStatistics {
+
+    /**
+     * Number of values in the roman numerals range.
+     */
+    private static final int SLOTS = RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1;
+
+    /**
+     * Number of lines of each value.
+     */
+    private final long[] histogram;
+
+    /**
+     * Number of invalid lines of each syntax error category.
+     */
+    private final long[] invalidLines;
+
+    /**
+     * Number of decimal integers out of the roman numerals range.
+     */
+    private final long outOfRangeLines;
+
+    /**
+     * Number of valid lines.
+     */
+    private final long count;
+
+    /**
+     * Sum of the values.
+     */
+    private final long sum;
+
+    /**
+     * Constructs the statistics of the merged histograms.
+     *
+     * @param histogram number of lines of each value.
+     * @param invalidLines number of invalid lines of each category.
+     * @param outOfRangeLines number of out of range integers.
+     */
+    private RomanStatistics(long[] histogram, long[] invalidLines, long outOfRangeLines) {
+        this.histogram = histogram;
+        this.invalidLines = invalidLines;
+        this.outOfRangeLines = outOfRangeLines;
+        long lines = 0;
+        long total = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            lines += histogram[slot];
+            total += histogram[slot] * (slot + RomanConverter.MININTEGER);
+        }
+        this.count = lines;
+        this.sum = total;
+    }
+
+    /**
+     * Computes the statistics of a file using a thread per available
+     * processor.
+     *
+     * @param file text file with a roman numeral or a decimal integer per
+     * line.
+     * @return the statistics of the file.
+     * @throws IOException if the file could not be read.
+     */
+    public static RomanStatistics of(Path file) throws IOException {
+        return of(file, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Computes the statistics of a file using the given number of threads.
+     *
+     * @param file text file with a roman numeral or a decimal integer per
+     * line.
+     * @param threads number of parts scanned in parallel, at least 1.
+     * @return the statistics of the file.
+     * @throws IOException if the file could not be read.
+     */
+    public static RomanStatistics of(Path file, int threads) throws IOException {
+        return of(file, threads, RomanMappedFiles.WINDOW_BYTES);
+    }
+
+    /**
+     * Computes the statistics of a file with the given size of the mapped
+     * windows.
+     * <p>
+     * The file is split in at least a part per thread and in parts of at most
+     * a window, so that the lines of a part fit in an int.
+     *
+     * @param file text file with a roman numeral or a decimal integer per
+     * line.
+     * @param threads number of parts scanned in parallel, at least 1.
+     * @param windowBytes size of the mapped windows, longer than any line.
+     * @return the statistics of the file.
+     * @throws IOException if the file could not be read.
+     */
+    static RomanStatistics of(Path file, int threads, int windowBytes) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.valueOf(threads));
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int parts = (int) Math.max(threads, (size + windowBytes - 1) / windowBytes);
+            long[] bounds = new long[parts + 1];
+            for (int i = 1; i < parts; i++) {
+                bounds[i] = Math.max(bounds[i - 1], RomanMappedFiles.lineStart(channel, size / parts * i));
+            }
+            bounds[parts] = size;
+            List<Part> scanned = threads == 1
+                    ? scan(channel, bounds, windowBytes)
+                    : scanInParallel(channel, bounds, windowBytes, threads);
+            long[] histogram = new long[SLOTS];
+            long[] invalidLines = new long[IllegalNumeralSyntaxException.Category.values().length];
+            long outOfRangeLines = 0;
+            for (Part part : scanned) {
+                for (int slot = 0; slot < SLOTS; slot++) {
+                    histogram[slot] += part.histogram[slot];
+                }
+                for (int i = 0; i < invalidLines.length; i++) {
+                    invalidLines[i] += part.invalidLines[i];
+                }
+                outOfRangeLines += part.outOfRangeLines;
+            }
+            return new RomanStatistics(histogram, invalidLines, outOfRangeLines);
+        }
+    }
+
+    /**
+     * Scans the parts of a file one after the other.
+     *
+     * @param channel of the file.
+     * @param bounds start of each part and end of the last one.
+     * @param windowBytes size of the mapped windows.
+     * @return the scanned parts.
+     * @throws IOException if the file could not be read.
+     */
+    private static List<Part> scan(FileChannel channel, long[] bounds, int windowBytes) throws IOException {
+        List<Part> parts = new ArrayList<>();
+        for (int i = 0; i + 1 < bounds.length; i++) {
+            parts.add(new Part().scan(channel, bounds[i], bounds[i + 1], windowBytes));
+        }
+        return parts;
+    }
+
+    /**
+     * Scans the parts of a file in parallel.
+     *
+     * @param channel of the file.
+     * @param bounds start of each part and end of the last one.
+     * @param windowBytes size of the mapped windows.
+     * @param threads number of threads.
+     * @return the scanned parts.
+     * @throws IOException if the file could not be read.
+     */
+    private static List<Part> scanInParallel(FileChannel channel, long[] bounds, int windowBytes, int threads) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Part>> futures = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                futures.add(executor.submit(() -> new Part().scan(channel, start, end, windowBytes)));
+            }
+            List<Part> parts = new ArrayList<>();
+            for (Future<Part> future : futures) {
+                parts.add(future.get());
+            }
+            return parts;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            throw new IOException(ex.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the number of valid lines.
+     *
+     * @return the number of values.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the values.
+     *
+     * @return the sum, 0 if there are no values.
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the smallest value.
+     *
+     * @return the minimum.
+     * @throws NoSuchElementException if there are no values.
+     */
+    public int getMin() {
+        return getPercentile(0);
+    }
+
+    /**
+     * Returns the biggest value.
+     *
+     * @return the maximum.
+     * @throws NoSuchElementException if there are no values.
+     */
+    public int getMax() {
+        for (int slot = SLOTS - 1; slot >= 0; slot--) {
+            if (histogram[slot] != 0) {
+                return slot + RomanConverter.MININTEGER;
+            }
+        }
+        throw new NoSuchElementException();
+    }
+
+    /**
+     * Returns the arithmetic mean of the values.
+     *
+     * @return the mean.
+     * @throws NoSuchElementException if there are no values.
+     */
+    public double getMean() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * Returns the median of the values, the lower one for an even count.
+     *
+     * @return the 50th percentile.
+     * @throws NoSuchElementException if there are no values.
+     */
+    public int getMedian() {
+        return getPercentile(50);
+    }
+
+    /**
+     * Returns a percentile of the values with the nearest rank method: the
+     * smallest value greater than or equal to the given percentage of the
+     * values.
+     *
+     * @param percentage in [0, 100].
+     * @return the percentile, one of the values.
+     * @throws NoSuchElementException if there are no values.
+     * @throws IllegalArgumentException if the percentage is not in [0, 100].
+     */
+    public int getPercentile(double percentage) {
+        if (!(percentage >= 0 && percentage <= 100)) {
+            throw new IllegalArgumentException(String.valueOf(percentage));
+        }
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentage / 100 * count));
+        long seen = 0;
+        for (int slot = 0; slot < SLOTS; slot++) {
+            seen += histogram[slot];
+            if (seen >= rank) {
+                return slot + RomanConverter.MININTEGER;
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Returns the number of lines of a value.
+     *
+     * @param value any int.
+     * @return the number of lines, 0 outside of the roman numerals range.
+     */
+    public long getFrequency(int value) {
+        if (value < RomanConverter.MININTEGER || value > RomanConverter.MAXINTEGER) {
+            return 0;
+        }
+        return histogram[value - RomanConverter.MININTEGER];
+    }
+
+    /**
+     * Returns the histogram of the values.
+     *
+     * @return a new array with the number of lines of the value
+     * {@code i + MININTEGER} at the index {@code i}.
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Returns the number of lines that are not roman numerals nor decimal
+     * integers in the roman numerals range.
+     *
+     * @return the number of invalid lines.
+     */
+    public long getInvalidLines() {
+        long lines = outOfRangeLines;
+        for (long categoryLines : invalidLines) {
+            lines += categoryLines;
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the number of lines that are not roman numerals because of the
+     * given syntax error.
+     *
+     * @param category of the syntax error.
+     * @return the number of lines.
+     */
+    public long getInvalidLines(IllegalNumeralSyntaxException.Category category) {
+        return invalidLines[category.ordinal()];
+    }
+
+    /**
+     * Returns the number of decimal integers outside of the roman numerals
+     * range.
+     *
+     * @return the number of lines.
+     */
+    public long getOutOfRangeLines() {
+        return outOfRangeLines;
+    }
+
+    /**
+     * Returns the statistics as shown by the {@code stats} command.
+     *
+     * @return the statistics of the values and the invalid lines by
+     * category.
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        if (count == 0) {
+            text.append(RomanMessages.getString("StatisticsEmptyText"));
+        } else {
+            text.append(MessageFormat.format(RomanMessages.getString("StatisticsText"), count, sum, getMin(),
+                    getMax(), getMean(), getMedian(), getPercentile(90), getPercentile(99)));
+        }
+        text.append('\n').append(MessageFormat.format(RomanMessages.getString("InvalidLinesText"),
+                getInvalidLines(), outOfRangeLines));
+        for (IllegalNumeralSyntaxException.Category category : IllegalNumeralSyntaxException.Category.values()) {
+            if (invalidLines[category.ordinal()] != 0) {
+                text.append(", ").append(category).append(' ').append(invalidLines[category.ordinal()]);
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Counts of a part of a file, filled by one thread.
+     */
+    private static final class Part implements RomanMappedFiles.LineVisitor {
+
+        private final int[] histogram = new int[SLOTS];
+        private final long[] invalidLines = new long[IllegalNumeralSyntaxException.Category.values().length];
+        private long outOfRangeLines;
+
+        /**
+         * Scans a part of a file.
+         *
+         * @param channel of the file.
+         * @param start of the part.
+         * @param end of the part.
+         * @param windowBytes size of the mapped windows.
+         * @return this part.
+         * @throws IOException if the file could not be read.
+         */
+        Part scan(FileChannel channel, long start, long end, int windowBytes) throws IOException {
+            RomanMappedFiles.forEachLine(channel, start, end, windowBytes, this);
+            return this;
+        }
+
+        @Override
+        public void visit(ByteBuffer window, int from, int to) {
+            int value = RomanBytes.decode(window, from, to);
+            if (value != RomanConversionEngine.NOT_CANONICAL) {
+                histogram[value - RomanConverter.MININTEGER]++;
+                return;
+            }
+            int first = from;
+            int last = to;
+            while (first < last && RomanBytes.isWhitespace(window.get(first))) {
+                first++;
+            }
+            while (last > first && RomanBytes.isWhitespace(window.get(last - 1))) {
+                last--;
+            }
+            long decimal = RomanBytes.parseDecimal(window, first, last);
+            if (decimal == RomanBytes.NOT_DECIMAL) {
+                invalidLines[categoryOf(window, from, to).ordinal()]++;
+            } else if (decimal < RomanConverter.MININTEGER || decimal > RomanConverter.MAXINTEGER) {
+                outOfRangeLines++;
+            } else {
+                histogram[(int) decimal - RomanConverter.MININTEGER]++;
+            }
+        }
+
+        /**
+         * Finds the syntax error of an invalid line with the syntax check of
+         * {@link RomanNumeral}.
+         *
+         * @param window containing the line.
+         * @param from index of the first byte of the line.
+         * @param to index after the last byte of the line.
+         * @return the category of the syntax error.
+         */
+        private static IllegalNumeralSyntaxException.Category categoryOf(ByteBuffer window, int from, int to) {
+            byte[] line = new byte[to - from];
+            for (int i = 0; i < line.length; i++) {
+                line[i] = window.get(from + i);
+            }
+            try {
+                new RomanNumeral(new String(line, StandardCharsets.ISO_8859_1));
+                return IllegalNumeralSyntaxException.Category.GENERIC;
+            } catch (IllegalNumeralSyntaxException ex) {
+                return ex.getCategory();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a String rejected by the syntax check of
+ * {@link RomanNumeral}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ * @see RomanFlightRecorder
+ */
+@Name("it.matjaz.jnumerus.SyntaxRejection")
+@Label("Roman Syntax Rejection")
+@Description("A string with illegal roman syntax")
+class RomanSyntaxRejectionEvent extends RomanEvent {
+
+    /**
+     * The registered type of this event, telling if any recording enables it.
+     */
+    private static final EventType TYPE = EventType.getEventType(RomanSyntaxRejectionEvent.class);
+
+    /**
+     * Creates an event and begins the timing of the syntax check, only if any
+     * running recording has this event enabled.
+     *
+     * @return the begun event or {@code null} if it would not be recorded.
+     */
+    static RomanSyntaxRejectionEvent beginIfEnabled() {
+        if (!TYPE.isEnabled()) {
+            return null;
+        }
+        RomanSyntaxRejectionEvent event = new RomanSyntaxRejectionEvent();
+        event.begin();
+        return event;
+    }
+
+    @Label("Input")
+    @Description("The cleaned and upcased string")
+    String input;
+
+    @Label("Category")
+    String category;
+
+    @Label("Message")
+    String message;
+
+    /**
+     * Ends the timing of the syntax check and commits the event if the
+     * recording settings accept it.
+     *
+     * @param input the rejected string.
+     * @param ex the thrown exception.
+     */
+    void end(String input, IllegalNumeralSyntaxException ex) {
+        end();
+        if (shouldCommit()) {
+            this.input = input;
+            this.category = ex.getCategory().name();
+            this.message = ex.getMessage();
+            commit();
+        }
+    }
+}
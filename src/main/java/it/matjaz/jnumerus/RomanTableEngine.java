@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RomanConversionEngine} reading both conversions from full tables:
+ * the numerals of all the values and a hash map of the values of all the
+ * numerals.
+ * <p>
+ * It uses the most memory, the map alone holds 7999 entries built by the
+ * constructor, and decoding a CharSequence other than a String copies it into
+ * a String to find it in the map.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public final class RomanTableEngine implements RomanConversionEngine {
+
+    /**
+     * The value of each canonical numeral.
+     */
+    private final Map<String, Integer> values = new HashMap<>(2 * (RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1));
+
+    /**
+     * Builds the table of the values of all the numerals.
+     */
+    public RomanTableEngine() {
+        for (int arabic = RomanConverter.MININTEGER; arabic <= RomanConverter.MAXINTEGER; arabic++) {
+            values.put(RomanConverter.canonicalNumeral(arabic), arabic);
+        }
+    }
+
+    /**
+     * Returns the name of the engine.
+     *
+     * @return {@code table}.
+     */
+    @Override
+    public String getName() {
+        return "table";
+    }
+
+    /**
+     * Reads the numeral from the table of all the numerals.
+     *
+     * @param arabic the value, in [-3999, 3999].
+     * @return the canonical numeral.
+     */
+    @Override
+    public String encode(int arabic) {
+        return RomanConverter.canonicalNumeral(arabic);
+    }
+
+    /**
+     * Finds the numeral in the map of the values of all the numerals.
+     *
+     * @param numeral any sequence of chars.
+     * @return the value of the numeral or {@link #NOT_CANONICAL}.
+     */
+    @Override
+    public int decode(CharSequence numeral) {
+        Integer arabic = values.get(numeral.toString());
+        return arabic == null ? NOT_CANONICAL : arabic;
+    }
+}
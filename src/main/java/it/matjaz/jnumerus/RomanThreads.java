@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory of the executors used by the jNumerus servers and asynchronous
+ * facades.
+ * <p>
+ * jNumerus is compiled for Java 8, so the virtual threads of Java 21 are
+ * looked up by reflection: on older JVMs a fixed pool of platform threads is
+ * used instead. The multi-release jar replaces this class on Java 21 with one
+ * creating them directly.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanThreads {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanThreads() {
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for each task, if the
+     * JVM supports them, else a fixed pool of platform threads.
+     *
+     * @param fallbackThreads size of the thread pool used when virtual threads
+     * are not available.
+     * @return a new executor.
+     */
+    static ExecutorService newVirtualThreadExecutor(int fallbackThreads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException ex) {
+            return Executors.newFixedThreadPool(fallbackThreads);
+        }
+    }
+}
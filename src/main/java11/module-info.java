@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+
+/**
+ * jNumerus, a roman numerals library for Java.
+ * <p>
+ * The module descriptor is in the Java 11 part of the multi-release jar, so
+ * the jar is still a plain library on the classpath of Java 8 and can be put
+ * on the module path of Java 11 or newer, or linked with {@code jlink} into a
+ * minimal runtime containing only the modules below:
+ *
+ * <pre>
+ * jlink --module-path target/jNumerus-0.7.0.jar:javafx-base-17.0.2-linux.jar \
+ *       --add-modules it.matjaz.jnumerus \
+ *       --launcher jnumerus=it.matjaz.jnumerus/it.matjaz.jnumerus.RomanMain \
+ *       --strip-debug --no-header-files --no-man-pages --output jnumerus-runtime
+ * </pre>
+ * <p>
+ * The optional features need their modules only when used: Apache Commons
+ * Collections for {@code RomanCharMapFactory.generateBidiCharMap()}, the flight
+ * recorder for the JFR events and the incubating Vector API for the SIMD column
+ * decoder, which also needs
+ * {@code --add-reads it.matjaz.jnumerus=jdk.incubator.vector}.
+ * <p>
+ * The conversion engines are provided as services both here and in
+ * {@code META-INF/services}, so they are found on the module path and on the
+ * classpath.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+module it.matjaz.jnumerus {
+    requires java.logging;
+    requires java.management;
+    requires jdk.httpserver;
+    requires javafx.base;
+    requires static jdk.jfr;
+    requires static org.apache.commons.collections4;
+
+    exports it.matjaz.jnumerus;
+
+    uses it.matjaz.jnumerus.RomanConversionEngine;
+    provides it.matjaz.jnumerus.RomanConversionEngine with
+            it.matjaz.jnumerus.RomanHashEngine,
+            it.matjaz.jnumerus.RomanAutomatonEngine,
+            it.matjaz.jnumerus.RomanTableEngine,
+            it.matjaz.jnumerus.RomanDigitEngine,
+            it.matjaz.jnumerus.RomanGreedyEngine;
+}
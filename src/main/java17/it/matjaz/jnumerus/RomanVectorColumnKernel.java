@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Arrays;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Decoder of the records of a column of numerals using the incubating Vector
+ * API, loaded by {@link RomanColumnDecoder} when available.
+ * <p>
+ * Each record of up to 16 bytes is loaded in a 128 bit vector, the bytes
+ * after the record replaced by spaces, and widened to 16 short lanes:
+ * <ol>
+ * <li>every lane holding a roman character gets its value, chosen with one
+ * lane comparison per character, the others get 0;</li>
+ * <li>every lane smaller than the next one is part of a subtractive pair and
+ * is negated;</li>
+ * <li>the lanes are summed and the sum negated if the record starts with
+ * {@code -}.</li>
+ * </ol>
+ * The sum is the value of the record only if the record is correct, so the
+ * record is compared in a single vector comparison with the canonical numeral
+ * of the sum, padded with spaces. The records failing the comparison, and the
+ * ones near the end of the column, are decoded one byte at a time by
+ * {@link RomanBytes#decode(byte[], int, int)}, which has the last word on
+ * anything not canonical.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanVectorColumnKernel implements RomanColumnDecoder.Kernel {
+
+    /**
+     * One record per vector.
+     */
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_128;
+
+    /**
+     * The bytes of a record widened to shorts, to hold values up to 1000.
+     */
+    private static final VectorSpecies<Short> SHORTS = ShortVector.SPECIES_256;
+
+    /**
+     * Lanes of a vector, the longest record decoded with SIMD instructions.
+     */
+    private static final int LANES = BYTES.length();
+
+    /**
+     * The roman characters.
+     */
+    private static final short[] SYMBOLS = {'I', 'V', 'X', 'L', 'C', 'D', 'M'};
+
+    /**
+     * The value of each roman character.
+     */
+    private static final short[] SYMBOL_VALUES = {1, 5, 10, 50, 100, 500, 1000};
+
+    /**
+     * Returned by {@link #decodeCanonical(byte[], int, VectorMask)} for the
+     * records to be decoded by the scalar decoder.
+     */
+    private static final int NOT_CANONICAL = Integer.MAX_VALUE;
+
+    /**
+     * The lanes inside a record of each length, from 0 to {@link #LANES}.
+     */
+    private static final VectorMask<Byte>[] LENGTH_MASKS = buildLengthMasks();
+
+    /**
+     * The canonical numeral of each value padded with spaces to
+     * {@link #LANES} bytes, at {@code (value - MININTEGER) * LANES}.
+     */
+    private static final byte[] CANONICAL = buildCanonicalTable();
+
+    @SuppressWarnings("unchecked")
+    private static VectorMask<Byte>[] buildLengthMasks() {
+        VectorMask<Byte>[] masks = new VectorMask[LANES + 1];
+        for (int length = 0; length <= LANES; length++) {
+            masks[length] = BYTES.indexInRange(0, length);
+        }
+        return masks;
+    }
+
+    private static byte[] buildCanonicalTable() {
+        int slots = RomanConverter.MAXINTEGER - RomanConverter.MININTEGER + 1;
+        byte[] table = new byte[slots * LANES];
+        Arrays.fill(table, (byte) ' ');
+        for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+            byte[] numeral = RomanBytes.numeralBytes(value);
+            System.arraycopy(numeral, 0, table, (value - RomanConverter.MININTEGER) * LANES, numeral.length);
+        }
+        return table;
+    }
+
+    @Override
+    public int decodeFixedWidth(byte[] column, int offset, int width, int[] values) {
+        VectorMask<Byte> inRecord = width <= LANES ? LENGTH_MASKS[width] : null;
+        int lastVectorStart = column.length - LANES;
+        int invalid = 0;
+        int start = offset;
+        for (int i = 0; i < values.length; i++, start += width) {
+            int value = NOT_CANONICAL;
+            if (inRecord != null && start <= lastVectorStart) {
+                value = decodeCanonical(column, start, inRecord);
+            }
+            if (value == NOT_CANONICAL) {
+                value = RomanBytes.decode(column, start, start + width);
+            }
+            values[i] = value;
+            if (value == RomanConversionEngine.NOT_CANONICAL) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    @Override
+    public int decodeLengthPrefixed(byte[] column, int offset, int[] values) {
+        int lastVectorStart = column.length - LANES;
+        int position = offset;
+        for (int i = 0; i < values.length; i++) {
+            int start = position + 1;
+            position = RomanColumnDecoder.recordEnd(column, position);
+            int length = position - start;
+            int value = NOT_CANONICAL;
+            if (length <= LANES && start <= lastVectorStart) {
+                value = decodeCanonical(column, start, LENGTH_MASKS[length]);
+            }
+            if (value == NOT_CANONICAL) {
+                value = RomanBytes.decode(column, start, position);
+            }
+            values[i] = value;
+        }
+        return position;
+    }
+
+    /**
+     * Decodes a record if it is a canonical numeral, uppercase and without
+     * whitespace except the trailing padding.
+     *
+     * @param column bytes of the records.
+     * @param start of the record, with {@link #LANES} bytes in bounds.
+     * @param inRecord the lanes of the record.
+     * @return the value of the record or {@link #NOT_CANONICAL}.
+     */
+    private static int decodeCanonical(byte[] column, int start, VectorMask<Byte> inRecord) {
+        ByteVector record = ByteVector.fromArray(BYTES, column, start).blend((byte) ' ', inRecord.not());
+        ShortVector chars = (ShortVector) record.convertShape(VectorOperators.B2S, SHORTS, 0);
+        ShortVector digits = ShortVector.zero(SHORTS);
+        for (int i = 0; i < SYMBOLS.length; i++) {
+            digits = digits.blend(SYMBOL_VALUES[i], chars.eq(SYMBOLS[i]));
+        }
+        ShortVector next = digits.slice(1, ShortVector.zero(SHORTS));
+        int sum = digits.lanewise(VectorOperators.NEG, digits.lt(next)).reduceLanes(VectorOperators.ADD);
+        int value = record.lane(0) == '-' ? -sum : sum;
+        if (value < RomanConverter.MININTEGER || value > RomanConverter.MAXINTEGER) {
+            return NOT_CANONICAL;
+        }
+        ByteVector canonical = ByteVector.fromArray(BYTES, CANONICAL, (value - RomanConverter.MININTEGER) * LANES);
+        return record.eq(canonical).allTrue() ? value : NOT_CANONICAL;
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads and writes of longs in a shared ByteBuffer with acquire and release
+ * ordering, Java 21 version of the multi-release jar.
+ * <p>
+ * Calls a VarHandle directly, so the accesses are compiled to plain loads and
+ * stores with the required ordering, without any reflection or fence.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanOrderedAccess {
+
+    /**
+     * Long view of a ByteBuffer in native order.
+     */
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanOrderedAccess() {
+    }
+
+    /**
+     * Reads a long in native order, so that the following reads see all the
+     * writes preceding its {@link #setRelease(java.nio.ByteBuffer, int, long)
+     * release}.
+     *
+     * @param buffer a direct buffer.
+     * @param index of the long, a multiple of 8.
+     * @return the read long.
+     */
+    static long getAcquire(ByteBuffer buffer, int index) {
+        return (long) LONGS.getAcquire(buffer, index);
+    }
+
+    /**
+     * Writes a long in native order, after all the preceding writes are
+     * visible.
+     *
+     * @param buffer a direct buffer.
+     * @param index of the long, a multiple of 8.
+     * @param value to be written.
+     */
+    static void setRelease(ByteBuffer buffer, int index, long value) {
+        LONGS.setRelease(buffer, index, value);
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory of the executors used by the jNumerus servers and asynchronous
+ * facades, Java 21 version of the multi-release jar.
+ * <p>
+ * Creates the virtual thread executors directly, without looking them up by
+ * reflection.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+final class RomanThreads {
+
+    /**
+     * Private constructor to prevent instantiation.
+     */
+    private RomanThreads() {
+    }
+
+    /**
+     * Creates an executor starting a new virtual thread for each task.
+     *
+     * @param fallbackThreads ignored, virtual threads are always available.
+     * @return a new executor.
+     */
+    static ExecutorService newVirtualThreadExecutor(int fallbackThreads) {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
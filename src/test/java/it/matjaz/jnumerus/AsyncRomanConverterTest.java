@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link AsyncRomanConverter}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class AsyncRomanConverterTest {
+
+    private ExecutorService executor;
+    private AtomicInteger batches;
+
+    @Before
+    public void setUp() {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        batches = new AtomicInteger();
+        executor = new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable command) {
+                batches.incrementAndGet();
+                pool.execute(command);
+            }
+
+            @Override
+            public void shutdown() {
+                pool.shutdown();
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return pool.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return pool.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return pool.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+                return pool.awaitTermination(timeout, unit);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void conversionsComplete() throws Exception {
+        try (AsyncRomanConverter async = new AsyncRomanConverter()) {
+            assertEquals(new RomanNumeral("XLII"), async.encode(42).get(10, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(42), async.decode("xlii").get(10, TimeUnit.SECONDS));
+            assertEquals(Integer.valueOf(-5), async.decode(new RomanNumeral("-V")).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void fullBatchIsDispatchedWithoutWaitingTheDelay() throws Exception {
+        try (AsyncRomanConverter async = new AsyncRomanConverter(10, 1, TimeUnit.HOURS, 100, executor)) {
+            List<CompletableFuture<RomanNumeral>> results = new ArrayList<>();
+            for (int i = 1; i <= 10; i++) {
+                results.add(async.encode(i));
+            }
+            assertEquals(new RomanNumeral("X"), results.get(9).get(10, TimeUnit.SECONDS));
+            assertEquals(1, batches.get());
+        }
+    }
+
+    @Test
+    public void incompleteBatchIsDispatchedAfterTheDelay() throws Exception {
+        try (AsyncRomanConverter async = new AsyncRomanConverter(1000, 1, TimeUnit.MILLISECONDS, 100, executor)) {
+            assertEquals(new RomanNumeral("MMXV"), async.encode(2015).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void concurrentRequestsAreCoalesced() throws Exception {
+        try (AsyncRomanConverter async = new AsyncRomanConverter(64, 5, TimeUnit.MILLISECONDS, 10000, executor)) {
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4000; i++) {
+                results.add(async.decode(new RomanConverter().integerToRomanNumeral(i)));
+            }
+            for (int i = 0; i < 4000; i++) {
+                assertEquals(Integer.valueOf(i), results.get(i).get(10, TimeUnit.SECONDS));
+            }
+            assertTrue(batches.get() < 4000 / 2);
+        }
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void illegalRequestFailsItsFuture() throws Throwable {
+        try (AsyncRomanConverter async = new AsyncRomanConverter()) {
+            async.encode(4000).get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @Test(expected = IllegalNumeralSyntaxException.class)
+    public void illegalNumeralFailsItsFuture() throws Throwable {
+        try (AsyncRomanConverter async = new AsyncRomanConverter()) {
+            async.decode("IIII").get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @Test
+    public void requestingThreadsBlockWhenTooManyArePending() throws Exception {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        CountDownLatch release = new CountDownLatch(1);
+        single.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try (AsyncRomanConverter async = new AsyncRomanConverter(1, 0, TimeUnit.MILLISECONDS, 2, single)) {
+            CountDownLatch submitted = new CountDownLatch(1);
+            Thread producer = new Thread(() -> {
+                for (int i = 1; i <= 10; i++) {
+                    async.encode(i);
+                }
+                submitted.countDown();
+            });
+            producer.start();
+            assertFalse(submitted.await(200, TimeUnit.MILLISECONDS));
+            assertTrue(async.getPendingCount() <= 2);
+            release.countDown();
+            assertTrue(submitted.await(10, TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void requestsAfterCloseAreRejected() throws Throwable {
+        AsyncRomanConverter async = new AsyncRomanConverter();
+        async.close();
+        try {
+            async.encode(1).get(10, TimeUnit.SECONDS);
+        } catch (ExecutionException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullNumeralIsRejected() {
+        try (AsyncRomanConverter async = new AsyncRomanConverter()) {
+            async.decode((RomanNumeral) null);
+        }
+    }
+
+    @Test
+    public void requestsRacingCloseAllComplete() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AsyncRomanConverter async = new AsyncRomanConverter(8, 1, TimeUnit.MILLISECONDS, 16, executor);
+            List<CompletableFuture<RomanNumeral>> futures = new CopyOnWriteArrayList<>();
+            CountDownLatch started = new CountDownLatch(4);
+            Thread[] requesters = new Thread[4];
+            for (int i = 0; i < requesters.length; i++) {
+                requesters[i] = new Thread(() -> {
+                    started.countDown();
+                    for (int j = 1; j <= 200; j++) {
+                        futures.add(async.encode(j));
+                    }
+                });
+                requesters[i].start();
+            }
+            started.await();
+            async.close();
+            for (Thread requester : requesters) {
+                requester.join();
+            }
+            for (CompletableFuture<RomanNumeral> future : futures) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                } catch (ExecutionException ex) {
+                    assertTrue(ex.getCause() instanceof RejectedExecutionException);
+                }
+            }
+            assertEquals(0, async.getPendingCount());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link ConcurrentRomanKeyedMap} which is shared as a cache by
+ * many threads.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class ConcurrentRomanKeyedMapTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void computeIfAbsentCallsTheFunctionOncePerKey() throws Exception {
+        ConcurrentRomanKeyedMap<String> cache = new ConcurrentRomanKeyedMap<>();
+        AtomicInteger computations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int value = -100; value <= 100; value++) {
+                        cache.computeIfAbsent(RomanInteger.ofValidValue(value), key -> {
+                            computations.incrementAndGet();
+                            return key.getNumeral().toString();
+                        });
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(201, computations.get());
+        assertEquals(201, cache.size());
+        assertEquals("XLII", cache.get(42));
+    }
+
+    @Test
+    public void mergesByManyThreadsAreAtomic() throws Exception {
+        ConcurrentRomanKeyedMap<Integer> counters = new ConcurrentRomanKeyedMap<>();
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(() -> {
+                for (int round = 0; round < 1000; round++) {
+                    counters.merge(RomanInteger.ofValidValue(round % 10), 1, Integer::sum);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(10, counters.size());
+        for (int key = 0; key < 10; key++) {
+            assertEquals(Integer.valueOf(100 * THREADS), counters.get(key));
+        }
+    }
+
+    @Test
+    public void conditionalUpdatesFollowTheConcurrentMapContract() throws IllegalArabicValueException {
+        ConcurrentRomanKeyedMap<String> map = new ConcurrentRomanKeyedMap<>();
+        RomanInteger key = new RomanInteger(7);
+        assertNull(map.putIfAbsent(key, "a"));
+        assertEquals("a", map.putIfAbsent(key, "b"));
+        assertFalse(map.replace(key, "b", "c"));
+        assertTrue(map.replace(key, "a", "c"));
+        assertEquals("c", map.replace(key, "d"));
+        assertNull(map.replace(new RomanInteger(8), "d"));
+        assertFalse(map.remove(key, "c"));
+        assertTrue(map.remove(key, "d"));
+        assertNull(map.computeIfPresent(key, (k, v) -> v + "!"));
+        assertEquals("x", map.compute(key, (k, v) -> v == null ? "x" : v));
+        assertNull(map.compute(key, (k, v) -> null));
+        assertTrue(map.isEmpty());
+        assertEquals("none", map.getOrDefault(key, "none"));
+    }
+
+    @Test
+    public void clearedMapIsEmpty() throws IllegalArabicValueException {
+        ConcurrentRomanKeyedMap<String> map = new ConcurrentRomanKeyedMap<>();
+        map.put(-3999, "min");
+        map.put(3999, "max");
+        assertEquals("{-3999 -MMMCMXCIX=min, 3999 MMMCMXCIX=max}", map.toString());
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(3999));
+    }
+
+    @Test
+    public void iterationDuringRemovalsNeverSeesNullValues() throws Exception {
+        ConcurrentRomanKeyedMap<String> map = new ConcurrentRomanKeyedMap<>();
+        for (int key = RomanConverter.MININTEGER; key <= RomanConverter.MAXINTEGER; key += 500) {
+            map.put(key, "v");
+        }
+        List<RomanInteger> keys = new ArrayList<>(map.keySet());
+        AtomicBoolean stop = new AtomicBoolean();
+        Thread churner = new Thread(() -> {
+            while (!stop.get()) {
+                for (RomanInteger key : keys) {
+                    map.remove(key);
+                    map.putIfAbsent(key, "v");
+                }
+            }
+        });
+        churner.start();
+        try {
+            for (int round = 0; round < 20000; round++) {
+                for (Map.Entry<RomanInteger, String> entry : map.entrySet()) {
+                    assertEquals("v", entry.getValue());
+                }
+            }
+        } finally {
+            stop.set(true);
+            churner.join();
+        }
+    }
+}
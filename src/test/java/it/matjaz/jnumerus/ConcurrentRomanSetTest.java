@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link ConcurrentRomanSet} which is updated atomically by many
+ * threads.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class ConcurrentRomanSetTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void valuesAddedByManyThreadsAreAllFoundOnce() throws Exception {
+        ConcurrentRomanSet set = new ConcurrentRomanSet();
+        AtomicInteger firstAdditions = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+                        if (set.add(value)) {
+                            firstAdditions.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(7999, firstAdditions.get());
+        assertEquals(7999, set.size());
+    }
+
+    @Test
+    public void valuesRemovedByManyThreadsAreRemovedOnce() throws Exception {
+        ConcurrentRomanSet set = new ConcurrentRomanSet();
+        set.addAll(RomanSet.of(1, 2, 3, 64, 65));
+        AtomicInteger removals = new AtomicInteger();
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(() -> {
+                for (int value = 0; value < 100; value++) {
+                    if (set.remove(value)) {
+                        removals.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(5, removals.get());
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void mergedSetsAreSnapshotted() throws IllegalArabicValueException {
+        ConcurrentRomanSet set = new ConcurrentRomanSet();
+        assertTrue(set.addAll(RomanSet.of(-1, 10)));
+        assertFalse(set.addAll(RomanSet.of(10)));
+        set.add(20);
+        RomanSet snapshot = set.snapshot();
+        set.add(30);
+        assertArrayEquals(new int[]{-1, 10, 20}, snapshot.toIntArray());
+        assertEquals(set.snapshot(), set);
+        assertEquals("ConcurrentRomanSet[-I, X, XX, XXX]", set.toString());
+        set.clear();
+        assertEquals(0, set.size());
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void whenValueOutOfRangeIsAddedThenExceptionIsThrown() throws IllegalArabicValueException {
+        new ConcurrentRomanSet().add(-4000);
+    }
+}
@@ -45,4 +45,16 @@ public class IllegalNumeralSyntaxExceptionTest {
         }
         assertTrue(catched);
     }
+
+    @Test
+    public void whenNoCategoryIsGivenThenCategoryIsGeneric() {
+        ex = new IllegalNumeralSyntaxException("Test message");
+        assertEquals(IllegalNumeralSyntaxException.Category.GENERIC, ex.getCategory());
+    }
+
+    @Test
+    public void whenCategoryIsGivenThenItIsStored() {
+        ex = new IllegalNumeralSyntaxException("Test message", IllegalNumeralSyntaxException.Category.TOO_LONG);
+        assertEquals(IllegalNumeralSyntaxException.Category.TOO_LONG, ex.getCategory());
+    }
 }
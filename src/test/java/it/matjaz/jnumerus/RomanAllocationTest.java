@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.lang.management.ManagementFactory;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * JUnit test of the memory allocated by the hot paths of jNumerus.
+ * <p>
+ * Each test runs an operation many times, measures the bytes allocated by the
+ * current thread with {@link com.sun.management.ThreadMXBean} and fails if the
+ * total exceeds the budget per operation declared by the test times the runs,
+ * plus a small fixed slack for the allocations of the measurement itself. The
+ * operations are warmed up first so that the JIT compiler has done its
+ * optimizations, like escape analysis. The tests are skipped on JVMs which do
+ * not offer per-thread allocation counters.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanAllocationTest {
+
+    private static final int WARMUP_ITERATIONS = 50000;
+    private static final int MEASURED_ITERATIONS = 20000;
+
+    /**
+     * Bytes allowed over the budget of all the measured runs, independent of
+     * their number.
+     */
+    private static final long SLACK_BYTES = 1024;
+
+    /**
+     * Size of the input arrays, a power of 2.
+     */
+    private static final int INPUTS = 1024;
+
+    private static com.sun.management.ThreadMXBean threads;
+    private static RomanConverter converter;
+    private static int[] values;
+    private static RomanNumeral[] numerals;
+    private static String[] strings;
+    private static String[] stringsToClean;
+    private static RomanInteger[] romanIntegers;
+    private static RomanInteger[] smallIntegers;
+    private static Object objectSink;
+    private static int intSink;
+
+    private interface Operation {
+
+        Object run(int index) throws Exception;
+    }
+
+    private interface IntOperation {
+
+        int run(int index) throws Exception;
+    }
+
+    @BeforeClass
+    public static void prepareInputs() throws IllegalArabicValueException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        converter = new RomanConverter();
+        values = new int[INPUTS];
+        numerals = new RomanNumeral[INPUTS];
+        strings = new String[INPUTS];
+        stringsToClean = new String[INPUTS];
+        romanIntegers = new RomanInteger[INPUTS];
+        smallIntegers = new RomanInteger[INPUTS];
+        for (int i = 0; i < INPUTS; i++) {
+            values[i] = (i * 7919) % (2 * RomanConverter.MAXINTEGER + 1) - RomanConverter.MAXINTEGER;
+            numerals[i] = converter.integerToRomanNumeral(values[i]);
+            strings[i] = numerals[i].getNumeral();
+            stringsToClean[i] = " " + strings[i].toLowerCase() + "\t";
+            romanIntegers[i] = new RomanInteger(values[i] / 2);
+            smallIntegers[i] = new RomanInteger(1 + i % 60);
+        }
+    }
+
+    /**
+     * Measures the bytes allocated by all the measured runs of the operation,
+     * whose results escape to a static field.
+     */
+    private static long bytesAllocatedBy(Operation operation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            objectSink = operation.run(i & (INPUTS - 1));
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            objectSink = operation.run(i & (INPUTS - 1));
+        }
+        long after = threads.getThreadAllocatedBytes(threadId);
+        return after - before;
+    }
+
+    /**
+     * Measures the bytes allocated by all the measured runs of the operation
+     * with an int result, without boxing it.
+     */
+    private static long bytesAllocatedByInt(IntOperation operation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            intSink += operation.run(i & (INPUTS - 1));
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            intSink += operation.run(i & (INPUTS - 1));
+        }
+        long after = threads.getThreadAllocatedBytes(threadId);
+        return after - before;
+    }
+
+    private static void assertWithinBudget(long budget, long allocated) {
+        assertTrue("Allocated " + allocated + " B in " + MEASURED_ITERATIONS + " operations, budget is " + budget + " B/op",
+                allocated <= budget * MEASURED_ITERATIONS + SLACK_BYTES);
+    }
+
+    @Test
+    public void tableEncodeAllocatesNothing() throws Exception {
+        assertWithinBudget(0, bytesAllocatedBy((i) -> converter.integerToRomanString(values[i])));
+    }
+
+    @Test
+    public void decodeOfValidNumeralAllocatesNothing() throws Exception {
+        assertWithinBudget(0, bytesAllocatedByInt((i) -> converter.romanNumeralToInteger(numerals[i])));
+    }
+
+    @Test
+    public void encodeAllocatesOnlyTheRomanNumeral() throws Exception {
+        assertWithinBudget(24, bytesAllocatedBy((i) -> converter.integerToRomanNumeral(values[i])));
+    }
+
+    @Test
+    public void romanIntegerConstructionAllocatesOnlyItsFields() throws Exception {
+        assertWithinBudget(48, bytesAllocatedBy((i) -> new RomanInteger(values[i])));
+    }
+
+    @Test
+    public void calculatorOperationsAllocateOnlyTheResult() throws Exception {
+        assertWithinBudget(48, bytesAllocatedBy((i) -> RomanCalculator.sum(romanIntegers[i], romanIntegers[(i + 1) & (INPUTS - 1)])));
+        assertWithinBudget(48, bytesAllocatedBy((i) -> RomanCalculator.difference(romanIntegers[i], romanIntegers[(i + 1) & (INPUTS - 1)])));
+        assertWithinBudget(48, bytesAllocatedBy((i) -> RomanCalculator.product(smallIntegers[i], smallIntegers[(i + 1) & (INPUTS - 1)])));
+        assertWithinBudget(48, bytesAllocatedBy((i) -> RomanCalculator.intDivision(romanIntegers[i], smallIntegers[i])));
+        assertWithinBudget(48, bytesAllocatedBy((i) -> RomanCalculator.remainder(romanIntegers[i], smallIntegers[i])));
+    }
+
+    @Test
+    public void syntaxCheckOfCanonicalNumeralStaysWithinBudget() throws Exception {
+        assertWithinBudget(512, bytesAllocatedBy((i) -> new RomanNumeral(strings[i])));
+        assertWithinBudget(512, bytesAllocatedBy((i) -> RomanNumeral.isCorrectRomanSyntax(strings[i])));
+    }
+
+    @Test
+    public void syntaxCheckOfNumeralToBeCleanedStaysWithinBudget() throws Exception {
+        assertWithinBudget(1024, bytesAllocatedBy((i) -> new RomanNumeral(stringsToClean[i])));
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanBulkFormatter} which encodes arrays of ints into a
+ * delimited text of roman numerals in parallel.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanBulkFormatterTest {
+
+    private RomanConverter converter;
+
+    @Before
+    public void setUp() {
+        converter = new RomanConverter();
+    }
+
+    private String join(int[] values, String delimiter) throws IllegalArabicValueException {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                joined.append(delimiter);
+            }
+            joined.append(converter.integerToRomanNumeral(values[i]).getNumeral());
+        }
+        return joined.toString();
+    }
+
+    private int[] randomValues(int count) {
+        return new Random(42).ints(count, RomanConverter.MININTEGER, RomanConverter.MAXINTEGER + 1).toArray();
+    }
+
+    @Test
+    public void smallArrayIsFormattedWithDelimiters() throws IllegalArabicValueException {
+        assertEquals("I, NULLA, -XLII, MMMCMXCIX",
+                RomanBulkFormatter.formatToString(new int[]{1, 0, -42, 3999}, ", "));
+    }
+
+    @Test
+    public void emptyDelimiterConcatenatesNumerals() throws IllegalArabicValueException {
+        assertEquals("IVIIIX", RomanBulkFormatter.formatToString(new int[]{4, 2, 9}, ""));
+    }
+
+    @Test
+    public void emptyArrayGivesEmptyOutput() throws IllegalArabicValueException {
+        assertEquals(0, RomanBulkFormatter.format(new int[0], "\n").length);
+        assertEquals(0, RomanBulkFormatter.formatAscii(new int[0], "\n").remaining());
+    }
+
+    @Test
+    public void wholeRangeIsFormattedLikeTheConverter() throws IllegalArabicValueException {
+        int[] values = RomanRange.all().intStream().toArray();
+        assertEquals(join(values, "\n"), RomanBulkFormatter.formatToString(values, "\n"));
+    }
+
+    @Test
+    public void bigArrayIsFormattedInParallelLikeTheConverter() throws IllegalArabicValueException {
+        int[] values = randomValues(300000);
+        assertEquals(join(values, "\n"), new String(RomanBulkFormatter.format(values, "\n")));
+    }
+
+    @Test
+    public void bigArrayIsFormattedAsAsciiLikeTheConverter() throws IllegalArabicValueException {
+        int[] values = randomValues(300000);
+        ByteBuffer output = RomanBulkFormatter.formatAscii(values, ";");
+        assertEquals(join(values, ";"), StandardCharsets.US_ASCII.decode(output).toString());
+    }
+
+    @Test
+    public void asciiIsWrittenAtThePositionOfADirectBuffer() throws IllegalArabicValueException {
+        int[] values = randomValues(50000);
+        String expected = join(values, " ");
+        ByteBuffer output = ByteBuffer.allocateDirect(expected.length() + 10);
+        ((Buffer) output).position(3);
+        assertEquals(expected.length(), RomanBulkFormatter.formatAscii(values, " ", output));
+        assertEquals(expected.length() + 3, output.position());
+        ((Buffer) output).flip().position(3);
+        assertEquals(expected, StandardCharsets.US_ASCII.decode(output).toString());
+    }
+
+    @Test(expected = BufferOverflowException.class)
+    public void whenBufferIsTooSmallThenExceptionIsThrown() throws IllegalArabicValueException {
+        RomanBulkFormatter.formatAscii(new int[]{3888}, "", ByteBuffer.allocate(14));
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void whenAValueIsOutOfRangeThenExceptionIsThrown() throws IllegalArabicValueException {
+        int[] values = randomValues(100000);
+        values[77777] = 4000;
+        RomanBulkFormatter.format(values, "\n");
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanBytes}, checking that the byte decoder accepts
+ * exactly the numerals accepted by {@link RomanNumeral}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanBytesTest {
+
+    private static final String ALPHABET = "MDCLXVI-";
+
+    private RomanConverter converter;
+
+    @Before
+    public void setUp() {
+        converter = new RomanConverter();
+    }
+
+    private static int decode(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        return RomanBytes.decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Decodes the String with {@link RomanNumeral} and
+     * {@link RomanConverter}, the reference for the byte decoder.
+     */
+    private int referenceDecode(String text) {
+        try {
+            return converter.romanNumeralToInteger(new RomanNumeral(text));
+        } catch (IllegalNumeralSyntaxException ex) {
+            return RomanConversionEngine.NOT_CANONICAL;
+        }
+    }
+
+    @Test
+    public void everyEncodedNumeralIsDecodedToItsValue() throws IllegalArabicValueException {
+        for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+            String numeral = converter.integerToRomanString(value);
+            assertEquals(numeral, value, decode(numeral));
+            assertEquals(numeral, value, decode(numeral.toLowerCase()));
+        }
+    }
+
+    @Test
+    public void encodedBytesEqualTheNumerals() throws IllegalArabicValueException {
+        ByteBuffer buffer = ByteBuffer.allocate(RomanBytes.MAX_NUMERAL_BYTES);
+        for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+            ((Buffer) buffer).clear();
+            int length = RomanBytes.encode(value, buffer);
+            assertEquals(converter.integerToRomanString(value), new String(buffer.array(), 0, length, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void allShortStringsAreDecodedLikeRomanNumeral() {
+        for (int length = 0; length <= 5; length++) {
+            int combinations = (int) Math.pow(ALPHABET.length(), length);
+            for (int combination = 0; combination < combinations; combination++) {
+                StringBuilder text = new StringBuilder();
+                for (int i = 0, rest = combination; i < length; i++, rest /= ALPHABET.length()) {
+                    text.append(ALPHABET.charAt(rest % ALPHABET.length()));
+                }
+                String string = text.toString();
+                assertEquals(string, referenceDecode(string), decode(string));
+            }
+        }
+    }
+
+    @Test
+    public void randomStringsAreDecodedLikeRomanNumeral() {
+        Random random = new Random(42);
+        String alphabet = ALPHABET + "N U L A \tmdclxviQ";
+        for (int n = 0; n < 200000; n++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(22);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String string = text.toString();
+            assertEquals(string, referenceDecode(string), decode(string));
+        }
+    }
+
+    @Test
+    public void nullaAndWhitespaceAreHandledLikeRomanNumeral() {
+        assertEquals(0, decode("NULLA"));
+        assertEquals(0, decode("-nulla"));
+        assertEquals(12, decode(" X I\tI "));
+        assertEquals(RomanConversionEngine.NOT_CANONICAL, decode("NULLAI"));
+        assertEquals(RomanConversionEngine.NOT_CANONICAL, decode("   "));
+        assertEquals(RomanConversionEngine.NOT_CANONICAL, decode("--X"));
+    }
+
+    @Test
+    public void decimalsAreParsedAndWritten() {
+        ByteBuffer buffer = ByteBuffer.wrap("-42 +7 12a 99999999999999999999 -".getBytes(StandardCharsets.US_ASCII));
+        assertEquals(-42, RomanBytes.parseDecimal(buffer, 0, 3));
+        assertEquals(7, RomanBytes.parseDecimal(buffer, 4, 6));
+        assertEquals(RomanBytes.NOT_DECIMAL, RomanBytes.parseDecimal(buffer, 7, 10));
+        assertTrue(RomanBytes.parseDecimal(buffer, 11, 31) > RomanConverter.MAXINTEGER);
+        assertEquals(RomanBytes.NOT_DECIMAL, RomanBytes.parseDecimal(buffer, 32, 33));
+        ByteBuffer output = ByteBuffer.allocate(32);
+        RomanBytes.putDecimal(Integer.MIN_VALUE, output);
+        RomanBytes.putDecimal(0, output);
+        assertEquals("-21474836480", new String(output.array(), 0, output.position(), StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Assume;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanColumnDecoder} which decodes columns of ASCII
+ * numerals, verifying that the vectorized decoder gives exactly the same
+ * values as the scalar one.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanColumnDecoderTest {
+
+    private static final RomanColumnDecoder.Kernel SCALAR = new RomanColumnDecoder.ScalarKernel();
+
+    private static byte[] fixedWidthColumn(List<String> records, int width) {
+        byte[] column = new byte[records.size() * width];
+        Arrays.fill(column, (byte) ' ');
+        for (int i = 0; i < records.size(); i++) {
+            byte[] record = records.get(i).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(record, 0, column, i * width, Math.min(width, record.length));
+        }
+        return column;
+    }
+
+    private static byte[] lengthPrefixedColumn(List<String> records) {
+        ByteArrayOutputStream column = new ByteArrayOutputStream();
+        for (String record : records) {
+            byte[] bytes = record.getBytes(StandardCharsets.US_ASCII);
+            column.write(bytes.length);
+            column.write(bytes, 0, bytes.length);
+        }
+        return column.toByteArray();
+    }
+
+    private static List<String> wholeDomain() throws IllegalArabicValueException {
+        RomanConverter converter = new RomanConverter();
+        List<String> records = new ArrayList<>();
+        for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+            records.add(converter.integerToRomanNumeral(value).getNumeral());
+        }
+        return records;
+    }
+
+    private static List<String> randomRecords(int count, int maxLength) {
+        Random random = new Random(42);
+        String chars = "MDCLXVI-MDCLXVI mdclxvi\tNUA";
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            char[] record = new char[random.nextInt(maxLength + 1)];
+            for (int j = 0; j < record.length; j++) {
+                record[j] = chars.charAt(random.nextInt(chars.length()));
+            }
+            records.add(new String(record));
+        }
+        return records;
+    }
+
+    private static void assertFixedWidthLikeScalar(List<String> records, int width) {
+        byte[] column = fixedWidthColumn(records, width);
+        int[] expected = new int[records.size()];
+        int expectedInvalid = SCALAR.decodeFixedWidth(column, 0, width, expected);
+        int[] actual = new int[records.size()];
+        assertEquals(expectedInvalid, RomanColumnDecoder.decodeFixedWidth(column, 0, width, actual));
+        assertArrayEquals(expected, actual);
+    }
+
+    private static void assertLengthPrefixedLikeScalar(List<String> records) {
+        byte[] column = lengthPrefixedColumn(records);
+        int[] expected = new int[records.size()];
+        assertEquals(column.length, SCALAR.decodeLengthPrefixed(column, 0, expected));
+        assertArrayEquals(expected, RomanColumnDecoder.decodeLengthPrefixed(column));
+    }
+
+    @Test
+    public void vectorApiIsUsedWhenAvailable() {
+        try {
+            Class.forName("jdk.incubator.vector.ByteVector");
+        } catch (ClassNotFoundException | LinkageError ex) {
+            Assume.assumeNoException(ex);
+        }
+        Assume.assumeFalse(Boolean.getBoolean(RomanColumnDecoder.SCALAR_PROPERTY));
+        assertTrue(RomanColumnDecoder.isVectorized());
+    }
+
+    @Test
+    public void wholeDomainIsDecodedFromFixedWidthColumns() throws IllegalArabicValueException {
+        List<String> records = wholeDomain();
+        int[] values = RomanColumnDecoder.decodeFixedWidth(fixedWidthColumn(records, 16), 16);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(RomanConverter.MININTEGER + i, values[i]);
+        }
+    }
+
+    @Test
+    public void wholeDomainIsDecodedFromLengthPrefixedColumns() throws IllegalArabicValueException {
+        int[] values = RomanColumnDecoder.decodeLengthPrefixed(lengthPrefixedColumn(wholeDomain()));
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(RomanConverter.MININTEGER + i, values[i]);
+        }
+    }
+
+    @Test
+    public void wholeDomainIsDecodedLikeScalarInEveryWidth() throws IllegalArabicValueException {
+        List<String> records = wholeDomain();
+        for (int width = 1; width <= 20; width++) {
+            assertFixedWidthLikeScalar(records, width);
+        }
+        assertLengthPrefixedLikeScalar(records);
+    }
+
+    @Test
+    public void randomRecordsAreDecodedLikeScalar() {
+        List<String> records = randomRecords(200000, 18);
+        assertFixedWidthLikeScalar(records, 16);
+        assertFixedWidthLikeScalar(records, 18);
+        assertLengthPrefixedLikeScalar(records);
+    }
+
+    @Test
+    public void notCanonicalRecordsAreDecodedLikeRomanNumeral() {
+        List<String> records = Arrays.asList("xlii", " XLII", "X L I I", "NULLA", "-NULLA", "-", "", "IIII", "VV",
+                "IIV", "MMMM", "-MMMCMXCIX", "MMMDCCCLXXXVIII");
+        int invalid = RomanConversionEngine.NOT_CANONICAL;
+        int[] expected = {42, 42, 42, 0, 0, 0, invalid, invalid, invalid, invalid, invalid, -3999, 3888};
+        assertArrayEquals(expected, RomanColumnDecoder.decodeFixedWidth(fixedWidthColumn(records, 16), 16));
+        assertArrayEquals(expected, RomanColumnDecoder.decodeLengthPrefixed(lengthPrefixedColumn(records)));
+    }
+
+    @Test
+    public void lengthPrefixedDecodingReturnsTheNextRecordOffset() {
+        byte[] column = lengthPrefixedColumn(Arrays.asList("IV", "MM", "X"));
+        int[] values = new int[2];
+        assertEquals(6, RomanColumnDecoder.decodeLengthPrefixed(column, 0, values));
+        assertArrayEquals(new int[]{4, 2000}, values);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenWidthDoesNotDivideTheColumnThenExceptionIsThrown() {
+        RomanColumnDecoder.decodeFixedWidth(new byte[10], 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenRecordExceedsTheColumnThenExceptionIsThrown() {
+        RomanColumnDecoder.decodeLengthPrefixed(new byte[]{3, 'X', 'I'});
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test of {@link RomanColumnFile} and {@link RomanColumnFileWriter}
+ * which store columns of values in encoded blocks.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanColumnFileTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static int[] randomValues(int length) {
+        return new Random(42).ints(length, RomanConverter.MININTEGER, RomanConverter.MAXINTEGER + 1).toArray();
+    }
+
+    private RomanColumnFile write(int[] values, RomanColumnFile.Encoding encoding, int blockValues)
+            throws IOException, IllegalArabicValueException {
+        Path file = folder.newFile().toPath();
+        try (RomanColumnFileWriter writer = new RomanColumnFileWriter(file, encoding, blockValues)) {
+            writer.addAll(values);
+        }
+        return RomanColumnFile.open(file);
+    }
+
+    @Test
+    public void valuesAreReadBackWithEveryEncoding() throws IOException, IllegalArabicValueException {
+        int[] values = randomValues(1000);
+        values[10] = RomanConverter.MININTEGER;
+        values[11] = RomanConverter.MAXINTEGER;
+        for (RomanColumnFile.Encoding encoding : RomanColumnFile.Encoding.values()) {
+            RomanColumnFile column = write(values, encoding, 64);
+            assertEquals(1000, column.size());
+            assertEquals(16, column.getBlockCount());
+            assertEquals(1000 - 15 * 64, column.getBlockSize(15));
+            assertEquals(encoding, column.getBlockEncoding(3));
+            assertArrayEquals(values, column.values().toArray());
+            for (int i = 0; i < values.length; i += 7) {
+                assertEquals(values[i], column.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void smallestEncodingIsChosenForEachBlock() throws IOException, IllegalArabicValueException {
+        int[] values = new int[300];
+        Arrays.fill(values, 0, 100, 42);
+        for (int i = 100; i < 200; i++) {
+            values[i] = 1000 + i;
+        }
+        System.arraycopy(randomValues(100), 0, values, 200, 100);
+        RomanColumnFile column = write(values, null, 100);
+        assertEquals(RomanColumnFile.Encoding.RUN_LENGTH, column.getBlockEncoding(0));
+        assertEquals(RomanColumnFile.Encoding.DELTA, column.getBlockEncoding(1));
+        assertEquals(RomanColumnFile.Encoding.PACKED, column.getBlockEncoding(2));
+        assertArrayEquals(values, column.values().toArray());
+        assertEquals(42, column.get(99));
+        assertEquals(1199, column.get(199));
+    }
+
+    @Test
+    public void runsOfRepeatedValuesAreRunLengthEncoded() throws IOException, IllegalArabicValueException {
+        int[] values = new int[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i / 100 % 2 == 0 ? -7 : 3999;
+        }
+        RomanColumnFile column = write(values, null, 1000);
+        assertEquals(RomanColumnFile.Encoding.RUN_LENGTH, column.getBlockEncoding(0));
+        assertEquals(3999, column.get(150));
+        assertEquals(-7, column.get(800));
+        assertArrayEquals(values, column.values().toArray());
+    }
+
+    @Test
+    public void everyValueOfLongDeltaAndRunLengthBlocksIsReadByIndex() throws IOException, IllegalArabicValueException {
+        int[] values = new int[10000];
+        Random random = new Random(42);
+        for (int i = 1; i < values.length; i++) {
+            values[i] = random.nextInt(50) == 0 ? random.nextInt(100) : values[i - 1];
+        }
+        RomanColumnFile.Encoding[] encodings = {RomanColumnFile.Encoding.DELTA, RomanColumnFile.Encoding.RUN_LENGTH};
+        for (RomanColumnFile.Encoding encoding : encodings) {
+            RomanColumnFile column = write(values, encoding, RomanColumnFile.DEFAULT_BLOCK_VALUES);
+            for (int i = 0; i < values.length; i++) {
+                assertEquals(values[i], column.get(i));
+            }
+            assertArrayEquals(values, column.values().toArray());
+        }
+    }
+
+    @Test
+    public void rangeQueriesSkipBlocksOutsideTheRange() throws IOException, IllegalArabicValueException {
+        int[] values = new int[4000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i - 2000;
+        }
+        RomanColumnFile column = write(values, null, 256);
+        assertEquals(-2000, column.getBlockMin(0));
+        assertEquals(-1745, column.getBlockMax(0));
+        assertEquals(101, column.count(-50, 50));
+        assertEquals(4000, column.count(RomanConverter.MININTEGER, RomanConverter.MAXINTEGER));
+        assertArrayEquals(new int[]{1998, 1999}, column.values(1998, 3000).toArray());
+        assertEquals(0, column.values(3000, 3999).count());
+    }
+
+    @Test
+    public void textIsConvertedToColumnsAndBack() throws IOException, IllegalNumeralSyntaxException {
+        Path text = folder.newFile().toPath();
+        Files.write(text, "XII\n xl \n-iv\nNULLA\n".getBytes(StandardCharsets.US_ASCII));
+        Path file = folder.newFile().toPath();
+        assertEquals(4, RomanColumnFileWriter.fromText(text, file));
+        RomanColumnFile column = RomanColumnFile.open(file);
+        assertArrayEquals(new int[]{12, 40, -4, 0}, column.values().toArray());
+        Path back = folder.newFile().toPath();
+        column.toText(back);
+        assertEquals("XII\nXL\n-IV\nNULLA\n", new String(Files.readAllBytes(back), StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    public void emptyColumnHasNoBlocks() throws IOException, IllegalArabicValueException {
+        RomanColumnFile column = write(new int[0], null, 64);
+        assertEquals(0, column.size());
+        assertEquals(0, column.getBlockCount());
+        assertEquals(0, column.count(RomanConverter.MININTEGER, RomanConverter.MAXINTEGER));
+    }
+
+    @Test
+    public void whenValueIsOutOfRangeThenNoneIsAdded() throws IOException {
+        Path file = folder.newFile().toPath();
+        try (RomanColumnFileWriter writer = new RomanColumnFileWriter(file)) {
+            try {
+                writer.addAll(1, 2, 4000);
+                fail("Accepted 4000");
+            } catch (IllegalArabicValueException ex) {
+                assertEquals(0, writer.size());
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void whenIndexIsOutOfRangeThenExceptionIsThrown() throws IOException, IllegalArabicValueException {
+        write(new int[]{1, 2, 3}, null, 64).get(3);
+    }
+
+    @Test
+    public void whenTextHasAnIllegalLineThenNoColumnIsLeft() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            lines.append("MMXV\n");
+        }
+        Path text = folder.newFile().toPath();
+        Files.write(text, lines.append("IIII\n").toString().getBytes(StandardCharsets.US_ASCII));
+        Path file = folder.newFile().toPath();
+        try {
+            RomanColumnFileWriter.fromText(text, file);
+            fail();
+        } catch (IllegalNumeralSyntaxException ex) {
+            assertFalse(Files.exists(file));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void whenBlockMinIsOutOfRangeThenExceptionIsThrown() throws IOException, IllegalArabicValueException {
+        write(new int[]{1, 2, 3}, null, 64).getBlockMin(1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void whenBlockMaxIsOutOfRangeThenExceptionIsThrown() throws IOException, IllegalArabicValueException {
+        write(new int[]{1, 2, 3}, null, 64).getBlockMax(-1);
+    }
+
+    @Test(expected = IOException.class)
+    public void whenFileIsNotAColumnFileThenExceptionIsThrown() throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, new byte[100]);
+        RomanColumnFile.open(file);
+    }
+}
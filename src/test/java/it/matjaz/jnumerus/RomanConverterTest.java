@@ -135,5 +135,77 @@ public class RomanConverterTest {
     public void negativeNullaGetsConvertedToPositiveZero() throws IllegalNumeralSyntaxException {
         assertEquals(0, converter.romanNumeralToInteger(new RomanNumeral("-NULLA")));
     }
-    
+
+    @Test
+    public void everyEncodedNumeralHasCorrectSyntax() throws IllegalArabicValueException {
+        for (int i = RomanConverter.MININTEGER; i <= RomanConverter.MAXINTEGER; i++) {
+            String numeral = converter.integerToRomanNumeral(i).getNumeral();
+            assertTrue(numeral, RomanNumeral.isCorrectRomanSyntax(numeral));
+        }
+    }
+
+    @Test
+    public void encodedNumeralsAreNotShared() throws IllegalArabicValueException, IllegalNumeralSyntaxException {
+        RomanNumeral first = converter.integerToRomanNumeral(42);
+        first.setNumeral("X");
+        assertEquals(new RomanNumeral("XLII"), converter.integerToRomanNumeral(42));
+    }
+
+    @Test
+    public void everyCanonicalNumeralIsFoundInTheCanonicalIndex() throws IllegalArabicValueException {
+        for (int i = RomanConverter.MININTEGER; i <= RomanConverter.MAXINTEGER; i++) {
+            String numeral = converter.integerToRomanString(i);
+            assertEquals(numeral, i, RomanConverter.lookupCanonical(numeral));
+        }
+    }
+
+    @Test
+    public void nonCanonicalStringsAreNotFoundInTheCanonicalIndex() {
+        String[] notCanonical = {"", "-", "xii", " XII", "IIII", "-NULLA", "VX", "MMMM", "-MMMDCCCLXXXVIIII"};
+        for (String numeral : notCanonical) {
+            assertEquals(numeral, RomanConversionEngine.NOT_CANONICAL, RomanConverter.lookupCanonical(numeral));
+        }
+    }
+
+    @Test
+    public void canonicalStringsAreConvertedToIntegers() throws IllegalNumeralSyntaxException {
+        assertEquals(1940, converter.romanStringToInteger("MCMXL"));
+        assertEquals(-3888, converter.romanStringToInteger("-MMMDCCCLXXXVIII"));
+        assertEquals(0, converter.romanStringToInteger("NULLA"));
+    }
+
+    @Test
+    public void nonCanonicalStringsAreConvertedAfterTheSyntaxCheck() throws IllegalNumeralSyntaxException {
+        assertEquals(12, converter.romanStringToInteger(" xii "));
+        assertEquals(0, converter.romanStringToInteger("-"));
+    }
+
+    @Test(expected = IllegalNumeralSyntaxException.class)
+    public void whenStringWithIllegalSyntaxIsConvertedThenExceptionIsThrown() throws IllegalNumeralSyntaxException {
+        converter.romanStringToInteger("IIII");
+    }
+
+    @Test
+    public void defaultEngineIsThePerfectHash() {
+        assertEquals("hash", converter.getEngine().getName());
+    }
+
+    @Test
+    public void enginesAreLoadedByName() {
+        assertEquals("digits", RomanConverter.loadEngine("digits").getName());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenUnknownEngineIsLoadedThenExceptionIsThrown() {
+        RomanConverter.loadEngine("abacus");
+    }
+
+    @Test
+    public void conversionsAreDelegatedToTheGivenEngine() throws IllegalNumeralSyntaxException, IllegalArabicValueException {
+        RomanConverter greedy = new RomanConverter(new RomanGreedyEngine());
+        assertEquals(new RomanNumeral("MCMXL"), greedy.integerToRomanNumeral(1940));
+        assertEquals(1940, greedy.romanNumeralToInteger(new RomanNumeral("MCMXL")));
+        assertEquals(0, greedy.romanNumeralToInteger(new RomanNumeral("-")));
+        assertEquals(12, greedy.romanStringToInteger(" xii "));
+    }
 }
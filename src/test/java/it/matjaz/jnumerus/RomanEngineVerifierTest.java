@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanEngineVerifier} which verifies every
+ * {@link RomanConversionEngine} against the reference algorithms.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanEngineVerifierTest {
+
+    @Test
+    public void allTheEnginesAreFoundByTheServiceLoader() {
+        List<String> names = new ArrayList<>();
+        for (RomanConversionEngine engine : ServiceLoader.load(RomanConversionEngine.class)) {
+            names.add(engine.getName());
+        }
+        assertEquals(5, names.size());
+        assertTrue(names.contains("greedy"));
+        assertTrue(names.contains("table"));
+        assertTrue(names.contains("digits"));
+        assertTrue(names.contains("hash"));
+        assertTrue(names.contains("automaton"));
+    }
+
+    @Test
+    public void everyEngineEqualsTheReference() {
+        for (RomanConversionEngine engine : ServiceLoader.load(RomanConversionEngine.class)) {
+            RomanEngineVerifier verifier = new RomanEngineVerifier(engine);
+            assertEquals(engine.getName(), new ArrayList<String>(), verifier.verify());
+            assertTrue(verifier.getConversions() > 3 * (RomanConverter.MAXINTEGER - RomanConverter.MININTEGER));
+        }
+    }
+
+    @Test
+    public void corpusContainsCanonicalAndNotCanonicalStrings() {
+        int canonical = 0;
+        int notCanonical = 0;
+        for (String numeral : RomanEngineVerifier.corpus()) {
+            if (RomanEngineVerifier.referenceDecode(numeral) == RomanConversionEngine.NOT_CANONICAL) {
+                notCanonical++;
+            } else {
+                canonical++;
+            }
+        }
+        assertTrue(canonical > 1000);
+        assertTrue(notCanonical > 100000);
+    }
+
+    @Test
+    public void mismatchesOfABrokenEngineAreReported() {
+        RomanConversionEngine broken = new RomanConversionEngine() {
+            private final RomanConversionEngine digits = new RomanDigitEngine();
+
+            @Override
+            public String getName() {
+                return "broken";
+            }
+
+            @Override
+            public String encode(int arabic) {
+                return arabic == 4 ? "IIII" : digits.encode(arabic);
+            }
+
+            @Override
+            public int decode(CharSequence numeral) {
+                if (numeral.length() == 0) {
+                    throw new IllegalStateException();
+                }
+                return "IIII".contentEquals(numeral) ? 4 : digits.decode(numeral);
+            }
+        };
+        RomanEngineVerifier verifier = new RomanEngineVerifier(broken);
+        List<String> mismatches = verifier.verify();
+        assertEquals(3, verifier.getMismatchesCount());
+        assertEquals("Engine broken // encode(4) returned IIII instead of IV.", mismatches.get(0));
+        assertTrue(mismatches.get(1), mismatches.get(1).startsWith("Engine broken // decode(\"\") returned java.lang.IllegalStateException"));
+        assertEquals("Engine broken // decode(\"IIII\") returned 4 instead of -2147483648.", mismatches.get(2));
+    }
+
+    @Test
+    public void reportedMismatchesAreLimited() {
+        RomanConversionEngine constant = new RomanConversionEngine() {
+            @Override
+            public String getName() {
+                return "constant";
+            }
+
+            @Override
+            public String encode(int arabic) {
+                return "X";
+            }
+
+            @Override
+            public int decode(CharSequence numeral) {
+                return 10;
+            }
+        };
+        RomanEngineVerifier verifier = new RomanEngineVerifier(constant);
+        assertEquals(RomanEngineVerifier.MAX_REPORTED_MISMATCHES, verifier.verify().size());
+        assertTrue(verifier.getMismatchesCount() > 100000);
+    }
+}
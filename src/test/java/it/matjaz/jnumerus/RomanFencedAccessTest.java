@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Assume;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanFencedAccess}, the fences used by
+ * {@link RomanOrderedAccess} on Java 8, also on the newer runtimes.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanFencedAccessTest {
+
+    private ByteBuffer memory;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue(RomanFencedAccess.isAvailable());
+        memory = ByteBuffer.allocateDirect(64);
+    }
+
+    @Test
+    public void fencedAccessesUseNativeOrderWhateverTheBufferOrder() {
+        for (ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+            memory.order(order);
+            RomanFencedAccess.setRelease(memory, 8, 0x0102030405060708L);
+            assertEquals(0x0102030405060708L, RomanFencedAccess.getAcquire(memory, 8));
+            assertEquals(0x0102030405060708L, memory.duplicate().order(ByteOrder.nativeOrder()).getLong(8));
+        }
+    }
+
+    @Test
+    public void fencedAndVarHandleAccessesAgree() {
+        RomanOrderedAccess.setRelease(memory, 0, -3999L);
+        assertEquals(-3999L, RomanFencedAccess.getAcquire(memory, 0));
+        RomanFencedAccess.setRelease(memory, 16, 3999L);
+        assertEquals(3999L, RomanOrderedAccess.getAcquire(memory, 16));
+    }
+
+    @Test
+    public void fencedReleaseIsAcquiredWithItsPrecedingWrites() throws Exception {
+        final long rounds = 1_000_000;
+        Thread writer = new Thread(() -> {
+            for (long i = 1; i <= rounds; i++) {
+                memory.putLong(32, i);
+                memory.putLong(40, -i);
+                RomanFencedAccess.setRelease(memory, 0, i);
+            }
+        });
+        writer.start();
+        long cursor = 0;
+        while (cursor < rounds) {
+            cursor = RomanFencedAccess.getAcquire(memory, 0);
+            long first = memory.getLong(32);
+            long second = memory.getLong(40);
+            assertTrue(cursor + " published before " + first + ", " + second, first >= cursor && -second >= cursor);
+        }
+        writer.join();
+        assertEquals(rounds, memory.getLong(32));
+    }
+}
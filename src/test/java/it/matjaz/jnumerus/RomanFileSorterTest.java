@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test of {@link RomanFileSorter} which sorts files of numerals by
+ * counting their values.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanFileSorterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String text) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    private String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    public void numeralsAreSortedAndCanonicalized() throws IOException {
+        Path input = write("XII\nxl\n\n-IV\nDID\n - \nIV\r\nXII");
+        Path output = folder.getRoot().toPath().resolve("sorted");
+        RomanFileSorter.Report report = new RomanFileSorter().sort(input, output);
+        assertEquals("-IV\nNULLA\nIV\nXII\nXII\nXL\n", read(output));
+        assertEquals(6, report.getSortedLines());
+        assertEquals(2, report.getInvalidLines());
+        assertEquals("Sorted 6 numerals, skipped 2 invalid lines.", report.toString());
+    }
+
+    @Test
+    public void invalidLinesAreKeptAfterTheSortedOnes() throws IOException {
+        Path input = write("DID\nXII\n\nIV\nabc\r\n");
+        Path output = folder.getRoot().toPath().resolve("sorted");
+        RomanFileSorter.Report report = new RomanFileSorter(true, 8).sort(input, output);
+        assertEquals("IV\nXII\nDID\n\nabc\r\n", read(output));
+        assertEquals(2, report.getSortedLines());
+        assertEquals(3, report.getInvalidLines());
+    }
+
+    @Test
+    public void originalLinesArePreservedInStableOrder() throws IOException {
+        Path input = write("xii\nXL\n  XII\n-iv\nnulla\n-\r\nIIII\n");
+        Path output = folder.getRoot().toPath().resolve("sorted");
+        RomanFileSorter sorter = new RomanFileSorter(true);
+        assertTrue(sorter.isPreservingLines());
+        RomanFileSorter.Report report = sorter.sort(input, output);
+        assertEquals("-iv\nnulla\n-\r\nxii\n  XII\nXL\nIIII\n", read(output));
+        assertEquals(1, report.getInvalidLines());
+        assertTrue(report.areInvalidLinesKept());
+        assertEquals("Sorted 6 numerals, copied 1 invalid lines after them.", report.toString());
+    }
+
+    @Test
+    public void linesCrossingTheWindowsAreSorted() throws IOException, IllegalArabicValueException {
+        RomanConverter converter = new RomanConverter();
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(RomanConverter.MAXINTEGER * 2 + 1) - RomanConverter.MAXINTEGER;
+            values.add(value);
+            text.append(converter.integerToRomanString(value)).append('\n');
+        }
+        values.sort(null);
+        StringBuilder expected = new StringBuilder();
+        for (int value : values) {
+            expected.append(converter.integerToRomanString(value)).append('\n');
+        }
+        Path input = write(text.toString());
+        Path counted = folder.getRoot().toPath().resolve("counted");
+        Path copied = folder.getRoot().toPath().resolve("copied");
+        new RomanFileSorter(false, 64).sort(input, counted);
+        new RomanFileSorter(true, 64).sort(input, copied);
+        assertEquals(expected.toString(), read(counted));
+        assertEquals(expected.toString(), read(copied));
+    }
+
+    @Test
+    public void emptyFileIsSortedIntoEmptyFile() throws IOException {
+        Path output = folder.getRoot().toPath().resolve("sorted");
+        RomanFileSorter.Report report = new RomanFileSorter(true).sort(write(""), output);
+        assertEquals(0, Files.size(output));
+        assertEquals(0, report.getSortedLines());
+    }
+
+    @Test(expected = IOException.class)
+    public void whenLineIsLongerThanWindowThenExceptionIsThrown() throws IOException {
+        new RomanFileSorter(false, 8).sort(write("XII\nMMMDCCCLXXXVIII\n"), folder.getRoot().toPath().resolve("sorted"));
+    }
+
+    @Test
+    public void whenInputIsTheOutputThenItIsNotOverwritten() throws IOException {
+        Path input = write("XII\nI\n");
+        try {
+            new RomanFileSorter().sort(input, input);
+            fail("Sorted into itself");
+        } catch (IllegalArgumentException ex) {
+            assertEquals("XII\nI\n", read(input));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test of the flight recorder events emitted by {@link RomanConverter},
+ * {@link RomanNumeral} and {@link RomanCalculator}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanFlightRecorderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Records all the jNumerus events emitted by the given action.
+     */
+    private List<RecordedEvent> record(RomanAction action) throws Exception {
+        Path file = folder.newFile("recording.jfr").toPath();
+        try (Recording recording = new Recording()) {
+            for (String name : new String[]{"Encode", "Decode", "SyntaxRejection", "Overflow"}) {
+                recording.enable("it.matjaz.jnumerus." + name)
+                        .withThreshold(Duration.ZERO)
+                        .with("sampling", "1");
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private interface RomanAction {
+
+        void run() throws Exception;
+    }
+
+    private static RecordedEvent findEvent(List<RecordedEvent> events, String name) {
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("it.matjaz.jnumerus." + name)) {
+                return event;
+            }
+        }
+        throw new AssertionError("No " + name + " event recorded");
+    }
+
+    @Test
+    public void flightRecorderIsEnabledOnThisJvm() {
+        assertTrue(RomanFlightRecorder.ENABLED);
+    }
+
+    @Test
+    public void encodeIsRecordedWithInputAndOutcome() throws Exception {
+        RecordedEvent event = findEvent(record(() -> new RomanConverter().integerToRomanNumeral(42)), "Encode");
+        assertEquals(42, event.getInt("arabic"));
+        assertEquals("XLII", event.getString("numeral"));
+        assertTrue(event.getBoolean("succeeded"));
+    }
+
+    @Test
+    public void failedEncodeIsRecorded() throws Exception {
+        RecordedEvent event = findEvent(record(() -> {
+            try {
+                new RomanConverter().integerToRomanNumeral(4000);
+            } catch (IllegalArabicValueException ex) {
+                // Expected
+            }
+        }), "Encode");
+        assertEquals(4000, event.getInt("arabic"));
+        assertFalse(event.getBoolean("succeeded"));
+    }
+
+    @Test
+    public void decodeIsRecordedWithInputAndOutcome() throws Exception {
+        RomanNumeral numeral = new RomanNumeral("MCMXL");
+        RecordedEvent event = findEvent(record(() -> new RomanConverter().romanNumeralToInteger(numeral)), "Decode");
+        assertEquals("MCMXL", event.getString("numeral"));
+        assertEquals(1940, event.getInt("arabic"));
+    }
+
+    @Test
+    public void canonicalStringDecodeIsRecorded() throws Exception {
+        RecordedEvent event = findEvent(record(() -> new RomanConverter().romanStringToInteger("MMXV")), "Decode");
+        assertEquals("MMXV", event.getString("numeral"));
+        assertEquals(2015, event.getInt("arabic"));
+    }
+
+    @Test
+    public void syntaxRejectionIsRecordedWithCategory() throws Exception {
+        RecordedEvent event = findEvent(record(() -> RomanNumeral.isCorrectRomanSyntax("xiiii")), "SyntaxRejection");
+        assertEquals("XIIII", event.getString("input"));
+        assertEquals("FOUR_CONSECUTIVE_CHARS", event.getString("category"));
+    }
+
+    @Test
+    public void calculatorOverflowIsRecordedWithOperands() throws Exception {
+        RomanInteger big = new RomanInteger(3000);
+        RecordedEvent event = findEvent(record(() -> {
+            try {
+                RomanCalculator.sum(big, big);
+            } catch (IllegalArabicValueException ex) {
+                // Expected
+            }
+        }), "Overflow");
+        assertEquals("sum", event.getString("operation"));
+        assertEquals(3000, event.getInt("one"));
+        assertEquals(3000, event.getInt("two"));
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import javafx.util.Pair;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanGeneratedTables}, the tables generated during the
+ * build, against the original algorithms of {@link RomanConverter} over the
+ * whole domain.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanGeneratedTablesTest {
+
+    private static final String ROMAN_CHARS = "IVXLCDM";
+
+    private final RomanConverter converter = new RomanConverter();
+
+    @Test
+    public void generatedNumeralsEqualTheGreedyOnes() throws IllegalArabicValueException {
+        Pair[] charValues = RomanCharMapFactory.generateCharPairsArray();
+        for (int arabic = 1; arabic <= RomanConverter.MAXINTEGER; arabic++) {
+            String numeral = RomanConverter.buildRomanString(arabic, charValues);
+            assertEquals(numeral, converter.integerToRomanString(arabic));
+            assertEquals("-" + numeral, converter.integerToRomanString(-arabic));
+        }
+        assertEquals(RomanNumeral.NULLA_STRING, converter.integerToRomanString(0));
+    }
+
+    @Test
+    public void generatedDecoderEqualsTheGreedyOne() throws IllegalArabicValueException {
+        for (int arabic = RomanConverter.MININTEGER; arabic <= RomanConverter.MAXINTEGER; arabic++) {
+            String numeral = converter.integerToRomanString(arabic);
+            assertEquals(RomanConverter.greedyRomanStringToInteger(numeral), RomanConverter.decodeCanonical(numeral));
+            assertEquals(arabic, RomanConverter.decodeCanonical(numeral));
+        }
+        assertEquals(RomanConversionEngine.NOT_CANONICAL, RomanConverter.decodeCanonical("-"));
+    }
+
+    @Test
+    public void decoderAcceptsExactlyTheValidNumerals() {
+        char[] chars = new char[6];
+        for (int length = 0; length <= 5; length++) {
+            int combinations = (int) Math.pow(ROMAN_CHARS.length(), length);
+            for (int combination = 0; combination < combinations; combination++) {
+                int rest = combination;
+                for (int i = 0; i < length; i++) {
+                    chars[i] = ROMAN_CHARS.charAt(rest % ROMAN_CHARS.length());
+                    rest /= ROMAN_CHARS.length();
+                }
+                String numeral = new String(chars, 0, length);
+                assertSameValidity(numeral);
+                assertSameValidity("-" + numeral);
+            }
+        }
+    }
+
+    @Test
+    public void decoderRejectsWhatTheValidatorWouldNormalize() {
+        assertEquals(RomanConversionEngine.NOT_CANONICAL, RomanConverter.decodeCanonical("xii"));
+        assertEquals(RomanConversionEngine.NOT_CANONICAL, RomanConverter.decodeCanonical(" XII"));
+        assertEquals(RomanConversionEngine.NOT_CANONICAL, RomanConverter.decodeCanonical("-NULLA"));
+        assertEquals(RomanConversionEngine.NOT_CANONICAL, RomanConverter.decodeCanonical("--X"));
+        assertEquals(0, RomanConverter.decodeCanonical(RomanNumeral.NULLA_STRING));
+    }
+
+    private static void assertSameValidity(String numeral) {
+        int decoded = RomanConverter.decodeCanonical(numeral);
+        try {
+            RomanNumeral roman = new RomanNumeral(numeral);
+            assertEquals(numeral, roman.getNumeral());
+            if (numeral.equals("-")) {
+                assertEquals(RomanConversionEngine.NOT_CANONICAL, decoded);
+                return;
+            }
+            assertEquals(numeral, RomanConverter.greedyRomanStringToInteger(numeral), decoded);
+        } catch (IllegalNumeralSyntaxException ex) {
+            assertEquals(numeral, RomanConversionEngine.NOT_CANONICAL, decoded);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanHttpServer} listening on a free port of
+ * localhost.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanHttpServerTest {
+
+    private static RomanHttpServer server;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = new RomanHttpServer(new InetSocketAddress("localhost", 0));
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+    }
+
+    private static HttpURLConnection connect(String pathAndQuery) throws IOException {
+        URL url = new URL("http", "localhost", server.getAddress().getPort(), pathAndQuery);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private static String read(HttpURLConnection connection) throws IOException {
+        InputStream in = connection.getResponseCode() < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            bytes.write(buffer, 0, read);
+        }
+        in.close();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private String get(String pathAndQuery) throws IOException {
+        return read(connect(pathAndQuery));
+    }
+
+    private String post(String path, String contentType, String body) throws IOException {
+        HttpURLConnection connection = connect(path);
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", contentType);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        return read(connection);
+    }
+
+    @Test
+    public void singleEncodeReturnsNumeral() throws IOException {
+        assertEquals("XLII", get("/encode?value=42"));
+    }
+
+    @Test
+    public void singleDecodeReturnsValue() throws IOException {
+        assertEquals("-42", get("/decode?numeral=-XLII"));
+    }
+
+    @Test
+    public void calculateAcceptsNumeralsAndInts() throws IOException {
+        assertEquals("XLII", get("/calculate?operation=sum&one=XL&two=2"));
+        assertEquals("VIII", get("/calculate?operation=power&one=II&two=III"));
+    }
+
+    @Test
+    public void illegalSingleRequestReturnsBadRequest() throws IOException {
+        HttpURLConnection connection = connect("/decode?numeral=MMMM");
+        assertEquals(400, connection.getResponseCode());
+        assertTrue(read(connection).startsWith("Illegal syntax"));
+        assertEquals(400, connect("/encode").getResponseCode());
+        assertEquals(400, connect("/calculate?operation=division&one=I&two=NULLA").getResponseCode());
+    }
+
+    @Test
+    public void jsonIsReturnedWhenAccepted() throws IOException {
+        HttpURLConnection connection = connect("/encode?value=4");
+        connection.setRequestProperty("Accept", "application/json");
+        assertEquals("\"IV\"", read(connection));
+        assertEquals("application/json", connection.getContentType());
+    }
+
+    @Test
+    public void textBatchReturnsOneLinePerInput() throws IOException {
+        String response = post("/decode", "text/plain", "I\nIIII\n\nMMXV\n");
+        String[] lines = response.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("1", lines[0]);
+        assertTrue(lines[1].startsWith("Illegal syntax"));
+        assertEquals("2015", lines[2]);
+    }
+
+    @Test
+    public void jsonBatchReturnsArray() throws IOException {
+        assertEquals("[\"I\",\"MMXV\",{\"error\":\"" + "Illegal arabic // arabic numeral should be an integer within [-3999, 3999]." + "\"}]",
+                post("/encode", "application/json", "[1, 2015, 4000]"));
+        assertEquals("[\"XLII\",\"X\"]",
+                post("/calculate", "application/json", "[[\"sum\", \"XL\", 2], [\"difference\", \"XV\", \"V\"]]"));
+    }
+
+    @Test
+    public void malformedJsonBatchReturnsBadRequest() throws IOException {
+        HttpURLConnection connection = connect("/encode");
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write("[1, ".getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(400, connection.getResponseCode());
+    }
+
+    @Test
+    public void malformedEscapeReturnsBadRequest() throws IOException {
+        assertEquals(400, connect("/encode?value=%zz").getResponseCode());
+        assertEquals(400, connect("/encode?value=%4").getResponseCode());
+    }
+
+    @Test
+    public void tooLongBodyReturnsPayloadTooLarge() throws IOException {
+        try (Socket socket = new Socket("localhost", server.getAddress().getPort())) {
+            socket.setSoTimeout(10000);
+            OutputStream out = socket.getOutputStream();
+            out.write(("POST /encode HTTP/1.1\r\nHost: localhost\r\nContent-Type: text/plain\r\n"
+                    + "Content-Length: 1000000000\r\n\r\n1\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            assertTrue(in.readLine().startsWith("HTTP/1.1 413"));
+        }
+    }
+
+    @Test
+    public void manySequentialRequestsAreServed() throws IOException {
+        for (int i = 1; i <= 200; i++) {
+            assertEquals(String.valueOf(i), get("/decode?numeral=" + get("/encode?value=" + i)));
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test of {@link RomanIndex} and {@link RomanIndexWriter} which store
+ * and query the occurrences of roman numerals in a corpus of documents.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanIndexTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private RomanIndex index;
+
+    @Before
+    public void writeAndOpenIndex() throws IOException {
+        RomanIndexWriter writer = new RomanIndexWriter();
+        writer.addDocument(3, "Article XLII, see also article CL and CXX.");
+        writer.addDocument(1, "Chapter XLII of book IV, NULLA added.");
+        writer.addDocument(7, "The DID and MIX words, CC, xlii and XLIIII.");
+        Path file = folder.newFile("corpus.jnri").toPath();
+        writer.write(file);
+        index = RomanIndex.open(file);
+    }
+
+    @Test
+    public void documentsCitingAValueAreSortedAndDistinct() throws IllegalArabicValueException {
+        assertArrayEquals(new int[]{1, 3}, index.documents(42));
+    }
+
+    @Test
+    public void documentsCitingANumeralAreFound() throws IllegalNumeralSyntaxException {
+        assertArrayEquals(new int[]{1, 3}, index.documents(new RomanNumeral("XLII")));
+    }
+
+    @Test
+    public void rangeQueryFindsAllDocumentsWithValuesInRange() throws IllegalArabicValueException {
+        assertArrayEquals(new int[]{3, 7}, index.documents(100, 200));
+    }
+
+    @Test
+    public void emptyRangeQueryFindsNoDocuments() throws IllegalArabicValueException {
+        assertArrayEquals(new int[0], index.documents(200, 100));
+    }
+
+    @Test
+    public void postingsContainDocumentAndOffset() throws IllegalArabicValueException {
+        long[] postings = index.postings(4);
+        assertEquals(1, postings.length);
+        assertEquals(1, RomanIndex.documentOf(postings[0]));
+        assertEquals(21, RomanIndex.offsetOf(postings[0]));
+    }
+
+    @Test
+    public void nullaIsIndexedAsZero() throws IllegalArabicValueException {
+        assertEquals(1, index.occurrences(0));
+    }
+
+    @Test
+    public void wordsWithIllegalSyntaxOrLowercaseAreNotIndexed() throws IllegalArabicValueException {
+        assertEquals(1, index.occurrences(1009));
+        assertEquals(0, index.occurrences(44));
+        assertEquals(2, index.occurrences(42));
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void whenOutOfRangeValueIsQueriedThenExceptionIsThrown() throws IllegalArabicValueException {
+        index.documents(4000);
+    }
+
+    @Test(expected = IOException.class)
+    public void whenFileIsNotAnIndexThenExceptionIsThrown() throws IOException {
+        Path file = folder.newFile("notAnIndex").toPath();
+        Files.write(file, new byte[100000]);
+        RomanIndex.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void whenSlotStartsAreNotSortedThenExceptionIsThrown() throws IOException {
+        RomanIndexWriter writer = new RomanIndexWriter();
+        writer.addDocument(1, "I II III");
+        Path file = folder.newFile("unsorted.jnri").toPath();
+        writer.write(file);
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(16 + 8L * RomanIndex.slotOf(2));
+            raw.writeLong(1000);
+        }
+        RomanIndex.open(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenDocumentIdIsNegativeThenExceptionIsThrown() {
+        new RomanIndexWriter().addDocument(-1, "XII");
+    }
+}
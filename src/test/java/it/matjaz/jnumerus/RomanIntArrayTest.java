@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.List;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanIntArray} which stores values of the roman
+ * numerals range as shorts.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanIntArrayTest {
+
+    @Test
+    public void addedValuesAreStored() throws IllegalArabicValueException {
+        RomanIntArray array = new RomanIntArray();
+        for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+            array.add(value);
+        }
+        assertEquals(7999, array.size());
+        assertEquals(RomanConverter.MININTEGER, array.get(0));
+        assertEquals(RomanConverter.MAXINTEGER, array.get(7998));
+        assertEquals(0, array.get(3999));
+    }
+
+    @Test
+    public void whenValueOutOfRangeIsAddedThenExceptionIsThrown() {
+        RomanIntArray array = new RomanIntArray();
+        int[] outOfRange = {4000, -4000, Short.MAX_VALUE + 1, Integer.MIN_VALUE};
+        for (int value : outOfRange) {
+            try {
+                array.add(value);
+                fail(String.valueOf(value));
+            } catch (IllegalArabicValueException expectedEx) {
+                assertTrue(array.isEmpty());
+            }
+        }
+    }
+
+    @Test
+    public void whenBulkAddContainsValueOutOfRangeThenNothingIsAdded() throws IllegalArabicValueException {
+        RomanIntArray array = RomanIntArray.of(1, 2);
+        try {
+            array.addAll(new int[]{3, 4, 4000});
+            fail();
+        } catch (IllegalArabicValueException expectedEx) {
+            assertEquals(RomanIntArray.of(1, 2), array);
+        }
+    }
+
+    @Test
+    public void bulkAddAppendsValuesAndArrays() throws IllegalArabicValueException {
+        RomanIntArray array = RomanIntArray.of(1);
+        array.addAll(new int[]{9, 2, 3, 9}, 1, 3);
+        array.addAll(RomanIntArray.of(-5));
+        assertArrayEquals(new int[]{1, 2, 3, -5}, array.toArray());
+    }
+
+    @Test
+    public void valuesAreInsertedReplacedAndRemoved() throws IllegalArabicValueException {
+        RomanIntArray array = RomanIntArray.of(1, 3);
+        array.add(1, 2);
+        assertEquals(3, array.set(2, 30));
+        assertEquals(1, array.removeAt(0));
+        assertArrayEquals(new int[]{2, 30}, array.toArray());
+        array.clear();
+        assertTrue(array.isEmpty());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void whenIndexIsOutOfBoundsThenExceptionIsThrown() throws IllegalArabicValueException {
+        RomanIntArray.of(1, 2).get(2);
+    }
+
+    @Test
+    public void sortedValuesAreSearched() throws IllegalArabicValueException {
+        RomanIntArray array = RomanIntArray.of(50, -7, 3999, 0, 12);
+        array.sort();
+        assertArrayEquals(new int[]{-7, 0, 12, 50, 3999}, array.toArray());
+        assertEquals(2, array.binarySearch(12));
+        assertEquals(-4, array.binarySearch(13));
+        assertEquals(-1, array.binarySearch(-5000));
+        assertEquals(-6, array.binarySearch(5000));
+        assertEquals(3, array.indexOf(50));
+        assertFalse(array.contains(70000));
+    }
+
+    @Test
+    public void bigArraysAreSortedInParallel() throws IllegalArabicValueException {
+        RomanIntArray array = new RomanIntArray(100000);
+        for (int i = 0; i < 100000; i++) {
+            array.add((i * 7919) % 7999 - 3999);
+        }
+        array.parallelSort();
+        for (int i = 1; i < array.size(); i++) {
+            assertTrue(array.get(i - 1) <= array.get(i));
+        }
+    }
+
+    @Test
+    public void valuesAreStreamed() throws IllegalArabicValueException {
+        RomanIntArray array = RomanIntArray.of(1, 2, 3);
+        assertEquals(6, array.stream().sum());
+        assertEquals(6, array.stream().parallel().sum());
+    }
+
+    @Test
+    public void listViewReadsAndWritesTheArray() throws IllegalArabicValueException, IllegalNumeralSyntaxException {
+        RomanIntArray array = RomanIntArray.of(12, -4);
+        List<RomanInteger> list = array.asList();
+        assertEquals(new RomanInteger(new RomanNumeral("XII")), list.get(0));
+        assertEquals(new RomanInteger(-4), list.set(1, new RomanInteger(40)));
+        list.add(new RomanInteger(0));
+        list.remove(0);
+        assertArrayEquals(new int[]{40, 0}, array.toArray());
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    public void listViewReturnsIndependentInstances() throws IllegalArabicValueException, IllegalNumeralSyntaxException {
+        List<RomanInteger> list = RomanIntArray.of(42).asList();
+        list.get(0).setValue(1);
+        list.get(0).getNumeral().setNumeral("X");
+        assertEquals(new RomanInteger(42), list.get(0));
+    }
+
+    @Test
+    public void toStringContainsTheNumerals() throws IllegalArabicValueException {
+        assertEquals("RomanIntArray[XII, NULLA, -IV]", RomanIntArray.of(12, 0, -4).toString());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanKeyedMap} which maps the values of the roman
+ * numerals range in an array of slots.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanKeyedMapTest {
+
+    private RomanKeyedMap<String> map;
+
+    @Before
+    public void fillMap() throws IllegalArabicValueException {
+        map = new RomanKeyedMap<>();
+        map.put(12, "twelve");
+        map.put(0, "nothing");
+        map.put(-4, "minus four");
+    }
+
+    @Test
+    public void valuesAreFoundByIntAndRomanIntegerKeys() throws IllegalArabicValueException {
+        assertEquals("twelve", map.get(12));
+        assertEquals("twelve", map.get(new RomanInteger(12)));
+        assertTrue(map.containsKey(0));
+        assertTrue(map.containsKey(new RomanInteger(-4)));
+        assertFalse(map.containsKey(5));
+        assertNull(map.get(4000));
+        assertNull(map.get("XII"));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    public void puttingAnExistingKeyReplacesTheValue() throws IllegalArabicValueException {
+        assertEquals("twelve", map.put(new RomanInteger(12), "XII"));
+        assertEquals("XII", map.get(12));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    public void removedKeysAreNotMapped() throws IllegalArabicValueException {
+        assertEquals("nothing", map.remove(0));
+        assertNull(map.remove(0));
+        assertEquals("twelve", map.remove(new RomanInteger(12)));
+        assertNull(map.remove(-5000));
+        assertEquals(1, map.size());
+        map.clear();
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void entriesAreIteratedInAscendingOrderOfKey() {
+        List<Integer> keys = new ArrayList<>();
+        for (Map.Entry<RomanInteger, String> entry : map.entrySet()) {
+            keys.add(entry.getKey().getValue());
+        }
+        assertEquals(List.of(-4, 0, 12), keys);
+        List<Integer> intKeys = new ArrayList<>();
+        map.forEachIntKey((value, key) -> intKeys.add(key));
+        assertEquals(keys, intKeys);
+    }
+
+    @Test
+    public void entryIteratorWritesThroughToTheMap() {
+        Iterator<Map.Entry<RomanInteger, String>> iterator = map.entrySet().iterator();
+        iterator.next().setValue("-IV");
+        iterator.next();
+        iterator.remove();
+        assertEquals("-IV", map.get(-4));
+        assertFalse(map.containsKey(0));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void mapEqualsHashMapWithTheSameMappings() throws IllegalArabicValueException {
+        Map<RomanInteger, String> expected = new HashMap<>();
+        expected.put(new RomanInteger(12), "twelve");
+        expected.put(new RomanInteger(0), "nothing");
+        expected.put(new RomanInteger(-4), "minus four");
+        assertEquals(expected, map);
+        assertEquals(map, expected);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void whenKeyOutOfRangeIsPutThenExceptionIsThrown() throws IllegalArabicValueException {
+        map.put(4000, "too big");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void whenNullValueIsPutThenExceptionIsThrown() throws IllegalArabicValueException {
+        map.put(1, null);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import org.junit.After;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanLineServer} listening on a free port of
+ * localhost.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanLineServerTest {
+
+    private static RomanLineServer server;
+    private Socket socket;
+    private OutputStream out;
+    private BufferedReader in;
+
+    @BeforeClass
+    public static void startServer() throws IOException {
+        server = new RomanLineServer(new InetSocketAddress("localhost", 0));
+        server.start();
+    }
+
+    @AfterClass
+    public static void stopServer() {
+        server.stop();
+    }
+
+    @Before
+    public void connect() throws IOException {
+        socket = new Socket("localhost", server.getAddress().getPort());
+        socket.setSoTimeout(10000);
+        out = socket.getOutputStream();
+        in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void disconnect() throws IOException {
+        socket.close();
+    }
+
+    private void send(String lines) throws IOException {
+        out.write(lines.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    @Test
+    public void intsAndNumeralsAreConverted() throws IOException {
+        send("42\nxlii\n-MMXV\nNULLA\n");
+        assertEquals("XLII", in.readLine());
+        assertEquals("42", in.readLine());
+        assertEquals("-2015", in.readLine());
+        assertEquals("0", in.readLine());
+    }
+
+    @Test
+    public void expressionsAreEvaluated() throws IOException {
+        send("XL + 2\nXV - V\nII ^ 3\nI / NULLA\n3999 + I\n");
+        assertEquals("XLII", in.readLine());
+        assertEquals("X", in.readLine());
+        assertEquals("VIII", in.readLine());
+        assertTrue(in.readLine().startsWith("Illegal operation"));
+        assertTrue(in.readLine().startsWith("Illegal operation"));
+    }
+
+    @Test
+    public void operandsRejectedByTheByteDecoderAreConvertedAsStrings() throws IOException {
+        send("IIII + I\nx\u0131\u0131 + I\n");
+        assertTrue(in.readLine().startsWith("Illegal syntax // four"));
+        assertEquals("XIII", in.readLine());
+    }
+
+    @Test
+    public void errorsAreAnsweredWithTheirMessage() throws IOException {
+        send("4000\nIIII\nABC\n\n2.9\n");
+        assertTrue(in.readLine().startsWith("Illegal arabic"));
+        assertTrue(in.readLine().startsWith("Illegal syntax // four"));
+        assertTrue(in.readLine().startsWith("Illegal syntax // non roman"));
+        assertEquals("II", in.readLine());
+    }
+
+    @Test
+    public void manyPipelinedRequestsAreAnsweredInOrder() throws IOException, IllegalArabicValueException {
+        StringBuilder requests = new StringBuilder();
+        for (int i = RomanConverter.MININTEGER; i <= RomanConverter.MAXINTEGER; i++) {
+            requests.append(i).append('\n');
+        }
+        send(requests.toString());
+        RomanConverter converter = new RomanConverter();
+        for (int i = RomanConverter.MININTEGER; i <= RomanConverter.MAXINTEGER; i++) {
+            assertEquals(converter.integerToRomanString(i), in.readLine());
+        }
+    }
+
+    @Test
+    public void tooLongLinesAreRejected() throws IOException {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            line.append('X');
+        }
+        send(line.append("\nV\n").toString());
+        assertTrue(in.readLine().startsWith("Illegal request"));
+        assertEquals("5", in.readLine());
+    }
+
+    @Test
+    public void tooLongLineWaitsForPendingOutput() throws Exception {
+        StringBuilder requests = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            requests.append("syntax\n");
+        }
+        for (int i = 0; i < 20000; i++) {
+            requests.append('X');
+        }
+        requests.append("\nV\n");
+        Thread sender = new Thread(() -> {
+            try {
+                send(requests.toString());
+            } catch (IOException ex) {
+                // Checked by the responses
+            }
+        });
+        sender.start();
+        Thread.sleep(500);
+        String previous = null;
+        String line;
+        while ((line = in.readLine()) != null && !line.equals("5")) {
+            previous = line;
+        }
+        sender.join();
+        assertEquals("5", line);
+        assertTrue(previous.startsWith("Illegal request"));
+    }
+
+    @Test
+    public void commandsAreAnsweredAndExitClosesTheConnection() throws IOException {
+        send("moo\nexit\nI\n");
+        assertEquals("This is not an easter egg. Try 'ascii'.", in.readLine());
+        assertEquals("", in.readLine());
+        assertEquals("Vale!", in.readLine());
+        assertNull(in.readLine());
+    }
+
+    @Test
+    public void clientsHaveSeparateSessions() throws IOException {
+        try (Socket other = new Socket("localhost", server.getAddress().getPort())) {
+            BufferedReader otherIn = new BufferedReader(new InputStreamReader(other.getInputStream(), StandardCharsets.UTF_8));
+            send("X");
+            other.getOutputStream().write("exit\n".getBytes(StandardCharsets.UTF_8));
+            assertEquals("Vale!", otherIn.readLine());
+            send("II\n");
+            assertEquals("12", in.readLine());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanMessages} which loads the RomanBundle and the
+ * project properties on first use.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanMessagesTest {
+
+    @Test
+    public void bundleStringsAreFound() {
+        assertEquals("Vale!", RomanMessages.getString("ExitText"));
+    }
+
+    @Test
+    public void promptOfTheCommandLineIsDefined() {
+        assertEquals("jnumerus> ", RomanMessages.getString("Prompt"));
+    }
+
+    @Test
+    public void projectVersionIsRead() {
+        assertNotNull(RomanMessages.getProjectProperty("version"));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanMetrics} which counts the jNumerus operations and
+ * exposes them through JMX.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanMetricsTest {
+
+    private RomanMetrics metrics;
+
+    @Before
+    public void constructMetrics() {
+        metrics = new RomanMetrics();
+    }
+
+    @Test
+    public void newMetricsAreZero() {
+        assertEquals(0, metrics.getEncodes());
+        assertEquals(0, metrics.getValidationFailures());
+        assertArrayEquals(new long[RomanMetrics.LATENCY_BUCKETS], metrics.getDecodeLatencyHistogram());
+    }
+
+    @Test
+    public void encodesAreCountedInTheirLatencyBucket() {
+        metrics.recordEncode(20);
+        metrics.recordEncode(25);
+        assertEquals(2, metrics.getEncodes());
+        assertEquals(2, metrics.getEncodeLatencyHistogram()[1]);
+    }
+
+    @Test
+    public void latencyBucketsDoubleTheirWidth() {
+        assertEquals(0, RomanMetrics.bucketOf(0));
+        assertEquals(0, RomanMetrics.bucketOf(15));
+        assertEquals(1, RomanMetrics.bucketOf(16));
+        assertEquals(2, RomanMetrics.bucketOf(32));
+        assertEquals(RomanMetrics.LATENCY_BUCKETS - 1, RomanMetrics.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void latencyHistogramBoundsMatchBuckets() {
+        long[] bounds = metrics.getLatencyHistogramBounds();
+        for (int i = 0; i < bounds.length - 1; i++) {
+            assertEquals(i, RomanMetrics.bucketOf(bounds[i] - 1));
+            assertEquals(i + 1, RomanMetrics.bucketOf(bounds[i]));
+        }
+    }
+
+    @Test
+    public void syntaxFailuresAreCountedByCategory() {
+        metrics.recordSyntaxFailure(IllegalNumeralSyntaxException.Category.NON_ROMAN_CHARS);
+        metrics.recordSyntaxFailure(IllegalNumeralSyntaxException.Category.NON_ROMAN_CHARS);
+        metrics.recordSyntaxFailure(IllegalNumeralSyntaxException.Category.TWO_DLV_CHARS);
+        assertEquals(2, metrics.getNonRomanCharsFailures());
+        assertEquals(1, metrics.getTwoDLVCharsFailures());
+        assertEquals(0, metrics.getEmptyNumeralFailures());
+        assertEquals(3, metrics.getValidationFailures());
+    }
+
+    @Test
+    public void resetSetsEverythingToZero() {
+        metrics.recordDecode(100);
+        metrics.recordOverflow();
+        metrics.recordSyntaxFailure(IllegalNumeralSyntaxException.Category.GENERIC);
+        metrics.reset();
+        assertEquals(0, metrics.getDecodes());
+        assertEquals(0, metrics.getOverflows());
+        assertEquals(0, metrics.getGenericSyntaxFailures());
+        assertArrayEquals(new long[RomanMetrics.LATENCY_BUCKETS], metrics.getDecodeLatencyHistogram());
+    }
+
+    @Test
+    public void metricsAreACompliantMXBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(RomanMetrics.OBJECT_NAME + ",test=true");
+        server.registerMBean(metrics, name);
+        try {
+            metrics.recordOverflow();
+            assertEquals(1L, server.getAttribute(name, "Overflows"));
+        } finally {
+            server.unregisterMBean(name);
+        }
+    }
+}
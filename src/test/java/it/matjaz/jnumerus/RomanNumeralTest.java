@@ -300,4 +300,25 @@ public class RomanNumeralTest {
         assertEquals(RomanNumeral.NULLA_STRING, roman.getNumeral());
     }
 
+    @Test
+    public void syntaxErrorsAreCategorized() {
+        String[] illegalNumerals = {"", "MMMMMMMMMMMMMMMMMMMMM", "XIIZ", "XIIII", "DCD", "IM"};
+        IllegalNumeralSyntaxException.Category[] categories = IllegalNumeralSyntaxException.Category.values();
+        for (int i = 0; i < illegalNumerals.length; i++) {
+            try {
+                roman.setNumeral(illegalNumerals[i]);
+                fail("Accepted " + illegalNumerals[i]);
+            } catch (IllegalNumeralSyntaxException ex) {
+                assertEquals(categories[i], ex.getCategory());
+            }
+        }
+    }
+
+    @Test
+    public void numeralsAreComparedByValue() throws IllegalNumeralSyntaxException {
+        assertTrue(new RomanNumeral("IX").compareTo(new RomanNumeral("X")) < 0);
+        assertTrue(new RomanNumeral("-I").compareTo(new RomanNumeral("NULLA")) < 0);
+        assertTrue(new RomanNumeral("MM").compareTo(new RomanNumeral("CMXCIX")) > 0);
+        assertEquals(0, new RomanNumeral("-").compareTo(new RomanNumeral()));
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanRange}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanRangeTest {
+
+    @Test
+    public void rangeContainsTheSteppedValues() throws IllegalArabicValueException {
+        RomanRange range = RomanRange.of(1, 10, 3);
+        assertEquals(4, range.size());
+        assertArrayEquals(new int[]{1, 4, 7, 10}, range.intStream().toArray());
+        assertTrue(range.contains(7));
+        assertFalse(range.contains(8));
+        assertEquals(10, range.get(3));
+        assertEquals("RomanRange[I..X step 3]", range.toString());
+    }
+
+    @Test
+    public void numeralsAreTheEncodedValues() throws IllegalNumeralSyntaxException, IllegalArabicValueException {
+        List<RomanNumeral> numerals = RomanRange.of(-2, 2).stream().collect(Collectors.toList());
+        assertEquals(Arrays.asList(new RomanNumeral("-II"), new RomanNumeral("-I"), new RomanNumeral(),
+                new RomanNumeral("I"), new RomanNumeral("II")), numerals);
+        int count = 0;
+        for (RomanNumeral numeral : RomanRange.of(1, 5)) {
+            count++;
+        }
+        assertEquals(5, count);
+    }
+
+    @Test
+    public void romanIntegersPairValuesAndNumerals() throws IllegalArabicValueException {
+        RomanInteger last = RomanRange.of(40, 42).romanIntegerStream().reduce((first, second) -> second).get();
+        assertEquals(42, last.getValue());
+        assertEquals("XLII", last.getNumeral().getNumeral());
+    }
+
+    @Test
+    public void emptyRangeHasNoValues() throws IllegalArabicValueException {
+        RomanRange range = RomanRange.of(10, 1);
+        assertEquals(0, range.size());
+        assertEquals(0, range.stream().count());
+    }
+
+    @Test
+    public void parallelStreamsEqualSequentialOnes() {
+        RomanRange range = RomanRange.all();
+        assertEquals(7999, range.size());
+        assertEquals(range.stream().map(RomanNumeral::getNumeral).collect(Collectors.toList()),
+                range.stream().parallel().map(RomanNumeral::getNumeral).collect(Collectors.toList()));
+        assertEquals(IntStream.rangeClosed(-3999, 3999).sum(), range.intStream().parallel().sum());
+    }
+
+    @Test
+    public void spliteratorSplitsInSizedHalves() throws IllegalArabicValueException {
+        Spliterator<RomanNumeral> suffix = RomanRange.of(1, 100, 2).spliterator();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<RomanNumeral> prefix = suffix.trySplit();
+        assertEquals(25, prefix.estimateSize());
+        assertEquals(25, suffix.estimateSize());
+        prefix.tryAdvance(numeral -> assertEquals("I", numeral.getNumeral()));
+        suffix.tryAdvance(numeral -> assertEquals("LI", numeral.getNumeral()));
+        Spliterator<RomanNumeral> single = RomanRange.of(7, 7).spliterator();
+        assertNull(single.trySplit());
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void whenExtremeIsOutOfRangeThenExceptionIsThrown() throws IllegalArabicValueException {
+        RomanRange.of(1, 4000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenStepIsNotPositiveThenExceptionIsThrown() throws IllegalArabicValueException {
+        RomanRange.of(1, 10, 0);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanResult}.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanResultTest {
+
+    @Test
+    public void successHoldsTheValue() throws RomanException {
+        RomanResult<Integer> result = RomanResult.success("XII", 12);
+        assertTrue(result.isSuccess());
+        assertEquals(Integer.valueOf(12), result.getValue());
+        assertNull(result.getError());
+        assertEquals("XII -> 12", result.toString());
+        assertEquals(RomanResult.success("XII", 12), result);
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void failureThrowsItsErrorOnGetValue() throws RomanException {
+        RomanResult<RomanNumeral> result = RomanResult.failure(4000, new IllegalArabicValueException("out"));
+        assertFalse(result.isSuccess());
+        assertEquals("4000 -> out", result.toString());
+        result.getValue();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void failureRequiresAnError() {
+        RomanResult.failure("X", null);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test of {@link RomanRingServer} and {@link RomanRingClient} sharing a
+ * memory-mapped file.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanRingServerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void clientConvertsTheWholeRangeThroughTheServer() throws IOException, RomanException {
+        Path file = folder.newFile("jnumerus.ring").toPath();
+        RomanRingServer server = new RomanRingServer(file, 8);
+        server.start();
+        try {
+            RomanRingClient client = new RomanRingClient(file);
+            RomanConverter converter = new RomanConverter();
+            for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+                RomanNumeral numeral = client.encode(value);
+                assertEquals(converter.integerToRomanNumeral(value), numeral);
+                assertEquals(value, client.decode(numeral));
+            }
+            assertEquals(12, client.decode(" x i i "));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void whenEncodingOutOfRangeThenExceptionIsThrown() throws IOException, RomanException {
+        Path file = folder.newFile("jnumerus.ring").toPath();
+        RomanRingServer server = new RomanRingServer(file, 8);
+        server.start();
+        try {
+            new RomanRingClient(file).encode(4000);
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void whenDecodingIllegalNumeralThenCategorizedExceptionIsThrown() throws IOException {
+        Path file = folder.newFile("jnumerus.ring").toPath();
+        RomanRingServer server = new RomanRingServer(file, 8);
+        server.start();
+        try {
+            new RomanRingClient(file).decode("XXXX");
+            fail();
+        } catch (IllegalNumeralSyntaxException ex) {
+            assertEquals(IllegalNumeralSyntaxException.Category.FOUR_CONSECUTIVE_CHARS, ex.getCategory());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void whenServerDoesNotRespondThenCallsFail() throws IOException, RomanException {
+        Path file = folder.newFile("jnumerus.ring").toPath();
+        new RomanRingServer(file, 8);
+        RomanRingClient client = new RomanRingClient(file, 50, TimeUnit.MILLISECONDS);
+        try {
+            client.encode(1);
+            fail();
+        } catch (IOException expected) {
+        }
+        long start = System.nanoTime();
+        try {
+            client.decode("I");
+            fail();
+        } catch (IOException expected) {
+        }
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void pendingRequestsAreServedInOneBatchUpToTheFreeResponseSlots() throws IOException {
+        Path file = folder.newFile("jnumerus.ring").toPath();
+        RomanRingServer server = new RomanRingServer(file, 4);
+        ByteBuffer memory = RomanRingServer.map(file);
+        for (int n = 0; n < 4; n++) {
+            int request = RomanRingServer.RINGS_OFFSET + n * RomanRingServer.SLOT_BYTES;
+            memory.put(request, RomanRingServer.OPERATION_ENCODE);
+            memory.putInt(request + 4, n + 1);
+        }
+        memory.putLong(RomanRingServer.REQUEST_HEAD, 4);
+        memory.putLong(RomanRingServer.RESPONSE_TAIL, 0);
+        assertEquals(4, server.serveAvailable());
+        assertEquals(0, server.serveAvailable());
+        int responseRing = RomanRingServer.RINGS_OFFSET + 4 * RomanRingServer.SLOT_BYTES;
+        int thirdResponse = responseRing + 2 * RomanRingServer.SLOT_BYTES;
+        assertEquals(RomanRingServer.STATUS_OK, memory.get(thirdResponse));
+        assertEquals(3, memory.get(thirdResponse + 1));
+        assertEquals('I', memory.get(thirdResponse + 8));
+        assertEquals(4, memory.getLong(RomanRingServer.REQUEST_TAIL));
+        assertEquals(4, memory.getLong(RomanRingServer.RESPONSE_HEAD));
+    }
+
+    @Test
+    public void unknownOperationsGetIllegalRequestStatus() throws IOException {
+        Path file = folder.newFile("jnumerus.ring").toPath();
+        RomanRingServer server = new RomanRingServer(file, 2);
+        ByteBuffer memory = RomanRingServer.map(file);
+        memory.put(RomanRingServer.RINGS_OFFSET, (byte) 9);
+        memory.putLong(RomanRingServer.REQUEST_HEAD, 1);
+        assertEquals(1, server.serveAvailable());
+        int responseRing = RomanRingServer.RINGS_OFFSET + 2 * RomanRingServer.SLOT_BYTES;
+        assertEquals(RomanRingServer.STATUS_ILLEGAL_REQUEST, memory.get(responseRing));
+    }
+
+    @Test(expected = IOException.class)
+    public void whenFileIsNotARingThenExceptionIsThrown() throws IOException {
+        Path file = folder.newFile("notARing").toPath();
+        Files.write(file, new byte[4096]);
+        new RomanRingClient(file);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenSlotsAreNotAPowerOfTwoThenExceptionIsThrown() throws IOException {
+        new RomanRingServer(folder.newFile("jnumerus.ring").toPath(), 12);
+    }
+}
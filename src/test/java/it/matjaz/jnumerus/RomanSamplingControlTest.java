@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanSamplingControl} which is the sampling setting of
+ * the jNumerus flight recorder events.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanSamplingControlTest {
+
+    private RomanSamplingControl control;
+
+    @Before
+    public void constructControl() {
+        control = new RomanSamplingControl();
+    }
+
+    @Test
+    public void defaultPeriodSamplesEverything() {
+        assertEquals("1", control.getValue());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(control.shouldSample());
+        }
+    }
+
+    @Test
+    public void combinationKeepsTheSmallestPeriod() {
+        assertEquals("10", control.combine(new HashSet<>(Arrays.asList("100", "10", "1000"))));
+    }
+
+    @Test
+    public void combinationOfNoValuesIsOne() {
+        assertEquals("1", control.combine(Collections.<String>emptySet()));
+    }
+
+    @Test
+    public void illegalPeriodsAreTreatedAsOne() {
+        control.setValue("often");
+        assertEquals("1", control.getValue());
+        control.setValue("-5");
+        assertEquals("1", control.getValue());
+    }
+
+    @Test
+    public void periodSamplesAboutOneEventOutOfIt() {
+        control.setValue("10");
+        int sampled = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (control.shouldSample()) {
+                sampled++;
+            }
+        }
+        assertTrue(sampled > 9000 && sampled < 11000);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanSet} which stores sets of values of the roman
+ * numerals range as bitmaps.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanSetTest {
+
+    @Test
+    public void valuesAreAddedOnceAndIteratedInOrder() throws IllegalArabicValueException {
+        RomanSet set = new RomanSet();
+        assertTrue(set.add(12));
+        assertFalse(set.add(12));
+        set.add(RomanConverter.MAXINTEGER);
+        set.add(RomanConverter.MININTEGER);
+        set.add(0);
+        assertEquals(4, set.size());
+        assertArrayEquals(new int[]{-3999, 0, 12, 3999}, set.toIntArray());
+        assertTrue(set.contains(0));
+        assertFalse(set.contains(13));
+        assertFalse(set.contains(5000));
+    }
+
+    @Test
+    public void wholeDomainFitsInTheSet() throws IllegalArabicValueException {
+        RomanSet set = new RomanSet();
+        for (int value = RomanConverter.MININTEGER; value <= RomanConverter.MAXINTEGER; value++) {
+            set.add(value);
+        }
+        assertEquals(7999, set.size());
+        assertEquals(7999, set.intStream().distinct().count());
+        assertEquals(RomanRange.all().intStream().sum(), set.intStream().sum());
+    }
+
+    @Test(expected = IllegalArabicValueException.class)
+    public void whenValueOutOfRangeIsAddedThenExceptionIsThrown() throws IllegalArabicValueException {
+        new RomanSet().add(4000);
+    }
+
+    @Test
+    public void valuesAreRemoved() throws IllegalArabicValueException {
+        RomanSet set = RomanSet.of(1, 2, 3);
+        assertTrue(set.remove(2));
+        assertFalse(set.remove(2));
+        assertFalse(set.remove(-5000));
+        Iterator<RomanInteger> iterator = set.iterator();
+        iterator.next();
+        iterator.remove();
+        assertArrayEquals(new int[]{3}, set.toIntArray());
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void setOperationsCombineTheBitmaps() throws IllegalArabicValueException {
+        RomanSet union = RomanSet.of(-100, 1, 2, 3000);
+        assertTrue(union.addAll(RomanSet.of(2, 3, 3999)));
+        assertFalse(union.addAll(RomanSet.of(3)));
+        assertArrayEquals(new int[]{-100, 1, 2, 3, 3000, 3999}, union.toIntArray());
+        RomanSet intersection = new RomanSet(union);
+        assertTrue(intersection.retainAll(RomanSet.of(2, 3, 4)));
+        assertArrayEquals(new int[]{2, 3}, intersection.toIntArray());
+        RomanSet difference = new RomanSet(union);
+        assertTrue(difference.removeAll(RomanSet.of(1, 2, 3)));
+        assertArrayEquals(new int[]{-100, 3000, 3999}, difference.toIntArray());
+        assertEquals(2, union.intersectionSize(RomanSet.of(3, 3999, 5)));
+        assertTrue(union.containsAll(intersection));
+        assertFalse(intersection.containsAll(union));
+    }
+
+    @Test
+    public void setBehavesAsASetOfRomanIntegers() throws IllegalArabicValueException {
+        Set<RomanInteger> expected = new HashSet<>(Arrays.asList(new RomanInteger(7), new RomanInteger(-7)));
+        RomanSet set = new RomanSet();
+        set.addAll(expected);
+        assertEquals(expected, set);
+        assertEquals(set, expected);
+        assertEquals(expected.hashCode(), set.hashCode());
+        assertTrue(set.contains(new RomanInteger(7)));
+        assertFalse(set.contains("VII"));
+        assertTrue(set.remove(new RomanInteger(-7)));
+        assertEquals(RomanSet.of(7), set);
+    }
+
+    @Test
+    public void toStringContainsTheNumeralsInOrder() throws IllegalArabicValueException {
+        assertEquals("RomanSet[-IV, NULLA, XII]", RomanSet.of(12, 0, -4).toString());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+/**
+ * JUnit test of {@link RomanSort} which sorts numerals and RomanIntegers by
+ * counting their values.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanSortTest {
+
+    private static int[] randomValues(int length) {
+        return new Random(42).ints(length, RomanConverter.MININTEGER, RomanConverter.MAXINTEGER + 1).toArray();
+    }
+
+    @Test
+    public void largeNumeralArraysAreSortedByValue() {
+        int[] values = randomValues(5 * RomanSort.COUNTING_SORT_THRESHOLD);
+        RomanNumeral[] numerals = new RomanNumeral[values.length];
+        for (int i = 0; i < values.length; i++) {
+            numerals[i] = RomanNumeral.ofCanonicalNumeral(RomanConverter.canonicalNumeral(values[i]));
+        }
+        RomanSort.sort(numerals);
+        Arrays.sort(values);
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(RomanConverter.canonicalNumeral(values[i]), numerals[i].getNumeral());
+        }
+    }
+
+    @Test
+    public void smallNumeralArraysAreSortedByValue() throws IllegalNumeralSyntaxException {
+        RomanNumeral[] numerals = {new RomanNumeral("X"), new RomanNumeral("-V"), new RomanNumeral("IX")};
+        RomanSort.sort(numerals);
+        assertEquals("[-V, IX, X]", Arrays.toString(numerals));
+    }
+
+    @Test
+    public void integerArraysAreSortedStably() throws IllegalArabicValueException {
+        int[] values = randomValues(3 * RomanSort.COUNTING_SORT_THRESHOLD);
+        RomanInteger[] integers = new RomanInteger[values.length];
+        for (int i = 0; i < values.length; i++) {
+            integers[i] = new RomanInteger(values[i] % 10);
+        }
+        RomanInteger[] expected = integers.clone();
+        Arrays.sort(expected, RomanSort.integerOrder());
+        RomanSort.sort(integers);
+        for (int i = 0; i < integers.length; i++) {
+            assertSame(expected[i], integers[i]);
+        }
+    }
+
+    @Test
+    public void charSequencesAreNormalizedAndSorted() throws IllegalNumeralSyntaxException {
+        CharSequence[] numerals = {"XII", new StringBuilder("iv"), "-", "NULLA", "-MMM", " C "};
+        RomanSort.sortCharSequences(numerals);
+        assertEquals("[-MMM, -, NULLA, iv, XII,  C ]", Arrays.toString(numerals));
+    }
+
+    @Test
+    public void whenNumeralIsIllegalThenArrayIsUnchanged() {
+        String[] numerals = {"X", "I", "IIII"};
+        try {
+            RomanSort.sortCharSequences(numerals);
+            fail("Accepted IIII");
+        } catch (IllegalNumeralSyntaxException ex) {
+            assertArrayEquals(new String[]{"X", "I", "IIII"}, numerals);
+        }
+    }
+
+    @Test
+    public void numeralOrderIsTheNaturalOrder() throws IllegalNumeralSyntaxException {
+        RomanNumeral ix = new RomanNumeral("IX");
+        RomanNumeral x = new RomanNumeral("X");
+        assertTrue(RomanSort.numeralOrder().compare(ix, x) < 0);
+        assertEquals(Integer.signum(ix.compareTo(x)), Integer.signum(RomanSort.numeralOrder().compare(ix, x)));
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * JUnit test of {@link RomanStatistics} which scans files of numerals and
+ * integers in parallel parts.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanStatisticsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path write(String text) throws IOException {
+        Path file = folder.newFile().toPath();
+        Files.write(file, text.getBytes(StandardCharsets.US_ASCII));
+        return file;
+    }
+
+    @Test
+    public void numeralsAndIntegersAreSummarized() throws IOException {
+        Path file = write("XII\n-4\n x \n+30\nNULLA\nmm\n");
+        RomanStatistics statistics = RomanStatistics.of(file, 2);
+        assertEquals(6, statistics.getCount());
+        assertEquals(2048, statistics.getSum());
+        assertEquals(-4, statistics.getMin());
+        assertEquals(2000, statistics.getMax());
+        assertEquals(2048 / 6.0, statistics.getMean(), 1e-9);
+        assertEquals(10, statistics.getMedian());
+        assertEquals(30, statistics.getPercentile(80));
+        assertEquals(1, statistics.getFrequency(12));
+        assertEquals(0, statistics.getFrequency(5000));
+        assertEquals(0, statistics.getInvalidLines());
+    }
+
+    @Test
+    public void invalidLinesAreCountedByCategory() throws IOException {
+        Path file = write("XII\n\nIIII\nDLD\nhello\n4000\nIM\n");
+        RomanStatistics statistics = RomanStatistics.of(file, 1);
+        assertEquals(1, statistics.getCount());
+        assertEquals(6, statistics.getInvalidLines());
+        assertEquals(1, statistics.getOutOfRangeLines());
+        assertEquals(1, statistics.getInvalidLines(IllegalNumeralSyntaxException.Category.EMPTY));
+        assertEquals(1, statistics.getInvalidLines(IllegalNumeralSyntaxException.Category.FOUR_CONSECUTIVE_CHARS));
+        assertEquals(1, statistics.getInvalidLines(IllegalNumeralSyntaxException.Category.TWO_DLV_CHARS));
+        assertEquals(1, statistics.getInvalidLines(IllegalNumeralSyntaxException.Category.NON_ROMAN_CHARS));
+        assertEquals(1, statistics.getInvalidLines(IllegalNumeralSyntaxException.Category.GENERIC));
+        assertEquals("Count 1, sum 12, min 12, max 12, mean 12, median 12, 90th percentile 12, 99th percentile 12.\n"
+                + "Invalid lines 6: out of range 1, EMPTY 1, NON_ROMAN_CHARS 1, FOUR_CONSECUTIVE_CHARS 1, "
+                + "TWO_DLV_CHARS 1, GENERIC 1", statistics.toString());
+    }
+
+    @Test
+    public void partsScannedInParallelGiveTheSameHistogram() throws IOException, IllegalArabicValueException {
+        RomanConverter converter = new RomanConverter();
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        long[] expected = new long[RomanConverter.MAXINTEGER * 2 + 1];
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(expected.length) + RomanConverter.MININTEGER;
+            expected[value - RomanConverter.MININTEGER]++;
+            text.append(i % 2 == 0 ? converter.integerToRomanString(value) : String.valueOf(value)).append('\n');
+        }
+        Path file = write(text.toString());
+        RomanStatistics sequential = RomanStatistics.of(file, 1, 256);
+        RomanStatistics parallel = RomanStatistics.of(file, 4, 256);
+        assertArrayEquals(expected, sequential.getHistogram());
+        assertArrayEquals(expected, parallel.getHistogram());
+        assertEquals(5000, parallel.getCount());
+        assertEquals(sequential.getPercentile(99), parallel.getPercentile(99));
+    }
+
+    @Test
+    public void emptyFileHasNoValues() throws IOException {
+        RomanStatistics statistics = RomanStatistics.of(write(""), 4);
+        assertEquals(0, statistics.getCount());
+        assertEquals(0, Arrays.stream(statistics.getHistogram()).sum());
+        assertEquals("Count 0.\nInvalid lines 0: out of range 0", statistics.toString());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void whenThereAreNoValuesThenMedianIsMissing() throws IOException {
+        RomanStatistics.of(write("hello\n"), 1).getMedian();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2015, Matjaž <dev@matjaz.it> matjaz.it
+ *
+ * This Source Code Form is part of the project jNumerus, a roman numerals
+ * library for Java. The library and its source code may be found on:
+ * https://github.com/TheMatjaz/jNumerus/
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/
+ */
+package it.matjaz.jnumerus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * JUnit test of the Java 21 classes of the multi-release jar, run by the
+ * failsafe plugin on the packaged jar with a JDK 21 or newer, verifying that
+ * they replace the Java 8 ones and behave like them.
+ *
+ * @author Matjaž <a href="mailto:dev@matjaz.it">dev@matjaz.it</a>
+ * <a href="http://matjaz.it">matjaz.it</a>
+ */
+public class RomanMultiReleaseIT {
+
+    private static void assertLoadedFromVersion21(Class<?> type) {
+        String resource = type.getSimpleName() + ".class";
+        String location = type.getResource(resource).toString();
+        assertTrue(location, location.contains("!/META-INF/versions/21/"));
+    }
+
+    @Test
+    public void java21ClassesAreLoadedFromTheJar() {
+        assertLoadedFromVersion21(RomanThreads.class);
+        assertLoadedFromVersion21(RomanBuffers.class);
+        assertLoadedFromVersion21(RomanOrderedAccess.class);
+    }
+
+    @Test
+    public void executorRunsTasksOnVirtualThreads() throws Exception {
+        ExecutorService executor = RomanThreads.newVirtualThreadExecutor(1);
+        try {
+            Future<Boolean> virtual = executor.submit(() -> Thread.currentThread().isVirtual());
+            assertTrue(virtual.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void bulkPutLeavesThePositionUnchanged() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(16);
+        byte[] numeral = "MMXXI".getBytes(StandardCharsets.US_ASCII);
+        RomanBuffers.put(buffer, 3, numeral);
+        assertEquals(0, buffer.position());
+        byte[] actual = new byte[numeral.length];
+        buffer.get(3, actual);
+        assertArrayEquals(numeral, actual);
+    }
+
+    @Test
+    public void releasedValueIsAcquiredByAnotherThread() throws Exception {
+        ByteBuffer memory = ByteBuffer.allocateDirect(16);
+        Thread writer = new Thread(() -> {
+            memory.putLong(8, 3999L);
+            RomanOrderedAccess.setRelease(memory, 0, 1L);
+        });
+        writer.start();
+        while (RomanOrderedAccess.getAcquire(memory, 0) != 1L) {
+            Thread.onSpinWait();
+        }
+        assertEquals(3999L, memory.getLong(8));
+        writer.join();
+    }
+}